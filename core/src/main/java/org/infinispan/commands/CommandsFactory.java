@@ -92,6 +92,7 @@
 import org.infinispan.stream.impl.StreamResponseCommand;
 import org.infinispan.stream.impl.intops.IntermediateOperation;
 import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.xsite.BatchXSiteRpcCommand;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
 import org.infinispan.xsite.XSiteAdminCommand;
 import org.infinispan.xsite.statetransfer.XSiteState;
@@ -485,6 +486,14 @@ default ApplyDeltaCommand buildApplyDeltaCommand(Object deltaAwareValueKey, Delt
     */
    SingleXSiteRpcCommand buildSingleXSiteRpcCommand(VisitableCommand command);
 
+   /**
+    * Builds BatchXSiteRpcCommand used to perform several {@link org.infinispan.commands.VisitableCommand} on the
+    * backup site, in order.
+    * @param commands the visitable commands, already marshalled.
+    * @return the BatchXSiteRpcCommand created
+    */
+   BatchXSiteRpcCommand buildBatchXSiteRpcCommand(List<byte[]> commands);
+
    /**
     * Builds {@link org.infinispan.commands.remote.GetKeysInGroupCommand} used to fetch all the keys belonging to a group.
     *
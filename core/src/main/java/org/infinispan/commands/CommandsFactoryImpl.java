@@ -144,6 +144,7 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 import org.infinispan.xsite.BackupSender;
+import org.infinispan.xsite.BatchXSiteRpcCommand;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
 import org.infinispan.xsite.XSiteAdminCommand;
 import org.infinispan.xsite.statetransfer.XSiteState;
@@ -473,6 +474,10 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
             XSiteStatePushCommand xSiteStatePushCommand = (XSiteStatePushCommand) c;
             xSiteStatePushCommand.initialize(xSiteStateConsumer);
             break;
+         case BatchXSiteRpcCommand.COMMAND_ID:
+            BatchXSiteRpcCommand batchXSiteRpcCommand = (BatchXSiteRpcCommand) c;
+            batchXSiteRpcCommand.initialize(marshaller);
+            break;
          case GetKeysInGroupCommand.COMMAND_ID:
             GetKeysInGroupCommand getKeysInGroupCommand = (GetKeysInGroupCommand) c;
             getKeysInGroupCommand.setGroupManager(groupManager);
@@ -680,6 +685,11 @@ public SingleXSiteRpcCommand buildSingleXSiteRpcCommand(VisitableCommand command
       return new SingleXSiteRpcCommand(cacheName, command);
    }
 
+   @Override
+   public BatchXSiteRpcCommand buildBatchXSiteRpcCommand(List<byte[]> commands) {
+      return new BatchXSiteRpcCommand(cacheName, commands);
+   }
+
    @Override
    public GetKeysInGroupCommand buildGetKeysInGroupCommand(long flagsBitSet, Object groupName) {
       return new GetKeysInGroupCommand(flagsBitSet, groupName).setGroupManager(groupManager);
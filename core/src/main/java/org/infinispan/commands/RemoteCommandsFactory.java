@@ -65,6 +65,7 @@
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.manager.impl.ReplicableCommandManagerFunction;
 import org.infinispan.manager.impl.ReplicableCommandRunnable;
+import org.infinispan.remoting.transport.CommandBatch;
 import org.infinispan.statetransfer.StateRequestCommand;
 import org.infinispan.statetransfer.StateResponseCommand;
 import org.infinispan.stream.impl.StreamIteratorCloseCommand;
@@ -76,6 +77,7 @@
 import org.infinispan.topology.CacheTopologyControlCommand;
 import org.infinispan.topology.HeartBeatCommand;
 import org.infinispan.util.ByteString;
+import org.infinispan.xsite.BatchXSiteRpcCommand;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
 import org.infinispan.xsite.XSiteAdminCommand;
 import org.infinispan.xsite.statetransfer.XSiteStatePushCommand;
@@ -203,6 +205,9 @@ public ReplicableCommand fromStream(byte id, byte type) {
             case HeartBeatCommand.COMMAND_ID:
                command = HeartBeatCommand.INSTANCE;
                break;
+            case CommandBatch.COMMAND_ID:
+               command = new CommandBatch();
+               break;
             default:
                throw new CacheException("Unknown command id " + id + "!");
          }
@@ -309,6 +314,9 @@ public CacheRpcCommand fromStream(byte id, byte type, ByteString cacheName) {
             case SingleXSiteRpcCommand.COMMAND_ID:
                command = new SingleXSiteRpcCommand(cacheName);
                break;
+            case BatchXSiteRpcCommand.COMMAND_ID:
+               command = new BatchXSiteRpcCommand(cacheName);
+               break;
             case ClusteredGetAllCommand.COMMAND_ID:
                command = new ClusteredGetAllCommand(cacheName);
                break;
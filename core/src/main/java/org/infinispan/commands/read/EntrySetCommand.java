@@ -20,6 +20,7 @@
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.commons.util.RemovableIterator;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
@@ -156,16 +157,24 @@ private ToIntFunction<Object> getSegmentMapper(Cache<K, V> cache) {
          return null;
       }
 
+      private SegmentedDataContainer<K, V> getSegmentedContainer(Cache<K, V> cache) {
+         DataContainer<K, V> dc = cache.getAdvancedCache().getDataContainer();
+         if (dc instanceof SegmentedDataContainer) {
+            return (SegmentedDataContainer<K, V>) dc;
+         }
+         return null;
+      }
+
       @Override
       public CacheStream<CacheEntry<K, V>> stream() {
          return new LocalCacheStream<>(new EntryStreamSupplier<>(cache, getSegmentMapper(cache),
-                 super::stream), false, cache.getAdvancedCache().getComponentRegistry());
+                 super::stream, getSegmentedContainer(cache)), false, cache.getAdvancedCache().getComponentRegistry());
       }
 
       @Override
       public CacheStream<CacheEntry<K, V>> parallelStream() {
          return new LocalCacheStream<>(new EntryStreamSupplier<>(cache, getSegmentMapper(cache),
-                 super::stream), true, cache.getAdvancedCache().getComponentRegistry());
+                 super::stream, getSegmentedContainer(cache)), true, cache.getAdvancedCache().getComponentRegistry());
       }
    }
 }
@@ -15,14 +15,19 @@ public class AsyncStoreConfiguration {
    public static final AttributeDefinition<Boolean> ENABLED = AttributeDefinition.builder("enabled", false).immutable().build();
    public static final AttributeDefinition<Integer> MODIFICATION_QUEUE_SIZE  = AttributeDefinition.builder("modificationQueueSize", 1024).immutable().build();
    public static final AttributeDefinition<Integer> THREAD_POOL_SIZE = AttributeDefinition.builder("threadPoolSize", 1).immutable().build();
+   public static final AttributeDefinition<Long> MODIFICATION_QUEUE_MAX_BYTES = AttributeDefinition.builder("modificationQueueMaxBytes", 0L).immutable().build();
+   public static final AttributeDefinition<String> JOURNAL_LOCATION = AttributeDefinition.builder("journalLocation", null, String.class).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(AsyncStoreConfiguration.class, ENABLED, MODIFICATION_QUEUE_SIZE, THREAD_POOL_SIZE);
+      return new AttributeSet(AsyncStoreConfiguration.class, ENABLED, MODIFICATION_QUEUE_SIZE, THREAD_POOL_SIZE,
+            MODIFICATION_QUEUE_MAX_BYTES, JOURNAL_LOCATION);
    }
 
    private final Attribute<Boolean> enabled;
    private final Attribute<Integer> modificationQueueSize;
    private final Attribute<Integer> threadPoolSize;
+   private final Attribute<Long> modificationQueueMaxBytes;
+   private final Attribute<String> journalLocation;
 
    private final AttributeSet attributes;
 
@@ -31,6 +36,8 @@ static AttributeSet attributeDefinitionSet() {
       enabled = attributes.attribute(ENABLED);
       modificationQueueSize = attributes.attribute(MODIFICATION_QUEUE_SIZE);
       threadPoolSize = attributes.attribute(THREAD_POOL_SIZE);
+      modificationQueueMaxBytes = attributes.attribute(MODIFICATION_QUEUE_MAX_BYTES);
+      journalLocation = attributes.attribute(JOURNAL_LOCATION);
    }
 
    /**
@@ -89,6 +96,23 @@ public int threadPoolSize() {
       return threadPoolSize.get();
    }
 
+   /**
+    * The maximum size in bytes of the marshalled keys, values and metadata in the modification queue. Like
+    * {@link #modificationQueueSize()}, writers block while the queue is full. 0, the default, means no limit.
+    */
+   public long modificationQueueMaxBytes() {
+      return modificationQueueMaxBytes.get();
+   }
+
+   /**
+    * If set, the directory where the queued modifications are journaled before being applied to the store. The
+    * modifications that were not applied when the cache stopped abruptly are applied when the store is started again.
+    * By default the modifications are only kept in memory.
+    */
+   public String journalLocation() {
+      return journalLocation.get();
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
@@ -1,6 +1,8 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.ENABLED;
+import static org.infinispan.configuration.cache.AsyncStoreConfiguration.JOURNAL_LOCATION;
+import static org.infinispan.configuration.cache.AsyncStoreConfiguration.MODIFICATION_QUEUE_MAX_BYTES;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.MODIFICATION_QUEUE_SIZE;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.THREAD_POOL_SIZE;
 
@@ -9,6 +11,8 @@
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
 
 /**
  * Configuration for the async cache store. If enabled, this provides you with asynchronous writes
@@ -18,6 +22,7 @@
  *
  */
 public class AsyncStoreConfigurationBuilder<S> extends AbstractStoreConfigurationChildBuilder<S> implements Builder<AsyncStoreConfiguration> {
+   private static final Log log = LogFactory.getLog(AsyncStoreConfigurationBuilder.class);
    private final AttributeSet attributes;
 
    AsyncStoreConfigurationBuilder(AbstractStoreConfigurationBuilder<? extends AbstractStoreConfiguration, ?> builder) {
@@ -94,9 +99,29 @@ public AsyncStoreConfigurationBuilder<S> threadPoolSize(int i) {
       return this;
    }
 
+   /**
+    * Sets the maximum size in bytes of the marshalled keys, values and metadata in the modification queue. Writers
+    * block while the queue is full. 0, the default, means no limit.
+    */
+   public AsyncStoreConfigurationBuilder<S> modificationQueueMaxBytes(long maxBytes) {
+      attributes.attribute(MODIFICATION_QUEUE_MAX_BYTES).set(maxBytes);
+      return this;
+   }
+
+   /**
+    * Sets the directory where the queued modifications are journaled, so that the modifications not yet applied to the
+    * store when the cache stopped abruptly are applied when it starts again.
+    */
+   public AsyncStoreConfigurationBuilder<S> journalLocation(String location) {
+      attributes.attribute(JOURNAL_LOCATION).set(location);
+      return this;
+   }
+
    @Override
    public
    void validate() {
+      if (attributes.attribute(MODIFICATION_QUEUE_MAX_BYTES).get() < 0)
+         throw log.invalidModificationQueueMaxBytes(attributes.attribute(MODIFICATION_QUEUE_MAX_BYTES).get());
    }
 
    @Override
@@ -16,9 +16,11 @@ public class BackupConfiguration {
    public static final AttributeDefinition<String> FAILURE_POLICY_CLASS = AttributeDefinition.builder("failurePolicyClass", null, String.class).immutable().build();
    public static final AttributeDefinition<Boolean> USE_TWO_PHASE_COMMIT = AttributeDefinition.builder("useTwoPhaseCommit", false).immutable().xmlName("two-phase-commit").build();
    public static final AttributeDefinition<Boolean> ENABLED = AttributeDefinition.builder("enabled", true).immutable().build();
+   public static final AttributeDefinition<Integer> ASYNC_BATCH_SIZE = AttributeDefinition.builder("asyncBatchSize", 0).immutable().build();
+   public static final AttributeDefinition<Integer> ASYNC_QUEUE_SIZE = AttributeDefinition.builder("asyncQueueSize", 10000).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(BackupConfiguration.class, SITE, STRATEGY, REPLICATION_TIMEOUT, FAILURE_POLICY,  FAILURE_POLICY_CLASS, USE_TWO_PHASE_COMMIT, ENABLED);
+      return new AttributeSet(BackupConfiguration.class, SITE, STRATEGY, REPLICATION_TIMEOUT, FAILURE_POLICY,  FAILURE_POLICY_CLASS, USE_TWO_PHASE_COMMIT, ENABLED, ASYNC_BATCH_SIZE, ASYNC_QUEUE_SIZE);
    }
 
    private final Attribute<String> site;
@@ -28,6 +30,8 @@ static AttributeSet attributeDefinitionSet() {
    private final Attribute<String> failurePolicyClass;
    private final Attribute<Boolean> useTwoPhaseCommit;
    private final Attribute<Boolean> enabled;
+   private final Attribute<Integer> asyncBatchSize;
+   private final Attribute<Integer> asyncQueueSize;
    private final AttributeSet attributes;
    private final TakeOfflineConfiguration takeOfflineConfiguration;
    private final XSiteStateTransferConfiguration xSiteStateTransferConfiguration ;
@@ -43,6 +47,8 @@ public BackupConfiguration(AttributeSet attributes, TakeOfflineConfiguration tak
       this.failurePolicyClass = attributes.attribute(FAILURE_POLICY_CLASS);
       this.useTwoPhaseCommit = attributes.attribute(USE_TWO_PHASE_COMMIT);
       this.enabled = attributes.attribute(ENABLED);
+      this.asyncBatchSize = attributes.attribute(ASYNC_BATCH_SIZE);
+      this.asyncQueueSize = attributes.attribute(ASYNC_QUEUE_SIZE);
    }
 
    /**
@@ -103,6 +109,20 @@ public boolean enabled() {
       return enabled.get();
    }
 
+   /**
+    * @see BackupConfigurationBuilder#asyncBatchSize(int).
+    */
+   public int asyncBatchSize() {
+      return asyncBatchSize.get();
+   }
+
+   /**
+    * @see BackupConfigurationBuilder#asyncQueueSize(int).
+    */
+   public int asyncQueueSize() {
+      return asyncQueueSize.get();
+   }
+
    public XSiteStateTransferConfiguration stateTransfer() {
       return xSiteStateTransferConfiguration;
    }
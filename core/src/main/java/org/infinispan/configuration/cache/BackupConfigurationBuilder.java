@@ -1,5 +1,7 @@
 package org.infinispan.configuration.cache;
 
+import static org.infinispan.configuration.cache.BackupConfiguration.ASYNC_BATCH_SIZE;
+import static org.infinispan.configuration.cache.BackupConfiguration.ASYNC_QUEUE_SIZE;
 import static org.infinispan.configuration.cache.BackupConfiguration.ENABLED;
 import static org.infinispan.configuration.cache.BackupConfiguration.FAILURE_POLICY;
 import static org.infinispan.configuration.cache.BackupConfiguration.FAILURE_POLICY_CLASS;
@@ -13,6 +15,7 @@
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.transaction.TransactionMode;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -120,6 +123,26 @@ public BackupConfigurationBuilder enabled(boolean isEnabled) {
       return this;
    }
 
+   /**
+    * The maximum number of writes sent to an ASYNC backup site in a single message. When greater than 0, the writes
+    * are queued, coalesced per key and sent in batches, with a single batch in flight at a time. It is not supported
+    * by transactional caches. The default value is 0: each write is sent in its own message.
+    */
+   public BackupConfigurationBuilder asyncBatchSize(int asyncBatchSize) {
+      attributes.attribute(ASYNC_BATCH_SIZE).set(asyncBatchSize);
+      return this;
+   }
+
+   /**
+    * The maximum number of writes waiting to be sent to an ASYNC backup site, when {@link #asyncBatchSize(int)} is
+    * greater than 0. When the queue is full, the writers wait up to the backup timeout for the site to catch up, and
+    * the wait counts as a failure towards taking the site offline. The default value is 10000.
+    */
+   public BackupConfigurationBuilder asyncQueueSize(int asyncQueueSize) {
+      attributes.attribute(ASYNC_QUEUE_SIZE).set(asyncQueueSize);
+      return this;
+   }
+
    public XSiteStateTransferConfigurationBuilder stateTransfer() {
       return this.stateTransferBuilder;
    }
@@ -136,6 +159,16 @@ public void validate() {
       if (attributes.attribute(USE_TWO_PHASE_COMMIT).get() && attributes.attribute(STRATEGY).get() == BackupConfiguration.BackupStrategy.ASYNC) {
          throw log.twoPhaseCommitAsyncBackup();
       }
+      int asyncBatchSize = attributes.attribute(ASYNC_BATCH_SIZE).get();
+      int asyncQueueSize = attributes.attribute(ASYNC_QUEUE_SIZE).get();
+      if (asyncBatchSize < 0 || (asyncBatchSize > 0 && asyncQueueSize < asyncBatchSize)) {
+         throw log.invalidAsyncBackupQueue(attributes.attribute(SITE).get(), asyncBatchSize, asyncQueueSize);
+      }
+      TransactionMode transactionMode = getBuilder().transaction().transactionMode();
+      if (asyncBatchSize > 0 && transactionMode != null && transactionMode.isTransactional()) {
+         //the prepares are not queued, so they could be applied before the writes queued earlier
+         throw log.asyncBackupQueueTransactional(attributes.attribute(SITE).get());
+      }
    }
 
    @Override
@@ -19,16 +19,18 @@ public class LockingConfiguration implements Matchable<LockingConfiguration> {
    public static final AttributeDefinition<IsolationLevel> ISOLATION_LEVEL  = AttributeDefinition.builder("isolationLevel", IsolationLevel.REPEATABLE_READ).xmlName("isolation").immutable().build();
    public static final AttributeDefinition<Long> LOCK_ACQUISITION_TIMEOUT  = AttributeDefinition.builder("lockAcquisitionTimeout", TimeUnit.SECONDS.toMillis(10)).xmlName("acquire-timeout").build();
    public static final AttributeDefinition<Boolean> USE_LOCK_STRIPING = AttributeDefinition.builder("striping", false).immutable().build();
+   public static final AttributeDefinition<Boolean> ADAPTIVE_LOCK_STRIPING = AttributeDefinition.builder("adaptiveStriping", false).xmlName("adaptive-striping").immutable().build();
    public static final AttributeDefinition<Boolean> WRITE_SKEW_CHECK = AttributeDefinition.builder("writeSkewCheck", true).xmlName("write-skew").immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(LockingConfiguration.class, CONCURRENCY_LEVEL, ISOLATION_LEVEL, LOCK_ACQUISITION_TIMEOUT, USE_LOCK_STRIPING, WRITE_SKEW_CHECK);
+      return new AttributeSet(LockingConfiguration.class, CONCURRENCY_LEVEL, ISOLATION_LEVEL, LOCK_ACQUISITION_TIMEOUT, USE_LOCK_STRIPING, ADAPTIVE_LOCK_STRIPING, WRITE_SKEW_CHECK);
    }
 
    private final Attribute<Integer> concurrencyLevel;
    private final Attribute<IsolationLevel> isolationLevel;
    private final Attribute<Long> lockAcquisitionTimeout;
    private final Attribute<Boolean> useLockStriping;
+   private final Attribute<Boolean> adaptiveLockStriping;
 
    private final AttributeSet attributes;
 
@@ -39,6 +41,7 @@ static AttributeSet attributeDefinitionSet() {
       isolationLevel = attributes.attribute(ISOLATION_LEVEL);
       lockAcquisitionTimeout = attributes.attribute(LOCK_ACQUISITION_TIMEOUT);
       useLockStriping = attributes.attribute(USE_LOCK_STRIPING);
+      adaptiveLockStriping = attributes.attribute(ADAPTIVE_LOCK_STRIPING);
    }
 
    /**
@@ -93,6 +96,14 @@ public boolean useLockStriping() {
       return useLockStriping.get();
    }
 
+   /**
+    * If true, and lock striping is enabled, the keys whose lock acquisitions are repeatedly contended get a dedicated
+    * lock while the contention lasts. The other keys keep sharing the pool of locks.
+    */
+   public boolean adaptiveLockStriping() {
+      return adaptiveLockStriping.get();
+   }
+
    /**
     * This setting is only applicable in the case of REPEATABLE_READ. When write skew check is set
     * to false, if the writer at commit time discovers that the working entry and the underlying
@@ -1,5 +1,6 @@
 package org.infinispan.configuration.cache;
 
+import static org.infinispan.configuration.cache.LockingConfiguration.ADAPTIVE_LOCK_STRIPING;
 import static org.infinispan.configuration.cache.LockingConfiguration.CONCURRENCY_LEVEL;
 import static org.infinispan.configuration.cache.LockingConfiguration.ISOLATION_LEVEL;
 import static org.infinispan.configuration.cache.LockingConfiguration.LOCK_ACQUISITION_TIMEOUT;
@@ -94,6 +95,16 @@ public LockingConfigurationBuilder useLockStriping(boolean b) {
       return this;
    }
 
+   /**
+    * If true, and lock striping is enabled, the keys whose lock acquisitions are repeatedly contended get a dedicated
+    * lock while the contention lasts. The other keys keep sharing the pool of locks, so the memory footprint stays
+    * close to the one of lock striping while the hot keys no longer block the unrelated keys mapped to the same lock.
+    */
+   public LockingConfigurationBuilder adaptiveLockStriping(boolean b) {
+      attributes.attribute(ADAPTIVE_LOCK_STRIPING).set(b);
+      return this;
+   }
+
    /**
     * This setting is only applicable in the case of REPEATABLE_READ. When write skew check is set
     * to false, if the writer at commit time discovers that the working entry and the underlying
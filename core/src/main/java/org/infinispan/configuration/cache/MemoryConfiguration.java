@@ -21,10 +21,12 @@ public class MemoryConfiguration implements Matchable<MemoryConfiguration> {
    public static final AttributeDefinition<Long> SIZE  = AttributeDefinition.builder("size", -1L).build();
    public static final AttributeDefinition<EvictionType> EVICTION_TYPE  = AttributeDefinition.builder("type", EvictionType.COUNT).build();
    public static final AttributeDefinition<EvictionStrategy> EVICTION_STRATEGY = AttributeDefinition.builder("strategy", EvictionStrategy.NONE).build();
+   public static final AttributeDefinition<OffHeapAllocatorType> ALLOCATOR_TYPE = AttributeDefinition.builder("allocator", OffHeapAllocatorType.UNPOOLED).immutable().build();
+   public static final AttributeDefinition<Boolean> SEGMENTED = AttributeDefinition.builder("segmented", false).immutable().build();
 
    static public AttributeSet attributeDefinitionSet() {
       return new AttributeSet(MemoryConfiguration.class, AbstractTypedPropertiesConfiguration.attributeSet(),
-            STORAGE_TYPE, SIZE, EVICTION_TYPE, EVICTION_STRATEGY, ADDRESS_COUNT);
+            STORAGE_TYPE, SIZE, EVICTION_TYPE, EVICTION_STRATEGY, ADDRESS_COUNT, SEGMENTED, ALLOCATOR_TYPE);
    }
 
    private final Attribute<Long> size;
@@ -32,6 +34,8 @@ static public AttributeSet attributeDefinitionSet() {
    private final Attribute<EvictionStrategy> evictionStrategy;
    private final Attribute<StorageType> storageType;
    private final Attribute<Integer> addressCount;
+   private final Attribute<Boolean> segmented;
+   private final Attribute<OffHeapAllocatorType> allocatorType;
    private final AttributeSet attributes;
 
    MemoryConfiguration(AttributeSet attributes) {
@@ -41,6 +45,8 @@ static public AttributeSet attributeDefinitionSet() {
       evictionType = attributes.attribute(EVICTION_TYPE);
       evictionStrategy = attributes.attribute(EVICTION_STRATEGY);
       addressCount = attributes.attribute(ADDRESS_COUNT);
+      segmented = attributes.attribute(SEGMENTED);
+      allocatorType = attributes.attribute(ALLOCATOR_TYPE);
    }
 
    /**
@@ -95,6 +101,24 @@ public int addressCount() {
       return addressCount.get();
    }
 
+   /**
+    * Whether the data container stores its entries separately per segment. See
+    * {@link MemoryConfigurationBuilder#segmented(boolean)} for more information.
+    * @return whether the data container is segmented
+    */
+   public boolean segmented() {
+      return segmented.get();
+   }
+
+   /**
+    * The allocator used to store entries when using off-heap storage. See
+    * {@link MemoryConfigurationBuilder#allocatorType(OffHeapAllocatorType)} for more information.
+    * @return the configured allocator
+    */
+   public OffHeapAllocatorType allocatorType() {
+      return allocatorType.get();
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
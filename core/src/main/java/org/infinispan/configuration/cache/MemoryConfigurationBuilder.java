@@ -1,8 +1,10 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.configuration.cache.MemoryConfiguration.ADDRESS_COUNT;
+import static org.infinispan.configuration.cache.MemoryConfiguration.ALLOCATOR_TYPE;
 import static org.infinispan.configuration.cache.MemoryConfiguration.EVICTION_STRATEGY;
 import static org.infinispan.configuration.cache.MemoryConfiguration.EVICTION_TYPE;
+import static org.infinispan.configuration.cache.MemoryConfiguration.SEGMENTED;
 import static org.infinispan.configuration.cache.MemoryConfiguration.SIZE;
 import static org.infinispan.configuration.cache.MemoryConfiguration.STORAGE_TYPE;
 
@@ -130,6 +132,9 @@ public EvictionStrategy evictionStrategy() {
     * more address pointers there are the less collisions there will be which improve performance of
     * both read and write operations. This is only used when OFF_HEAP storage type is configured
     * {@link MemoryConfigurationBuilder#storageType(StorageType)}.
+    * <p>
+    * Unless eviction is based on {@link EvictionType#MEMORY} this is only the initial amount, as the address
+    * pointers are doubled whenever the number of entries exceeds three quarters of them.
     * @param addressCount
     * @return this
     */
@@ -147,6 +152,50 @@ public int addressCount() {
       return attributes.attribute(ADDRESS_COUNT).get();
    }
 
+   /**
+    * Configuration setting when using off-heap that defines how the native memory for entries is allocated. The
+    * default {@link OffHeapAllocatorType#UNPOOLED} allocator performs a native allocation for every entry written,
+    * whereas {@link OffHeapAllocatorType#POOLED} reuses memory from previously freed entries of a similar size. This
+    * is only used when OFF_HEAP storage type is configured {@link MemoryConfigurationBuilder#storageType(StorageType)}.
+    * @param allocatorType the allocator to use
+    * @return this
+    */
+   public MemoryConfigurationBuilder allocatorType(OffHeapAllocatorType allocatorType) {
+      attributes.attribute(ALLOCATOR_TYPE).set(allocatorType);
+      return this;
+   }
+
+   /**
+    * The allocator configured for the off heap storage. See
+    * {@link MemoryConfigurationBuilder#allocatorType(OffHeapAllocatorType)} for more information.
+    * @return the configured allocator
+    */
+   public OffHeapAllocatorType allocatorType() {
+      return attributes.attribute(ALLOCATOR_TYPE).get();
+   }
+
+   /**
+    * Configures the data container to keep the entries of every segment in its own map. This allows operations that
+    * only care about a subset of segments, such as state transfer and segment filtered streams, to only visit the
+    * entries of those segments, and the segments no longer owned after a rebalance to be dropped at once. This is
+    * currently only supported with the OBJECT or BINARY storage types when eviction is not enabled.
+    * @param segmented whether the data container is segmented
+    * @return this
+    */
+   public MemoryConfigurationBuilder segmented(boolean segmented) {
+      attributes.attribute(SEGMENTED).set(segmented);
+      return this;
+   }
+
+   /**
+    * Whether the data container is segmented. See {@link MemoryConfigurationBuilder#segmented(boolean)} for more
+    * information.
+    * @return whether the data container is segmented
+    */
+   public boolean segmented() {
+      return attributes.attribute(SEGMENTED).get();
+   }
+
    @Override
    public void validate() {
       StorageType type = attributes.attribute(STORAGE_TYPE).get();
@@ -171,6 +220,10 @@ public void validate() {
          }
       }
 
+      if (attributes.attribute(SEGMENTED).get() && (type == StorageType.OFF_HEAP || size > 0)) {
+         throw log.segmentedDataContainerNotSupported(type, size);
+      }
+
       EvictionStrategy strategy = attributes.attribute(EVICTION_STRATEGY).get();
       if (!strategy.isEnabled()) {
          if (size > 0) {
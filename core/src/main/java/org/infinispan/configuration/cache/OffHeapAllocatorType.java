@@ -0,0 +1,19 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Enumeration defining how memory is allocated when entries are stored off-heap
+ * @since 9.2
+ */
+public enum OffHeapAllocatorType {
+   /**
+    * Every entry is allocated and freed directly from the system. This has no memory overhead besides the system
+    * allocator itself, but requires a native allocation and free for every write.
+    */
+   UNPOOLED,
+   /**
+    * Entries are carved out of large slabs of memory grouped by size, and freed memory is kept to be reused by later
+    * writes. This avoids native allocations on most writes, at the cost of some memory lost to rounding entries up to
+    * their size class.
+    */
+   POOLED
+}
@@ -13,17 +13,42 @@
  */
 public class PersistenceConfiguration implements Matchable<PersistenceConfiguration> {
    public static final AttributeDefinition<Boolean> PASSIVATION = AttributeDefinition.builder("passivation", false).immutable().build();
+   public static final AttributeDefinition<Boolean> GROUP_COMMIT = AttributeDefinition.builder("groupCommit", false).immutable().build();
+   public static final AttributeDefinition<Long> GROUP_COMMIT_WINDOW = AttributeDefinition.builder("groupCommitWindow", 0L).immutable().build();
+   public static final AttributeDefinition<Boolean> BLOOM_FILTER = AttributeDefinition.builder("bloomFilter", false).immutable().build();
+   public static final AttributeDefinition<Long> BLOOM_FILTER_EXPECTED_ENTRIES = AttributeDefinition.builder("bloomFilterExpectedEntries", 1_000_000L).immutable().build();
+   public static final AttributeDefinition<Double> BLOOM_FILTER_FALSE_POSITIVE_RATE = AttributeDefinition.builder("bloomFilterFalsePositiveRate", 0.01).immutable().build();
+   public static final AttributeDefinition<Integer> PRELOAD_THREADS = AttributeDefinition.builder("preloadThreads", 1).immutable().build();
+   public static final AttributeDefinition<Integer> PRELOAD_BATCH_SIZE = AttributeDefinition.builder("preloadBatchSize", 1000).immutable().build();
+   public static final AttributeDefinition<Boolean> TIERED = AttributeDefinition.builder("tiered", false).immutable().build();
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(PersistenceConfiguration.class, PASSIVATION);
+      return new AttributeSet(PersistenceConfiguration.class, PASSIVATION, GROUP_COMMIT, GROUP_COMMIT_WINDOW, BLOOM_FILTER,
+            BLOOM_FILTER_EXPECTED_ENTRIES, BLOOM_FILTER_FALSE_POSITIVE_RATE, PRELOAD_THREADS, PRELOAD_BATCH_SIZE, TIERED);
    }
 
    private final Attribute<Boolean> passivation;
+   private final Attribute<Boolean> groupCommit;
+   private final Attribute<Long> groupCommitWindow;
+   private final Attribute<Boolean> bloomFilter;
+   private final Attribute<Long> bloomFilterExpectedEntries;
+   private final Attribute<Double> bloomFilterFalsePositiveRate;
+   private final Attribute<Integer> preloadThreads;
+   private final Attribute<Integer> preloadBatchSize;
+   private final Attribute<Boolean> tiered;
    private final AttributeSet attributes;
    private final List<StoreConfiguration> stores;
 
    PersistenceConfiguration(AttributeSet attributes, List<StoreConfiguration> stores) {
       this.attributes = attributes.checkProtection();
       passivation = attributes.attribute(PASSIVATION);
+      groupCommit = attributes.attribute(GROUP_COMMIT);
+      groupCommitWindow = attributes.attribute(GROUP_COMMIT_WINDOW);
+      bloomFilter = attributes.attribute(BLOOM_FILTER);
+      bloomFilterExpectedEntries = attributes.attribute(BLOOM_FILTER_EXPECTED_ENTRIES);
+      bloomFilterFalsePositiveRate = attributes.attribute(BLOOM_FILTER_FALSE_POSITIVE_RATE);
+      preloadThreads = attributes.attribute(PRELOAD_THREADS);
+      preloadBatchSize = attributes.attribute(PRELOAD_BATCH_SIZE);
+      tiered = attributes.attribute(TIERED);
       this.stores = stores;
    }
 
@@ -40,6 +65,73 @@ public boolean passivation() {
       return passivation.get();
    }
 
+   /**
+    * If true, concurrent write-through modifications are coalesced and applied to every non transactional store with
+    * a single {@link org.infinispan.persistence.spi.CacheWriter#writeBatch(Iterable)} and
+    * {@link org.infinispan.persistence.spi.CacheWriter#deleteBatch(Iterable)} invocation. Each caller still returns only
+    * once the batch containing its modification has been written.
+    */
+   public boolean groupCommit() {
+      return groupCommit.get();
+   }
+
+   /**
+    * The time in milliseconds a group commit waits for further modifications before writing the batch. With the
+    * default of 0 a batch contains the modifications that arrived while the previous batch was being written.
+    */
+   public long groupCommitWindow() {
+      return groupCommitWindow.get();
+   }
+
+   /**
+    * If true, a Bloom filter of the keys written to the stores is kept in memory, so that loading a key that is in none
+    * of the stores does not need to query them. The filter is rebuilt from the stores when the cache starts.
+    */
+   public boolean bloomFilter() {
+      return bloomFilter.get();
+   }
+
+   /**
+    * The number of keys the Bloom filter is sized for. Once more keys are stored the filter answers more lookups with
+    * a false positive, which makes them query the stores.
+    */
+   public long bloomFilterExpectedEntries() {
+      return bloomFilterExpectedEntries.get();
+   }
+
+   /**
+    * The probability of the Bloom filter not skipping the stores for a key that is in none of them, once the expected
+    * number of keys has been stored.
+    */
+   public double bloomFilterFalsePositiveRate() {
+      return bloomFilterFalsePositiveRate.get();
+   }
+
+   /**
+    * The number of threads inserting the preloaded entries into the cache. With more than one thread the entries are
+    * partitioned by segment, so that all the entries of a segment are inserted by the same thread.
+    */
+   public int preloadThreads() {
+      return preloadThreads.get();
+   }
+
+   /**
+    * The number of preloaded entries each thread inserts at a time, within a single transaction for transactional
+    * caches. Only used when {@link #preloadThreads()} is greater than 1.
+    */
+   public int preloadBatchSize() {
+      return preloadBatchSize.get();
+   }
+
+   /**
+    * If true, passivation keeps the entries in the stores when they are activated, so that an entry which is evicted
+    * again without having been modified in memory does not need to be written back. The stores then hold the cold
+    * entries and a copy of the hot entries that were loaded from them. Only applies with {@link #passivation()}.
+    */
+   public boolean tiered() {
+      return tiered.get();
+   }
+
    public List<StoreConfiguration> stores() {
       return stores;
    }
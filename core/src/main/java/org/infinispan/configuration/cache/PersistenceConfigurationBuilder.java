@@ -1,6 +1,14 @@
 package org.infinispan.configuration.cache;
 
+import static org.infinispan.configuration.cache.PersistenceConfiguration.BLOOM_FILTER;
+import static org.infinispan.configuration.cache.PersistenceConfiguration.BLOOM_FILTER_EXPECTED_ENTRIES;
+import static org.infinispan.configuration.cache.PersistenceConfiguration.BLOOM_FILTER_FALSE_POSITIVE_RATE;
+import static org.infinispan.configuration.cache.PersistenceConfiguration.GROUP_COMMIT;
+import static org.infinispan.configuration.cache.PersistenceConfiguration.GROUP_COMMIT_WINDOW;
 import static org.infinispan.configuration.cache.PersistenceConfiguration.PASSIVATION;
+import static org.infinispan.configuration.cache.PersistenceConfiguration.PRELOAD_BATCH_SIZE;
+import static org.infinispan.configuration.cache.PersistenceConfiguration.PRELOAD_THREADS;
+import static org.infinispan.configuration.cache.PersistenceConfiguration.TIERED;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
@@ -48,6 +56,89 @@ boolean passivation() {
       return attributes.attribute(PASSIVATION).get();
    }
 
+   /**
+    * If true, concurrent write-through modifications are coalesced and applied to every non transactional store with
+    * a single {@link org.infinispan.persistence.spi.CacheWriter#writeBatch(Iterable)} and
+    * {@link org.infinispan.persistence.spi.CacheWriter#deleteBatch(Iterable)} invocation. Each caller still returns only
+    * once the batch containing its modification has been written. Defaults to false.
+    */
+   public PersistenceConfigurationBuilder groupCommit(boolean b) {
+      attributes.attribute(GROUP_COMMIT).set(b);
+      return this;
+   }
+
+   /**
+    * The time a group commit waits for further modifications before writing the batch. With the default of 0 a batch
+    * contains the modifications that arrived while the previous batch was being written.
+    */
+   public PersistenceConfigurationBuilder groupCommitWindow(long l) {
+      attributes.attribute(GROUP_COMMIT_WINDOW).set(l);
+      return this;
+   }
+
+   /**
+    * The time a group commit waits for further modifications before writing the batch.
+    */
+   public PersistenceConfigurationBuilder groupCommitWindow(long l, TimeUnit unit) {
+      return groupCommitWindow(unit.toMillis(l));
+   }
+
+   /**
+    * If true, a Bloom filter of the keys written to the stores is kept in memory, so that loading a key that is in none
+    * of the stores does not need to query them. The filter is rebuilt from the stores when the cache starts, so every
+    * loader must implement {@link org.infinispan.persistence.spi.AdvancedCacheLoader} and stores cannot be shared, as
+    * the keys written by other nodes would be missing from the filter. Defaults to false.
+    */
+   public PersistenceConfigurationBuilder bloomFilter(boolean b) {
+      attributes.attribute(BLOOM_FILTER).set(b);
+      return this;
+   }
+
+   /**
+    * The number of keys the Bloom filter is sized for. Defaults to 1000000.
+    */
+   public PersistenceConfigurationBuilder bloomFilterExpectedEntries(long expectedEntries) {
+      attributes.attribute(BLOOM_FILTER_EXPECTED_ENTRIES).set(expectedEntries);
+      return this;
+   }
+
+   /**
+    * The probability of the Bloom filter not skipping the stores for a key that is in none of them, once the expected
+    * number of keys has been stored. Defaults to 0.01.
+    */
+   public PersistenceConfigurationBuilder bloomFilterFalsePositiveRate(double falsePositiveRate) {
+      attributes.attribute(BLOOM_FILTER_FALSE_POSITIVE_RATE).set(falsePositiveRate);
+      return this;
+   }
+
+   /**
+    * If true, passivation keeps the entries in the stores when they are activated, so that an entry which is evicted
+    * again without having been modified in memory does not need to be written back, and removes them from the stores
+    * only when they are removed from the cache. Requires {@link #passivation(boolean)} and stores that are not shared.
+    * Defaults to false.
+    */
+   public PersistenceConfigurationBuilder tiered(boolean b) {
+      attributes.attribute(TIERED).set(b);
+      return this;
+   }
+
+   /**
+    * The number of threads inserting the preloaded entries into the cache. Defaults to 1, which preloads the entries
+    * one by one on the thread starting the cache.
+    */
+   public PersistenceConfigurationBuilder preloadThreads(int preloadThreads) {
+      attributes.attribute(PRELOAD_THREADS).set(preloadThreads);
+      return this;
+   }
+
+   /**
+    * The number of preloaded entries each thread inserts at a time. Defaults to 1000.
+    */
+   public PersistenceConfigurationBuilder preloadBatchSize(int preloadBatchSize) {
+      attributes.attribute(PRELOAD_BATCH_SIZE).set(preloadBatchSize);
+      return this;
+   }
+
    /**
     * Adds a cache loader which uses the specified builder class to build its configuration
     */
@@ -120,6 +211,37 @@ public void validate() {
       }
       if (numFetchPersistentState > 1)
          throw log.onlyOneFetchPersistentStoreAllowed();
+      if (attributes.attribute(BLOOM_FILTER).get()) {
+         for (StoreConfigurationBuilder<?, ?> b : stores) {
+            StoreConfiguration storeConfiguration = b.create();
+            if (storeConfiguration.shared())
+               throw log.bloomFilterWithSharedStore(storeConfiguration.getClass().getSimpleName());
+         }
+         if (attributes.attribute(BLOOM_FILTER_EXPECTED_ENTRIES).get() <= 0)
+            throw log.invalidBloomFilterExpectedEntries(attributes.attribute(BLOOM_FILTER_EXPECTED_ENTRIES).get());
+         double falsePositiveRate = attributes.attribute(BLOOM_FILTER_FALSE_POSITIVE_RATE).get();
+         if (falsePositiveRate <= 0 || falsePositiveRate >= 1)
+            throw log.invalidBloomFilterFalsePositiveRate(falsePositiveRate);
+      }
+      if (attributes.attribute(PRELOAD_THREADS).get() < 1)
+         throw log.invalidPreloadThreads(attributes.attribute(PRELOAD_THREADS).get());
+      if (attributes.attribute(PRELOAD_BATCH_SIZE).get() < 1)
+         throw log.invalidPreloadBatchSize(attributes.attribute(PRELOAD_BATCH_SIZE).get());
+      if (attributes.attribute(TIERED).get()) {
+         if (!passivation())
+            throw log.tieredWithoutPassivation();
+         for (StoreConfigurationBuilder<?, ?> b : stores) {
+            StoreConfiguration storeConfiguration = b.create();
+            if (storeConfiguration.shared())
+               throw log.tieredWithSharedStore(storeConfiguration.getClass().getSimpleName());
+         }
+      }
+      if (attributes.attribute(GROUP_COMMIT).get()) {
+         if (passivation())
+            throw log.groupCommitWithPassivation();
+         if (attributes.attribute(GROUP_COMMIT_WINDOW).get() < 0)
+            throw log.invalidGroupCommitWindow(attributes.attribute(GROUP_COMMIT_WINDOW).get());
+      }
 
       // If we have a store we have to guarantee the reaper expiration thread is enabled
       if (!stores.isEmpty()) {
@@ -20,13 +20,22 @@ public class SingleFileStoreConfiguration extends AbstractStoreConfiguration imp
    public static final AttributeDefinition<String> LOCATION = AttributeDefinition.builder("location", "Infinispan-SingleFileStore").immutable().xmlName("path").global(false).build();
    public static final AttributeDefinition<Integer> MAX_ENTRIES = AttributeDefinition.builder("maxEntries", -1).immutable().build();
    public static final AttributeDefinition<Float> FRAGMENTATION_FACTOR = AttributeDefinition.builder("fragmentationFactor", 0.75f).immutable().build();
+   public static final AttributeDefinition<Boolean> LOG_STRUCTURED = AttributeDefinition.builder("logStructured", false).immutable().build();
+   public static final AttributeDefinition<Integer> MAX_FILE_SIZE = AttributeDefinition.builder("maxFileSize", 16 * 1024 * 1024).immutable().build();
+   public static final AttributeDefinition<Double> COMPACTION_THRESHOLD = AttributeDefinition.builder("compactionThreshold", 0.5d).immutable().build();
+   public static final AttributeDefinition<Long> CHECKPOINT_INTERVAL = AttributeDefinition.builder("checkpointInterval", 60000L).immutable().build();
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, MAX_ENTRIES, FRAGMENTATION_FACTOR);
+      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, MAX_ENTRIES, FRAGMENTATION_FACTOR,
+            LOG_STRUCTURED, MAX_FILE_SIZE, COMPACTION_THRESHOLD, CHECKPOINT_INTERVAL);
    }
 
    private final Attribute<String> location;
    private final Attribute<Integer> maxEntries;
    private final Attribute<Float> fragmentationFactor;
+   private final Attribute<Boolean> logStructured;
+   private final Attribute<Integer> maxFileSize;
+   private final Attribute<Double> compactionThreshold;
+   private final Attribute<Long> checkpointInterval;
 
    public SingleFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async,
                                        SingletonStoreConfiguration singletonStore) {
@@ -34,6 +43,10 @@ public SingleFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfigura
       location = attributes.attribute(LOCATION);
       maxEntries = attributes.attribute(MAX_ENTRIES);
       fragmentationFactor = attributes.attribute(FRAGMENTATION_FACTOR);
+      logStructured = attributes.attribute(LOG_STRUCTURED);
+      maxFileSize = attributes.attribute(MAX_FILE_SIZE);
+      compactionThreshold = attributes.attribute(COMPACTION_THRESHOLD);
+      checkpointInterval = attributes.attribute(CHECKPOINT_INTERVAL);
    }
 
    public String location() {
@@ -48,6 +61,22 @@ public float fragmentationFactor () {
       return fragmentationFactor.get();
    }
 
+   public boolean logStructured() {
+      return logStructured.get();
+   }
+
+   public int maxFileSize() {
+      return maxFileSize.get();
+   }
+
+   public double compactionThreshold() {
+      return compactionThreshold.get();
+   }
+
+   public long checkpointInterval() {
+      return checkpointInterval.get();
+   }
+
    @Override
    public AttributeSet attributes() {
       return attributes;
@@ -1,11 +1,17 @@
 package org.infinispan.configuration.cache;
 
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.CHECKPOINT_INTERVAL;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.COMPACTION_THRESHOLD;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.FRAGMENTATION_FACTOR;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.LOCATION;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.LOG_STRUCTURED;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.MAX_ENTRIES;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.MAX_FILE_SIZE;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.util.logging.Log;
 
 /**
  * Single file cache store configuration builder.
@@ -15,6 +21,7 @@
  */
 public class SingleFileStoreConfigurationBuilder
       extends AbstractStoreConfigurationBuilder<SingleFileStoreConfiguration, SingleFileStoreConfigurationBuilder> {
+   private static final Log log = LogFactory.getLog(SingleFileStoreConfigurationBuilder.class, Log.class);
 
    public SingleFileStoreConfigurationBuilder(PersistenceConfigurationBuilder builder) {
       this(builder, SingleFileStoreConfiguration.attributeDefinitionSet());
@@ -72,6 +79,69 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * Enables the log structured mode of the store. Instead of rewriting entries in place, every write is appended
+    * to the end of a log file, with the log being split over multiple files of up to
+    * {@link #maxFileSize(int)} bytes in a directory named after the cache. Files that mostly contain overwritten or
+    * removed entries are compacted in the background, see {@link #compactionThreshold(double)}. This mode doesn't
+    * support {@link #maxEntries(int)}.
+    */
+   public SingleFileStoreConfigurationBuilder logStructured(boolean logStructured) {
+      attributes.attribute(LOG_STRUCTURED).set(logStructured);
+      return this;
+   }
+
+   /**
+    * The maximum size of a single log file in bytes when {@link #logStructured(boolean)} is enabled, after which
+    * writes go to a new file. Smaller files are compacted more quickly, larger ones require fewer open files.
+    */
+   public SingleFileStoreConfigurationBuilder maxFileSize(int maxFileSize) {
+      attributes.attribute(MAX_FILE_SIZE).set(maxFileSize);
+      return this;
+   }
+
+   /**
+    * When {@link #logStructured(boolean)} is enabled, a log file is compacted once this ratio of its size is taken
+    * by entries that were overwritten, removed or expired. Compaction copies the remaining entries to the end of the
+    * log and deletes the file.
+    */
+   public SingleFileStoreConfigurationBuilder compactionThreshold(double compactionThreshold) {
+      attributes.attribute(COMPACTION_THRESHOLD).set(compactionThreshold);
+      return this;
+   }
+
+   /**
+    * When {@link #logStructured(boolean)} is enabled, the interval in milliseconds between two checkpoints of the
+    * index. On start, only the log files written after the last checkpoint are read again, so shorter intervals make
+    * recovery after a crash faster. A periodic checkpoint is skipped while the entries written or removed since the
+    * last one are less than 10% of the store. A value of 0 disables the periodic checkpoints, the index is then only
+    * written when the store is stopped.
+    */
+   public SingleFileStoreConfigurationBuilder checkpointInterval(long checkpointInterval) {
+      attributes.attribute(CHECKPOINT_INTERVAL).set(checkpointInterval);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      super.validate();
+      if (attributes.attribute(LOG_STRUCTURED).get()) {
+         if (attributes.attribute(MAX_ENTRIES).get() > 0) {
+            throw log.logStructuredFileStoreMaxEntries();
+         }
+         double compactionThreshold = attributes.attribute(COMPACTION_THRESHOLD).get();
+         if (compactionThreshold <= 0 || compactionThreshold > 1) {
+            throw log.invalidCompactionThreshold(compactionThreshold);
+         }
+         if (attributes.attribute(MAX_FILE_SIZE).get() <= 0) {
+            throw log.invalidMaxFileSize(attributes.attribute(MAX_FILE_SIZE).get());
+         }
+         if (attributes.attribute(CHECKPOINT_INTERVAL).get() < 0) {
+            throw log.invalidCheckpointInterval(attributes.attribute(CHECKPOINT_INTERVAL).get());
+         }
+      }
+   }
+
    @Override
    public SingleFileStoreConfiguration create() {
       return new SingleFileStoreConfiguration(attributes.protect(), async.create(), singletonStore.create());
@@ -27,6 +27,8 @@ public class TransportConfiguration {
          .immutable().build();
    public static final AttributeDefinition<Long> INITIAL_CLUSTER_TIMEOUT = AttributeDefinition.builder(
            "initialClusterTimeout", TimeUnit.MINUTES.toMillis(1)).build();
+   public static final AttributeDefinition<Long> COMMAND_BATCHING_LATENCY = AttributeDefinition.builder(
+         "commandBatchingLatency", 0L).immutable().build();
    static final AttributeDefinition<Transport> TRANSPORT = AttributeDefinition
          .builder("transport", null, Transport.class).copier(IdentityAttributeCopier.INSTANCE).immutable().build();
    public static final AttributeDefinition<TypedProperties> PROPERTIES = AttributeDefinition
@@ -39,7 +41,8 @@ public TypedProperties initialize() {
 
    static AttributeSet attributeSet() {
       return new AttributeSet(TransportConfiguration.class, CLUSTER_NAME, MACHINE_ID, RACK_ID, SITE_ID, NODE_NAME,
-            DISTRIBUTED_SYNC_TIMEOUT, INITIAL_CLUSTER_SIZE, INITIAL_CLUSTER_TIMEOUT, TRANSPORT, PROPERTIES);
+            DISTRIBUTED_SYNC_TIMEOUT, INITIAL_CLUSTER_SIZE, INITIAL_CLUSTER_TIMEOUT, COMMAND_BATCHING_LATENCY, TRANSPORT,
+            PROPERTIES);
    }
 
    private final Attribute<String> clusterName;
@@ -50,6 +53,7 @@ static AttributeSet attributeSet() {
    private final Attribute<Long> distributedSyncTimeout;
    private final Attribute<Integer> initialClusterSize;
    private final Attribute<Long> initialClusterTimeout;
+   private final Attribute<Long> commandBatchingLatency;
    private final Attribute<Transport> transport;
    private final Attribute<TypedProperties> properties;
    private final AttributeSet attributes;
@@ -68,6 +72,7 @@ static AttributeSet attributeSet() {
       distributedSyncTimeout = attributes.attribute(DISTRIBUTED_SYNC_TIMEOUT);
       initialClusterSize = attributes.attribute(INITIAL_CLUSTER_SIZE);
       initialClusterTimeout = attributes.attribute(INITIAL_CLUSTER_TIMEOUT);
+      commandBatchingLatency = attributes.attribute(COMMAND_BATCHING_LATENCY);
       transport = attributes.attribute(TRANSPORT);
       nodeName = attributes.attribute(NODE_NAME);
       properties = attributes.attribute(PROPERTIES);
@@ -101,6 +106,14 @@ public long initialClusterTimeout() {
       return initialClusterTimeout.get();
    }
 
+   /**
+    * @return the time in microseconds that asynchronous commands may wait to be sent together with other commands
+    * for the same node, or 0 if each command is sent in its own message
+    */
+   public long commandBatchingLatency() {
+      return commandBatchingLatency.get();
+   }
+
    public Transport transport() {
       return transport.get();
    }
@@ -2,6 +2,7 @@
 
 import static java.util.Arrays.asList;
 import static org.infinispan.configuration.global.TransportConfiguration.CLUSTER_NAME;
+import static org.infinispan.configuration.global.TransportConfiguration.COMMAND_BATCHING_LATENCY;
 import static org.infinispan.configuration.global.TransportConfiguration.DISTRIBUTED_SYNC_TIMEOUT;
 import static org.infinispan.configuration.global.TransportConfiguration.INITIAL_CLUSTER_SIZE;
 import static org.infinispan.configuration.global.TransportConfiguration.INITIAL_CLUSTER_TIMEOUT;
@@ -119,6 +120,17 @@ public TransportConfigurationBuilder initialClusterTimeout(long initialClusterTi
       return this;
    }
 
+   /**
+    * Sets how long an asynchronous command may wait to be sent in the same message as the following commands for the
+    * same node. Packing many small commands in one message raises the throughput of bursts of asynchronous writes, at
+    * the cost of delaying them by up to this latency. Defaults to 0, which sends each command immediately in its own
+    * message.
+    */
+   public TransportConfigurationBuilder commandBatchingLatency(long commandBatchingLatency, TimeUnit unit) {
+      attributes.attribute(COMMAND_BATCHING_LATENCY).set(unit.toMicros(commandBatchingLatency));
+      return this;
+   }
+
    /**
     * Class that represents a network transport. Must implement
     * org.infinispan.remoting.transport.Transport
@@ -209,6 +221,9 @@ void validate() {
       if(attributes.attribute(CLUSTER_NAME).get() == null){
           throw new CacheConfigurationException("Transport clusterName cannot be null");
       }
+      if (attributes.attribute(COMMAND_BATCHING_LATENCY).get() < 0) {
+         throw log.invalidCommandBatchingLatency(attributes.attribute(COMMAND_BATCHING_LATENCY).get());
+      }
    }
 
    @Override
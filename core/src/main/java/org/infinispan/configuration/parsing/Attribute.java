@@ -15,23 +15,31 @@ public enum Attribute {
     // KEEP THESE IN ALPHABETICAL ORDER!
 
     ACQUIRE_TIMEOUT("acquire-timeout"),
+    ADAPTIVE_STRIPING("adaptive-striping"),
     ADDRESS_COUNT("address-count"),
     AFTER("after"),
     ALIASES("aliases"),
+    ALLOCATOR("allocator"),
     ALLOW_DUPLICATE_DOMAINS("duplicate-domains"),
+    ASYNC_BATCH_SIZE("async-batch-size"),
     ASYNC_EXECUTOR("async-executor"),
     @Deprecated
     ASYNC_MARSHALLING("async-marshalling"),
+    ASYNC_QUEUE_SIZE("async-queue-size"),
     AUDIT_LOGGER("audit-logger"),
     AUTO_COMMIT("auto-commit"),
     AUTO_CONFIG("auto-config"),
     AWAIT_INITIAL_TRANSFER("await-initial-transfer"),
     BACKUP_FAILURE_POLICY("failure-policy"),
     BEFORE("before"),
+    BLOOM_FILTER("bloom-filter"),
+    BLOOM_FILTER_EXPECTED_ENTRIES("bloom-filter-expected-entries"),
+    BLOOM_FILTER_FALSE_POSITIVE_RATE("bloom-filter-false-positive-rate"),
     CAPACITY_FACTOR("capacity"),
     CHUNK_SIZE("chunk-size"),
     CLASS("class"),
     CLUSTER("cluster"),
+    COMMAND_BATCHING_LATENCY("command-batching-latency"),
     COMPLETED_TX_TIMEOUT("complete-timeout"),
     CONCURRENCY_LEVEL("concurrency-level"),
     CONFIGURATION("configuration"),
@@ -50,6 +58,8 @@ public enum Attribute {
     FETCH_STATE("fetch-state"),
     @Deprecated
     FLUSH_LOCK_TIMEOUT("flush-lock-timeout"),
+    GROUP_COMMIT("group-commit"),
+    GROUP_COMMIT_WINDOW("group-commit-window"),
     GROUP_NAME("group-name"),
     ID("id"),
     INDEX("index"),
@@ -60,6 +70,7 @@ public enum Attribute {
     INVALIDATION_CLEANUP_TASK_FREQUENCY("l1-cleanup-interval"),
     ISOLATION("isolation"),
     JNDI_NAME("jndi-name"),
+    JOURNAL_LOCATION("journal-location"),
     JMX_DOMAIN("domain"),
     KEEP_ALIVE_TIME("keepalive-time"),
     KEY_EQUIVALENCE("key-equivalence"),
@@ -83,6 +94,7 @@ public enum Attribute {
     MEDIA_TYPE("media-type"),
     MODE("mode"),
     NODE_NAME("node-name"),
+    MODIFICATION_QUEUE_MAX_BYTES("modification-queue-max-bytes"),
     MODIFICATION_QUEUE_SIZE("modification-queue-size"),
     MODULE("module"),
     NAME("name"),
@@ -96,6 +108,8 @@ public enum Attribute {
     PERSISTENCE_EXECUTOR("persistence-executor"),
     POSITION("position"),
     PRELOAD("preload"),
+    PRELOAD_BATCH_SIZE("preload-batch-size"),
+    PRELOAD_THREADS("preload-threads"),
     PRIORITY("priority"),
     PURGE("purge"),
     @Deprecated
@@ -115,6 +129,7 @@ public enum Attribute {
     @Deprecated
     REPLICATION_QUEUE_EXECUTOR("replication-queue-executor"),
     ROLES("roles"),
+    SEGMENTED("segmented"),
     SEGMENTS("segments"),
     SHARED("shared"),
     SHUTDOWN_HOOK("shutdown-hook"),
@@ -143,6 +158,7 @@ public enum Attribute {
     THREAD_NAME_PATTERN("thread-name-pattern"),
     THREAD_POLICY("thread-policy"),
     THREAD_POOL_SIZE("thread-pool-size"),
+    TIERED("tiered"),
     TIMEOUT("timeout"),
     TOTAL_ORDER_EXECUTOR("total-order-executor"),
     TRANSACTION_MANAGER_LOOKUP_CLASS("transaction-manager-lookup"),
@@ -160,6 +176,10 @@ public enum Attribute {
     WHEN_SPLIT("when-split"),
     WRITE_SKEW_CHECK("write-skew"),
     FRAGMENTATION_FACTOR("fragmentation-factor"),
+    LOG_STRUCTURED("log-structured"),
+    MAX_FILE_SIZE("max-file-size"),
+    COMPACTION_THRESHOLD("compaction-threshold"),
+    CHECKPOINT_INTERVAL("checkpoint-interval"),
     ;
 
     private final String name;
@@ -49,6 +49,7 @@
 import org.infinispan.configuration.cache.InterceptorConfiguration;
 import org.infinispan.configuration.cache.InterceptorConfigurationBuilder;
 import org.infinispan.configuration.cache.MemoryConfigurationBuilder;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
 import org.infinispan.configuration.cache.PartitionHandlingConfigurationBuilder;
 import org.infinispan.configuration.cache.SecurityConfigurationBuilder;
 import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
@@ -976,6 +977,14 @@ private void parseTransport(XMLExtendedStreamReader reader, ConfigurationBuilder
                }
                break;
             }
+            case COMMAND_BATCHING_LATENCY: {
+               if (reader.getSchema().since(9, 2)) {
+                  globalBuilder.transport().commandBatchingLatency(Long.parseLong(value), TimeUnit.MICROSECONDS);
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            }
             case MAPPER:
                break;
             case MARSHALLER_CLASS:
@@ -1389,6 +1398,22 @@ private void parseBackup(XMLExtendedStreamReader reader, ConfigurationBuilder bu
                backup.failurePolicyClass(value);
                break;
             }
+            case ASYNC_BATCH_SIZE: {
+               if (reader.getSchema().since(9, 2)) {
+                  backup.asyncBatchSize(Integer.parseInt(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            }
+            case ASYNC_QUEUE_SIZE: {
+               if (reader.getSchema().since(9, 2)) {
+                  backup.asyncQueueSize(Integer.parseInt(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1688,6 +1713,13 @@ private void parseOffHeapMemoryAttributes(final XMLExtendedStreamReader reader,
             case ADDRESS_COUNT:
                memoryBuilder.addressCount(Integer.parseInt(value));
                break;
+            case ALLOCATOR:
+               if (reader.getSchema().since(9, 2)) {
+                  memoryBuilder.allocatorType(OffHeapAllocatorType.valueOf(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
             case STRATEGY:
                memoryBuilder.evictionStrategy(EvictionStrategy.valueOf(value));
                break;
@@ -1711,6 +1743,13 @@ private void parseObjectMemoryAttributes(final XMLExtendedStreamReader reader, f
             case STRATEGY:
                memoryBuilder.evictionStrategy(EvictionStrategy.valueOf(value));
                break;
+            case SEGMENTED:
+               if (reader.getSchema().since(9, 2)) {
+                  memoryBuilder.segmented(Boolean.parseBoolean(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1734,6 +1773,13 @@ private void parseBinaryMemoryAttributes(final XMLExtendedStreamReader reader, f
             case STRATEGY:
                memoryBuilder.evictionStrategy(EvictionStrategy.valueOf(value));
                break;
+            case SEGMENTED:
+               if (reader.getSchema().since(9, 2)) {
+                  memoryBuilder.segmented(Boolean.parseBoolean(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1864,6 +1910,14 @@ protected void parseLocking(XMLExtendedStreamReader reader, ConfigurationBuilder
                builder.locking().useLockStriping(Boolean.parseBoolean(value));
                break;
             }
+            case ADAPTIVE_STRIPING: {
+               if (reader.getSchema().since(9, 2)) {
+                  builder.locking().adaptiveLockStriping(Boolean.parseBoolean(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            }
             case ACQUIRE_TIMEOUT: {
                builder.locking().lockAcquisitionTimeout(Long.parseLong(value));
                break;
@@ -2327,6 +2381,62 @@ private void parsePersistence(final XMLExtendedStreamReader reader, final Config
             case PASSIVATION:
                builder.persistence().passivation(Boolean.parseBoolean(value));
                break;
+            case GROUP_COMMIT:
+               if (reader.getSchema().since(9, 2)) {
+                  builder.persistence().groupCommit(Boolean.parseBoolean(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            case GROUP_COMMIT_WINDOW:
+               if (reader.getSchema().since(9, 2)) {
+                  builder.persistence().groupCommitWindow(Long.parseLong(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            case BLOOM_FILTER:
+               if (reader.getSchema().since(9, 2)) {
+                  builder.persistence().bloomFilter(Boolean.parseBoolean(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            case BLOOM_FILTER_EXPECTED_ENTRIES:
+               if (reader.getSchema().since(9, 2)) {
+                  builder.persistence().bloomFilterExpectedEntries(Long.parseLong(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            case BLOOM_FILTER_FALSE_POSITIVE_RATE:
+               if (reader.getSchema().since(9, 2)) {
+                  builder.persistence().bloomFilterFalsePositiveRate(Double.parseDouble(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            case PRELOAD_THREADS:
+               if (reader.getSchema().since(9, 2)) {
+                  builder.persistence().preloadThreads(Integer.parseInt(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            case PRELOAD_BATCH_SIZE:
+               if (reader.getSchema().since(9, 2)) {
+                  builder.persistence().preloadBatchSize(Integer.parseInt(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            case TIERED:
+               if (reader.getSchema().since(9, 2)) {
+                  builder.persistence().tiered(Boolean.parseBoolean(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -2396,6 +2506,38 @@ protected void parseFileStore(XMLExtendedStreamReader reader, ConfigurationBuild
                storeBuilder.fragmentationFactor(Float.parseFloat(value));
                break;
             }
+            case LOG_STRUCTURED: {
+               if (reader.getSchema().since(9, 2)) {
+                  storeBuilder.logStructured(Boolean.parseBoolean(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            }
+            case MAX_FILE_SIZE: {
+               if (reader.getSchema().since(9, 2)) {
+                  storeBuilder.maxFileSize(Integer.parseInt(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            }
+            case COMPACTION_THRESHOLD: {
+               if (reader.getSchema().since(9, 2)) {
+                  storeBuilder.compactionThreshold(Double.parseDouble(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            }
+            case CHECKPOINT_INTERVAL: {
+               if (reader.getSchema().since(9, 2)) {
+                  storeBuilder.checkpointInterval(Long.parseLong(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            }
             default: {
                parseStoreAttribute(reader, i, storeBuilder);
             }
@@ -2489,6 +2631,22 @@ public static void parseStoreWriteBehind(XMLExtendedStreamReader reader, AsyncSt
                storeBuilder.modificationQueueSize(Integer.parseInt(value));
                break;
             }
+            case MODIFICATION_QUEUE_MAX_BYTES: {
+               if (reader.getSchema().since(9, 2)) {
+                  storeBuilder.modificationQueueMaxBytes(Long.parseLong(value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            }
+            case JOURNAL_LOCATION: {
+               if (reader.getSchema().since(9, 2)) {
+                  storeBuilder.journalLocation(value);
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            }
             case SHUTDOWN_TIMEOUT: {
                if (reader.getSchema().since(9, 0)) {
                   throw ParseUtils.unexpectedAttribute(reader, attribute.getLocalName());
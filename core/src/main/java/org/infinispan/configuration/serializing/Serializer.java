@@ -391,6 +391,7 @@ private void writeTransport(XMLExtendedStreamWriter writer, GlobalConfiguration
          attributes.write(writer, TransportConfiguration.DISTRIBUTED_SYNC_TIMEOUT, Attribute.LOCK_TIMEOUT);
          attributes.write(writer, TransportConfiguration.INITIAL_CLUSTER_SIZE, Attribute.INITIAL_CLUSTER_SIZE);
          attributes.write(writer, TransportConfiguration.INITIAL_CLUSTER_TIMEOUT, Attribute.INITIAL_CLUSTER_TIMEOUT);
+         attributes.write(writer, TransportConfiguration.COMMAND_BATCHING_LATENCY, Attribute.COMMAND_BATCHING_LATENCY);
          writer.writeEndElement();
       }
    }
@@ -547,11 +548,13 @@ private void writeMemory(XMLExtendedStreamWriter writer, Configuration configura
          switch (memory.storageType()) {
             case OFF_HEAP:
                attributes.write(writer, MemoryConfiguration.ADDRESS_COUNT, Attribute.ADDRESS_COUNT);
+               attributes.write(writer, MemoryConfiguration.ALLOCATOR_TYPE, Attribute.ALLOCATOR);
                attributes.write(writer, MemoryConfiguration.EVICTION_STRATEGY, Attribute.STRATEGY);
             case BINARY:
                attributes.write(writer, MemoryConfiguration.EVICTION_TYPE, Attribute.EVICTION);
             case OBJECT:
                attributes.write(writer, MemoryConfiguration.SIZE, Attribute.SIZE);
+               attributes.write(writer, MemoryConfiguration.SEGMENTED, Attribute.SEGMENTED);
          }
          writer.writeEndElement();
          writer.writeEndElement();
@@ -576,6 +579,14 @@ private void writePersistence(XMLExtendedStreamWriter writer, Configuration conf
       if (attributes.isModified() || persistence.stores().size() > 0) {
          writer.writeStartElement(Element.PERSISTENCE);
          attributes.write(writer, PersistenceConfiguration.PASSIVATION, Attribute.PASSIVATION);
+         attributes.write(writer, PersistenceConfiguration.GROUP_COMMIT, Attribute.GROUP_COMMIT);
+         attributes.write(writer, PersistenceConfiguration.GROUP_COMMIT_WINDOW, Attribute.GROUP_COMMIT_WINDOW);
+         attributes.write(writer, PersistenceConfiguration.BLOOM_FILTER, Attribute.BLOOM_FILTER);
+         attributes.write(writer, PersistenceConfiguration.BLOOM_FILTER_EXPECTED_ENTRIES, Attribute.BLOOM_FILTER_EXPECTED_ENTRIES);
+         attributes.write(writer, PersistenceConfiguration.BLOOM_FILTER_FALSE_POSITIVE_RATE, Attribute.BLOOM_FILTER_FALSE_POSITIVE_RATE);
+         attributes.write(writer, PersistenceConfiguration.PRELOAD_THREADS, Attribute.PRELOAD_THREADS);
+         attributes.write(writer, PersistenceConfiguration.PRELOAD_BATCH_SIZE, Attribute.PRELOAD_BATCH_SIZE);
+         attributes.write(writer, PersistenceConfiguration.TIERED, Attribute.TIERED);
          for (StoreConfiguration store : persistence.stores()) {
             writeStore(writer, store);
          }
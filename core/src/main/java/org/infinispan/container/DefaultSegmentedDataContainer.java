@@ -0,0 +1,489 @@
+package org.infinispan.container;
+
+import static org.infinispan.commons.util.Util.toStr;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.infinispan.commons.logging.Log;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.metadata.impl.L1Metadata;
+import org.infinispan.util.CoreImmutables;
+import org.infinispan.util.TimeService;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Unbounded {@link SegmentedDataContainer} that keeps a separate concurrent map for every segment. Operations on a
+ * single key behave exactly like {@link DefaultDataContainer}, however operations limited to a set of segments only
+ * have to visit the maps of those segments.
+ *
+ * @since 9.2
+ */
+@ThreadSafe
+public class DefaultSegmentedDataContainer<K, V> implements SegmentedDataContainer<K, V> {
+
+   private static final Log log = LogFactory.getLog(DefaultSegmentedDataContainer.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final ConcurrentMap<K, InternalCacheEntry<K, V>>[] maps;
+
+   @Inject protected InternalEntryFactory entryFactory;
+   @Inject private PassivationManager passivator;
+   @Inject private ActivationManager activator;
+   @Inject private TimeService timeService;
+   @Inject private ExpirationManager<K, V> expirationManager;
+   @Inject private KeyPartitioner keyPartitioner;
+
+   public DefaultSegmentedDataContainer(int concurrencyLevel, int numSegments) {
+      if (numSegments <= 0) {
+         throw new IllegalArgumentException("Segment count must be positive, was " + numSegments);
+      }
+      maps = new ConcurrentMap[numSegments];
+      // The maps are divided among the segments, so each one only needs a fraction of the concurrency level
+      int mapConcurrency = Math.max(1, concurrencyLevel / numSegments);
+      for (int i = 0; i < numSegments; ++i) {
+         maps[i] = CollectionFactory.makeConcurrentParallelMap(16, mapConcurrency);
+      }
+   }
+
+   private ConcurrentMap<K, InternalCacheEntry<K, V>> mapForKey(Object key) {
+      return maps[keyPartitioner.getSegment(key)];
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> peek(Object key) {
+      return mapForKey(key).get(key);
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> get(Object k) {
+      InternalCacheEntry<K, V> e = peek(k);
+      if (e != null && e.canExpire()) {
+         long currentTimeMillis = timeService.wallClockTime();
+         if (e.isExpired(currentTimeMillis)) {
+            expirationManager.handleInMemoryExpiration(e, currentTimeMillis);
+            e = null;
+         } else {
+            e.touch(currentTimeMillis);
+         }
+      }
+      return e;
+   }
+
+   @Override
+   public void put(K k, V v, Metadata metadata) {
+      boolean l1Entry = false;
+      if (metadata instanceof L1Metadata) {
+         metadata = ((L1Metadata) metadata).metadata();
+         l1Entry = true;
+      }
+      ConcurrentMap<K, InternalCacheEntry<K, V>> entries = mapForKey(k);
+      InternalCacheEntry<K, V> e = entries.get(k);
+
+      if (trace) {
+         log.tracef("Creating new ICE for writing. Existing=%s, metadata=%s, new value=%s", e, metadata, toStr(v));
+      }
+      final InternalCacheEntry<K, V> copy;
+      if (l1Entry) {
+         copy = entryFactory.createL1(k, v, metadata);
+      } else if (e != null) {
+         copy = entryFactory.update(e, v, metadata);
+      } else {
+         // this is a brand-new entry
+         copy = entryFactory.create(k, v, metadata);
+      }
+
+      if (trace)
+         log.tracef("Store %s in container", copy);
+
+      entries.compute(copy.getKey(), (key, entry) -> {
+         activator.onUpdate(key, entry == null);
+         return copy;
+      });
+   }
+
+   @Override
+   public boolean containsKey(Object k) {
+      InternalCacheEntry<K, V> ice = peek(k);
+      if (ice != null && ice.canExpire()) {
+         long currentTimeMillis = timeService.wallClockTime();
+         if (ice.isExpired(currentTimeMillis)) {
+            expirationManager.handleInMemoryExpiration(ice, currentTimeMillis);
+            ice = null;
+         }
+      }
+      return ice != null;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> remove(Object k) {
+      final InternalCacheEntry<K,V>[] reference = new InternalCacheEntry[1];
+      mapForKey(k).compute((K) k, (key, entry) -> {
+         activator.onRemove(key, entry == null);
+         reference[0] = entry;
+         return null;
+      });
+      InternalCacheEntry<K, V> e = reference[0];
+      if (trace) {
+         log.tracef("Removed %s from container", e);
+      }
+      return e == null || (e.canExpire() && e.isExpired(timeService.wallClockTime())) ? null : e;
+   }
+
+   @Override
+   public int size() {
+      return count(iterator());
+   }
+
+   @Override
+   public int size(IntSet segments) {
+      return count(iterator(segments));
+   }
+
+   private static int count(Iterator<?> iter) {
+      int size = 0;
+      // We have to loop through to make sure to not count expired entries
+      while (iter.hasNext()) {
+         iter.next();
+         if (++size == Integer.MAX_VALUE) return Integer.MAX_VALUE;
+      }
+      return size;
+   }
+
+   @Override
+   public int sizeIncludingExpired() {
+      return sizeIncludingExpired(IntStream.range(0, maps.length));
+   }
+
+   @Override
+   public int sizeIncludingExpired(IntSet segments) {
+      return sizeIncludingExpired(segments.intStream());
+   }
+
+   private int sizeIncludingExpired(IntStream segments) {
+      long size = segments.mapToLong(s -> maps[s].size()).sum();
+      return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+   }
+
+   @Override
+   public void clear() {
+      log.tracef("Clearing data container");
+      for (ConcurrentMap<K, InternalCacheEntry<K, V>> map : maps) {
+         map.clear();
+      }
+   }
+
+   @Override
+   public void removeSegments(IntSet segments) {
+      if (trace) {
+         log.tracef("Removing segments %s from data container", segments);
+      }
+      segments.intStream().forEach(s -> maps[s].clear());
+   }
+
+   @Override
+   public Set<K> keySet() {
+      return new AbstractSet<K>() {
+         @Override
+         public Iterator<K> iterator() {
+            return new SegmentsIterator<>(allSegments(), m -> m.keySet().iterator());
+         }
+
+         @Override
+         public boolean contains(Object o) {
+            return mapForKey(o).containsKey(o);
+         }
+
+         @Override
+         public int size() {
+            return sizeIncludingExpired();
+         }
+
+         @Override
+         public Spliterator<K> spliterator() {
+            return Spliterators.spliterator(this, Spliterator.CONCURRENT | Spliterator.DISTINCT);
+         }
+      };
+   }
+
+   @Override
+   public Collection<V> values() {
+      return new AbstractCollection<V>() {
+         @Override
+         public Iterator<V> iterator() {
+            Iterator<InternalCacheEntry<K, V>> it = iteratorIncludingExpired();
+            return new Iterator<V>() {
+               @Override
+               public boolean hasNext() {
+                  return it.hasNext();
+               }
+
+               @Override
+               public V next() {
+                  return it.next().getValue();
+               }
+            };
+         }
+
+         @Override
+         public int size() {
+            return sizeIncludingExpired();
+         }
+
+         @Override
+         public Spliterator<V> spliterator() {
+            return Spliterators.spliterator(this, Spliterator.CONCURRENT);
+         }
+      };
+   }
+
+   @Override
+   public Set<InternalCacheEntry<K, V>> entrySet() {
+      return new AbstractSet<InternalCacheEntry<K, V>>() {
+         @Override
+         public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+               return false;
+            }
+            Map.Entry e = (Map.Entry) o;
+            InternalCacheEntry ice = peek(e.getKey());
+            return ice != null && ice.getValue().equals(e.getValue());
+         }
+
+         @Override
+         public Iterator<InternalCacheEntry<K, V>> iterator() {
+            Iterator<InternalCacheEntry<K, V>> it = DefaultSegmentedDataContainer.this.iterator();
+            return new Iterator<InternalCacheEntry<K, V>>() {
+               @Override
+               public boolean hasNext() {
+                  return it.hasNext();
+               }
+
+               @Override
+               public InternalCacheEntry<K, V> next() {
+                  return CoreImmutables.immutableInternalCacheEntry(it.next());
+               }
+            };
+         }
+
+         @Override
+         public int size() {
+            return sizeIncludingExpired();
+         }
+
+         @Override
+         public Spliterator<InternalCacheEntry<K, V>> spliterator() {
+            return Spliterators.spliterator(this, Spliterator.CONCURRENT | Spliterator.DISTINCT);
+         }
+      };
+   }
+
+   @Override
+   public void evict(K key) {
+      mapForKey(key).computeIfPresent(key, (o, entry) -> {
+         passivator.passivate(entry);
+         return null;
+      });
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
+      return mapForKey(key).compute(key, (k, oldEntry) -> {
+         InternalCacheEntry<K, V> newEntry = action.compute(k, oldEntry, entryFactory);
+         if (newEntry == oldEntry) {
+            return oldEntry;
+         } else if (newEntry == null) {
+            activator.onRemove(k, false);
+            return null;
+         }
+         activator.onUpdate(k, oldEntry == null);
+         if (trace)
+            log.tracef("Store %s in container", newEntry);
+         return newEntry;
+      });
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator() {
+      return new EntryIterator(iteratorIncludingExpired());
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator(IntSet segments) {
+      return new EntryIterator(iteratorIncludingExpired(segments));
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired() {
+      return new SegmentsIterator<>(allSegments(), m -> m.values().iterator());
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired(IntSet segments) {
+      return new SegmentsIterator<>(segments.iterator(), m -> m.values().iterator());
+   }
+
+   private PrimitiveIterator.OfInt allSegments() {
+      return IntStream.range(0, maps.length).iterator();
+   }
+
+   @Override
+   public void executeTask(final KeyFilter<? super K> filter, final BiConsumer<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      long now = timeService.wallClockTime();
+      for (ConcurrentMap<K, InternalCacheEntry<K, V>> map : maps) {
+         map.forEach((K key, InternalCacheEntry<K, V> value) -> {
+            if (filter.accept(key) && !value.isExpired(now)) {
+               action.accept(key, value);
+            }
+         });
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      }
+   }
+
+   @Override
+   public void executeTask(final KeyValueFilter<? super K, ? super V> filter, final BiConsumer<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      long now = timeService.wallClockTime();
+      for (ConcurrentMap<K, InternalCacheEntry<K, V>> map : maps) {
+         map.forEach((K key, InternalCacheEntry<K, V> value) -> {
+            if (filter.accept(key, value.getValue(), value.getMetadata()) && !value.isExpired(now)) {
+               action.accept(key, value);
+            }
+         });
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      }
+   }
+
+   /**
+    * Iterator that lazily moves from the map of one segment to the next, so only a single segment iterator is
+    * ever held at a time.
+    */
+   private class SegmentsIterator<E> implements Iterator<E> {
+      private final PrimitiveIterator.OfInt segments;
+      private final Function<ConcurrentMap<K, InternalCacheEntry<K, V>>, Iterator<E>> iteratorFunction;
+
+      private Iterator<E> current;
+
+      SegmentsIterator(PrimitiveIterator.OfInt segments,
+            Function<ConcurrentMap<K, InternalCacheEntry<K, V>>, Iterator<E>> iteratorFunction) {
+         this.segments = segments;
+         this.iteratorFunction = iteratorFunction;
+      }
+
+      @Override
+      public boolean hasNext() {
+         while (current == null || !current.hasNext()) {
+            if (!segments.hasNext()) {
+               return false;
+            }
+            current = iteratorFunction.apply(maps[segments.nextInt()]);
+         }
+         return true;
+      }
+
+      @Override
+      public E next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         return current.next();
+      }
+   }
+
+   /**
+    * Iterator that skips any expired entries, but doesn't remove them
+    */
+   private class EntryIterator implements CloseableIterator<InternalCacheEntry<K, V>> {
+      private final Iterator<InternalCacheEntry<K, V>> it;
+
+      private InternalCacheEntry<K, V> next;
+
+      EntryIterator(Iterator<InternalCacheEntry<K, V>> it) {
+         this.it = it;
+      }
+
+      private InternalCacheEntry<K, V> getNext() {
+         boolean initializedTime = false;
+         long now = 0;
+         while (it.hasNext()) {
+            InternalCacheEntry<K, V> entry = it.next();
+            if (!entry.canExpire()) {
+               return entry;
+            }
+            if (!initializedTime) {
+               now = timeService.wallClockTime();
+               initializedTime = true;
+            }
+            if (!entry.isExpired(now)) {
+               return entry;
+            } else if (trace) {
+               log.tracef("%s is expired", entry);
+            }
+         }
+         return null;
+      }
+
+      @Override
+      public boolean hasNext() {
+         if (next == null) {
+            next = getNext();
+         }
+         return next != null;
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         InternalCacheEntry<K, V> toReturn = next;
+         next = null;
+         return toReturn;
+      }
+
+      @Override
+      public void close() {
+         // Do nothing - this is to avoid additional wrappings by callers
+      }
+   }
+}
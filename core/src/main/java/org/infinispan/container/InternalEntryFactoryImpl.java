@@ -145,10 +145,14 @@ public InternalCacheEntry create(Object key, Object value, Metadata metadata, lo
 
    @Override
    public InternalCacheEntry update(InternalCacheEntry ice, Metadata metadata) {
+      InternalCacheEntry updated;
       if (!isStoreMetadata(metadata, ice))
-         return updateMetadataUnawareEntry(ice, metadata.lifespan(), metadata.maxIdle());
+         updated = updateMetadataUnawareEntry(ice, metadata.lifespan(), metadata.maxIdle());
       else
-         return updateMetadataAwareEntry(ice, metadata);
+         updated = updateMetadataAwareEntry(ice, metadata);
+      // The entry may be updated in place, and the stores do not have the new version
+      updated.setPersisted(false);
+      return updated;
    }
 
    @Override
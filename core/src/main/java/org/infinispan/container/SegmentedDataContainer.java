@@ -0,0 +1,67 @@
+package org.infinispan.container;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.container.entries.InternalCacheEntry;
+
+/**
+ * A {@link DataContainer} that stores its entries grouped by the segment their key maps to, as determined by the
+ * cache's {@link org.infinispan.distribution.ch.KeyPartitioner}. This allows for operations that only care about a
+ * subset of segments, such as state transfer and segment filtered streams, to only visit the entries of those
+ * segments instead of the entire container.
+ * @since 9.2
+ */
+public interface SegmentedDataContainer<K, V> extends DataContainer<K, V> {
+
+   /**
+    * Same as {@link DataContainer#iterator()} except that only entries that map to the provided segments are returned.
+    * @param segments the segments to iterate over
+    * @return iterator that doesn't produce expired entries
+    */
+   Iterator<InternalCacheEntry<K, V>> iterator(IntSet segments);
+
+   /**
+    * Same as {@link DataContainer#spliterator()} except that only entries that map to the provided segments are
+    * returned.
+    * @param segments the segments to iterate over
+    * @return spliterator that doesn't produce expired entries
+    */
+   default Spliterator<InternalCacheEntry<K, V>> spliterator(IntSet segments) {
+      return Spliterators.spliterator(iterator(segments), sizeIncludingExpired(segments),
+            Spliterator.CONCURRENT | Spliterator.NONNULL | Spliterator.DISTINCT);
+   }
+
+   /**
+    * Same as {@link DataContainer#iteratorIncludingExpired()} except that only entries that map to the provided
+    * segments are returned.
+    * @param segments the segments to iterate over
+    * @return iterator that returns all entries including expired ones
+    */
+   Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired(IntSet segments);
+
+   /**
+    * Returns how many entries are present in the provided segments, excluding expired entries. Note this requires
+    * visiting all the entries of the given segments.
+    * @param segments the segments to count
+    * @return count of the number of non expired entries in the given segments
+    */
+   int size(IntSet segments);
+
+   /**
+    * Returns how many entries are present in the provided segments, including expired entries.
+    * @param segments the segments to count
+    * @return count of the number of entries in the given segments
+    */
+   int sizeIncludingExpired(IntSet segments);
+
+   /**
+    * Removes all entries that map to the given segments from the container without notifying any listeners,
+    * passivation or activation. This is intended to be used when the node no longer owns the given segments and
+    * the entries have already been dealt with elsewhere.
+    * @param segments the segments to remove
+    */
+   void removeSegments(IntSet segments);
+}
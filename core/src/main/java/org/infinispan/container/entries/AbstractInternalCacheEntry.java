@@ -15,6 +15,7 @@
 public abstract class AbstractInternalCacheEntry implements InternalCacheEntry {
 
    protected Object key;
+   private boolean persisted;
 
    protected AbstractInternalCacheEntry() {
    }
@@ -103,6 +104,16 @@ public boolean isL1Entry() {
       return false;
    }
 
+   @Override
+   public boolean isPersisted() {
+      return persisted;
+   }
+
+   @Override
+   public void setPersisted(boolean persisted) {
+      this.persisted = persisted;
+   }
+
    @Override
    public String toString() {
       return getClass().getSimpleName() + "{" +
@@ -69,6 +69,20 @@
     */
    boolean isL1Entry();
 
+   /**
+    * @return {@code true} if the entry was loaded from the cache stores and was not modified in memory since, so the
+    *         stores still hold the same value and metadata.
+    */
+   default boolean isPersisted() {
+      return false;
+   }
+
+   /**
+    * See {@link #isPersisted()}.
+    */
+   default void setPersisted(boolean persisted) {
+   }
+
    /**
     * Creates a representation of this entry as an {@link org.infinispan.container.entries.InternalCacheValue}. The main
     * purpose of this is to provide a representation that does <i>not</i> have a reference to the key. This is useful in
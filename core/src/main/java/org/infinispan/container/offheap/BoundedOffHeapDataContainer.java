@@ -4,8 +4,11 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
 import java.util.function.LongUnaryOperator;
 
 import org.infinispan.commons.marshall.WrappedBytes;
@@ -17,42 +20,73 @@
 
 /**
  * Data Container implementation that stores entries in native memory (off-heap) that is also bounded.  This
- * implementation uses a simple LRU doubly linked list off-heap guarded by a single lock.
+ * implementation uses the W-TinyLFU policy, the same policy Caffeine uses for on-heap containers.
  * <p>
- * The link list is represented by firstAddress as the had of the list and lastAddress as the tail of the list. Each
- * entry in the list consists of 28 bytes (3 longs and 1 int), the first long is the actual entry address, the second is
- * a pointer to the previous element in the list, the third is the next pointer and lastly the int is the hashCode of
- * the key to retrieve the lock. The hashCode is required to know which lock to use when trying to read the entry.
+ * New entries are first added to a small admission window, which is 1% of the maximum size. Entries that no longer
+ * fit in the window move to the probation queue of the main space. When the container is too large the entry at the
+ * head of the probation queue and the newest entry in the probation queue are compared, and the one that was used
+ * less often according to a {@link FrequencySketch} is evicted. An entry in probation that is read is promoted to
+ * the protected queue, which may hold up to 80% of the main space.
+ * <p>
+ * Each queue is a doubly linked list off-heap guarded by a single lock. Each entry in a list starts with 2 longs, the
+ * first is a pointer to the previous element in the list and the second is the next pointer. The queue an entry is in
+ * is stored in the low bits of its previous pointer. Reads do not acquire the lock, instead the entry address is
+ * recorded in a lossy buffer for the lock stripe of the key which is replayed the next time the lock is acquired.
+ * Any entry is only freed while holding the write lock of its stripe and after its stripe's buffer is replayed, so a
+ * buffer never holds an address that has been freed.
  *
  * @author wburns
  * @since 9.0
  */
 public class BoundedOffHeapDataContainer extends OffHeapDataContainer {
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+
+   private static final int WINDOW = 0;
+   private static final int PROBATION = 1;
+   private static final int PROTECTED = 2;
+
    protected final long maxSize;
    protected final Lock lruLock;
    protected final LongUnaryOperator sizeCalculator;
    protected final long initialSize;
+   protected final EvictionType type;
 
+   // All of the following are only accessed while holding the lru lock
    protected long currentSize;
-   protected long firstAddress;
-   protected long lastAddress;
+   private final long windowMaximum;
+   private final long protectedMaximum;
+   private final LruQueue window = new LruQueue(WINDOW);
+   private final LruQueue probation = new LruQueue(PROBATION);
+   private final LruQueue protectedQueue = new LruQueue(PROTECTED);
+   private final FrequencySketch sketch;
+
+   private final ReadBuffer[] readBuffers;
 
    public BoundedOffHeapDataContainer(int desiredSize, long maxSize, EvictionType type) {
       super(desiredSize);
       this.maxSize = maxSize;
+      this.type = type;
       if (type == EvictionType.COUNT) {
          sizeCalculator = i -> 1;
          initialSize = 0;
+         sketch = new FrequencySketch(maxSize);
       } else {
          // Use size of entry plus 16 for our LRU pointers
          sizeCalculator = i -> offHeapEntryFactory.getSize(i);
          // We have to make sure to count the address hash as part of our size
          initialSize = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(memoryAddressCount << 3);
          currentSize = initialSize;
+         // The amount of entries is unknown, so assume about one per address
+         sketch = new FrequencySketch(memoryAddressCount);
       }
+      long mainMaximum = maxSize - initialSize;
+      windowMaximum = Math.max(1, mainMaximum / 100);
+      protectedMaximum = (mainMaximum - windowMaximum) * 4 / 5;
       this.lruLock = new ReentrantLock();
-      firstAddress = 0;
+      readBuffers = new ReadBuffer[lockCount];
+      for (int i = 0; i < readBuffers.length; ++i) {
+         readBuffers[i] = new ReadBuffer();
+      }
    }
 
    @Override
@@ -82,11 +116,18 @@ protected void entryReplaced(long newAddress, long oldAddress) {
       long newSize = sizeCalculator.applyAsLong(newAddress);
       lruLock.lock();
       try {
-         removeNode(oldAddress);
-         addEntryAddressToEnd(newAddress);
+         drainReadBuffer(oldAddress);
+         // The new entry takes over the queue of the entry it replaces
+         LruQueue queue = queueOf(oldAddress);
+         queue.remove(oldAddress, oldSize);
+         queue.addToEnd(newAddress, newSize);
+         sketch.increment(offHeapEntryFactory.getHashCode(newAddress));
 
          currentSize += newSize;
          currentSize -= oldSize;
+         if (queue == protectedQueue) {
+            demoteProtected();
+         }
          // Must only remove entry while holding lru lock now
          super.entryReplaced(newAddress, oldAddress);
       } finally {
@@ -100,7 +141,8 @@ protected void entryCreated(long newAddress) {
       lruLock.lock();
       try {
          currentSize += newSize;
-         addEntryAddressToEnd(newAddress);
+         window.addToEnd(newAddress, newSize);
+         sketch.increment(offHeapEntryFactory.getHashCode(newAddress));
          super.entryCreated(newAddress);
       } finally {
          lruLock.unlock();
@@ -112,9 +154,10 @@ protected void entryRemoved(long removedAddress) {
       long removedSize = sizeCalculator.applyAsLong(removedAddress);
       lruLock.lock();
       try {
+         drainReadBuffer(removedAddress);
          // Current size has to be updated in the lock
          currentSize -=  removedSize;
-         removeNode(removedAddress);
+         queueOf(removedAddress).remove(removedAddress, removedSize);
          // Removals are only done while holding lru lock now
          super.entryRemoved(removedAddress);
       } finally {
@@ -122,61 +165,26 @@ protected void entryRemoved(long removedAddress) {
       }
    }
 
-   /**
-    * Removes the address node and updates previous and next lru node pointers properly
-    * The {@link BoundedOffHeapDataContainer#lruLock} <b>must</b> be held when invoking this
-    * @param address
-    */
-   private void removeNode(long address) {
-      boolean middleNode = true;
-      if (address == lastAddress) {
-         if (trace) {
-            getLog().tracef("Removed entry 0x%016x from the end of the LRU list", address);
-         }
-         long previousLRUNode = OffHeapLruNode.getPrevious(address);
-         if (previousLRUNode != 0) {
-            OffHeapLruNode.setNext(previousLRUNode, 0);
-         }
-         lastAddress = previousLRUNode;
-         middleNode = false;
-      }
-      if (address == firstAddress) {
-         if (trace) {
-            getLog().tracef("Removed entry 0x%016x from the beginning of the LRU list", address);
-         }
-         long nextLRUNode = OffHeapLruNode.getNext(address);
-         if (nextLRUNode != 0) {
-            OffHeapLruNode.setPrevious(nextLRUNode, 0);
-         }
-         firstAddress = nextLRUNode;
-         middleNode = false;
-      }
-      if (middleNode) {
-         if (trace) {
-            getLog().tracef("Removed entry 0x%016x from the middle of the LRU list", address);
-         }
-         // We are a middle pointer so both of these have to be non zero
-         long previousLRUNode = OffHeapLruNode.getPrevious(address);
-         long nextLRUNode = OffHeapLruNode.getNext(address);
-         assert previousLRUNode != 0;
-         assert nextLRUNode != 0;
-         OffHeapLruNode.setNext(previousLRUNode, nextLRUNode);
-         OffHeapLruNode.setPrevious(nextLRUNode, previousLRUNode);
+   @Override
+   protected void ensureAddressCapacity() {
+      // The address table is part of the configured memory size, so it keeps its configured size
+      if (type == EvictionType.COUNT) {
+         super.ensureAddressCapacity();
       }
    }
 
    @Override
    protected void entryRetrieved(long entryAddress) {
-      lruLock.lock();
-      try {
-         if (trace) {
-            getLog().tracef("Moving entry 0x%016x to the end of the LRU list", entryAddress);
+      ReadBuffer buffer = readBuffers[locks.getLockOffset(offHeapEntryFactory.getHashCode(entryAddress))];
+      // If the buffer is full and someone else holds the lock this read is simply not recorded
+      if (!buffer.offer(entryAddress) && lruLock.tryLock()) {
+         try {
+            drainReadBuffers();
+         } finally {
+            lruLock.unlock();
          }
-         moveToEnd(entryAddress);
-         super.entryRetrieved(entryAddress);
-      } finally {
-         lruLock.unlock();
       }
+      super.entryRetrieved(entryAddress);
    }
 
    @Override
@@ -188,8 +196,12 @@ protected void performClear() {
       lruLock.lock();
       try {
          currentSize = initialSize;
-         firstAddress = 0;
-         lastAddress = 0;
+         window.clear();
+         probation.clear();
+         protectedQueue.clear();
+         for (ReadBuffer buffer : readBuffers) {
+            buffer.clear();
+         }
       } finally {
          lruLock.unlock();
       }
@@ -210,19 +222,19 @@ public long evictionSize() {
    }
 
    /**
-    * This method repeatedly removes the head of the LRU list until there the current size is less than or equal to
-    * `maxSize`.
+    * This method repeatedly removes the victim chosen by {@link #selectVictim()} until there the current size is less
+    * than or equal to `maxSize`.
     * <p>
-    * We need to hold the LRU lock in order to check the current size and to read the head entry,
-    * and then we need to hold the head entry's write lock in order to remove it.
+    * We need to hold the LRU lock in order to check the current size and to select the victim entry,
+    * and then we need to hold the victim entry's write lock in order to remove it.
     * The problem is that the correct acquisition order is entry write lock first, LRU lock second,
     * and we need to hold the LRU lock so that we know which entry write lock to acquire.
     * <p>
     * To work around it, we first try to acquire the entry write lock without blocking.
     * If that fails, we release the LRU lock and we acquire the locks in the correct order, hoping that
-    * the LRU head doesn't change while we wait. Because the entry write locks are striped, we actually
-    * tolerate a LRU head change as long as the new head entry is in the same lock stripe.
-    * If the LRU list head changes, we release both locks and try again.
+    * the victim doesn't change while we wait. Because the entry write locks are striped, we actually
+    * tolerate a victim change as long as the new victim is in the same lock stripe.
+    * If the victim changes, we release both locks and try again.
     */
    private void ensureSize() {
 
@@ -234,12 +246,14 @@ private void ensureSize() {
             if (currentSize <= maxSize) {
                break;
             }
-            int hashCode = offHeapEntryFactory.getHashCode(firstAddress);
+            drainReadBuffers();
+            long victim = selectVictim();
+            int hashCode = offHeapEntryFactory.getHashCode(victim);
             entryWriteLock = locks.getLockFromHashCode(hashCode).writeLock();
             if (!entryWriteLock.tryLock()) {
                addressToRemove = 0;
             } else {
-               addressToRemove = firstAddress;
+               addressToRemove = victim;
             }
          } finally {
             lruLock.unlock();
@@ -253,10 +267,11 @@ private void ensureSize() {
                   if (currentSize <= maxSize) {
                      break;
                   }
-                  int hashCode = offHeapEntryFactory.getHashCode(firstAddress);
+                  long victim = selectVictim();
+                  int hashCode = offHeapEntryFactory.getHashCode(victim);
                   Lock innerLock = locks.getLockFromHashCode(hashCode).writeLock();
                   if (innerLock == entryWriteLock) {
-                     addressToRemove = firstAddress;
+                     addressToRemove = victim;
                   } else {
                      addressToRemove = 0;
                   }
@@ -278,7 +293,7 @@ private void ensureSize() {
             try {
                InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(addressToRemove);
                passivator.passivate(ice);
-               performRemove(memoryLookup.getMemoryAddress(ice.getKey()), addressToRemove, ice.getKey(), false);
+               performRemove(memoryLookup(ice.getKey()).getMemoryAddress(ice.getKey()), addressToRemove, ice.getKey(), false);
                evictionManager.onEntryEviction(Collections.singletonMap(ice.getKey(), ice));
             } finally {
                entryWriteLock.unlock();
@@ -288,75 +303,108 @@ private void ensureSize() {
    }
 
    /**
-    * Method to be invoked when adding a new entry address to the end of the lru nodes.  This occurs for newly created
-    * entries.
-    * This method should only be invoked after acquiring the lruLock
-    *
-    * @param entryAddress the new entry address pointer *NOT* the lru node
+    * Chooses the entry to evict next, moving entries that no longer fit in the window to the probation queue.
+    * The newest entry in the probation queue is only admitted, evicting the oldest entry in probation instead, if it
+    * was used more often. This method should only be invoked after acquiring the lruLock.
+    * @return the address of the entry to evict
     */
-   private void addEntryAddressToEnd(long entryAddress) {
+   private long selectVictim() {
+      while (window.size > windowMaximum && window.first != 0) {
+         long address = window.first;
+         long entrySize = sizeCalculator.applyAsLong(address);
+         window.remove(address, entrySize);
+         probation.addToEnd(address, entrySize);
+      }
+      long victim = probation.first;
+      if (victim == 0) {
+         return protectedQueue.first != 0 ? protectedQueue.first : window.first;
+      }
+      long candidate = probation.last;
+      if (candidate == victim) {
+         return victim;
+      }
+      int victimFrequency = sketch.frequency(offHeapEntryFactory.getHashCode(victim));
+      int candidateFrequency = sketch.frequency(offHeapEntryFactory.getHashCode(candidate));
       if (trace) {
-         getLog().tracef("Adding entry 0x%016x to the end of the LRU list", entryAddress);
+         getLog().tracef("Eviction candidate 0x%016x has frequency %d, victim 0x%016x has frequency %d", candidate,
+               candidateFrequency, victim, victimFrequency);
       }
-      // This means it is the first entry
-      if (lastAddress == 0) {
-         firstAddress = entryAddress;
-         lastAddress = entryAddress;
-         // Have to make sure the memory is cleared so we don't use unitialized values
-         OffHeapLruNode.setPrevious(entryAddress, 0);
+      return candidateFrequency > victimFrequency ? victim : candidate;
+   }
+
+   /**
+    * Records an access to the given entry, moving it to the end of its queue or promoting it to the protected queue.
+    * This method should only be invoked after acquiring the lruLock.
+    * @param entryAddress the entry that was read
+    */
+   private void onAccess(long entryAddress) {
+      sketch.increment(offHeapEntryFactory.getHashCode(entryAddress));
+      LruQueue queue = queueOf(entryAddress);
+      if (queue == probation) {
+         long entrySize = sizeCalculator.applyAsLong(entryAddress);
+         probation.remove(entryAddress, entrySize);
+         protectedQueue.addToEnd(entryAddress, entrySize);
+         demoteProtected();
       } else {
-         // Writes back pointer to the old lastAddress
-         OffHeapLruNode.setPrevious(entryAddress, lastAddress);
-         // Write the forward pointer in old lastAddress to point to us
-         OffHeapLruNode.setNext(lastAddress, entryAddress);
-         // Finally make us the last address
-         lastAddress = entryAddress;
+         queue.moveToEnd(entryAddress);
       }
-      // Since we are last there is no pointer after us
-      OffHeapLruNode.setNext(entryAddress, 0);
    }
 
    /**
-    * Method to be invoked when moving an existing lru node to the end.  This occurs when the entry is accessed for this
-    * node.
+    * Moves the oldest entries of the protected queue back to probation until it is within its maximum.
     * This method should only be invoked after acquiring the lruLock.
-    *
-    * @param lruNode the node to move to the end
     */
-   private void moveToEnd(long lruNode) {
-      if (lruNode != lastAddress) {
-         long nextLruNode = OffHeapLruNode.getNext(lruNode);
-         assert nextLruNode != 0;
-         if (lruNode == firstAddress) {
-            OffHeapLruNode.setPrevious(nextLruNode, 0);
-            firstAddress = nextLruNode;
-         } else {
-            long prevLruNode = OffHeapLruNode.getPrevious(lruNode);
-            assert prevLruNode != 0;
-            OffHeapLruNode.setNext(prevLruNode, nextLruNode);
-            OffHeapLruNode.setPrevious(nextLruNode, prevLruNode);
-         }
-         // Link the previous last node to our new last node
-         OffHeapLruNode.setNext(lastAddress, lruNode);
-         // Sets the previous node of our new tail node to the previous tail node
-         OffHeapLruNode.setPrevious(lruNode, lastAddress);
-         OffHeapLruNode.setNext(lruNode, 0);
-         lastAddress = lruNode;
+   private void demoteProtected() {
+      while (protectedQueue.size > protectedMaximum && protectedQueue.first != 0) {
+         long address = protectedQueue.first;
+         long entrySize = sizeCalculator.applyAsLong(address);
+         protectedQueue.remove(address, entrySize);
+         probation.addToEnd(address, entrySize);
+      }
+   }
+
+   private LruQueue queueOf(long entryAddress) {
+      switch (OffHeapLruNode.getQueue(entryAddress)) {
+         case WINDOW:
+            return window;
+         case PROBATION:
+            return probation;
+         case PROTECTED:
+            return protectedQueue;
+         default:
+            throw new IllegalStateException("Entry " + OffHeapLruNode.debugString(entryAddress) + " is not in a queue");
+      }
+   }
+
+   /**
+    * Replays the reads recorded for the lock stripe of the given entry. The write lock for the given entry and the
+    * lruLock <b>must</b> be held when invoking this, which guarantees that no reads are being recorded concurrently.
+    * @param entryAddress the entry whose stripe should be replayed
+    */
+   private void drainReadBuffer(long entryAddress) {
+      readBuffers[locks.getLockOffset(offHeapEntryFactory.getHashCode(entryAddress))].drain(this::onAccess);
+   }
+
+   /**
+    * Replays the reads recorded for all lock stripes. This method should only be invoked after acquiring the lruLock.
+    */
+   private void drainReadBuffers() {
+      for (ReadBuffer buffer : readBuffers) {
+         buffer.drain(this::onAccess);
       }
    }
 
    @SuppressWarnings("unused")
    private List<String> debugLruList() {
-      if (firstAddress == 0)
-         return Collections.emptyList();
-
       lruLock.lock();
       try {
          List<String> list = new ArrayList<>(sizeIncludingExpired());
-         for (long a = firstAddress; a != 0; a = OffHeapLruNode.getNext(a)) {
-            long n = OffHeapLruNode.getNext(a);
-            list.add(OffHeapLruNode.debugString(a));
-            assert n == 0 || OffHeapLruNode.getPrevious(n) == a;
+         for (LruQueue queue : new LruQueue[] { window, probation, protectedQueue }) {
+            for (long a = queue.first; a != 0; a = OffHeapLruNode.getNext(a)) {
+               long n = OffHeapLruNode.getNext(a);
+               list.add(OffHeapLruNode.debugString(a));
+               assert n == 0 || OffHeapLruNode.getPrevious(n) == a;
+            }
          }
          return list;
       } finally {
@@ -364,6 +412,138 @@ private List<String> debugLruList() {
       }
    }
 
+   /**
+    * A doubly linked list of off-heap entries, all methods must only be invoked while holding the lruLock
+    */
+   private class LruQueue {
+      private final int queue;
+      private long first;
+      private long last;
+      private long size;
+
+      LruQueue(int queue) {
+         this.queue = queue;
+      }
+
+      /**
+       * Adds the entry to the end of this queue, this is used for entries that aren't in any queue
+       * @param entryAddress the new entry address pointer *NOT* the lru node
+       * @param entrySize the size of the entry as determined by the sizeCalculator
+       */
+      void addToEnd(long entryAddress, long entrySize) {
+         if (trace) {
+            getLog().tracef("Adding entry 0x%016x to the end of queue %d", entryAddress, queue);
+         }
+         // Have to make sure the memory is written fully so we don't use uninitialized values
+         OffHeapLruNode.setPreviousAndQueue(entryAddress, last, queue);
+         if (last == 0) {
+            // This means it is the first entry
+            first = entryAddress;
+         } else {
+            // Write the forward pointer in old last to point to us
+            OffHeapLruNode.setNext(last, entryAddress);
+         }
+         // Since we are last there is no pointer after us
+         OffHeapLruNode.setNext(entryAddress, 0);
+         last = entryAddress;
+         size += entrySize;
+      }
+
+      /**
+       * Removes the address node and updates previous and next lru node pointers properly
+       * @param entryAddress the entry to remove
+       * @param entrySize the size of the entry as determined by the sizeCalculator
+       */
+      void remove(long entryAddress, long entrySize) {
+         if (trace) {
+            getLog().tracef("Removing entry 0x%016x from queue %d", entryAddress, queue);
+         }
+         long previousLRUNode = OffHeapLruNode.getPrevious(entryAddress);
+         long nextLRUNode = OffHeapLruNode.getNext(entryAddress);
+         if (previousLRUNode == 0) {
+            assert first == entryAddress;
+            first = nextLRUNode;
+         } else {
+            OffHeapLruNode.setNext(previousLRUNode, nextLRUNode);
+         }
+         if (nextLRUNode == 0) {
+            assert last == entryAddress;
+            last = previousLRUNode;
+         } else {
+            OffHeapLruNode.setPrevious(nextLRUNode, previousLRUNode);
+         }
+         size -= entrySize;
+      }
+
+      /**
+       * Moves an entry already in this queue to the end
+       * @param entryAddress the entry to move
+       */
+      void moveToEnd(long entryAddress) {
+         if (entryAddress != last) {
+            remove(entryAddress, 0);
+            addToEnd(entryAddress, 0);
+         }
+      }
+
+      void clear() {
+         first = 0;
+         last = 0;
+         size = 0;
+      }
+   }
+
+   /**
+    * Records the addresses of entries that were read for a single lock stripe. Readers add addresses without any
+    * locking, if the buffer is full or another reader is adding at the same time the read is dropped. Draining the
+    * buffer requires holding the lruLock.
+    */
+   private static class ReadBuffer {
+      private static final int SIZE = 16;
+      private static final int MASK = SIZE - 1;
+
+      private final AtomicLongArray addresses = new AtomicLongArray(SIZE);
+      private final AtomicInteger writeCounter = new AtomicInteger();
+      private volatile int readCounter;
+
+      /**
+       * @return false if the buffer is full and should be drained
+       */
+      boolean offer(long entryAddress) {
+         int write = writeCounter.get();
+         if (write - readCounter >= SIZE) {
+            return false;
+         }
+         if (writeCounter.compareAndSet(write, write + 1)) {
+            addresses.lazySet(write & MASK, entryAddress);
+         }
+         return true;
+      }
+
+      void drain(LongConsumer consumer) {
+         int read = readCounter;
+         int write = writeCounter.get();
+         for (; read != write; ++read) {
+            int index = read & MASK;
+            long address = addresses.get(index);
+            if (address == 0) {
+               // The reader claimed the slot but hasn't written it yet
+               break;
+            }
+            addresses.lazySet(index, 0);
+            consumer.accept(address);
+         }
+         readCounter = read;
+      }
+
+      void clear() {
+         for (int i = 0; i < SIZE; ++i) {
+            addresses.lazySet(i, 0);
+         }
+         readCounter = writeCounter.get();
+      }
+   }
+
    public Log getLog() {
       return log;
    }
@@ -0,0 +1,104 @@
+package org.infinispan.container.offheap;
+
+/**
+ * A probabilistic set of 4-bit counters used to estimate how often a key has been used recently. This is a Count-Min
+ * sketch with a depth of 4, where the counters of a key are all stored in the same long. All counters are halved once
+ * enough increments have been done so that old usages age out. This is the same structure as the TinyLFU admission
+ * policy used by Caffeine.
+ * <p>
+ * This class is not thread safe, the owner must guard all invocations.
+ * @since 9.2
+ */
+class FrequencySketch {
+   private static final long[] SEED = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+         0xcbf29ce484222325L };
+   private static final long RESET_MASK = 0x7777777777777777L;
+   private static final long ONE_MASK = 0x1111111111111111L;
+   // Limits the sketch to 8 MB of heap, as entries are stored off-heap there could be a great many of them
+   private static final int MAXIMUM_TABLE_SIZE = 1 << 20;
+
+   private final long[] table;
+   private final int tableMask;
+   private final int sampleSize;
+   private int size;
+
+   /**
+    * @param expectedEntries the amount of entries that will be tracked, which determines the accuracy of the sketch
+    */
+   FrequencySketch(long expectedEntries) {
+      int maximum = (int) Math.min(Math.max(expectedEntries, 1), MAXIMUM_TABLE_SIZE);
+      table = new long[OffHeapDataContainer.nextPowerOfTwo(maximum)];
+      tableMask = table.length - 1;
+      sampleSize = 10 * maximum;
+   }
+
+   /**
+    * Returns the estimated number of times the key with the given hashCode was used, up to 15
+    * @param hashCode the hashCode of the key
+    * @return the estimated frequency
+    */
+   int frequency(int hashCode) {
+      int hash = spread(hashCode);
+      int start = (hash & 3) << 2;
+      int frequency = Integer.MAX_VALUE;
+      for (int i = 0; i < 4; i++) {
+         int index = indexOf(hash, i);
+         int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+         frequency = Math.min(frequency, count);
+      }
+      return frequency;
+   }
+
+   /**
+    * Increments the counters of the key with the given hashCode, unless they are already at their maximum
+    * @param hashCode the hashCode of the key
+    */
+   void increment(int hashCode) {
+      int hash = spread(hashCode);
+      int start = (hash & 3) << 2;
+      boolean added = false;
+      for (int i = 0; i < 4; i++) {
+         added |= incrementAt(indexOf(hash, i), start + i);
+      }
+      if (added && ++size == sampleSize) {
+         reset();
+      }
+   }
+
+   private boolean incrementAt(int index, int counter) {
+      int offset = counter << 2;
+      long mask = 0xfL << offset;
+      if ((table[index] & mask) != mask) {
+         table[index] += 1L << offset;
+         return true;
+      }
+      return false;
+   }
+
+   /**
+    * Halves every counter, so that keys that are no longer used lose their frequency over time
+    */
+   private void reset() {
+      int oddCounters = 0;
+      for (int i = 0; i < table.length; i++) {
+         oddCounters += Long.bitCount(table[i] & ONE_MASK);
+         table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      size = (size >>> 1) - (oddCounters >>> 2);
+   }
+
+   private int indexOf(int hash, int depth) {
+      long h = (hash + SEED[depth]) * SEED[depth];
+      h += h >>> 32;
+      return ((int) h) & tableMask;
+   }
+
+   /**
+    * Applies a supplemental hash, as key hashCodes are often of poor quality
+    */
+   private static int spread(int x) {
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      return (x >>> 16) ^ x;
+   }
+}
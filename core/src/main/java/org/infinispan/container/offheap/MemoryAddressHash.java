@@ -5,6 +5,9 @@
 import sun.misc.Unsafe;
 
 /**
+ * Table of pointers to the first entry of each off-heap bucket. The table itself never changes size, instead the
+ * owning container allocates a larger table and moves the buckets over, see
+ * {@link OffHeapDataContainer} for how this is done.
  * @author wburns
  * @since 9.0
  */
@@ -28,7 +31,16 @@ public MemoryAddressHash(int pointers, OffHeapMemoryAllocator allocator) {
    }
 
    private long findOffset(Object instance) {
-      int h = spread(instance.hashCode());
+      return findOffset(instance.hashCode());
+   }
+
+   /**
+    * Returns the offset of the pointer used for the given hashCode
+    * @param hashCode the hashCode of the key
+    * @return the offset of the pointer in this table
+    */
+   public int findOffset(int hashCode) {
+      int h = spread(hashCode);
       int pointerMask = pointerCount - 1;
       return h & pointerMask;
    }
@@ -46,8 +58,19 @@ public long getMemoryAddressOffset(int offset) {
       return MEMORY.getLong(memory,((long) offset) << 3);
    }
 
+   public void putMemoryAddressOffset(int offset, long address) {
+      MEMORY.putLong(memory, ((long) offset) << 3, address);
+   }
+
+   /**
+    * @return how many pointers this table holds, always a power of two
+    */
+   public int getPointerCount() {
+      return pointerCount;
+   }
+
    public void deallocate() {
-      allocator.deallocate(memory, pointerCount << 3);
+      allocator.deallocate(memory, ((long) pointerCount) << 3);
    }
 
    /**
@@ -8,11 +8,14 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -29,6 +32,10 @@
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
@@ -36,9 +43,15 @@
 
 /**
  * Data Container implementation that stores entries in native memory (off-heap).
+ * <p>
+ * Entries are found through a {@link MemoryAddressHash} which is doubled in size whenever the number of entries
+ * exceeds {@link #LOAD_FACTOR} of its pointers. Since the table size is always a multiple of the lock count, every
+ * pointer belongs to exactly one lock stripe both before and after the table is doubled. This allows the pointers to
+ * be moved to the new table one lock stripe at a time, while operations on all other stripes continue to run.
  * @author wburns
  * @since 9.0
  */
+@MBean(objectName = "OffHeapDataContainer", description = "Data container storing entries in off-heap memory")
 public class OffHeapDataContainer implements DataContainer<WrappedBytes, WrappedBytes> {
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
    protected final boolean trace = getLog().isTraceEnabled();
@@ -56,13 +69,25 @@ public class OffHeapDataContainer implements DataContainer<WrappedBytes, Wrapped
    @Inject protected ActivationManager activator;
    @Inject protected PassivationManager passivator;
 
-   protected MemoryAddressHash memoryLookup;
+   // The table used by stripes that are not being resized. This is only replaced while holding the first lock
+   protected volatile MemoryAddressHash memoryLookup;
+   // Non null while the address table is being resized
+   private volatile AddressResize pendingResize;
+   // The amount of entries after which the address table will be resized
+   private volatile long resizeThreshold;
+   private final AtomicBoolean resizing = new AtomicBoolean();
+   private final AtomicLong resizeCount = new AtomicLong();
    // Variable to make sure memory locations aren't read after being deallocated
    // This variable should always be read first after acquiring either the read or write lock
    private boolean dellocated = false;
 
    // Max would be 1:1 ratio with memory addresses - must be a crazy machine to have that many processors
    private final static int MAX_LOCK_COUNT = 1 << 30;
+   private final static int MAX_ADDRESS_COUNT = 1 << 30;
+   /**
+    * The ratio of entries to address pointers after which the address table is resized
+    */
+   public final static float LOAD_FACTOR = 0.75f;
 
    static int nextPowerOfTwo(int target) {
       int n = target - 1;
@@ -96,6 +121,11 @@ private static int getActualAddressCount(int desiredSize, int lockCount) {
    @Start
    public void start() {
       memoryLookup = new MemoryAddressHash(memoryAddressCount, allocator);
+      resizeThreshold = thresholdFor(memoryLookup.getPointerCount());
+   }
+
+   private static long thresholdFor(int pointerCount) {
+      return pointerCount >= MAX_ADDRESS_COUNT ? Long.MAX_VALUE : (long) (pointerCount * LOAD_FACTOR);
    }
 
    /**
@@ -111,6 +141,12 @@ public void deallocate() {
          }
          clear();
          memoryLookup.deallocate();
+         AddressResize resize = pendingResize;
+         if (resize != null) {
+            resize.table.deallocate();
+            pendingResize = null;
+         }
+         allocator.release();
          dellocated = true;
       } finally {
          locks.unlockAll();
@@ -130,6 +166,115 @@ protected void checkDeallocation() {
       }
    }
 
+   /**
+    * Returns the address table holding the bucket for the given key. The read or write lock for the given key
+    * <b>must</b> be held before calling this method.
+    * @param key the key to find the address table for
+    * @return the address table to use for the key
+    */
+   protected MemoryAddressHash memoryLookup(Object key) {
+      return memoryLookupForLock(locks.getLockOffset(key.hashCode()));
+   }
+
+   /**
+    * Returns the address table holding the buckets guarded by the given lock. The read or write lock for the given
+    * offset <b>must</b> be held before calling this method.
+    * @param lockOffset the offset of the lock, see {@link StripedLock#getLockWithOffset(int)}
+    * @return the address table to use for buckets guarded by the lock
+    */
+   protected MemoryAddressHash memoryLookupForLock(int lockOffset) {
+      AddressResize resize = pendingResize;
+      if (resize != null && resize.transferred[lockOffset]) {
+         return resize.table;
+      }
+      return memoryLookup;
+   }
+
+   /**
+    * Doubles the address table if there are more entries than allowed by the {@link #LOAD_FACTOR}.  The pointers are
+    * moved into the new table one lock stripe at a time, holding only the write lock for that stripe. Only a single
+    * thread resizes the table at any time, other threads invoking this method while a resize is in progress return
+    * immediately. No locks <b>must</b> be held when invoking this method.
+    */
+   protected void ensureAddressCapacity() {
+      if (size.get() <= resizeThreshold || !resizing.compareAndSet(false, true)) {
+         return;
+      }
+      try {
+         MemoryAddressHash current = memoryLookup;
+         int pointerCount = current.getPointerCount();
+         if (size.get() <= resizeThreshold) {
+            return;
+         }
+         AddressResize resize = null;
+         for (int i = 0; i < lockCount; ++i) {
+            Lock lock = locks.getLockWithOffset(i).writeLock();
+            lock.lock();
+            try {
+               if (dellocated) {
+                  // The pending table was freed with the container
+                  return;
+               }
+               if (resize == null) {
+                  // Allocated while holding the first lock so a concurrent deallocate always sees it
+                  resize = new AddressResize(new MemoryAddressHash(pointerCount << 1, allocator), lockCount);
+                  pendingResize = resize;
+                  if (trace) {
+                     getLog().tracef("Resizing off heap address table from %d to %d pointers for %d entries",
+                           pointerCount, resize.table.getPointerCount(), size.get());
+                  }
+               }
+               transferPointers(i, current, resize.table);
+               resize.transferred[i] = true;
+            } finally {
+               lock.unlock();
+            }
+         }
+         Lock lock = locks.getLockWithOffset(0).writeLock();
+         lock.lock();
+         try {
+            if (dellocated) {
+               return;
+            }
+            // Every stripe is already using the new table, the order of these writes guarantees a reader that
+            // doesn't see the pending resize will see the new table
+            memoryLookup = resize.table;
+            pendingResize = null;
+            current.deallocate();
+            resizeThreshold = thresholdFor(resize.table.getPointerCount());
+            resizeCount.incrementAndGet();
+         } finally {
+            lock.unlock();
+         }
+      } finally {
+         resizing.set(false);
+      }
+   }
+
+   /**
+    * Moves all of the entries for buckets guarded by the given lock from one table to the other. The write lock for
+    * the given offset <b>must</b> be held before calling this method.
+    */
+   private void transferPointers(int lockOffset, MemoryAddressHash from, MemoryAddressHash to) {
+      int pointerCount = from.getPointerCount();
+      for (int i = lockOffset; i < pointerCount; i += lockCount) {
+         long address = from.getMemoryAddressOffset(i);
+         if (address == 0) {
+            continue;
+         }
+         from.putMemoryAddressOffset(i, 0);
+         while (address != 0) {
+            long nextAddress = offHeapEntryFactory.getNext(address);
+            int offset = to.findOffset(offHeapEntryFactory.getHashCode(address));
+            // Order in a bucket doesn't matter, so just push it onto the front
+            offHeapEntryFactory.setNext(address, to.getMemoryAddressOffset(offset));
+            to.putMemoryAddressOffset(offset, address);
+            address = nextAddress;
+         }
+      }
+   }
+
+
    @Override
    public InternalCacheEntry<WrappedBytes, WrappedBytes> get(Object k) {
       return peekOrGet(k, false);
@@ -145,7 +290,7 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> peekOrGet(Object k, boole
       lock.lock();
       try {
          checkDeallocation();
-         long bucketAddress = memoryLookup.getMemoryAddress(k);
+         long bucketAddress = memoryLookup(k).getMemoryAddress(k);
          if (bucketAddress == 0) {
             return null;
          }
@@ -194,12 +339,13 @@ public void put(WrappedBytes key, WrappedBytes value, Metadata metadata) {
       try {
          checkDeallocation();
          long newAddress = offHeapEntryFactory.create(key, value, metadata);
-         long address = memoryLookup.getMemoryAddress(key);
+         long address = memoryLookup(key).getMemoryAddress(key);
          boolean newEntry = performPut(address, 0, newAddress, key);
          activator.onUpdate(key, newEntry);
       } finally {
          lock.unlock();
       }
+      ensureAddressCapacity();
    }
 
    /**
@@ -215,7 +361,7 @@ public void put(WrappedBytes key, WrappedBytes value, Metadata metadata) {
    protected boolean performPut(long bucketHeadAddress, long actualAddress, long newAddress, WrappedBytes key) {
       // Have to start new linked node list
       if (bucketHeadAddress == 0) {
-         memoryLookup.putMemoryAddress(key, newAddress);
+         memoryLookup(key).putMemoryAddress(key, newAddress);
          entryCreated(newAddress);
          size.incrementAndGet();
          return true;
@@ -241,7 +387,7 @@ protected boolean performPut(long bucketHeadAddress, long actualAddress, long ne
                         replaceHead = true;
                      } else {
                         // This branch is the case where our key is the first with another after
-                        memoryLookup.putMemoryAddress(key, nextAddress);
+                        memoryLookup(key).putMemoryAddress(key, nextAddress);
                      }
                   } else {
                      // This branch means our node was not the first, so we have to update the address before ours
@@ -263,7 +409,7 @@ protected boolean performPut(long bucketHeadAddress, long actualAddress, long ne
             size.incrementAndGet();
          }
          if (replaceHead) {
-            memoryLookup.putMemoryAddress(key, newAddress);
+            memoryLookup(key).putMemoryAddress(key, newAddress);
          } else {
             // Now prevAddress should be the last link so we fix our link
             offHeapEntryFactory.setNext(prevAddress, newAddress);
@@ -307,7 +453,7 @@ public boolean containsKey(Object k) {
       lock.lock();
       try {
          checkDeallocation();
-         long address = memoryLookup.getMemoryAddress(k);
+         long address = memoryLookup(k).getMemoryAddress(k);
          if (address == 0) {
             return false;
          }
@@ -341,7 +487,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> remove(Object key) {
       lock.lock();
       try {
          checkDeallocation();
-         long address = memoryLookup.getMemoryAddress(key);
+         long address = memoryLookup(key).getMemoryAddress(key);
          if (address == 0) {
             return null;
          }
@@ -386,7 +532,7 @@ protected InternalCacheEntry<WrappedBytes, WrappedBytes> performRemove(long buck
             if (prevAddress != 0) {
                offHeapEntryFactory.setNext(prevAddress, nextAddress);
             } else {
-               memoryLookup.putMemoryAddress(key, nextAddress);
+               memoryLookup(key).putMemoryAddress(key, nextAddress);
             }
             size.decrementAndGet();
             break;
@@ -424,13 +570,19 @@ protected void performClear() {
       if (trace) {
          getLog().trace("Clearing off heap data");
       }
-      memoryLookup.toStreamRemoved().forEach(address -> {
+      LongConsumer deallocateChain = address -> {
          while (address != 0) {
             long nextAddress = offHeapEntryFactory.getNext(address);
             allocator.deallocate(address);
             address = nextAddress;
          }
-      });
+      };
+      memoryLookup.toStreamRemoved().forEach(deallocateChain);
+      AddressResize resize = pendingResize;
+      if (resize != null) {
+         // Pointers are removed from the old table when transferred so no entry is in both tables
+         resize.table.toStreamRemoved().forEach(deallocateChain);
+      }
       size.set(0);
       if (trace) {
          getLog().trace("Cleared off heap data");
@@ -536,7 +688,7 @@ public void evict(WrappedBytes key) {
       lock.lock();
       try {
          checkDeallocation();
-         long bucketAddress = memoryLookup.getMemoryAddress(key);
+         long bucketAddress = memoryLookup(key).getMemoryAddress(key);
          if (bucketAddress != 0) {
             long actualAddress = performGet(bucketAddress, key, false);
             if (actualAddress != 0) {
@@ -557,7 +709,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key,
       lock.lock();
       try {
          checkDeallocation();
-         long bucketAddress = memoryLookup.getMemoryAddress(key);
+         long bucketAddress = memoryLookup(key).getMemoryAddress(key);
          long actualAddress = bucketAddress == 0 ? 0 : performGet(bucketAddress, key, true);
          InternalCacheEntry<WrappedBytes, WrappedBytes> prev;
          if (actualAddress != 0) {
@@ -569,7 +721,8 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key,
          if (prev == result) {
             // noop
          } else if (result != null) {
-            long newAddress = offHeapEntryFactory.create(key, result.getValue(), result.getMetadata());
+            long newAddress = offHeapEntryFactory.create(key, result.getValue(), result.getMetadata(),
+                  result.isPersisted());
             // TODO: Technically actualAddress could be a 0 and bucketAddress != 0, which means we will loop through
             // entire bucket for no reason as it will never match (doing key equality checks)
             performPut(bucketAddress, actualAddress, newAddress, key);
@@ -581,6 +734,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key,
          return result;
       } finally {
          lock.unlock();
+         ensureAddressCapacity();
       }
    }
 
@@ -591,8 +745,9 @@ private void executeTask(Consumer<InternalCacheEntry<WrappedBytes, WrappedBytes>
          try {
             checkDeallocation();
             long now = timeService.wallClockTime();
-            for (int j = i; j < memoryAddressCount; j += lockCount) {
-               long address = memoryLookup.getMemoryAddressOffset(j);
+            MemoryAddressHash lookup = memoryLookupForLock(i);
+            for (int j = i; j < lookup.getPointerCount(); j += lockCount) {
+               long address = lookup.getMemoryAddressOffset(j);
                while (address != 0) {
                   long nextAddress = offHeapEntryFactory.getNext(address);
                   InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(address);
@@ -629,23 +784,30 @@ public void executeTask(KeyValueFilter<? super WrappedBytes, ? super WrappedByte
    }
 
    private Stream<InternalCacheEntry<WrappedBytes, WrappedBytes>> entryStreamIncludingExpired() {
-      return IntStream.range(0, memoryAddressCount)
+      // The table only ever doubles, so the entries of a bucket from the table at the start of the iteration will be
+      // in the buckets with the same offset modulo this count in any later table
+      int pointerCount = memoryLookup.getPointerCount();
+      return IntStream.range(0, pointerCount)
             .mapToObj(a -> {
-               Lock lock = locks.getLockWithOffset(a % lockCount).readLock();
+               int lockOffset = a & (lockCount - 1);
+               Lock lock = locks.getLockWithOffset(lockOffset).readLock();
                lock.lock();
                try {
                   checkDeallocation();
-                  long address = memoryLookup.getMemoryAddressOffset(a);
-                  if (address == 0) {
-                     return null;
+                  MemoryAddressHash lookup = memoryLookupForLock(lockOffset);
+                  Stream.Builder<InternalCacheEntry<WrappedBytes, WrappedBytes>> builder = null;
+                  for (int offset = a; offset < lookup.getPointerCount(); offset += pointerCount) {
+                     long address = lookup.getMemoryAddressOffset(offset);
+                     while (address != 0) {
+                        if (builder == null) {
+                           builder = Stream.builder();
+                        }
+                        long nextAddress = offHeapEntryFactory.getNext(address);
+                        builder.accept(offHeapEntryFactory.fromMemory(address));
+                        address = nextAddress;
+                     }
                   }
-                  Stream.Builder<InternalCacheEntry<WrappedBytes, WrappedBytes>> builder = Stream.builder();
-                  long nextAddress;
-                  do {
-                     nextAddress = offHeapEntryFactory.getNext(address);
-                     builder.accept(offHeapEntryFactory.fromMemory(address));
-                  } while ((address = nextAddress) != 0);
-                  return builder.build();
+                  return builder == null ? null : builder.build();
                } finally {
                   lock.unlock();
                }
@@ -672,6 +834,75 @@ public long evictionSize() {
       return size.get();
    }
 
+   @ManagedAttribute(description = "Number of pointers in the off-heap address table", displayName = "Address count",
+         displayType = DisplayType.DETAIL)
+   public int getAddressCount() {
+      return memoryLookup.getPointerCount();
+   }
+
+   @ManagedAttribute(description = "Number of times the off-heap address table was resized",
+         displayName = "Address table resizes", measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.DETAIL)
+   public long getAddressResizeCount() {
+      return resizeCount.get();
+   }
+
+   @ManagedAttribute(description = "Number of entries in the longest bucket of the off-heap address table",
+         displayName = "Maximum chain length", displayType = DisplayType.DETAIL)
+   public int getMaxChainLength() {
+      int[] max = new int[1];
+      forEachChainLength(length -> max[0] = Math.max(max[0], length));
+      return max[0];
+   }
+
+   @ManagedAttribute(description = "Average number of entries in the non empty buckets of the off-heap address table",
+         displayName = "Average chain length", displayType = DisplayType.DETAIL)
+   public double getAverageChainLength() {
+      long[] counts = new long[2];
+      forEachChainLength(length -> {
+         if (length != 0) {
+            counts[0]++;
+            counts[1] += length;
+         }
+      });
+      return counts[0] == 0 ? 0 : (double) counts[1] / counts[0];
+   }
+
+   /**
+    * Invokes the consumer with the amount of entries in every bucket, this acquires each read lock in turn
+    */
+   private void forEachChainLength(IntConsumer consumer) {
+      for (int i = 0; i < lockCount; ++i) {
+         Lock lock = locks.getLockWithOffset(i).readLock();
+         lock.lock();
+         try {
+            checkDeallocation();
+            MemoryAddressHash lookup = memoryLookupForLock(i);
+            for (int j = i; j < lookup.getPointerCount(); j += lockCount) {
+               int length = 0;
+               for (long address = lookup.getMemoryAddressOffset(j); address != 0;
+                    address = offHeapEntryFactory.getNext(address)) {
+                  length++;
+               }
+               consumer.accept(length);
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+   }
+
+   private static class AddressResize {
+      private final MemoryAddressHash table;
+      // Only read or written while holding the lock with the same offset
+      private final boolean[] transferred;
+
+      private AddressResize(MemoryAddressHash table, int lockCount) {
+         this.table = table;
+         this.transferred = new boolean[lockCount];
+      }
+   }
+
    public Log getLog() {
       return log;
    }
@@ -21,6 +21,17 @@ public interface OffHeapEntryFactory extends KeyValueMetadataSizeCalculator<Wrap
     */
    long create(WrappedBytes key, WrappedBytes value, Metadata metadata);
 
+   /**
+    * Same as {@link #create(WrappedBytes, WrappedBytes, Metadata)}, also recording whether the stores hold the same
+    * entry, see {@link InternalCacheEntry#isPersisted()}
+    * @param key the key to use
+    * @param value the value to use
+    * @param metadata the metadata to use
+    * @param persisted whether the entry was loaded from the stores and not modified since
+    * @return the address of where the entry was created
+    */
+   long create(WrappedBytes key, WrappedBytes value, Metadata metadata, boolean persisted);
+
    /**
     * Returns how many bytes in memory this address location uses assuming it is an {@link InternalCacheEntry}.
     * This will estimate the size assuming 8 byte alignment and 16 byte allocation overhead
@@ -44,6 +44,9 @@ public class OffHeapEntryFactoryImpl implements OffHeapEntryFactory {
    private static final byte MORTAL = 1 << 3;
    private static final byte TRANSIENT = 1 << 4;
    private static final byte TRANSIENT_MORTAL = 1 << 5;
+   // Can be set with any of the above, the entry was loaded from the stores and not modified since
+   private static final byte PERSISTED = 1 << 6;
+   private static final int METADATA_TYPE_MASK = IMMORTAL | MORTAL | TRANSIENT | TRANSIENT_MORTAL;
 
    /**
     * HEADER is composed of type (byte), hashCode (int), keyLength (int), valueLength (int)
@@ -65,6 +68,11 @@ public void start() {
     */
    @Override
    public long create(WrappedBytes key, WrappedBytes value, Metadata metadata) {
+      return create(key, value, metadata, false);
+   }
+
+   @Override
+   public long create(WrappedBytes key, WrappedBytes value, Metadata metadata, boolean persisted) {
       byte type;
       boolean shouldWriteMetadataSize = false;
       byte[] metadataBytes;
@@ -121,6 +129,9 @@ public long create(WrappedBytes key, WrappedBytes value, Metadata metadata) {
             throw new CacheException(e);
          }
       }
+      if (persisted) {
+         type |= PERSISTED;
+      }
       int keySize = key.getLength();
       int metadataSize = metadataBytes.length;
       int valueSize = value.getLength();
@@ -186,7 +197,7 @@ public long getSize(long entryAddress) {
       int valueLength = MEMORY.getInt(entryAddress, headerOffset);
       headerOffset += 4;
 
-      return UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(headerOffset + keyLength + metadataLength + valueLength);
+      return allocator.estimateSize(headerOffset + keyLength + metadataLength + valueLength);
    }
 
    @Override
@@ -227,7 +238,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
       offset += 4;
 
       byte[] metadataBytes;
-      switch (metadataType) {
+      switch (metadataType & ~PERSISTED) {
          case IMMORTAL:
             metadataBytes = EMPTY_BYTES;
             break;
@@ -256,6 +267,14 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
       MEMORY.getBytes(address, offset, valueBytes, 0, valueBytes.length);
       offset += valueBytes.length;
 
+      InternalCacheEntry<WrappedBytes, WrappedBytes> ice = createEntry(metadataType, hashCode, keyBytes, metadataBytes,
+            valueBytes);
+      ice.setPersisted((metadataType & PERSISTED) != 0);
+      return ice;
+   }
+
+   private InternalCacheEntry<WrappedBytes, WrappedBytes> createEntry(byte metadataType, int hashCode, byte[] keyBytes,
+         byte[] metadataBytes, byte[] valueBytes) {
       Metadata metadata;
       // This is a custom metadata
       if ((metadataType & CUSTOM) == CUSTOM) {
@@ -271,10 +290,10 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
          long maxIdle;
          long created;
          long lastUsed;
-         offset = 0;
+         int offset = 0;
          boolean hasVersion = (metadataType & HAS_VERSION) == HAS_VERSION;
-         // Ignore CUSTOM and VERSION to find type
-         switch (metadataType & 0xFC) {
+         // Ignore CUSTOM, VERSION and PERSISTED to find type
+         switch (metadataType & METADATA_TYPE_MASK) {
             case IMMORTAL:
                lifespan = -1;
                maxIdle = -1;
@@ -412,7 +431,7 @@ public boolean isExpired(long address) {
             offset += 4;
          }
 
-         switch (metadataType & 0xFC) {
+         switch (metadataType & METADATA_TYPE_MASK) {
             case MORTAL:
                metadataBytes = new byte[16];
                MEMORY.getBytes(address, offset, metadataBytes, 0, metadataBytes.length);
@@ -471,6 +490,6 @@ public long calculateSize(WrappedBytes key, WrappedBytes value, Metadata metadat
             throw new CacheException(e);
          }
       }
-      return UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(totalSize + metadataSize);
+      return allocator.estimateSize(totalSize + metadataSize);
    }
 }
@@ -12,6 +12,8 @@ class OffHeapLruNode {
 
    private static final int PREVIOUS_NODE_OFFSET = 0;
    private static final int NEXT_NODE_OFFSET = PREVIOUS_NODE_OFFSET + ADDRESS_SIZE;
+   // Allocated addresses are always at least 8 byte aligned, leaving the low bits of a pointer free
+   private static final long QUEUE_MASK = 0x3L;
 
    private OffHeapLruNode() {
    }
@@ -25,15 +27,32 @@ static void setNext(long lruNodeAddress, long nextAddress) {
    }
 
    static long getPrevious(long lruNodeAddress) {
-      return MEMORY.getLong(lruNodeAddress, PREVIOUS_NODE_OFFSET);
+      return MEMORY.getLong(lruNodeAddress, PREVIOUS_NODE_OFFSET) & ~QUEUE_MASK;
    }
 
    static void setPrevious(long lruNodeAddress, long previousAddress) {
-      MEMORY.putLong(lruNodeAddress, PREVIOUS_NODE_OFFSET, previousAddress);
+      long queue = MEMORY.getLong(lruNodeAddress, PREVIOUS_NODE_OFFSET) & QUEUE_MASK;
+      MEMORY.putLong(lruNodeAddress, PREVIOUS_NODE_OFFSET, previousAddress | queue);
+   }
+
+   /**
+    * Returns which queue this node is in, this is stored in the unused low bits of the previous pointer
+    */
+   static int getQueue(long lruNodeAddress) {
+      return (int) (MEMORY.getLong(lruNodeAddress, PREVIOUS_NODE_OFFSET) & QUEUE_MASK);
+   }
+
+   /**
+    * Sets both the previous pointer and the queue of this node, this must be used when a node is first added as
+    * the previous pointer may contain garbage
+    */
+   static void setPreviousAndQueue(long lruNodeAddress, long previousAddress, int queue) {
+      assert (previousAddress & QUEUE_MASK) == 0 && (queue & ~QUEUE_MASK) == 0;
+      MEMORY.putLong(lruNodeAddress, PREVIOUS_NODE_OFFSET, previousAddress | queue);
    }
 
    static String debugString(long address) {
-      return String.format("0x%016x <-- entry 0x%016x --> 0x%016x", OffHeapLruNode.getPrevious(address), address,
-            OffHeapLruNode.getNext(address));
+      return String.format("0x%016x <-- entry 0x%016x (queue %d) --> 0x%016x", OffHeapLruNode.getPrevious(address),
+            address, OffHeapLruNode.getQueue(address), OffHeapLruNode.getNext(address));
    }
 }
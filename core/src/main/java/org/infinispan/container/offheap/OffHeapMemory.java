@@ -124,6 +124,25 @@ long allocate(long size) {
       return address;
    }
 
+   /**
+    * Tracks a block of memory that was not directly allocated by {@link #allocate(long)}, such as a block in a larger
+    * slab, so that accesses to it can be checked. Only has an effect when trace logging is enabled.
+    */
+   void registerBlock(long address, long size) {
+      if (trace) {
+         allocatedBlocks.put(address, size);
+      }
+   }
+
+   /**
+    * Stops tracking a block registered with {@link #registerBlock(long, long)}
+    */
+   void unregisterBlock(long address) {
+      if (trace) {
+         allocatedBlocks.remove(address);
+      }
+   }
+
    void free(long address) {
       Long prev = allocatedBlocks.remove(address);
       if (trace) {
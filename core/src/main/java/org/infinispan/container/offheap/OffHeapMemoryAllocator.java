@@ -29,4 +29,20 @@ public interface OffHeapMemoryAllocator {
    void deallocate(long memoryAddress, long size);
 
    long getAllocatedAmount();
+
+   /**
+    * Estimates how much memory an allocation of the given length takes, including the overhead of the allocator.
+    * @param memoryLength the size of memory to allocate
+    * @return the memory used by the allocation
+    */
+   default long estimateSize(long memoryLength) {
+      return UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(memoryLength);
+   }
+
+   /**
+    * Invoked after all memory allocated by this allocator has been deallocated, so that any memory the allocator
+    * retained for reuse can be returned to the system.
+    */
+   default void release() {
+   }
 }
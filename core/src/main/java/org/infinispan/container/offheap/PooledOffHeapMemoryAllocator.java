@@ -0,0 +1,360 @@
+package org.infinispan.container.offheap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import sun.misc.Unsafe;
+
+/**
+ * Memory allocator that carves allocations out of large slabs of native memory, grouping them into size classes.
+ * Freed blocks are kept in a free list per size class and reused by later allocations of the same class, so a
+ * write heavy cache doesn't pay for a native allocation and free on every write. The free list of every size class
+ * is striped by thread, so concurrent writers rarely contend on the same monitor, but every free block stays in the
+ * shared pool: nothing is lost when a thread dies.
+ * <p>
+ * Every block is prefixed with an 8 byte header describing how it was allocated, so the size doesn't have to be
+ * known when deallocating. Allocations larger than the largest size class are allocated directly using
+ * {@link Unsafe}, with the same header.
+ * <p>
+ * Slabs are never returned to the system while the allocator is in use, they are only freed when {@link #release()}
+ * is invoked after all memory has been deallocated. {@link #estimateSize(long)} returns the size of the block an
+ * allocation takes, so a container bounded by memory also counts the rounding to the size classes.
+ * @since 9.2
+ */
+@MBean(objectName = "OffHeapMemoryAllocator", description = "Pooled allocator of off-heap memory")
+public class PooledOffHeapMemoryAllocator implements OffHeapMemoryAllocator {
+   private static final Log log = LogFactory.getLog(PooledOffHeapMemoryAllocator.class, Log.class);
+   private static final boolean trace = log.isTraceEnabled();
+   private static final Unsafe UNSAFE = UnsafeHolder.UNSAFE;
+   private static final OffHeapMemory MEMORY = OffHeapMemory.INSTANCE;
+
+   static final int HEADER_SIZE = 8;
+   static final int DEFAULT_SLAB_SIZE = 1 << 20;
+   static final int DEFAULT_MAX_BLOCK_SIZE = 1 << 16;
+
+   private static final int MIN_BLOCK_SIZE = 32;
+   // How many blocks are carved out of a slab at once when all the free lists of a size class are empty
+   private static final int BATCH_SIZE = 32;
+   private static final int STRIPES = stripeCount();
+
+   private final int slabSize;
+   private final int[] blockSizes;
+   private final SizeClass[] sizeClasses;
+
+   private final List<Long> slabs = new ArrayList<>();
+   private final LongAdder amountAllocated = new LongAdder();
+   private final LongAdder amountRequested = new LongAdder();
+   private final LongAdder amountDirect = new LongAdder();
+
+   public PooledOffHeapMemoryAllocator() {
+      this(DEFAULT_SLAB_SIZE, DEFAULT_MAX_BLOCK_SIZE);
+   }
+
+   public PooledOffHeapMemoryAllocator(int slabSize, int maxBlockSize) {
+      if (maxBlockSize < MIN_BLOCK_SIZE || maxBlockSize > slabSize) {
+         throw new IllegalArgumentException("Maximum block size " + maxBlockSize + " must be between " +
+               MIN_BLOCK_SIZE + " and the slab size " + slabSize);
+      }
+      this.slabSize = slabSize;
+      this.blockSizes = computeBlockSizes(maxBlockSize);
+      this.sizeClasses = new SizeClass[blockSizes.length];
+      for (int i = 0; i < blockSizes.length; ++i) {
+         sizeClasses[i] = new SizeClass(blockSizes[i]);
+      }
+   }
+
+   /**
+    * Block sizes grow in steps of 16 bytes up to 256 bytes and afterwards in steps of a quarter of the current size,
+    * which bounds the wasted space of any allocation to 25%. All sizes are a multiple of 16 to keep blocks aligned.
+    */
+   static int[] computeBlockSizes(int maxBlockSize) {
+      int[] sizes = new int[64];
+      int count = 0;
+      int size = MIN_BLOCK_SIZE;
+      while (size < maxBlockSize) {
+         if (count == sizes.length) {
+            sizes = Arrays.copyOf(sizes, count << 1);
+         }
+         sizes[count++] = size;
+         size += Math.max(16, (size >>> 2) & ~15);
+      }
+      sizes = Arrays.copyOf(sizes, count + 1);
+      sizes[count] = maxBlockSize;
+      return sizes;
+   }
+
+   private static int stripeCount() {
+      int stripes = 1;
+      while (stripes < Runtime.getRuntime().availableProcessors() && stripes < 16) {
+         stripes <<= 1;
+      }
+      return stripes;
+   }
+
+   private static int stripe() {
+      return (int) Thread.currentThread().getId() & (STRIPES - 1);
+   }
+
+   private int sizeClassIndex(long blockSize) {
+      int index = Arrays.binarySearch(blockSizes, (int) blockSize);
+      return index >= 0 ? index : -(index + 1);
+   }
+
+   @Override
+   public long allocate(long memoryLength) {
+      long blockSize = memoryLength + HEADER_SIZE;
+      if (blockSize > blockSizes[blockSizes.length - 1]) {
+         return allocateDirect(memoryLength, blockSize);
+      }
+      int index = sizeClassIndex(blockSize);
+      long block = sizeClasses[index].allocate();
+      // The header holds the requested length in the high bits and the size class in the low bits
+      UNSAFE.putLong(block, (memoryLength << 32) | index);
+      long address = block + HEADER_SIZE;
+      MEMORY.registerBlock(address, memoryLength);
+      amountAllocated.add(blockSizes[index]);
+      amountRequested.add(memoryLength);
+      if (trace) {
+         log.tracef("Allocated off heap memory at 0x%016x with %d bytes from size class %d. Total size: %d", address,
+               memoryLength, blockSizes[index], amountAllocated.sum());
+      }
+      return address;
+   }
+
+   private long allocateDirect(long memoryLength, long blockSize) {
+      long block = MEMORY.allocate(blockSize);
+      // Negative header denotes a direct allocation, storing its complete size
+      UNSAFE.putLong(block, -blockSize);
+      long address = block + HEADER_SIZE;
+      MEMORY.registerBlock(address, memoryLength);
+      long estimatedSize = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(blockSize);
+      amountAllocated.add(estimatedSize);
+      amountRequested.add(memoryLength);
+      amountDirect.add(estimatedSize);
+      if (trace) {
+         log.tracef("Allocated off heap memory directly at 0x%016x with %d bytes. Total size: %d", address,
+               memoryLength, amountAllocated.sum());
+      }
+      return address;
+   }
+
+   @Override
+   public void deallocate(long memoryAddress) {
+      long block = memoryAddress - HEADER_SIZE;
+      long header = UNSAFE.getLong(block);
+      MEMORY.unregisterBlock(memoryAddress);
+      if (header < 0) {
+         long blockSize = -header;
+         long estimatedSize = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(blockSize);
+         amountAllocated.add(-estimatedSize);
+         amountRequested.add(-(blockSize - HEADER_SIZE));
+         amountDirect.add(-estimatedSize);
+         if (trace) {
+            log.tracef("Deallocating directly allocated off heap memory at 0x%016x. Total size: %d", memoryAddress,
+                  amountAllocated.sum());
+         }
+         MEMORY.free(block);
+      } else {
+         int index = (int) header;
+         amountAllocated.add(-blockSizes[index]);
+         amountRequested.add(-(header >>> 32));
+         if (trace) {
+            log.tracef("Deallocating off heap memory at 0x%016x to size class %d. Total size: %d", memoryAddress,
+                  blockSizes[index], amountAllocated.sum());
+         }
+         sizeClasses[index].free(block);
+      }
+   }
+
+   @Override
+   public void deallocate(long memoryAddress, long size) {
+      // The header already tells us everything we need
+      deallocate(memoryAddress);
+   }
+
+   @Override
+   public long estimateSize(long memoryLength) {
+      long blockSize = memoryLength + HEADER_SIZE;
+      if (blockSize > blockSizes[blockSizes.length - 1]) {
+         return UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(blockSize);
+      }
+      return blockSizes[sizeClassIndex(blockSize)];
+   }
+
+   @Override
+   public void release() {
+      synchronized (slabs) {
+         if (amountAllocated.sum() != 0) {
+            log.debugf("Not releasing off heap slabs as %d bytes are still allocated", amountAllocated.sum());
+            return;
+         }
+         for (SizeClass sizeClass : sizeClasses) {
+            sizeClass.reset();
+         }
+         for (Long slab : slabs) {
+            MEMORY.free(slab);
+         }
+         if (trace) {
+            log.tracef("Released %d off heap slabs", slabs.size());
+         }
+         slabs.clear();
+      }
+   }
+
+   private long allocateSlab() {
+      synchronized (slabs) {
+         long slab = MEMORY.allocate(slabSize);
+         slabs.add(slab);
+         if (trace) {
+            log.tracef("Allocated new off heap slab at 0x%016x with %d bytes", slab, slabSize);
+         }
+         return slab;
+      }
+   }
+
+   @ManagedAttribute(description = "Amount of memory in bytes handed out by the allocator, including block rounding",
+         displayName = "Allocated memory", displayType = DisplayType.SUMMARY)
+   @Override
+   public long getAllocatedAmount() {
+      return amountAllocated.sum();
+   }
+
+   @ManagedAttribute(description = "Amount of memory in bytes requested by the data container",
+         displayName = "Requested memory", displayType = DisplayType.SUMMARY)
+   public long getRequestedAmount() {
+      return amountRequested.sum();
+   }
+
+   @ManagedAttribute(description = "Amount of memory in bytes reserved from the system, both slabs and direct allocations",
+         displayName = "Reserved memory", displayType = DisplayType.SUMMARY)
+   public long getReservedAmount() {
+      return getSlabCount() * (long) slabSize + amountDirect.sum();
+   }
+
+   @ManagedAttribute(description = "Number of slabs allocated from the system", displayName = "Slab count",
+         displayType = DisplayType.SUMMARY)
+   public int getSlabCount() {
+      synchronized (slabs) {
+         return slabs.size();
+      }
+   }
+
+   @ManagedAttribute(description = "Size in bytes of every slab", displayName = "Slab size", dataType = DataType.TRAIT)
+   public int getSlabSize() {
+      return slabSize;
+   }
+
+   @ManagedAttribute(description = "Fraction of the reserved memory that is currently allocated",
+         displayName = "Occupancy", displayType = DisplayType.SUMMARY)
+   public double getOccupancy() {
+      long reserved = getReservedAmount();
+      return reserved == 0 ? 0 : (double) getAllocatedAmount() / reserved;
+   }
+
+   @ManagedAttribute(description = "Fraction of the allocated memory that is wasted due to rounding up to a block size",
+         displayName = "Internal fragmentation", displayType = DisplayType.SUMMARY)
+   public double getFragmentation() {
+      long allocated = getAllocatedAmount();
+      return allocated == 0 ? 0 : 1 - (double) getRequestedAmount() / allocated;
+   }
+
+   /**
+    * Blocks of a single size class. The free blocks are spread over a few striped free lists: a thread frees blocks
+    * to its own stripe and allocates from it, and only looks at the other stripes when its own is empty.
+    */
+   private final class SizeClass {
+      private final int blockSize;
+      private final FreeList[] freeLists = new FreeList[STRIPES];
+      // Guarded by the instance monitor
+      private long slabCursor;
+      private long slabEnd;
+
+      SizeClass(int blockSize) {
+         this.blockSize = blockSize;
+         for (int i = 0; i < freeLists.length; ++i) {
+            freeLists[i] = new FreeList();
+         }
+      }
+
+      long allocate() {
+         int stripe = stripe();
+         for (int i = 0; i < freeLists.length; ++i) {
+            long block = freeLists[(stripe + i) & (STRIPES - 1)].poll();
+            if (block != 0) {
+               return block;
+            }
+         }
+         return carve(freeLists[stripe]);
+      }
+
+      void free(long block) {
+         freeLists[stripe()].push(block);
+      }
+
+      /**
+       * Carves a batch of blocks out of the current slab, returning one and adding the others to the free list.
+       */
+      private synchronized long carve(FreeList freeList) {
+         long block = 0;
+         for (int i = 0; i < BATCH_SIZE; ++i) {
+            if (slabCursor + blockSize > slabEnd) {
+               if (block != 0) {
+                  // Only allocate a new slab when nothing is left to return
+                  break;
+               }
+               slabCursor = allocateSlab();
+               slabEnd = slabCursor + slabSize;
+            }
+            if (block != 0) {
+               freeList.push(slabCursor);
+            } else {
+               block = slabCursor;
+            }
+            slabCursor += blockSize;
+         }
+         return block;
+      }
+
+      synchronized void reset() {
+         for (FreeList freeList : freeLists) {
+            freeList.reset();
+         }
+         slabCursor = 0;
+         slabEnd = 0;
+      }
+   }
+
+   /**
+    * Free blocks kept as a linked list, where each block holds the address of the next one in place of its header.
+    * All access is guarded by the instance monitor.
+    */
+   private static final class FreeList {
+      private long head;
+
+      synchronized long poll() {
+         long block = head;
+         if (block != 0) {
+            head = UNSAFE.getLong(block);
+         }
+         return block;
+      }
+
+      synchronized void push(long block) {
+         UNSAFE.putLong(block, head);
+         head = block;
+      }
+
+      synchronized void reset() {
+         head = 0;
+      }
+   }
+}
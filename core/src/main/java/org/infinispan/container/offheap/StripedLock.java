@@ -40,9 +40,18 @@ public ReadWriteLock getLock(Object obj) {
     * @return the lock associated with the given hashCode
     */
    public ReadWriteLock getLockFromHashCode(int hashCode) {
+      return locks[getLockOffset(hashCode)];
+   }
+
+   /**
+    * Retrieves the offset of the lock associated with the given hashCode, this can be passed to
+    * {@link StripedLock#getLockWithOffset(int)}
+    * @param hashCode the hashCode to retrieve the lock offset for
+    * @return the offset of the lock associated with the given hashCode
+    */
+   public int getLockOffset(int hashCode) {
       int h = spread(hashCode);
-      int offset = h & (locks.length - 1);
-      return locks[offset];
+      return h & (locks.length - 1);
    }
 
    /**
@@ -1,5 +1,6 @@
 package org.infinispan.eviction;
 
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 
@@ -30,6 +31,25 @@ public interface ActivationManager {
     */
    void onRemove(Object key, boolean newEntry);
 
+   /**
+    * Invoked with an entry loaded from the stores, before it is inserted in the data container.
+    *
+    * @param entry Entry loaded
+    */
+   default void onLoad(InternalCacheEntry entry) {
+   }
+
+   /**
+    * Invoked when an entry is passivated.
+    *
+    * @param entry Entry passivated
+    * @return {@code true} if persistence is tiered and the entry was not modified in memory since it was loaded, so
+    *         the stores still hold it
+    */
+   default boolean onPassivate(InternalCacheEntry entry) {
+      return false;
+   }
+
    /**
     * Get number of activations executed.
     *
@@ -43,6 +43,15 @@ public interface PassivationManager extends JmxStatisticsExposer {
    )
    long getPassivations();
 
+   @ManagedAttribute(
+         description = "Number of passivated entries that were not written to the cache store, as it still held them",
+         displayName = "Number of skipped cache passivations",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   default long getSkippedPassivations() {
+      return 0;
+   }
+
    @ManagedOperation(
          description = "Resets statistics gathered by this component",
          displayName = "Reset statistics")
@@ -8,6 +8,7 @@
 
 import org.infinispan.commons.CacheException;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.eviction.ActivationManager;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
@@ -22,6 +23,11 @@
 
 /**
  * Concrete implementation of activation logic manager.
+ * <p/>
+ * When persistence is {@link org.infinispan.configuration.cache.PersistenceConfiguration#tiered() tiered} the
+ * activated entries are not removed from the stores. Instead the loaded entries are marked as {@link
+ * InternalCacheEntry#isPersisted() persisted}, so that they are not written again when they are passivated, unless
+ * they were modified in memory.
  *
  * @author Galder Zamarreño
  * @since 5.2
@@ -39,6 +45,7 @@ public class ActivationManagerImpl implements ActivationManager {
    @Inject private ClusteringDependentLogic clusteringDependentLogic;
 
    private boolean passivation;
+   private boolean tiered;
 
    @ManagedAttribute(description = "Enables or disables the gathering of statistics by this component", displayName = "Statistics enabled", writable = true)
    private boolean statisticsEnabled = false;
@@ -47,12 +54,14 @@ public class ActivationManagerImpl implements ActivationManager {
    public void start() {
       statisticsEnabled = cfg.jmxStatistics().enabled();
       passivation = cfg.persistence().passivation();
+      tiered = passivation && cfg.persistence().tiered();
    }
 
    @Override
    public void onUpdate(Object key, boolean newEntry) {
-      if (!passivation || !newEntry) {
+      if (!passivation || !newEntry || tiered) {
          //we don't have passivation or the entry already exists in container.
+         //with tiered persistence the stores keep a copy of the loaded entries.
          return;
       }
       try {
@@ -69,6 +78,15 @@ public void onRemove(Object key, boolean newEntry) {
       if (!passivation) {
          return;
       }
+      if (tiered) {
+         //the stores may have a copy of the entry even if it exists in the data container
+         try {
+            persistenceManager.deleteFromAllStores(key, PRIVATE);
+         } catch (CacheException e) {
+            log.unableToRemoveEntryAfterActivation(key, e);
+         }
+         return;
+      }
       //if we are the primary owner, we need to remove from the shared store,
       final boolean primaryOwner = clusteringDependentLogic.getCacheTopology().getDistribution(key).isPrimary();
       try {
@@ -92,6 +110,21 @@ public void onRemove(Object key, boolean newEntry) {
       }
    }
 
+   @Override
+   public void onLoad(InternalCacheEntry entry) {
+      if (tiered) {
+         entry.setPersisted(true);
+         if (statisticsEnabled) {
+            activations.incrementAndGet();
+         }
+      }
+   }
+
+   @Override
+   public boolean onPassivate(InternalCacheEntry entry) {
+      return tiered && entry.isPersisted();
+   }
+
    @Override
    public long getActivationCount() {
       return activations.get();
@@ -6,15 +6,16 @@
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.StreamSupport;
 
 import org.infinispan.commons.CacheException;
-import org.infinispan.commons.util.IteratorMapper;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.impl.ImmutableContext;
 import org.infinispan.distribution.DistributionManager;
+import org.infinispan.eviction.ActivationManager;
 import org.infinispan.eviction.PassivationManager;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
@@ -38,6 +39,7 @@ public class PassivationManagerImpl implements PassivationManager {
    @Inject private TimeService timeService;
    @Inject private MarshalledEntryFactory marshalledEntryFactory;
    @Inject private DistributionManager distributionManager;
+   @Inject private ActivationManager activationManager;
 
    private volatile boolean skipOnStop = false;
 
@@ -45,6 +47,7 @@ public class PassivationManagerImpl implements PassivationManager {
    boolean enabled = false;
 
    private final AtomicLong passivations = new AtomicLong(0);
+   private final AtomicLong skippedPassivations = new AtomicLong(0);
 
    @Start(priority = 12)
    public void start() {
@@ -72,10 +75,15 @@ public void passivate(InternalCacheEntry entry) {
                ImmutableContext.INSTANCE, null);
          if (trace) log.tracef("Passivating entry %s", toStr(key));
          try {
-            MarshalledEntry marshalledEntry = marshalledEntryFactory.newMarshalledEntry(entry.getKey(), entry.getValue(),
-                                                                                        internalMetadata(entry));
-            persistenceManager.writeToAllNonTxStores(marshalledEntry, BOTH);
-            if (statsEnabled) passivations.getAndIncrement();
+            if (isStored(entry)) {
+               if (trace) log.tracef("Entry %s was not modified since it was activated", toStr(key));
+               if (statsEnabled) skippedPassivations.getAndIncrement();
+            } else {
+               MarshalledEntry marshalledEntry = marshalledEntryFactory.newMarshalledEntry(entry.getKey(),
+                     entry.getValue(), internalMetadata(entry));
+               persistenceManager.writeToAllNonTxStores(marshalledEntry, BOTH);
+               if (statsEnabled) passivations.getAndIncrement();
+            }
          } catch (CacheException e) {
             log.unableToPassivateEntry(key, e);
          }
@@ -91,13 +99,23 @@ public void passivateAll() throws PersistenceException {
          log.passivatingAllEntries();
 
          int count = container.sizeIncludingExpired();
-         Iterable<MarshalledEntry> iterable = () -> new IteratorMapper<>(container.iterator(), e ->
-            marshalledEntryFactory.newMarshalledEntry(e.getKey(), e.getValue(), internalMetadata(e)));
+         Iterable<MarshalledEntry> iterable = () -> StreamSupport.stream(container.spliterator(), false)
+               .filter(e -> !isStored(e))
+               .map(e -> (MarshalledEntry) marshalledEntryFactory.newMarshalledEntry(e.getKey(), e.getValue(), internalMetadata(e)))
+               .iterator();
          persistenceManager.writeBatchToAllNonTxStores(iterable, BOTH, 0);
          log.passivatedEntries(count, Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
       }
    }
 
+   /**
+    * With tiered persistence the stores keep the activated entries, so they only need to be written again if they were
+    * modified in memory. Entries with a max idle are always written, as their last access time changes on every read.
+    */
+   private boolean isStored(InternalCacheEntry entry) {
+      return activationManager.onPassivate(entry) && entry.getMaxIdle() <= 0;
+   }
+
    @Override
    public void skipPassivationOnStop(boolean skip) {
       this.skipOnStop = skip;
@@ -108,6 +126,11 @@ public long getPassivations() {
       return passivations.get();
    }
 
+   @Override
+   public long getSkippedPassivations() {
+      return skippedPassivations.get();
+   }
+
    @Override
    public boolean getStatisticsEnabled() {
       return statsEnabled;
@@ -121,5 +144,6 @@ public void setStatisticsEnabled(boolean enabled) {
    @Override
    public void resetStatistics() {
       passivations.set(0L);
+      skippedPassivations.set(0L);
    }
 }
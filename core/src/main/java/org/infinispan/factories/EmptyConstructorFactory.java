@@ -6,8 +6,6 @@
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.container.offheap.OffHeapEntryFactory;
 import org.infinispan.container.offheap.OffHeapEntryFactoryImpl;
-import org.infinispan.container.offheap.OffHeapMemoryAllocator;
-import org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
@@ -38,7 +36,7 @@
 @DefaultFactoryFor(classes = {BackupReceiverRepository.class, CancellationService.class, EventLogManager.class,
                               InboundInvocationHandler.class, PersistentUUIDManager.class,
                               RemoteCommandsFactory.class, TimeService.class, OffHeapEntryFactory.class,
-                              OffHeapMemoryAllocator.class, IteratorHandler.class, GlobalStateManager.class, GlobalConfigurationManager.class})
+                              IteratorHandler.class, GlobalStateManager.class, GlobalConfigurationManager.class})
 
 @Scope(Scopes.GLOBAL)
 public class EmptyConstructorFactory extends AbstractComponentFactory implements AutoInstantiableFactory {
@@ -62,8 +60,6 @@ else if (componentType.equals(PersistentUUIDManager.class))
          return (T) new PersistentUUIDManagerImpl();
       else if (componentType.equals(OffHeapEntryFactory.class))
          return componentType.cast(new OffHeapEntryFactoryImpl());
-      else if (componentType.equals(OffHeapMemoryAllocator.class))
-         return componentType.cast(new UnpooledOffHeapMemoryAllocator());
       else if (componentType.equals(IteratorHandler.class))
          return componentType.cast(new IteratorHandler());
       else if (componentType.equals(GlobalStateManager.class))
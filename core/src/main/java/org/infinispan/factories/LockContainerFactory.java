@@ -1,6 +1,8 @@
 package org.infinispan.factories;
 
+import org.infinispan.configuration.cache.LockingConfiguration;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
+import org.infinispan.util.concurrent.locks.impl.AdaptiveLockContainer;
 import org.infinispan.util.concurrent.locks.impl.LockContainer;
 import org.infinispan.util.concurrent.locks.impl.PerKeyLockContainer;
 import org.infinispan.util.concurrent.locks.impl.StripedLockContainer;
@@ -17,8 +19,12 @@ public class LockContainerFactory extends AbstractNamedCacheComponentFactory imp
    @SuppressWarnings("unchecked")
    @Override
    public <T> T construct(Class<T> componentType) {
-      return (T) (configuration.locking().useLockStriping() ?
-                        new StripedLockContainer(configuration.locking().concurrencyLevel()) :
-                        new PerKeyLockContainer());
+      LockingConfiguration locking = configuration.locking();
+      if (!locking.useLockStriping()) {
+         return (T) new PerKeyLockContainer();
+      }
+      return (T) (locking.adaptiveLockStriping() ?
+                        new AdaptiveLockContainer(locking.concurrencyLevel()) :
+                        new StripedLockContainer(locking.concurrencyLevel()));
    }
 }
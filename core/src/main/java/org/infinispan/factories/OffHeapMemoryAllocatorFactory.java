@@ -0,0 +1,24 @@
+package org.infinispan.factories;
+
+import org.infinispan.container.offheap.OffHeapMemoryAllocator;
+import org.infinispan.container.offheap.PooledOffHeapMemoryAllocator;
+import org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator;
+import org.infinispan.factories.annotations.DefaultFactoryFor;
+
+/**
+ * Constructs the off-heap memory allocator configured for the cache
+ * @since 9.2
+ */
+@DefaultFactoryFor(classes = OffHeapMemoryAllocator.class)
+public class OffHeapMemoryAllocatorFactory extends AbstractNamedCacheComponentFactory implements AutoInstantiableFactory {
+   @Override
+   public <T> T construct(Class<T> componentType) {
+      switch (configuration.memory().allocatorType()) {
+         case POOLED:
+            return componentType.cast(new PooledOffHeapMemoryAllocator());
+         case UNPOOLED:
+         default:
+            return componentType.cast(new UnpooledOffHeapMemoryAllocator());
+      }
+   }
+}
@@ -6,10 +6,12 @@
 import java.util.AbstractSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -45,6 +47,7 @@
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.util.ByRef;
 import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.CloseableIteratorMapper;
 import org.infinispan.commons.util.CloseableSpliterator;
@@ -60,6 +63,7 @@
 import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.distribution.group.impl.GroupFilter;
 import org.infinispan.distribution.group.impl.GroupManager;
+import org.infinispan.eviction.ActivationManager;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
@@ -73,6 +77,7 @@
 import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.jmx.annotations.Parameter;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.metadata.InternalMetadata;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.manager.PersistenceManager;
@@ -101,6 +106,7 @@
 
    private final AtomicLong cacheLoads = new AtomicLong(0);
    private final AtomicLong cacheMisses = new AtomicLong(0);
+   private final AtomicLong memoryHits = new AtomicLong(0);
 
    @Inject protected PersistenceManager persistenceManager;
    @Inject protected CacheNotifier notifier;
@@ -113,6 +119,7 @@
    private ExecutorService executorService;
    @Inject private Cache<K, V> cache;
    @Inject private KeyPartitioner partitioner;
+   @Inject private ActivationManager activationManager;
 
    private boolean activation;
 
@@ -185,6 +192,9 @@ public Object visitComputeIfAbsentCommand(InvocationContext ctx, ComputeIfAbsent
 
    private Object visitManyDataCommand(InvocationContext ctx, FlagAffectedCommand command, Collection<?> keys)
          throws Throwable {
+      if (persistenceManager.isNonBlocking()) {
+         return loadAsyncThenInvokeNext(ctx, command, keys);
+      }
       for (Object key : keys) {
          loadIfNeeded(ctx, key, command);
       }
@@ -195,11 +205,95 @@ private Object visitDataCommand(InvocationContext ctx, AbstractDataCommand comma
          throws Throwable {
       Object key;
       if ((key = command.getKey()) != null) {
+         if (persistenceManager.isNonBlocking()) {
+            return loadAsyncThenInvokeNext(ctx, command, Collections.singleton(key));
+         }
          loadIfNeeded(ctx, key, command);
       }
       return invokeNext(ctx, command);
    }
 
+   /**
+    * Loads the keys from non-blocking stores and resumes the invocation once all of them have been loaded, so the
+    * invoking thread is not blocked while waiting for the stores. The loads run concurrently, but the entries are
+    * only wrapped in the context once all of them completed, as the context is not thread safe.
+    */
+   private Object loadAsyncThenInvokeNext(InvocationContext ctx, FlagAffectedCommand command, Collection<?> keys) {
+      Map<Object, AsyncLoad> loads = null;
+      for (Object key : keys) {
+         if (skipLoad(command, key, ctx)) {
+            recordMemoryHit(ctx, key);
+            continue;
+         }
+         if (loads == null)
+            loads = new HashMap<>();
+         long writeStamp = persistenceManager.getWriteStamp(key);
+         loads.put(key, new AsyncLoad(writeStamp,
+               persistenceManager.loadFromAllStoresAsync(key, ctx.isOriginLocal()).toCompletableFuture()));
+      }
+      if (loads == null) {
+         return invokeNext(ctx, command);
+      }
+      Map<Object, AsyncLoad> pendingLoads = loads;
+      CompletableFuture<Void> allLoaded = CompletableFuture.allOf(
+            loads.values().stream().map(load -> load.future).toArray(CompletableFuture[]::new));
+      return asyncValue(allLoaded).thenApply(ctx, command, (rCtx, rCommand, rv) -> {
+         for (Map.Entry<Object, AsyncLoad> load : pendingLoads.entrySet()) {
+            wrapAsyncLoadedEntry(rCtx, load.getKey(), (FlagAffectedCommand) rCommand, load.getValue());
+         }
+         return invokeNext(rCtx, rCommand);
+      });
+   }
+
+   private void wrapAsyncLoadedEntry(InvocationContext ctx, Object key, FlagAffectedCommand cmd, AsyncLoad load) {
+      MarshalledEntry<K, V> loaded = load.future.join();
+      if (loaded != null) {
+         InternalMetadata metadata = loaded.getMetadata();
+         if (metadata != null && metadata.isExpired(timeService.wallClockTime())) {
+            loaded = null;
+         }
+      }
+      MarshalledEntry<K, V> found = loaded;
+      ByRef<Boolean> isLoaded = new ByRef<>(null);
+      ByRef<InternalCacheEntry<K, V>> notStored = new ByRef<>(null);
+      InternalCacheEntry<K, V> entry = dataContainer.compute((K) key, (k, oldEntry, factory) -> {
+         if (oldEntry != null) {
+            return oldEntry;
+         }
+         isLoaded.set(found != null);
+         if (found == null) {
+            return null;
+         }
+         InternalCacheEntry<K, V> newEntry = convert(found, factory);
+         // Reads do not hold the lock of the key, if the stores were written since the load started the entry may
+         // be stale, and the write may have been committed to the container already
+         if (persistenceManager.getWriteStamp(k) != load.writeStamp) {
+            notStored.set(newEntry);
+            return null;
+         }
+         activationManager.onLoad(newEntry);
+         return newEntry;
+      });
+      if (entry == null) {
+         // Only used by this command
+         entry = notStored.get();
+      }
+      if (entry != null && entry.canExpire() && entry.isExpired(timeService.wallClockTime())) {
+         entry = null;
+      }
+      wrapLoadedEntry(ctx, key, cmd, entry, isLoaded.get());
+   }
+
+   private static class AsyncLoad {
+      final long writeStamp;
+      final CompletableFuture<MarshalledEntry> future;
+
+      AsyncLoad(long writeStamp, CompletableFuture<MarshalledEntry> future) {
+         this.writeStamp = writeStamp;
+         this.future = future;
+      }
+   }
+
    @Override
    public Object visitGetKeysInGroupCommand(final InvocationContext ctx,
                                             GetKeysInGroupCommand command) throws Throwable {
@@ -333,23 +427,38 @@ protected boolean canLoad(Object key) {
     */
    protected final Boolean loadIfNeeded(final InvocationContext ctx, Object key, final FlagAffectedCommand cmd) {
       if (skipLoad(cmd, key, ctx)) {
+         recordMemoryHit(ctx, key);
          return null;
       }
 
       return loadInContext(ctx, key, cmd);
    }
 
+   private void recordMemoryHit(InvocationContext ctx, Object key) {
+      if (getStatisticsEnabled()) {
+         CacheEntry e = ctx.lookupEntry(key);
+         if (e != null && e.getValue() != null) {
+            memoryHits.incrementAndGet();
+         }
+      }
+   }
+
    private Boolean loadInContext(InvocationContext ctx, Object key, FlagAffectedCommand cmd) {
       final AtomicReference<Boolean> isLoaded = new AtomicReference<>();
       InternalCacheEntry<K, V> entry = PersistenceUtil.loadAndStoreInDataContainer(dataContainer, persistenceManager, (K) key,
-                                                                             ctx, timeService, isLoaded);
-      Boolean isLoadedValue = isLoaded.get();
+                                                                             ctx, timeService, isLoaded, activationManager);
+      return wrapLoadedEntry(ctx, key, cmd, entry, isLoaded.get());
+   }
+
+   private Boolean wrapLoadedEntry(InvocationContext ctx, Object key, FlagAffectedCommand cmd,
+                                   InternalCacheEntry<K, V> entry, Boolean isLoadedValue) {
       if (trace) {
          log.tracef("Entry was loaded? %s", isLoadedValue);
       }
       if (getStatisticsEnabled()) {
          if (isLoadedValue == null) {
             // the entry was in data container, we haven't touched cache store
+            memoryHits.incrementAndGet();
          } else if (isLoadedValue) {
             cacheLoads.incrementAndGet();
          } else {
@@ -459,6 +568,26 @@ public long getCacheLoaderMisses() {
       return cacheMisses.get();
    }
 
+   @ManagedAttribute(
+         description = "Number of entries that were found in memory, without querying the cache store",
+         displayName = "Number of in-memory hits",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   @SuppressWarnings("unused")
+   public long getMemoryHits() {
+      return memoryHits.get();
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries inserted into memory by the current or last preload from the cache store",
+         displayName = "Number of preloaded entries",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   @SuppressWarnings("unused")
+   public long getPreloadedEntries() {
+      return persistenceManager.getPreloadedEntries();
+   }
+
    @Override
    @ManagedOperation(
          description = "Resets statistics gathered by this component",
@@ -467,6 +596,7 @@ public long getCacheLoaderMisses() {
    public void resetStatistics() {
       cacheLoads.set(0);
       cacheMisses.set(0);
+      memoryHits.set(0);
    }
 
    @ManagedAttribute(
@@ -5,6 +5,7 @@
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.PRIVATE;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
@@ -48,10 +49,12 @@
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.interceptors.InvocationSuccessAction;
+import org.infinispan.jmx.annotations.DisplayType;
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.persistence.manager.PersistenceManager;
@@ -147,15 +150,12 @@ private Transaction suspendRunningTx(TxInvocationContext ctx) throws SystemExcep
 
    @Override
    public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
-      return invokeNextThenAccept(ctx, command, (rCtx, rCommand, rv) -> {
+      return invokeNextThenApply(ctx, command, (rCtx, rCommand, rv) -> {
          RemoveCommand removeCommand = (RemoveCommand) rCommand;
-         if (!isStoreEnabled(removeCommand) || rCtx.isInTxScope() || !removeCommand.isSuccessful()) return;
-         if (!isProperWriter(rCtx, removeCommand, removeCommand.getKey())) return;
+         if (!isStoreEnabled(removeCommand) || rCtx.isInTxScope() || !removeCommand.isSuccessful()) return rv;
+         if (!isProperWriter(rCtx, removeCommand, removeCommand.getKey())) return rv;
 
-         Object key = removeCommand.getKey();
-         boolean resp = persistenceManager.deleteFromAllStores(key, BOTH);
-         if (trace)
-            getLog().tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
+         return deleteEntry(removeCommand.getKey(), BOTH, rv);
       });
    }
 
@@ -169,73 +169,61 @@ public Object visitClearCommand(InvocationContext ctx, ClearCommand command) thr
 
    @Override
    public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
-      return invokeNextThenAccept(ctx, command, (rCtx, rCommand, rv) -> {
+      return invokeNextThenApply(ctx, command, (rCtx, rCommand, rv) -> {
          PutKeyValueCommand putKeyValueCommand = (PutKeyValueCommand) rCommand;
          if (!isStoreEnabled(putKeyValueCommand) || rCtx.isInTxScope() || !putKeyValueCommand.isSuccessful())
-            return;
+            return rv;
          if (!isProperWriter(rCtx, putKeyValueCommand, putKeyValueCommand.getKey()))
-            return;
+            return rv;
 
-         Object key = putKeyValueCommand.getKey();
-         storeEntry(rCtx, key, putKeyValueCommand);
-         if (getStatisticsEnabled())
-            cacheStores.incrementAndGet();
+         return storeEntry(rCtx, putKeyValueCommand.getKey(), putKeyValueCommand, rv);
       });
    }
 
    @Override
    public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command) throws Throwable {
-      return invokeNextThenAccept(ctx, command, (rCtx, rCommand, rv) -> {
+      return invokeNextThenApply(ctx, command, (rCtx, rCommand, rv) -> {
          ReplaceCommand replaceCommand = (ReplaceCommand) rCommand;
          if (!isStoreEnabled(replaceCommand) || rCtx.isInTxScope() || !replaceCommand.isSuccessful())
-            return;
+            return rv;
          if (!isProperWriter(rCtx, replaceCommand, replaceCommand.getKey()))
-            return;
+            return rv;
 
-         Object key = replaceCommand.getKey();
-         storeEntry(rCtx, key, replaceCommand);
-         if (getStatisticsEnabled())
-            cacheStores.incrementAndGet();
+         return storeEntry(rCtx, replaceCommand.getKey(), replaceCommand, rv);
       });
    }
 
    @Override
    public Object visitComputeCommand(InvocationContext ctx, ComputeCommand command) throws Throwable {
-      return invokeNextThenAccept(ctx, command, (rCtx, rCommand, rv) -> {
+      return invokeNextThenApply(ctx, command, (rCtx, rCommand, rv) -> {
          ComputeCommand computeCommand = (ComputeCommand) rCommand;
          if (!isStoreEnabled(computeCommand) || rCtx.isInTxScope() || !computeCommand.isSuccessful())
-            return;
+            return rv;
          if (!isProperWriter(rCtx, computeCommand, computeCommand.getKey()))
-            return;
+            return rv;
 
          Object key = computeCommand.getKey();
          if(rv == null) {
-            boolean resp = persistenceManager.deleteFromAllStores(key, BOTH);
-            if (trace)
-               getLog().tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
+            return deleteEntry(key, BOTH, rv);
          } else {
-            storeEntry(rCtx, key, computeCommand);
-            if (getStatisticsEnabled())
-               cacheStores.incrementAndGet();
+            return storeEntry(rCtx, key, computeCommand, rv);
          }
       });
    }
 
    @Override
    public Object visitComputeIfAbsentCommand(InvocationContext ctx, ComputeIfAbsentCommand command) throws Throwable {
-      return invokeNextThenAccept(ctx, command, (rCtx, rCommand, rv) -> {
+      return invokeNextThenApply(ctx, command, (rCtx, rCommand, rv) -> {
          ComputeIfAbsentCommand computeIfAbsentCommand = (ComputeIfAbsentCommand) rCommand;
          if (!isStoreEnabled(computeIfAbsentCommand) || rCtx.isInTxScope() || !computeIfAbsentCommand.isSuccessful())
-            return;
+            return rv;
          if (!isProperWriter(rCtx, computeIfAbsentCommand, computeIfAbsentCommand.getKey()))
-            return;
+            return rv;
 
          if (rv != null) {
-            Object key = computeIfAbsentCommand.getKey();
-            storeEntry(rCtx, key, computeIfAbsentCommand);
-            if (getStatisticsEnabled())
-               cacheStores.incrementAndGet();
+            return storeEntry(rCtx, computeIfAbsentCommand.getKey(), computeIfAbsentCommand, rv);
          }
+         return rv;
       });
    }
 
@@ -446,6 +434,66 @@ public long getWritesToTheStores() {
       return cacheStores.get();
    }
 
+   @ManagedAttribute(
+         description = "Number of modifications queued by the write-behind stores and not yet applied",
+         displayName = "Write-behind queue size",
+         displayType = DisplayType.SUMMARY
+   )
+   public int getWriteBehindQueueSize() {
+      return persistenceManager.getWriteBehindQueueSize();
+   }
+
+   @ManagedAttribute(
+         description = "Time in milliseconds since the oldest modification not yet applied by a write-behind store was queued",
+         displayName = "Write-behind lag",
+         units = Units.MILLISECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getWriteBehindLag() {
+      return persistenceManager.getWriteBehindLag();
+   }
+
+   /**
+    * Writes the entry to the stores and counts the store. With non-blocking stores this returns a stage that completes
+    * with the return value of the command once the stores have written the entry, so the invoking thread does not wait
+    * for the stores.
+    */
+   Object storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command, Object rv) {
+      if (persistenceManager.isNonBlocking()) {
+         MarshalledEntry entry = createMarshalledEntry(ctx, key);
+         CompletionStage<Void> stored = persistenceManager.writeToAllNonTxStoresAsync(entry,
+               skipSharedStores(ctx, key, command) ? PRIVATE : BOTH, command.getFlagsBitSet());
+         return asyncValue(stored.thenApply(ignore -> {
+            if (trace) getLog().tracef("Stored entry %s under key %s", entry.getValue(), key);
+            if (getStatisticsEnabled())
+               cacheStores.incrementAndGet();
+            return rv;
+         }));
+      }
+      storeEntry(ctx, key, command);
+      if (getStatisticsEnabled())
+         cacheStores.incrementAndGet();
+      return rv;
+   }
+
+   /**
+    * Removes the key from the stores, returning a stage with non-blocking stores like
+    * {@link #storeEntry(InvocationContext, Object, FlagAffectedCommand, Object)}.
+    */
+   Object deleteEntry(Object key, PersistenceManager.AccessMode mode, Object rv) {
+      if (persistenceManager.isNonBlocking()) {
+         return asyncValue(persistenceManager.deleteFromAllStoresAsync(key, mode).thenApply(resp -> {
+            if (trace)
+               getLog().tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
+            return rv;
+         }));
+      }
+      boolean resp = persistenceManager.deleteFromAllStores(key, mode);
+      if (trace)
+         getLog().tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
+      return rv;
+   }
+
    void storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       MarshalledEntry entry = createMarshalledEntry(ctx, key);
       persistenceManager.writeToAllNonTxStores(entry, skipSharedStores(ctx, key, command) ? PRIVATE : BOTH, command.getFlagsBitSet());
@@ -37,7 +37,6 @@
  */
 public class DistCacheWriterInterceptor extends CacheWriterInterceptor {
    private static final Log log = LogFactory.getLog(DistCacheWriterInterceptor.class);
-   private static final boolean trace = log.isTraceEnabled();
 
    @Inject private DistributionManager dm;
 
@@ -67,10 +66,7 @@ public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand
          if (!isProperWriter(rCtx, putKeyValueCommand, putKeyValueCommand.getKey()))
             return rv;
 
-         storeEntry(rCtx, key, putKeyValueCommand);
-         if (getStatisticsEnabled())
-            cacheStores.incrementAndGet();
-         return rv;
+         return storeEntry(rCtx, key, putKeyValueCommand, rv);
       });
    }
 
@@ -112,12 +108,7 @@ public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) t
          if (!isProperWriter(rCtx, removeCommand, key))
             return rv;
 
-         boolean resp = persistenceManager
-               .deleteFromAllStores(key, skipSharedStores(rCtx, key, removeCommand) ? PRIVATE : BOTH);
-         if (trace)
-            log.tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
-
-         return rv;
+         return deleteEntry(key, skipSharedStores(rCtx, key, removeCommand) ? PRIVATE : BOTH, rv);
       });
    }
 
@@ -132,11 +123,7 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
          if (!isProperWriter(rCtx, replaceCommand, replaceCommand.getKey()))
             return rv;
 
-         storeEntry(rCtx, key, replaceCommand);
-         if (getStatisticsEnabled())
-            cacheStores.incrementAndGet();
-
-         return rv;
+         return storeEntry(rCtx, key, replaceCommand, rv);
       });
    }
 
@@ -151,14 +138,9 @@ public Object visitComputeCommand(InvocationContext ctx, ComputeCommand command)
             return rv;
 
          if (command.isSuccessful() && rv == null) {
-            boolean resp = persistenceManager
-                  .deleteFromAllStores(key, skipSharedStores(rCtx, key, command) ? PRIVATE : BOTH);
-            if (trace)
-               log.tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
+            return deleteEntry(key, skipSharedStores(rCtx, key, command) ? PRIVATE : BOTH, rv);
          } else if (command.isSuccessful()) {
-            storeEntry(rCtx, key, computeCommand);
-            if (getStatisticsEnabled())
-               cacheStores.incrementAndGet();
+            return storeEntry(rCtx, key, computeCommand, rv);
          }
          return rv;
       });
@@ -174,11 +156,7 @@ public Object visitComputeIfAbsentCommand(InvocationContext ctx, ComputeIfAbsent
          if (!isProperWriter(rCtx, computeIfAbsentCommand, computeIfAbsentCommand.getKey()))
             return rv;
 
-         storeEntry(rCtx, key, computeIfAbsentCommand);
-         if (getStatisticsEnabled())
-            cacheStores.incrementAndGet();
-
-         return rv;
+         return storeEntry(rCtx, key, computeIfAbsentCommand, rv);
       });
    }
 
@@ -42,6 +42,7 @@
 import org.infinispan.manager.impl.ReplicableCommandManagerFunction;
 import org.infinispan.manager.impl.ReplicableCommandRunnable;
 import org.infinispan.marshall.core.Ids;
+import org.infinispan.remoting.transport.CommandBatch;
 import org.infinispan.topology.CacheTopologyControlCommand;
 import org.infinispan.topology.HeartBeatCommand;
 import org.infinispan.util.ByteString;
@@ -135,7 +136,7 @@ public Set<Class<? extends ReplicableCommand>> getTypeClasses() {
             ReadWriteManyCommand.class, ReadWriteManyEntriesCommand.class,
             TxReadOnlyKeyCommand.class, TxReadOnlyManyCommand.class,
             ReplicableCommandRunnable.class, ReplicableCommandManagerFunction.class,
-            HeartBeatCommand.class);
+            HeartBeatCommand.class, CommandBatch.class);
       // Search only those commands that replicable and not cache specific replicable commands
       Collection<Class<? extends ReplicableCommand>> moduleCommands = globalComponentRegistry.getModuleProperties().moduleOnlyReplicableCommands();
       if (moduleCommands != null && !moduleCommands.isEmpty()) coreCommands.addAll(moduleCommands);
@@ -7,11 +7,17 @@
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.infinispan.commons.util.ByRef;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.HashConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.InternalCacheValue;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.InternalMetadata;
@@ -19,6 +25,7 @@
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
@@ -74,6 +81,17 @@ public static InternalMetadata internalMetadata(InternalCacheValue icv) {
    public static <K, V> InternalCacheEntry<K,V> loadAndStoreInDataContainer(DataContainer<K, V> dataContainer, final PersistenceManager persistenceManager,
                                                          K key, final InvocationContext ctx, final TimeService timeService,
                                                          final AtomicReference<Boolean> isLoaded) {
+      return loadAndStoreInDataContainer(dataContainer, persistenceManager, key, ctx, timeService, isLoaded, null);
+   }
+
+   /**
+    * Same as {@link #loadAndStoreInDataContainer(DataContainer, PersistenceManager, Object, InvocationContext,
+    * TimeService, AtomicReference)}, but the loaded entry is also reported to the {@link ActivationManager}.
+    */
+   public static <K, V> InternalCacheEntry<K,V> loadAndStoreInDataContainer(DataContainer<K, V> dataContainer, final PersistenceManager persistenceManager,
+                                                         K key, final InvocationContext ctx, final TimeService timeService,
+                                                         final AtomicReference<Boolean> isLoaded,
+                                                         final ActivationManager activationManager) {
       final ByRef<Boolean> expired = new ByRef<>(null);
       InternalCacheEntry<K,V> entry = dataContainer.compute(key, (k, oldEntry, factory) -> {
          //under the lock, check if the entry exists in the DataContainer
@@ -102,6 +120,9 @@ public static <K, V> InternalCacheEntry<K,V> loadAndStoreInDataContainer(DataCon
          if (isLoaded != null) {
             isLoaded.set(Boolean.TRUE); //loaded!
          }
+         if (activationManager != null) {
+            activationManager.onLoad(newEntry);
+         }
          return newEntry;
       });
       if (expired.get() == Boolean.TRUE) {
@@ -171,4 +192,32 @@ public static <K, V> InternalCacheEntry<K, V> convert(MarshalledEntry<K, V> load
          return factory.create(loaded.getKey(), loaded.getValue(), (Metadata) null);
       }
    }
+
+   /**
+    * @return the hash configuration of the cache the store belongs to, or the default one if the cache has no
+    * configuration
+    */
+   public static HashConfiguration getHashConfiguration(InitializationContext ctx) {
+      Configuration configuration = ctx.getCache().getCacheConfiguration();
+      if (configuration == null) {
+         configuration = new ConfigurationBuilder().build();
+      }
+      return configuration.clustering().hash();
+   }
+
+   /**
+    * @return the key partitioner of the cache the store belongs to. It is not registered when the store is used
+    * outside of a running cache, in which case a new one is created from the {@link #getHashConfiguration hash
+    * configuration}.
+    */
+   public static KeyPartitioner getKeyPartitioner(InitializationContext ctx) {
+      ComponentRegistry registry = ctx.getCache().getAdvancedCache().getComponentRegistry();
+      KeyPartitioner keyPartitioner = registry != null ? registry.getComponent(KeyPartitioner.class) : null;
+      if (keyPartitioner == null) {
+         HashConfiguration hashConfiguration = getHashConfiguration(ctx);
+         keyPartitioner = hashConfiguration.keyPartitioner();
+         keyPartitioner.init(hashConfiguration);
+      }
+      return keyPartitioner;
+   }
 }
@@ -25,7 +25,11 @@ public void clear() {
       stateLock.writeLock(0);
       try {
          assertNotStopped();
-         state.set(newState(true, state.get().next));
+         if (journal != null)
+            journal.appendClear();
+         State cleared = newState(true, state.get().next);
+         cleared.firstModificationTime = timeService.time();
+         state.set(cleared);
       } finally {
          stateLock.reset(1);
          stateLock.writeUnlock();
@@ -1,5 +1,6 @@
 package org.infinispan.persistence.async;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +31,7 @@
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.support.DelegatingCacheWriter;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -53,6 +55,10 @@
  * <p/>
  * Write operations affecting same key are now coalesced so that only the final state is actually stored.
  * <p/>
+ * Writers block while the queue is full, either in number of modifications or in bytes, which pushes back on the
+ * invocations when the underlying store falls behind. The queued modifications can also be journaled to a local file,
+ * see {@link WriteBehindJournal}.
+ * <p/>
  *
  * @author Manik Surtani
  * @author Galder Zamarreño
@@ -70,6 +76,8 @@ public class AsyncCacheWriter extends DelegatingCacheWriter {
    private int concurrencyLevel;
    private String cacheName;
    private String nodeName;
+   TimeService timeService;
+   WriteBehindJournal journal;
 
    protected BufferLock stateLock;
    @GuardedBy("stateLock")
@@ -93,14 +101,30 @@ public void init(InitializationContext ctx) {
       concurrencyLevel = cacheCfg != null ? cacheCfg.locking().concurrencyLevel() : 16;
       cacheName = cache != null ? cache.getName() : null;
       nodeName = cache != null ? cache.getCacheManager().getCacheManagerConfiguration().transport().nodeName() : null;
+      timeService = ctx.getTimeService();
+      String journalLocation = asyncConfiguration.journalLocation();
+      if (journalLocation != null) {
+         File directory = new File(new File(journalLocation, cacheName != null ? cacheName : "___defaultcache"),
+                                   undelegate().getClass().getSimpleName());
+         journal = new WriteBehindJournal(directory, ctx);
+      }
    }
 
+   /**
+    * Starts the writer, the underlying store must already be started: the modifications journaled and not applied by
+    * a previous run are applied to it first.
+    */
    @Override
    public void start() {
       log.debugf("Async cache loader starting %s", this);
+      if (journal != null) {
+         journal.start();
+         journal.replay(this::applyModificationsSync, this::clearStore);
+      }
       state.set(newState(false, null));
       stopped = false;
-      stateLock = new BufferLock(asyncConfiguration.modificationQueueSize());
+      stateLock = new BufferLock(asyncConfiguration.modificationQueueSize(),
+                                 asyncConfiguration.modificationQueueMaxBytes());
 
       // Create a thread pool with unbounded work queue, so that all work is accepted and eventually
       // executed. A bounded queue could throw RejectedExecutionException and thus lose data.
@@ -138,6 +162,8 @@ public void stop() {
          executor.shutdown();
          if (!executor.awaitTermination(1, TimeUnit.SECONDS))
             log.errorAsyncStoreNotStopped();
+         if (journal != null)
+            journal.stop();
       } catch (InterruptedException e) {
          log.interruptedWaitingAsyncStorePush(e);
          Thread.currentThread().interrupt();
@@ -193,7 +219,10 @@ protected void applyModificationsSync(List<Modification> mods) throws Persistenc
 
    protected State newState(boolean clear, State next) {
       ConcurrentMap<Object, Modification> map = CollectionFactory.makeConcurrentMap(64, concurrencyLevel);
-      return new State(clear, map, next);
+      State state = new State(clear, map, next);
+      if (journal != null)
+         state.journalSegment = journal.currentSegment();
+      return state;
    }
 
    void assertNotStopped() throws CacheException {
@@ -202,27 +231,90 @@ void assertNotStopped() throws CacheException {
    }
 
    private void put(Modification mod, int count) {
-      stateLock.writeLock(count);
+      stateLock.writeLock(count, stateLock.isBoundedInBytes() ? size(mod) : 0);
       try {
          if (trace)
             log.tracef("Queue modification: %s", mod);
 
          assertNotStopped();
-         state.get().put(mod);
+         if (journal != null)
+            journal.append(mod);
+         addToState(mod);
       } finally {
          stateLock.writeUnlock();
       }
    }
 
    private void putAll(List<Modification> mods) {
-      stateLock.writeLock(mods.size());
+      long bytes = 0;
+      if (stateLock.isBoundedInBytes()) {
+         for (Modification mod : mods)
+            bytes += size(mod);
+      }
+      stateLock.writeLock(mods.size(), bytes);
       try {
-         state.get().put(new ModificationsList(mods));
+         ModificationsList list = new ModificationsList(mods);
+         if (journal != null)
+            journal.append(list);
+         addToState(list);
       } finally {
          stateLock.writeUnlock();
       }
    }
 
+   private void addToState(Modification mod) {
+      State s = state.get();
+      s.put(mod);
+      if (s.firstModificationTime == 0)
+         s.firstModificationTime = timeService.time();
+   }
+
+   /**
+    * @return the size of the marshalled key, value and metadata of a store, 0 for a remove
+    */
+   private static long size(Modification mod) {
+      if (mod.getType() != Modification.Type.STORE)
+         return 0;
+      MarshalledEntry entry = ((Store) mod).getStoredValue();
+      long size = entry.getKeyBytes().getLength();
+      if (entry.getValueBytes() != null)
+         size += entry.getValueBytes().getLength();
+      if (entry.getMetadataBytes() != null)
+         size += entry.getMetadataBytes().getLength();
+      return size;
+   }
+
+   /**
+    * @return the number of modifications queued or being applied to the underlying store
+    */
+   public int getQueueSize() {
+      int size = 0;
+      for (State s = state.get(); s != null; s = s.next)
+         size += s.modifications.size();
+      return size;
+   }
+
+   /**
+    * @return the size in bytes of the modifications queued, or 0 if the queue is not bounded in bytes
+    */
+   public long getQueueBytes() {
+      return stateLock.bytes();
+   }
+
+   /**
+    * @return the time in milliseconds since the oldest modification not yet applied to the underlying store was
+    * queued, or 0 if all the modifications have been applied
+    */
+   public long getLag() {
+      long oldest = 0;
+      for (State s = state.get(); s != null; s = s.next) {
+         long time = s.firstModificationTime;
+         if (time != 0 && !s.modifications.isEmpty())
+            oldest = time;
+      }
+      return oldest == 0 ? 0 : timeService.timeDuration(oldest, TimeUnit.MILLISECONDS);
+   }
+
    public AtomicReference<State> getState() {
       return state;
    }
@@ -246,6 +338,8 @@ public void run() {
                   shouldStop = stopped;
                   tail = s.next;
                   assert tail == null || tail.next == null : "State chain longer than 3 entries!";
+                  if (journal != null)
+                     journal.roll();
                   head = newState(false, s);
                   state.set(head);
                } finally {
@@ -280,6 +374,8 @@ public void run() {
                   final List<AsyncStoreProcessor> procs = createProcessors(s, mods);
                   final List<AsyncStoreProcessor> deferredProcs = createProcessors(s, deferredMods);
                   s.workerThreads = new CountDownLatch(procs.size() + deferredProcs.size());
+                  if (journal != null && s.workerThreads.getCount() == 0)
+                     journal.delete(s.journalSegment);
 
                   // schedule AsyncStoreProcessors that don't conflict with tail's processors
                   for (AsyncStoreProcessor processor : procs)
@@ -340,13 +436,19 @@ private class AsyncStoreProcessor implements Runnable {
 
       @Override
       public void run() {
+         boolean applied = false;
          try {
             // try 3 times to store the modifications
-            retryWork(3);
+            applied = retryWork(3);
 
          } finally {
+            // the segment is kept and replayed on the next start if the modifications were not applied
+            if (!applied && journal != null)
+               journal.failed(myState.journalSegment);
             // decrement active worker threads and disconnect myState if this was the last one
             myState.workerThreads.countDown();
+            if (myState.workerThreads.getCount() == 0 && journal != null)
+               journal.delete(myState.journalSegment);
             if (myState.workerThreads.getCount() == 0 && myState.next == null)
                for (State s = state.get(); s != null; s = s.next)
                   if (s.next == myState)
@@ -354,20 +456,21 @@ public void run() {
          }
       }
 
-      private void retryWork(int maxRetries) {
+      private boolean retryWork(int maxRetries) {
          for (int attempt = 0; attempt < maxRetries; attempt++) {
             if (attempt > 0 && log.isDebugEnabled())
                log.debugf("Retrying due to previous failure. %s attempts left.", maxRetries - attempt);
 
             try {
                AsyncCacheWriter.this.applyModificationsSync(modifications);
-               return;
+               return true;
             } catch (Exception e) {
                if (log.isDebugEnabled())
                   log.debug("Failed to process async modifications", e);
             }
          }
          log.unableToProcessAsyncModifications(maxRetries);
+         return false;
       }
    }
 }
@@ -1,5 +1,6 @@
 package org.infinispan.persistence.async;
 
+import java.util.concurrent.locks.AbstractQueuedLongSynchronizer;
 import java.util.concurrent.locks.AbstractQueuedSynchronizer;
 
 /**
@@ -9,8 +10,8 @@
  * data is being written to the current state when the AsyncStoreCoordinator thread hands the
  * data off to the back-end store.
  * <p/>
- * Additionally, {@link #writeLock(int)} blocks if the buffer is full, and {@link #readLock()}
- * blocks if no data is available.
+ * Additionally, {@link #writeLock(int, long)} blocks if the buffer is full, either in items or in
+ * bytes, and {@link #readLock()} blocks if no data is available.
  * <p/>
  * This lock implementation is <em>not</em> reentrant!
  *
@@ -55,6 +56,40 @@ protected boolean tryReleaseShared(int state) {
       }
    }
 
+   /**
+    * AQS state is the number of bytes in the buffer. AcquireShared blocks if the buffer is full
+    * (>= size), a single write may exceed the size so that large entries are still accepted.
+    */
+   private static class ByteCounter extends AbstractQueuedLongSynchronizer {
+      private static final long serialVersionUID = -5207322916567383318L;
+      private final long size;
+
+      ByteCounter(long size) {
+         this.size = size;
+      }
+
+      long bytes() {
+         return getState();
+      }
+
+      @Override
+      protected long tryAcquireShared(long bytes) {
+         for (;;) {
+            long state = getState();
+            if (state >= size)
+               return -1;
+            if (compareAndSetState(state, state + bytes))
+               return state + bytes >= size ? 0 : 1;
+         }
+      }
+
+      @Override
+      protected boolean tryReleaseShared(long state) {
+         setState(state);
+         return state < size;
+      }
+   }
+
    /**
     * AQS state is 0 if no data is available, 1 otherwise. AcquireShared blocks if no data is
     * available.
@@ -119,6 +154,7 @@ protected boolean tryReleaseShared(int unused) {
 
    private final Sync sync;
    private final Counter counter;
+   private final ByteCounter byteCounter;
    private final Available available;
 
    /**
@@ -128,11 +164,38 @@ protected boolean tryReleaseShared(int unused) {
     *           the buffer size
     */
    BufferLock(int size) {
+      this(size, 0);
+   }
+
+   /**
+    * Create a new BufferLock with the specified buffer size in items and in bytes.
+    *
+    * @param size
+    *           the buffer size
+    * @param maxBytes
+    *           the buffer size in bytes, 0 for no limit
+    */
+   BufferLock(int size, long maxBytes) {
       sync = new Sync();
       counter = size > 0 ? new Counter(size) : null;
+      byteCounter = maxBytes > 0 ? new ByteCounter(maxBytes) : null;
       available = new Available();
    }
 
+   /**
+    * @return true if the buffer keeps track of the bytes written
+    */
+   boolean isBoundedInBytes() {
+      return byteCounter != null;
+   }
+
+   /**
+    * @return the number of bytes in the buffer, or 0 if the buffer is not bounded in bytes
+    */
+   long bytes() {
+      return byteCounter != null ? byteCounter.bytes() : 0;
+   }
+
    /**
     * Acquires the write lock and consumes the specified amount of buffer space. Blocks if the
     * object is currently locked for reading, or if the buffer is full and count is greater than 0.
@@ -141,8 +204,24 @@ protected boolean tryReleaseShared(int unused) {
     *           number of items the caller intends to write
     */
    void writeLock(int count) {
+      writeLock(count, 0);
+   }
+
+   /**
+    * Acquires the write lock and consumes the specified amount of buffer space. Blocks if the
+    * object is currently locked for reading, or if the buffer is full and count or bytes is
+    * greater than 0.
+    *
+    * @param count
+    *           number of items the caller intends to write
+    * @param bytes
+    *           number of bytes the caller intends to write
+    */
+   void writeLock(int count, long bytes) {
       if (count > 0 && counter != null)
          counter.acquireShared(count);
+      if (bytes > 0 && byteCounter != null)
+         byteCounter.acquireShared(bytes);
       sync.acquireShared(1);
    }
 
@@ -179,6 +258,8 @@ void readUnlock() {
    void reset(int count) {
       if (counter != null)
          counter.releaseShared(count);
+      if (byteCounter != null)
+         byteCounter.releaseShared(0);
       available.releaseShared(count);
    }
 
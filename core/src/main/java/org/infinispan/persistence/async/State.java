@@ -40,6 +40,16 @@ public class State {
     */
    CountDownLatch workerThreads;
 
+   /**
+    * The write-behind journal segment holding the modifications of this state, or -1 if the journal is disabled.
+    */
+   long journalSegment = -1;
+
+   /**
+    * Time of the first modification added to this state, or 0 if no modification was added yet.
+    */
+   volatile long firstModificationTime;
+
    public State(boolean clear, ConcurrentMap<Object, Modification> modMap, State next) {
       this.clear = clear;
       this.modifications = modMap;
@@ -0,0 +1,389 @@
+package org.infinispan.persistence.async;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.infinispan.commons.io.ByteBufferFactory;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryFactory;
+import org.infinispan.persistence.modifications.Modification;
+import org.infinispan.persistence.modifications.ModificationsList;
+import org.infinispan.persistence.modifications.Remove;
+import org.infinispan.persistence.modifications.Store;
+import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * An append-only journal of the modifications queued by an {@link AsyncCacheWriter}.
+ * <p>
+ * The journal is a sequence of segment files, one for each {@link State}: the coordinator starts a new segment when it
+ * hands the current state over to the store, and the segment is deleted once all its modifications have been applied.
+ * The segments still present when the store starts belong to modifications that were never applied, and are replayed
+ * in order with {@link #replay(Consumer, Runnable)}.
+ * <p>
+ * Records are written to the file channel without forcing them to the device, so they survive a crash of the JVM but
+ * not of the operating system. The records appended concurrently are written together: appending only copies the
+ * record to a buffer, and the first writer to acquire the write lock writes the records of all the waiting writers
+ * with a single write.
+ * <p>
+ * Once the modifications of a segment could not be applied, no segment is deleted anymore, so that all the
+ * modifications from the failed one are replayed in order when the store starts again.
+ *
+ * @since 9.2
+ */
+@ThreadSafe
+class WriteBehindJournal {
+   private static final Log log = LogFactory.getLog(WriteBehindJournal.class);
+   private static final String SUFFIX = ".journal";
+   private static final byte STORE = 1;
+   private static final byte REMOVE = 2;
+   private static final byte CLEAR = 3;
+
+   private final File directory;
+   private final StreamingMarshaller marshaller;
+   private final MarshalledEntryFactory<Object, Object> entryFactory;
+   private final ByteBufferFactory byteBufferFactory;
+
+   @GuardedBy("this")
+   private final TreeMap<Long, File> recoveredSegments = new TreeMap<>();
+   @GuardedBy("this")
+   private long segment;
+   @GuardedBy("this")
+   private FileChannel channel;
+   @GuardedBy("this")
+   private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+   // The number of records appended to the pending buffer
+   @GuardedBy("this")
+   private long appended;
+   // Held while writing to the channel, acquired before the monitor
+   private final Object writeLock = new Object();
+   // The number of records written to the channel, or lost because the write failed
+   @GuardedBy("writeLock")
+   private long written;
+   @GuardedBy("writeLock")
+   private long lost;
+   private volatile boolean failed;
+
+   WriteBehindJournal(File directory, InitializationContext ctx) {
+      this.directory = directory;
+      this.marshaller = ctx.getMarshaller();
+      this.entryFactory = ctx.getMarshalledEntryFactory();
+      this.byteBufferFactory = ctx.getByteBufferFactory();
+   }
+
+   /**
+    * Opens a new segment after the segments left by a previous run.
+    */
+   synchronized void start() {
+      failed = false;
+      if (!directory.exists() && !directory.mkdirs())
+         throw log.writeBehindJournalError(directory.getPath(), null);
+
+      recoveredSegments.clear();
+      File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+      if (files != null) {
+         for (File file : files) {
+            String name = file.getName();
+            try {
+               recoveredSegments.put(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), file);
+            } catch (NumberFormatException e) {
+               // Not a journal segment
+            }
+         }
+      }
+      segment = recoveredSegments.isEmpty() ? 0 : recoveredSegments.lastKey() + 1;
+      channel = open(segment);
+   }
+
+   /**
+    * Applies the segments left by a previous run, in order, and deletes them.
+    *
+    * @param applier invoked with the coalesced modifications of each segment
+    * @param clear   invoked when a segment contains a clear, before the modifications that follow it
+    */
+   synchronized void replay(Consumer<List<Modification>> applier, Runnable clear) {
+      for (File file : recoveredSegments.values()) {
+         replay(file, applier, clear);
+         delete(file);
+      }
+      recoveredSegments.clear();
+   }
+
+   /**
+    * Closes the current segment and deletes it, all the modifications must have been applied.
+    */
+   void stop() {
+      synchronized (writeLock) {
+         writePending();
+         synchronized (this) {
+            try {
+               channel.close();
+            } catch (IOException e) {
+               throw log.writeBehindJournalError(directory.getPath(), e);
+            }
+            if (!failed)
+               delete(segmentFile(segment));
+         }
+      }
+   }
+
+   /**
+    * @return the segment receiving the modifications appended now
+    */
+   synchronized long currentSegment() {
+      return segment;
+   }
+
+   /**
+    * Starts a new segment, the modifications appended from now on will be in the returned segment.
+    */
+   long roll() {
+      synchronized (writeLock) {
+         writePending();
+         synchronized (this) {
+            try {
+               channel.close();
+            } catch (IOException e) {
+               throw log.writeBehindJournalError(segmentFile(segment).getPath(), e);
+            }
+            segment++;
+            channel = open(segment);
+            return segment;
+         }
+      }
+   }
+
+   /**
+    * Deletes a segment whose modifications have all been applied, unless the modifications of a segment could not be
+    * applied.
+    */
+   void delete(long segment) {
+      if (failed)
+         return;
+      if (!segmentFile(segment).delete() && log.isTraceEnabled())
+         log.tracef("Write-behind journal segment %d was already deleted", segment);
+   }
+
+   /**
+    * Records that the modifications of a segment could not be applied, so the segments are kept for the next start.
+    */
+   void failed(long segment) {
+      if (!failed)
+         log.debugf("Keeping the write-behind journal from segment %d, its modifications could not be applied", segment);
+      failed = true;
+   }
+
+   /**
+    * Appends the modification and returns once it is written to the current segment.
+    */
+   void append(Modification mod) {
+      long record;
+      synchronized (this) {
+         addRecord(mod);
+         record = appended;
+      }
+      synchronized (writeLock) {
+         if (written < record)
+            writePending();
+         if (record <= lost)
+            throw log.writeBehindJournalError(segmentFile(segment).getPath(), null);
+      }
+   }
+
+   @GuardedBy("this")
+   private void addRecord(Modification mod) {
+      switch (mod.getType()) {
+         case STORE:
+            MarshalledEntry entry = ((Store) mod).getStoredValue();
+            org.infinispan.commons.io.ByteBuffer key = entry.getKeyBytes();
+            org.infinispan.commons.io.ByteBuffer value = entry.getValueBytes();
+            org.infinispan.commons.io.ByteBuffer metadata = entry.getMetadataBytes();
+            ByteBuffer header = ByteBuffer.allocate(13);
+            header.put(STORE).putInt(key.getLength()).putInt(length(value)).putInt(length(metadata)).flip();
+            write(header, key, value, metadata);
+            break;
+         case REMOVE:
+            byte[] keyBytes;
+            try {
+               keyBytes = marshaller.objectToByteBuffer(((Remove) mod).getKey());
+            } catch (IOException | InterruptedException e) {
+               if (e instanceof InterruptedException)
+                  Thread.currentThread().interrupt();
+               throw log.writeBehindJournalError(segmentFile(segment).getPath(), e);
+            }
+            header = ByteBuffer.allocate(5);
+            header.put(REMOVE).putInt(keyBytes.length).flip();
+            write(header, byteBufferFactory.newByteBuffer(keyBytes, 0, keyBytes.length), null, null);
+            break;
+         case LIST:
+            for (Modification m : ((ModificationsList) mod).getList())
+               addRecord(m);
+            break;
+         default:
+            throw new IllegalArgumentException("Unknown modification type " + mod.getType());
+      }
+   }
+
+   void appendClear() {
+      synchronized (writeLock) {
+         synchronized (this) {
+            ByteBuffer header = ByteBuffer.allocate(1);
+            header.put(CLEAR).flip();
+            write(header, null, null, null);
+         }
+         writePending();
+      }
+   }
+
+   @GuardedBy("this")
+   private void write(ByteBuffer header, org.infinispan.commons.io.ByteBuffer key,
+                      org.infinispan.commons.io.ByteBuffer value, org.infinispan.commons.io.ByteBuffer metadata) {
+      pending.write(header.array(), 0, header.limit());
+      write(key);
+      write(value);
+      write(metadata);
+      appended++;
+   }
+
+   @GuardedBy("this")
+   private void write(org.infinispan.commons.io.ByteBuffer buffer) {
+      if (buffer != null)
+         pending.write(buffer.getBuf(), buffer.getOffset(), buffer.getLength());
+   }
+
+   /**
+    * Writes the records appended so far to the channel, the write lock must be held. The monitor is only held while
+    * taking the records, so other writers can keep appending during the write.
+    */
+   @GuardedBy("writeLock")
+   private void writePending() {
+      ByteBuffer buffer;
+      long records;
+      FileChannel channel;
+      synchronized (this) {
+         if (pending.size() == 0)
+            return;
+         buffer = ByteBuffer.wrap(pending.toByteArray());
+         pending.reset();
+         records = appended;
+         // Only replaced while holding the write lock
+         channel = this.channel;
+      }
+      try {
+         while (buffer.hasRemaining())
+            channel.write(buffer);
+         written = records;
+      } catch (IOException e) {
+         written = records;
+         lost = records;
+         throw log.writeBehindJournalError(segmentFile(segment).getPath(), e);
+      }
+   }
+
+   private void replay(File file, Consumer<List<Modification>> applier, Runnable clear) {
+      Map<Object, Modification> modifications = new HashMap<>();
+      int count = 0;
+      try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+         ByteBuffer header = ByteBuffer.allocate(13);
+         for (;;) {
+            header.clear().limit(1);
+            if (in.read(header) <= 0)
+               break;
+            byte type = header.get(0);
+            if (type == CLEAR) {
+               modifications.clear();
+               clear.run();
+            } else if (type == STORE) {
+               header.limit(13);
+               readFully(in, header);
+               header.position(1);
+               byte[] key = readBytes(in, header.getInt());
+               byte[] value = readBytes(in, header.getInt());
+               byte[] metadata = readBytes(in, header.getInt());
+               MarshalledEntry<Object, Object> entry = entryFactory.newMarshalledEntry(toByteBuffer(key),
+                     toByteBuffer(value), toByteBuffer(metadata));
+               modifications.put(entry.getKey(), new Store(entry.getKey(), entry));
+            } else if (type == REMOVE) {
+               header.limit(5);
+               readFully(in, header);
+               header.position(1);
+               Object key = marshaller.objectFromByteBuffer(readBytes(in, header.getInt()));
+               modifications.put(key, new Remove(key));
+            } else {
+               throw new IllegalStateException("Unknown record type " + type);
+            }
+            count++;
+         }
+      } catch (EOFException e) {
+         log.truncatedWriteBehindJournal(file.getPath());
+      } catch (IOException | ClassNotFoundException e) {
+         throw log.writeBehindJournalError(file.getPath(), e);
+      }
+      if (!modifications.isEmpty())
+         applier.accept(new ArrayList<>(modifications.values()));
+      if (count > 0)
+         log.recoveredWriteBehindJournal(count, file.getPath());
+   }
+
+   private File segmentFile(long segment) {
+      return new File(directory, segment + SUFFIX);
+   }
+
+   private FileChannel open(long segment) {
+      File file = segmentFile(segment);
+      try {
+         return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+               StandardOpenOption.TRUNCATE_EXISTING);
+      } catch (IOException e) {
+         throw log.writeBehindJournalError(file.getPath(), e);
+      }
+   }
+
+   private void delete(File file) {
+      try {
+         Files.deleteIfExists(file.toPath());
+      } catch (IOException e) {
+         throw log.writeBehindJournalError(file.getPath(), e);
+      }
+   }
+
+   private org.infinispan.commons.io.ByteBuffer toByteBuffer(byte[] bytes) {
+      return bytes == null ? null : byteBufferFactory.newByteBuffer(bytes, 0, bytes.length);
+   }
+
+   private static byte[] readBytes(FileChannel in, int length) throws IOException {
+      if (length < 0)
+         return null;
+      ByteBuffer buffer = ByteBuffer.allocate(length);
+      readFully(in, buffer);
+      return buffer.array();
+   }
+
+   private static void readFully(FileChannel in, ByteBuffer buffer) throws IOException {
+      while (buffer.hasRemaining()) {
+         if (in.read(buffer) < 0)
+            throw new EOFException();
+      }
+   }
+
+   private static int length(org.infinispan.commons.io.ByteBuffer buffer) {
+      return buffer == null ? -1 : buffer.getLength();
+   }
+}
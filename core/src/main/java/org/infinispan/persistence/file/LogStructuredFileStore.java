@@ -0,0 +1,1045 @@
+package org.infinispan.persistence.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import org.infinispan.commons.io.ByteBufferFactory;
+import org.infinispan.configuration.cache.SingleFileStoreConfiguration;
+import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.executors.ExecutorAllCompletionService;
+import org.infinispan.factories.threads.DefaultThreadFactory;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.PersistenceUtil;
+import org.infinispan.persistence.TaskContextImpl;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.util.KeyValuePair;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.locks.StripedLock;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * The log structured mode of the {@link SingleFileStore}, enabled with
+ * {@link org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder#logStructured(boolean)}.
+ * <p/>
+ * Every write and removal is appended as a record to the end of the current log file in the
+ * <tt>&lt;location&gt;/&lt;cache name&gt;</tt> directory, files being named <tt>&lt;id&gt;.log</tt>. Once a file
+ * reaches the configured maximum size a new file is started. Writers reserve their position in the file atomically
+ * and then write concurrently using positional writes, so appending never requires a lock. Readers also use
+ * positional reads, allowing any number of concurrent reads.
+ * <p/>
+ * Keys and the location of their latest record are kept in a {@link ConcurrentHashMap}. Every record carries a
+ * sequence number, the record with the highest sequence number for a key is the current one, which is how the index
+ * is rebuilt when the store is started. Every record also carries a CRC32 checksum of its header and contents: a
+ * record with a wrong checksum ends the recovery of its file, like a torn write would, and fails the read otherwise.
+ * <p/>
+ * The index is periodically written to a checkpoint file, see
+ * {@link org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder#checkpointInterval(long)}, and when
+ * the store is stopped. A checkpoint starts a new log file and forces all older files to disk, so that only the files
+ * written after it are read on start. Without a valid checkpoint all files are read. The log files written after a
+ * checkpoint already hold the changes since, so a periodic checkpoint is skipped while replaying them is cheaper than
+ * rewriting the whole index.
+ * <p/>
+ * A file is compacted in the background once the configured ratio of its bytes belongs to records that are no
+ * longer current. Compaction copies the current records to the end of the log, keeping their sequence numbers, and
+ * then deletes the file. All records of a key are appended while holding a lock on the key, so the records of a key
+ * are in sequence order in the log. Every current record knows the first file that may contain an older record of
+ * its key since the key was last removed, and a removal record stores this range of files: the removal is only copied
+ * while a file in the range still exists.
+ *
+ * @since 9.2
+ */
+class LogStructuredFileStore<K, V> implements AdvancedLoadWriteStore<K, V> {
+   private static final Log log = LogFactory.getLog(LogStructuredFileStore.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private static final byte[] MAGIC = new byte[]{'F', 'C', 'L', '2'};
+   private static final byte[] CHECKPOINT_MAGIC = new byte[]{'F', 'C', 'C', '1'};
+   private static final String FILE_SUFFIX = ".log";
+   private static final String CHECKPOINT_FILE = "index.checkpoint";
+   /**
+    * The header of every record: sequence (8), expiryTime (8, for a removal the first and the last id of the files
+    * that may contain an older record of the key), keyLen (4), dataLen (4, -1 for a removal), metadataLen (4) and the
+    * checksum (4) of the rest of the header and of the key, data and metadata
+    */
+   static final int HEADER_SIZE = 8 + 8 + 4 + 4 + 4 + 4;
+   private static final int CHECKSUM_OFFSET = HEADER_SIZE - 4;
+   private static final int REMOVED = -1;
+   private static final int NO_FILE = -1;
+   // A periodic checkpoint is only written once the records appended since the last one exceed this ratio of the index
+   private static final double CHECKPOINT_CHANGE_RATIO = 0.1;
+
+   private SingleFileStoreConfiguration configuration;
+   private InitializationContext ctx;
+   private TimeService timeService;
+
+   private File directory;
+   private ConcurrentMap<K, EntryLocation> index;
+   private ConcurrentMap<Integer, LogFile> files;
+   private final AtomicLong sequence = new AtomicLong();
+   private volatile LogFile current;
+   private int nextFileId;
+   // Also writes the checkpoints, which therefore never run during a compaction
+   private ScheduledExecutorService compactor;
+   // Compaction is not interrupted, as that would close the channel of the file being written to
+   private volatile boolean stopping;
+   private final Set<Integer> scheduledCompactions = ConcurrentHashMap.newKeySet();
+   // Writes, removals and compaction hold this in shared mode, so that clear() can replace all files
+   private final ReadWriteLock clearLock = new ReentrantReadWriteLock();
+   // Held exclusively while appending a record of the key and updating the index
+   private final StripedLock keyLocks = new StripedLock();
+   // The sequence number of the last checkpoint, only updated while holding the clearLock
+   private volatile long checkpointSequence = -1;
+   private int replayedRecords;
+
+   @Override
+   public void init(InitializationContext ctx) {
+      this.ctx = ctx;
+      this.configuration = ctx.getConfiguration();
+      this.timeService = ctx.getTimeService();
+   }
+
+   @Override
+   public void start() {
+      String location = configuration.location();
+      if (location == null || location.trim().length() == 0)
+         location = "Infinispan-SingleFileStore";
+      String cacheName = ctx.getCache().getName();
+      directory = new File(location, cacheName);
+      if (!directory.mkdirs() && !directory.exists()) {
+         throw log.directoryCannotBeCreated(directory.getAbsolutePath());
+      }
+      index = new ConcurrentHashMap<>();
+      files = new ConcurrentHashMap<>();
+      try {
+         rebuildIndex();
+         current = createFile();
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+      stopping = false;
+      GlobalConfiguration globalConfiguration = ctx.getCache().getCacheManager().getCacheManagerConfiguration();
+      ThreadFactory threadFactory = globalConfiguration.persistenceThreadPool().threadFactory();
+      if (threadFactory == null) {
+         threadFactory = new DefaultThreadFactory(null, Thread.NORM_PRIORITY, DefaultThreadFactory.DEFAULT_PATTERN,
+               globalConfiguration.transport().nodeName(), "SingleFileStore-Compactor-" + cacheName);
+      }
+      compactor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+      for (LogFile file : files.values()) {
+         scheduleCompactionIfNeeded(file);
+      }
+      long checkpointInterval = configuration.checkpointInterval();
+      if (checkpointInterval > 0) {
+         compactor.scheduleWithFixedDelay(this::periodicCheckpoint, checkpointInterval, checkpointInterval,
+               TimeUnit.MILLISECONDS);
+      }
+   }
+
+   @Override
+   public void stop() {
+      if (compactor != null) {
+         stopping = true;
+         compactor.shutdown();
+         try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+         compactor = null;
+      }
+      if (files != null) {
+         log.tracef("Stopping store %s, size = %d, files = %d", ctx.getCache().getName(), index.size(), files.size());
+         if (current != null) {
+            // Not when the index could not be rebuilt
+            checkpoint(true);
+         }
+         try {
+            for (LogFile file : files.values()) {
+               file.channel.close();
+            }
+         } catch (IOException e) {
+            throw new PersistenceException(e);
+         }
+         files = null;
+         index = null;
+         current = null;
+         scheduledCompactions.clear();
+      }
+   }
+
+   /**
+    * Loads the index of the last checkpoint and then reads the log files written after it in order, keeping the
+    * record with the highest sequence number for each key.
+    */
+   private void rebuildIndex() throws Exception {
+      File[] logFiles = directory.listFiles((dir, name) -> name.matches("\\d+\\" + FILE_SUFFIX));
+      if (logFiles == null) {
+         throw new IOException("Cannot list files in " + directory);
+      }
+      // Includes removals, so that an older record of a removed key in a later file is ignored
+      Map<K, EntryLocation> latest = new HashMap<>();
+      sequence.set(0);
+      int replayFrom = readCheckpoint(latest);
+      long maxSequence = sequence.get();
+      checkpointSequence = replayFrom > 0 ? maxSequence : -1;
+      replayedRecords = 0;
+      int[] ids = Arrays.stream(logFiles).mapToInt(f -> parseFileId(f.getName())).sorted().toArray();
+      for (int id : ids) {
+         LogFile file = openFile(id);
+         if (file == null) {
+            continue;
+         }
+         files.put(id, file);
+         nextFileId = id + 1;
+         long size = file.channel.size();
+         long offset = MAGIC.length;
+         if (id < replayFrom) {
+            // Complete and forced to disk before the checkpoint was written
+            offset = size;
+            file.forced = true;
+         }
+         ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE);
+         while (offset < size) {
+            EntryLocation location = readHeader(file, offset, size, buf);
+            byte[] record = location == null ? null : readRecord(file, location);
+            if (record == null) {
+               log.corruptLogRecord(file.path.getPath(), offset);
+               break;
+            }
+            K key = readKey(record, location);
+            EntryLocation previous = latest.get(key);
+            // Compaction copies a record with its sequence number, the copy is in a later file
+            if (previous == null || previous.sequence <= location.sequence) {
+               if (previous != null && !previous.isRemoval() && !location.isRemoval()) {
+                  location = location.withFirstFileId(previous.firstFileId);
+               }
+               latest.put(key, location);
+            }
+            maxSequence = Math.max(maxSequence, location.sequence);
+            offset += location.size();
+            replayedRecords++;
+         }
+         file.written.set(offset - MAGIC.length);
+         // Dead until proven live, which also covers removals and overwritten records
+         file.dead.set(offset - MAGIC.length);
+         file.writePosition.set(Math.max(offset, configuration.maxFileSize()));
+         file.sealed = true;
+      }
+      for (Map.Entry<K, EntryLocation> entry : latest.entrySet()) {
+         EntryLocation location = entry.getValue();
+         // The file of a checkpointed record is gone if it was compacted afterwards, the copy was read instead
+         LogFile file = files.get(location.fileId);
+         if (!location.isRemoval() && file != null) {
+            index.put(entry.getKey(), location);
+            file.dead.addAndGet(-location.size());
+         }
+      }
+      sequence.set(maxSequence);
+      if (trace) log.tracef("Rebuilt index with %d entries from %d files, read %d records starting with file %d",
+            index.size(), files.size(), replayedRecords, replayFrom);
+   }
+
+   /**
+    * Loads the entries of the checkpoint file into the given map, and sets the sequence number to the one of the
+    * checkpoint.
+    * @return the id of the first log file written after the checkpoint, or 0 if there is no valid checkpoint
+    */
+   private int readCheckpoint(Map<K, EntryLocation> latest) {
+      File path = new File(directory, CHECKPOINT_FILE);
+      if (!path.exists()) {
+         return 0;
+      }
+      try (CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(new FileInputStream(path)),
+            new CRC32());
+           DataInputStream in = new DataInputStream(checked)) {
+         byte[] magic = new byte[CHECKPOINT_MAGIC.length];
+         in.readFully(magic);
+         if (!Arrays.equals(CHECKPOINT_MAGIC, magic)) {
+            throw new IOException("Unknown checkpoint format");
+         }
+         int replayFrom = in.readInt();
+         long maxSequence = in.readLong();
+         for (int marshalledKeyLen = in.readInt(); marshalledKeyLen != 0; marshalledKeyLen = in.readInt()) {
+            byte[] keyBytes = new byte[marshalledKeyLen];
+            in.readFully(keyBytes);
+            int fileId = in.readInt();
+            long offset = in.readLong();
+            long seq = in.readLong();
+            long expiryTime = in.readLong();
+            int keyLen = in.readInt();
+            int dataLen = in.readInt();
+            int metadataLen = in.readInt();
+            int firstFileId = in.readInt();
+            latest.put((K) ctx.getMarshaller().objectFromByteBuffer(keyBytes),
+                  new EntryLocation(fileId, offset, seq, expiryTime, keyLen, dataLen, metadataLen, firstFileId));
+         }
+         int checksum = (int) checked.getChecksum().getValue();
+         if (in.readInt() != checksum) {
+            throw new IOException("Checksum mismatch");
+         }
+         sequence.set(maxSequence);
+         if (trace) log.tracef("Loaded %d entries from checkpoint %s", latest.size(), path);
+         return replayFrom;
+      } catch (Exception e) {
+         log.invalidLogCheckpoint(path.getPath(), e);
+         latest.clear();
+         return 0;
+      }
+   }
+
+   /**
+    * Writes a checkpoint if enough records were appended since the last one, as the index is written as a whole.
+    */
+   private void periodicCheckpoint() {
+      long changes = sequence.get() - checkpointSequence;
+      if (changes < index.size() * CHECKPOINT_CHANGE_RATIO) {
+         if (trace) log.tracef("Skipping checkpoint, %d records appended since the last one", changes);
+         return;
+      }
+      checkpoint(false);
+   }
+
+   /**
+    * Writes the index to the checkpoint file, after starting a new log file and forcing all older files to disk.
+    * Invoked by the compactor thread, or once it is terminated when the store is stopped.
+    */
+   private void checkpoint(boolean stop) {
+      File path = new File(directory, CHECKPOINT_FILE);
+      int replayFrom;
+      long maxSequence;
+      clearLock.writeLock().lock();
+      try {
+         maxSequence = sequence.get();
+         if (maxSequence == checkpointSequence) {
+            // Compaction only moves records to files that are read after the last checkpoint anyway
+            return;
+         }
+         // Holding the lock exclusively guarantees all appended records are in the index
+         synchronized (this) {
+            if (!stop && current.written.get() > 0) {
+               roll(current);
+            }
+            replayFrom = stop ? nextFileId : current.id;
+         }
+         // Downgrade, so that the store is not cleared while the checkpoint is written
+         clearLock.readLock().lock();
+      } catch (IOException e) {
+         log.logCheckpointFailed(path.getPath(), e);
+         return;
+      } finally {
+         clearLock.writeLock().unlock();
+      }
+      File tmp = new File(directory, CHECKPOINT_FILE + ".tmp");
+      try {
+         for (LogFile file : files.values()) {
+            if (file.id < replayFrom && !file.forced) {
+               file.channel.force(false);
+               file.forced = true;
+            }
+         }
+         try (FileOutputStream fos = new FileOutputStream(tmp)) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fos), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.write(CHECKPOINT_MAGIC);
+            out.writeInt(replayFrom);
+            out.writeLong(maxSequence);
+            int entries = 0;
+            for (Map.Entry<K, EntryLocation> entry : index.entrySet()) {
+               EntryLocation location = entry.getValue();
+               // Records written concurrently are in the later files, which are read on start
+               if (location.fileId >= replayFrom) {
+                  continue;
+               }
+               byte[] keyBytes = ctx.getMarshaller().objectToByteBuffer(entry.getKey());
+               out.writeInt(keyBytes.length);
+               out.write(keyBytes);
+               out.writeInt(location.fileId);
+               out.writeLong(location.offset);
+               out.writeLong(location.sequence);
+               out.writeLong(location.expiryTime);
+               out.writeInt(location.keyLen);
+               out.writeInt(location.dataLen);
+               out.writeInt(location.metadataLen);
+               out.writeInt(location.firstFileId);
+               entries++;
+            }
+            out.writeInt(0);
+            out.writeInt((int) checked.getChecksum().getValue());
+            out.flush();
+            fos.getChannel().force(true);
+            if (trace) log.tracef("Wrote checkpoint with %d entries, replaying from file %d", entries, replayFrom);
+         }
+         Files.move(tmp.toPath(), path.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+         checkpointSequence = maxSequence;
+      } catch (Exception e) {
+         log.logCheckpointFailed(path.getPath(), e);
+      } finally {
+         clearLock.readLock().unlock();
+      }
+   }
+
+   private static int parseFileId(String name) {
+      return Integer.parseInt(name.substring(0, name.length() - FILE_SUFFIX.length()));
+   }
+
+   private LogFile openFile(int id) throws IOException {
+      File path = new File(directory, id + FILE_SUFFIX);
+      FileChannel channel = new RandomAccessFile(path, "rw").getChannel();
+      byte[] header = new byte[MAGIC.length];
+      if (channel.read(ByteBuffer.wrap(header), 0) != MAGIC.length || !Arrays.equals(MAGIC, header)) {
+         // Unknown file format or a file that was never written to
+         channel.close();
+         if (!path.delete()) {
+            log.tracef("Unable to delete unknown log file %s", path);
+         }
+         return null;
+      }
+      return new LogFile(id, path, channel);
+   }
+
+   /**
+    * Creates a new file that will receive all appended records. Must be invoked while holding this object's monitor
+    * or during start.
+    */
+   private LogFile createFile() throws IOException {
+      int id = nextFileId++;
+      File path = new File(directory, id + FILE_SUFFIX);
+      FileChannel channel = new RandomAccessFile(path, "rw").getChannel();
+      channel.truncate(0);
+      writeFully(channel, ByteBuffer.wrap(MAGIC), 0);
+      LogFile file = new LogFile(id, path, channel);
+      file.writePosition.set(MAGIC.length);
+      files.put(id, file);
+      if (trace) log.tracef("Created log file %s", path);
+      return file;
+   }
+
+   /**
+    * Reads and validates the header of the record at the given offset
+    * @return the location of the record or null if the header is not valid
+    */
+   private EntryLocation readHeader(LogFile file, long offset, long fileSize, ByteBuffer buf) throws IOException {
+      if (offset + HEADER_SIZE > fileSize) {
+         return null;
+      }
+      buf.clear();
+      readFully(file.channel, buf, offset);
+      buf.flip();
+      long sequence = buf.getLong();
+      long expiryTime = buf.getLong();
+      int keyLen = buf.getInt();
+      int dataLen = buf.getInt();
+      int metadataLen = buf.getInt();
+      if (sequence <= 0 || keyLen <= 0 || dataLen < REMOVED || metadataLen < 0) {
+         return null;
+      }
+      EntryLocation location = new EntryLocation(file.id, offset, sequence, expiryTime, keyLen, dataLen, metadataLen,
+            file.id);
+      if (offset + location.size() > fileSize) {
+         return null;
+      }
+      return location;
+   }
+
+   /**
+    * Reads the whole record at the given location
+    * @return the record or null if its checksum doesn't match
+    */
+   private static byte[] readRecord(LogFile file, EntryLocation location) throws IOException {
+      byte[] record = new byte[location.size()];
+      readFully(file.channel, ByteBuffer.wrap(record), location.offset);
+      return ByteBuffer.wrap(record).getInt(CHECKSUM_OFFSET) == checksum(record, record.length) ? record : null;
+   }
+
+   private static int checksum(byte[] record, int length) {
+      CRC32 crc = new CRC32();
+      crc.update(record, 0, CHECKSUM_OFFSET);
+      crc.update(record, HEADER_SIZE, length - HEADER_SIZE);
+      return (int) crc.getValue();
+   }
+
+   private K readKey(byte[] record, EntryLocation location) throws Exception {
+      return (K) ctx.getMarshaller().objectFromByteBuffer(record, HEADER_SIZE, location.keyLen);
+   }
+
+   private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+      while (buf.hasRemaining()) {
+         int read = channel.read(buf, position);
+         if (read < 0) {
+            throw new EOFException();
+         }
+         position += read;
+      }
+   }
+
+   private static void writeFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+      while (buf.hasRemaining()) {
+         position += channel.write(buf, position);
+      }
+   }
+
+   /**
+    * Appends the given record to the current file, starting a new file if it doesn't fit anymore.
+    * The {@code clearLock} must be held in shared mode.
+    * @param firstFileId the first file that may contain an older record of the key, or {@link #NO_FILE} if there is
+    *                    no older record since the key was last removed
+    * @return the location of the record, which is dead if it is a removal
+    */
+   private EntryLocation append(ByteBuffer record, long sequence, long expiryTime, int keyLen, int dataLen,
+                                int metadataLen, int firstFileId) throws IOException {
+      int length = record.remaining();
+      for (;;) {
+         LogFile file = current;
+         file.writers.incrementAndGet();
+         try {
+            // A sealed file may be compacted once it has no writers, so it must never receive a new record
+            if (!file.sealed) {
+               long offset = file.writePosition.getAndAdd(length);
+               // A record larger than the maximum size is written to an empty file
+               if (offset + length <= configuration.maxFileSize() || offset == MAGIC.length) {
+                  writeFully(file.channel, record, offset);
+                  file.written.addAndGet(length);
+                  EntryLocation location = new EntryLocation(file.id, offset, sequence, expiryTime, keyLen, dataLen,
+                        metadataLen, firstFileId == NO_FILE ? file.id : firstFileId);
+                  if (location.isRemoval()) {
+                     markDead(location);
+                  }
+                  return location;
+               }
+            }
+         } finally {
+            if (file.writers.decrementAndGet() == 0 && file.sealed) {
+               synchronized (file) {
+                  file.notifyAll();
+               }
+            }
+         }
+         roll(file);
+      }
+   }
+
+   private synchronized void roll(LogFile full) throws IOException {
+      if (current == full) {
+         full.sealed = true;
+         current = createFile();
+         if (trace) log.tracef("Log file %s is full, appending to %s", full.path, current.path);
+         scheduleCompactionIfNeeded(full);
+      }
+   }
+
+   private ByteBuffer createRecord(long sequence, long expiryTime, org.infinispan.commons.io.ByteBuffer key,
+                                   org.infinispan.commons.io.ByteBuffer data,
+                                   org.infinispan.commons.io.ByteBuffer metadata) {
+      int dataLen = data == null ? 0 : data.getLength();
+      int metadataLen = metadata == null ? 0 : metadata.getLength();
+      ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + key.getLength() + dataLen + metadataLen);
+      buf.putLong(sequence);
+      buf.putLong(expiryTime);
+      buf.putInt(key.getLength());
+      buf.putInt(data == null ? REMOVED : dataLen);
+      buf.putInt(metadataLen);
+      buf.putInt(0);
+      buf.put(key.getBuf(), key.getOffset(), key.getLength());
+      if (data != null)
+         buf.put(data.getBuf(), data.getOffset(), dataLen);
+      if (metadata != null)
+         buf.put(metadata.getBuf(), metadata.getOffset(), metadataLen);
+      buf.flip();
+      buf.putInt(CHECKSUM_OFFSET, checksum(buf.array(), buf.limit()));
+      return buf;
+   }
+
+   @Override
+   public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
+      org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
+      org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
+      org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
+      long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
+      clearLock.readLock().lock();
+      keyLocks.acquireLock(marshalledEntry.getKey(), true);
+      try {
+         long seq = sequence.incrementAndGet();
+         ByteBuffer record = createRecord(seq, expiryTime, key, data, metadata);
+         EntryLocation previous = index.get(marshalledEntry.getKey());
+         EntryLocation location = append(record, seq, expiryTime, key.getLength(), data.getLength(),
+               metadata == null ? 0 : metadata.getLength(), previous == null ? NO_FILE : previous.firstFileId);
+         if (trace) log.tracef("Wrote entry %s at %s", marshalledEntry.getKey(), location);
+         index.put(marshalledEntry.getKey(), location);
+         if (previous != null) {
+            markDead(previous);
+         }
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      } finally {
+         keyLocks.releaseLock(marshalledEntry.getKey());
+         clearLock.readLock().unlock();
+      }
+   }
+
+   @Override
+   public boolean delete(Object key) {
+      clearLock.readLock().lock();
+      keyLocks.acquireLock(key, true);
+      try {
+         EntryLocation previous = index.remove(key);
+         if (previous == null) {
+            return false;
+         }
+         markDead(previous);
+         appendRemoval(previous);
+         return true;
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      } finally {
+         keyLocks.releaseLock(key);
+         clearLock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Appends a record stating the given key was removed, so the older records are ignored when the index is rebuilt.
+    * The lock of the key must be held, so that the file of the removed record is not compacted concurrently.
+    */
+   private void appendRemoval(EntryLocation previous) throws IOException {
+      LogFile file = files.get(previous.fileId);
+      byte[] keyBytes = new byte[previous.keyLen];
+      readFully(file.channel, ByteBuffer.wrap(keyBytes), previous.offset + HEADER_SIZE);
+      long seq = sequence.incrementAndGet();
+      long removedFiles = EntryLocation.fileRange(previous.firstFileId, previous.fileId);
+      ByteBuffer record = createRecord(seq, removedFiles,
+            ctx.getByteBufferFactory().newByteBuffer(keyBytes, 0, keyBytes.length), null, null);
+      append(record, seq, removedFiles, keyBytes.length, REMOVED, 0, NO_FILE);
+   }
+
+   @Override
+   public void clear() {
+      clearLock.writeLock().lock();
+      try {
+         index.clear();
+         for (LogFile file : files.values()) {
+            file.channel.close();
+            if (!file.path.delete()) {
+               throw new IOException("Cannot delete " + file.path);
+            }
+         }
+         files.clear();
+         File checkpoint = new File(directory, CHECKPOINT_FILE);
+         if (checkpoint.exists() && !checkpoint.delete()) {
+            throw new IOException("Cannot delete " + checkpoint);
+         }
+         checkpointSequence = -1;
+         synchronized (this) {
+            current = createFile();
+         }
+         if (trace) log.tracef("Cleared store, now appending to %s", current.path);
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      } finally {
+         clearLock.writeLock().unlock();
+      }
+   }
+
+   @Override
+   public boolean contains(Object key) {
+      EntryLocation location = index.get(key);
+      return location != null && !location.isExpired(timeService.wallClockTime());
+   }
+
+   @Override
+   public MarshalledEntry<K, V> load(Object key) {
+      return load(key, true, true);
+   }
+
+   private MarshalledEntry<K, V> load(Object key, boolean loadValue, boolean loadMetadata) {
+      for (;;) {
+         EntryLocation location = index.get(key);
+         if (location == null || location.isExpired(timeService.wallClockTime())) {
+            return null;
+         }
+         if (!loadValue && !loadMetadata) {
+            return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, (Object) null, null);
+         }
+         LogFile file = files.get(location.fileId);
+         if (file != null) {
+            try {
+               byte[] record = readRecord(file, location);
+               if (record == null) {
+                  throw log.corruptLogRecordRead(file.path.getPath(), location.offset);
+               }
+               if (trace) log.tracef("Read entry %s at %s", key, location);
+               return toMarshalledEntry(record, location, loadValue, loadMetadata);
+            } catch (ClosedChannelException e) {
+               // The file was compacted or cleared after the index lookup
+            } catch (IOException e) {
+               throw new PersistenceException(e);
+            }
+         }
+         if (index.get(key) == location) {
+            // The file is gone while the index still points to it, so the store was stopped
+            return null;
+         }
+      }
+   }
+
+   private MarshalledEntry<K, V> toMarshalledEntry(byte[] record, EntryLocation location, boolean loadValue,
+                                                   boolean loadMetadata) {
+      ByteBufferFactory factory = ctx.getByteBufferFactory();
+      int dataOffset = HEADER_SIZE + location.keyLen;
+      org.infinispan.commons.io.ByteBuffer keyBb = factory.newByteBuffer(record, HEADER_SIZE, location.keyLen);
+      org.infinispan.commons.io.ByteBuffer valueBb = null;
+      org.infinispan.commons.io.ByteBuffer metadataBb = null;
+      if (loadValue) {
+         valueBb = factory.newByteBuffer(record, dataOffset, location.dataLen);
+      }
+      if (loadMetadata && location.metadataLen > 0) {
+         metadataBb = factory.newByteBuffer(record, dataOffset + location.dataLen, location.metadataLen);
+      }
+      return ctx.getMarshalledEntryFactory().newMarshalledEntry(keyBb, valueBb, metadataBb);
+   }
+
+   @Override
+   public void process(KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor,
+                       boolean fetchValue, boolean fetchMetadata) {
+      filter = PersistenceUtil.notNull(filter);
+      long now = timeService.wallClockTime();
+      List<KeyValuePair<K, EntryLocation>> keysToLoad = new ArrayList<>(index.size());
+      for (Map.Entry<K, EntryLocation> e : index.entrySet()) {
+         if (filter.accept(e.getKey()) && !e.getValue().isExpired(now))
+            keysToLoad.add(new KeyValuePair<>(e.getKey(), e.getValue()));
+      }
+      TaskContextImpl taskContext = new TaskContextImpl();
+
+      if (!fetchValue && !fetchMetadata) {
+         try {
+            for (KeyValuePair<K, EntryLocation> key : keysToLoad) {
+               task.processEntry(ctx.getMarshalledEntryFactory().newMarshalledEntry(key.getKey(), (Object) null, null),
+                     taskContext);
+            }
+         } catch (InterruptedException e) {
+            log.errorExecutingParallelStoreTask(e);
+            throw new PersistenceException("Execution exception!", e);
+         }
+         return;
+      }
+
+      // Read the files sequentially
+      keysToLoad.sort((o1, o2) -> {
+         EntryLocation l1 = o1.getValue();
+         EntryLocation l2 = o2.getValue();
+         int diff = Integer.compare(l1.fileId, l2.fileId);
+         return diff != 0 ? diff : Long.compare(l1.offset, l2.offset);
+      });
+
+      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      for (KeyValuePair<K, EntryLocation> entry : keysToLoad) {
+         if (taskContext.isStopped())
+            break;
+
+         K key = entry.getKey();
+         eacs.submit(() -> {
+            try {
+               MarshalledEntry<K, V> marshalledEntry = load(key, fetchValue, fetchMetadata);
+               if (marshalledEntry != null) {
+                  task.processEntry(marshalledEntry, taskContext);
+               }
+               return null;
+            } catch (Exception e) {
+               log.errorExecutingParallelStoreTask(e);
+               throw e;
+            }
+         });
+      }
+      eacs.waitUntilAllCompleted();
+      if (eacs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", eacs.getFirstException());
+      }
+   }
+
+   @Override
+   public void purge(Executor threadPool, PurgeListener<? super K> listener) {
+      long now = timeService.wallClockTime();
+      clearLock.readLock().lock();
+      try {
+         for (Map.Entry<K, EntryLocation> entry : index.entrySet()) {
+            EntryLocation location = entry.getValue();
+            if (location.isExpired(now)) {
+               K key = entry.getKey();
+               boolean purged;
+               keyLocks.acquireLock(key, true);
+               try {
+                  purged = index.remove(key, location);
+                  if (purged) {
+                     markDead(location);
+                     appendRemoval(location);
+                  }
+               } finally {
+                  keyLocks.releaseLock(key);
+               }
+               if (purged && listener != null) listener.entryPurged(key);
+            }
+         }
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      } finally {
+         clearLock.readLock().unlock();
+      }
+   }
+
+   @Override
+   public int size() {
+      return index.size();
+   }
+
+   /**
+    * Records that the record at the given location is no longer current, scheduling its file for compaction if
+    * needed
+    */
+   private void markDead(EntryLocation location) {
+      LogFile file = files.get(location.fileId);
+      if (file != null) {
+         file.dead.addAndGet(location.size());
+         if (file.sealed) {
+            scheduleCompactionIfNeeded(file);
+         }
+      }
+   }
+
+   private void scheduleCompactionIfNeeded(LogFile file) {
+      ScheduledExecutorService compactor = this.compactor;
+      long written = file.written.get();
+      if (compactor != null && written > 0 && file.dead.get() >= written * configuration.compactionThreshold()
+            && scheduledCompactions.add(file.id)) {
+         if (trace) log.tracef("Scheduling compaction of %s, %d of %d bytes are dead", file.path, file.dead.get(), written);
+         compactor.execute(() -> compact(file));
+      }
+   }
+
+   /**
+    * Copies the current records of the file to the end of the log and deletes it.
+    */
+   private void compact(LogFile file) {
+      clearLock.readLock().lock();
+      try {
+         if (files.get(file.id) != file) {
+            // The store was cleared
+            return;
+         }
+         // Writers that reserved space before the file was sealed may still be writing
+         synchronized (file) {
+            while (file.writers.get() != 0) {
+               file.wait();
+            }
+         }
+         // Only compaction deletes files, and new files are never in the range of a removal in this file
+         NavigableSet<Integer> otherFiles = new TreeSet<>(files.keySet());
+         otherFiles.remove(file.id);
+         long offset = MAGIC.length;
+         long size = file.channel.size();
+         ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+         int copied = 0;
+         while (offset < size) {
+            if (stopping) {
+               return;
+            }
+            EntryLocation location = readHeader(file, offset, size, header);
+            byte[] record = location == null ? null : readRecord(file, location);
+            if (record == null) {
+               // Compacting would lose any current records after this one
+               log.corruptLogRecord(file.path.getPath(), offset);
+               return;
+            }
+            K key = readKey(record, location);
+            keyLocks.acquireLock(key, true);
+            try {
+               EntryLocation indexed = index.get(key);
+               boolean live = indexed != null && indexed.fileId == file.id && indexed.offset == offset;
+               // A removal must be kept while a file that may contain an older record of the key exists, even if the
+               // key was written again, as the range of the new records starts after the removal
+               if (live || (location.isRemoval() && location.hidesRecordsIn(otherFiles))) {
+                  EntryLocation moved = append(ByteBuffer.wrap(record), location.sequence, location.expiryTime,
+                        location.keyLen, location.dataLen, location.metadataLen,
+                        live ? indexed.firstFileId : NO_FILE);
+                  if (live) {
+                     index.put(key, moved);
+                  }
+                  copied++;
+               }
+            } finally {
+               keyLocks.releaseLock(key);
+            }
+            offset += location.size();
+         }
+         files.remove(file.id);
+         file.channel.close();
+         if (!file.path.delete()) {
+            log.tracef("Unable to delete compacted file %s", file.path);
+         }
+         if (trace) log.tracef("Compacted %s, copied %d records", file.path, copied);
+      } catch (ClosedChannelException e) {
+         // The store was stopped
+      } catch (Exception e) {
+         log.errorExecutingParallelStoreTask(e);
+      } finally {
+         scheduledCompactions.remove(file.id);
+         clearLock.readLock().unlock();
+      }
+   }
+
+   int getFileCount() {
+      return files.size();
+   }
+
+   int getReplayedRecords() {
+      return replayedRecords;
+   }
+
+   void forceCheckpoint() throws Exception {
+      compactor.submit(() -> checkpoint(false)).get();
+   }
+
+   void runPeriodicCheckpoint() throws Exception {
+      compactor.submit(this::periodicCheckpoint).get();
+   }
+
+   /**
+    * A file of the log
+    */
+   private static class LogFile {
+      final int id;
+      final File path;
+      final FileChannel channel;
+      /**
+       * The position the next record will be written at, this may be beyond the maximum size
+       */
+      final AtomicLong writePosition = new AtomicLong();
+      /**
+       * The bytes of all records written
+       */
+      final AtomicLong written = new AtomicLong();
+      /**
+       * The bytes of all records that are no longer current
+       */
+      final AtomicLong dead = new AtomicLong();
+      /**
+       * The number of threads that are possibly writing to this file, the compactor waits on the file until it is 0
+       */
+      final AtomicInteger writers = new AtomicInteger();
+      /**
+       * Once sealed no more records are written to the file
+       */
+      volatile boolean sealed;
+      /**
+       * Whether the file was forced to disk by a checkpoint, after which no more records are written to it
+       */
+      volatile boolean forced;
+
+      LogFile(int id, File path, FileChannel channel) {
+         this.id = id;
+         this.path = path;
+         this.channel = channel;
+      }
+   }
+
+   /**
+    * The location of a record in the log and the fields of its header, instances are immutable and compared by
+    * identity.
+    */
+   private static class EntryLocation {
+      final int fileId;
+      final long offset;
+      final long sequence;
+      final long expiryTime;
+      final int keyLen;
+      final int dataLen;
+      final int metadataLen;
+      /**
+       * The first file that may contain an older record of the key since it was last removed, not persisted in
+       * the record but rebuilt when reading the log
+       */
+      final int firstFileId;
+
+      EntryLocation(int fileId, long offset, long sequence, long expiryTime, int keyLen, int dataLen,
+                    int metadataLen, int firstFileId) {
+         this.fileId = fileId;
+         this.offset = offset;
+         this.sequence = sequence;
+         this.expiryTime = expiryTime;
+         this.keyLen = keyLen;
+         this.dataLen = dataLen;
+         this.metadataLen = metadataLen;
+         this.firstFileId = firstFileId;
+      }
+
+      EntryLocation withFirstFileId(int firstFileId) {
+         return new EntryLocation(fileId, offset, sequence, expiryTime, keyLen, dataLen, metadataLen, firstFileId);
+      }
+
+      static long fileRange(int firstFileId, int lastFileId) {
+         return ((long) firstFileId << 32) | lastFileId;
+      }
+
+      /**
+       * @return whether this removal hides a record that could be in one of the given files
+       */
+      boolean hidesRecordsIn(NavigableSet<Integer> fileIds) {
+         Integer fileId = fileIds.ceiling((int) (expiryTime >>> 32));
+         return fileId != null && fileId <= (int) expiryTime;
+      }
+
+      boolean isRemoval() {
+         return dataLen == REMOVED;
+      }
+
+      boolean isExpired(long now) {
+         return !isRemoval() && expiryTime > 0 && expiryTime < now;
+      }
+
+      int size() {
+         return HEADER_SIZE + keyLen + Math.max(dataLen, 0) + metadataLen;
+      }
+
+      @Override
+      public String toString() {
+         return "EntryLocation{file=" + fileId + ", offset=" + offset + ", sequence=" + sequence + ", size=" +
+               size() + '}';
+      }
+   }
+}
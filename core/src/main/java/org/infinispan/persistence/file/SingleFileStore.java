@@ -57,6 +57,10 @@
  * data loss, and data can be recomputed or re-queried from the original data
  * source.
  * <p/>
+ * When {@link SingleFileStoreConfiguration#logStructured()} is enabled all operations are delegated to a
+ * {@link LogStructuredFileStore}, which appends to a set of files in the <tt>&lt;location&gt;/&lt;cache name&gt;</tt>
+ * directory and compacts them in the background instead.
+ * <p/>
  * This class is fully thread safe, yet allows for concurrent load / store
  * of individual cache entries.
  *
@@ -89,6 +93,7 @@
    // Prevent clear() from truncating the file after a write() allocated the entry but before it wrote the data
    private ReadWriteLock resizeLock = new ReentrantReadWriteLock();
    private TimeService timeService;
+   private LogStructuredFileStore<K, V> logStore;
 
    @Override
    public void init(InitializationContext ctx) {
@@ -99,6 +104,12 @@ public void init(InitializationContext ctx) {
 
    @Override
    public void start() {
+      if (configuration.logStructured()) {
+         logStore = new LogStructuredFileStore<>();
+         logStore.init(ctx);
+         logStore.start();
+         return;
+      }
       try {
          // open the data file
          String location = configuration.location();
@@ -139,6 +150,11 @@ public void start() {
 
    @Override
    public void stop() {
+      if (logStore != null) {
+         logStore.stop();
+         logStore = null;
+         return;
+      }
       try {
          if (channel != null) {
             log.tracef("Stopping store %s, size = %d, file size = %d", ctx.getCache().getName(), entries.size(), channel.size());
@@ -211,6 +227,7 @@ private void rebuildIndex() throws Exception {
     */
    @Override
    public boolean contains(Object key) {
+      if (logStore != null) return logStore.contains(key);
       FileEntry entry = entries.get(key);
       return entry != null && !entry.isExpired(timeService.wallClockTime());
    }
@@ -309,6 +326,10 @@ private void free(FileEntry fe) throws IOException {
 
    @Override
    public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
+      if (logStore != null) {
+         logStore.write(marshalledEntry);
+         return;
+      }
       try {
          // serialize cache value
          org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
@@ -380,6 +401,10 @@ private FileEntry evict() {
 
    @Override
    public void clear() {
+      if (logStore != null) {
+         logStore.clear();
+         return;
+      }
       resizeLock.writeLock().lock();
       try {
          synchronized (entries) {
@@ -410,6 +435,7 @@ public void clear() {
 
    @Override
    public boolean delete(Object key) {
+      if (logStore != null) return logStore.delete(key);
       resizeLock.readLock().lock();
       try {
          FileEntry fe = entries.remove(key);
@@ -424,6 +450,7 @@ public boolean delete(Object key) {
 
    @Override
    public MarshalledEntry<K, V> load(Object key) {
+      if (logStore != null) return logStore.load(key);
       return _load(key, true, true);
    }
 
@@ -489,6 +516,10 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
 
    @Override
    public void process(KeyFilter<? super K> filter, final CacheLoaderTask<K, V> task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
+      if (logStore != null) {
+         logStore.process(filter, task, executor, fetchValue, fetchMetadata);
+         return;
+      }
       filter = PersistenceUtil.notNull(filter);
       ArrayList<KeyValuePair<K, FileEntry>> keysToLoad = new ArrayList<>(entries.size());
       long now = timeService.wallClockTime();
@@ -654,6 +685,10 @@ private void mergeAndLogEntry(FileEntry entry, int mergeCounter) {
    }
    @Override
    public void purge(Executor threadPool, final PurgeListener task) {
+      if (logStore != null) {
+         logStore.purge(threadPool, task);
+         return;
+      }
       long now = timeService.wallClockTime();
       List<KeyValuePair<Object, FileEntry>> entriesToPurge = new ArrayList<>();
       synchronized (entries) {
@@ -694,6 +729,7 @@ public void purge(Executor threadPool, final PurgeListener task) {
 
    @Override
    public int size() {
+      if (logStore != null) return logStore.size();
       return entries.size();
    }
 
@@ -709,6 +745,10 @@ long getFileSize() {
       return filePos;
    }
 
+   LogStructuredFileStore<K, V> getLogStore() {
+      return logStore;
+   }
+
    public SingleFileStoreConfiguration getConfiguration() {
       return configuration;
    }
@@ -0,0 +1,82 @@
+package org.infinispan.persistence.manager;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * A Bloom filter of key hash codes, used to skip the stores for keys that were never written to them. Keys can only be
+ * added, so a removed key remains a false positive until the filter is rebuilt.
+ * <p>
+ * The bit positions are derived from a single 64 bit hash with the Kirsch-Mitzenmacher double hashing scheme.
+ *
+ * @since 9.2
+ */
+@ThreadSafe
+final class BloomFilter {
+   private static final int MINIMUM_BITS = 64;
+
+   private final AtomicLongArray bits;
+   private final long bitCount;
+   private final int hashFunctions;
+
+   /**
+    * @param expectedKeys      the number of keys the filter is sized for
+    * @param falsePositiveRate the desired probability of {@link #mightContain(Object)} returning true for a key that
+    *                          was never added, once the expected number of keys has been added
+    */
+   BloomFilter(long expectedKeys, double falsePositiveRate) {
+      long n = Math.max(expectedKeys, 1);
+      long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+      int words = (int) Math.min((Math.max(m, MINIMUM_BITS) + 63) >>> 6, Integer.MAX_VALUE - 8);
+      bits = new AtomicLongArray(words);
+      bitCount = (long) words << 6;
+      hashFunctions = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+   }
+
+   void add(Object key) {
+      long hash = hash(key);
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 1; i <= hashFunctions; i++) {
+         long bit = index(h1 + i * h2);
+         int word = (int) (bit >>> 6);
+         long mask = 1L << bit;
+         long current = bits.get(word);
+         while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+            current = bits.get(word);
+         }
+      }
+   }
+
+   boolean mightContain(Object key) {
+      long hash = hash(key);
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 1; i <= hashFunctions; i++) {
+         long bit = index(h1 + i * h2);
+         if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private long index(int combinedHash) {
+      // Flip the bits of negative hashes, the same as Guava
+      return (combinedHash < 0 ? ~combinedHash : combinedHash) % bitCount;
+   }
+
+   /**
+    * Spreads the hash code of the key over 64 bits with the finalizer of MurmurHash3
+    */
+   private static long hash(Object key) {
+      long h = key.hashCode();
+      h ^= h >>> 33;
+      h *= 0xff51afd7ed558ccdL;
+      h ^= h >>> 33;
+      h *= 0xc4ceb9fe1a85ec53L;
+      h ^= h >>> 33;
+      return h;
+   }
+}
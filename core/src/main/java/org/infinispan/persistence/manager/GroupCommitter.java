@@ -0,0 +1,134 @@
+package org.infinispan.persistence.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.manager.PersistenceManager.AccessMode;
+import org.infinispan.persistence.spi.PersistenceException;
+
+import net.jcip.annotations.GuardedBy;
+
+/**
+ * Coalesces the store modifications of concurrent callers, so that each store is invoked once per batch instead of
+ * once per modification.
+ * <p>
+ * The first caller to arrive while no batch is being committed becomes the leader: it waits for the configured window,
+ * takes every pending modification and hands them to the committer as a single batch. Callers that arrive meanwhile
+ * block until the batch holding their modification has been committed, or until they can become the leader of the
+ * next batch. A caller therefore never returns before its modification is in the stores, and a failure of the batch is
+ * rethrown to every caller that took part in it.
+ *
+ * @since 9.2
+ */
+final class GroupCommitter {
+   private final long windowNanos;
+   private final Consumer<List<PendingModification>> committer;
+   private final ReentrantLock lock = new ReentrantLock();
+   private final Condition committed = lock.newCondition();
+   @GuardedBy("lock")
+   private List<PendingModification> pending = new ArrayList<>();
+   @GuardedBy("lock")
+   private boolean committing;
+
+   /**
+    * @param windowNanos how long the leader waits for more modifications before committing the batch
+    * @param committer   applies a batch of modifications to the stores
+    */
+   GroupCommitter(long windowNanos, Consumer<List<PendingModification>> committer) {
+      this.windowNanos = windowNanos;
+      this.committer = committer;
+   }
+
+   void write(MarshalledEntry entry, AccessMode accessMode, long flags) {
+      submit(new PendingModification(entry.getKey(), entry, accessMode, flags));
+   }
+
+   void delete(Object key, AccessMode accessMode) {
+      submit(new PendingModification(key, null, accessMode, 0L));
+   }
+
+   private void submit(PendingModification modification) {
+      lock.lock();
+      try {
+         pending.add(modification);
+         while (committing && !modification.done) {
+            committed.awaitUninterruptibly();
+         }
+         if (!modification.done) {
+            committing = true;
+         }
+      } finally {
+         lock.unlock();
+      }
+      if (!modification.done) {
+         commitAsLeader();
+      }
+      if (modification.failure != null) {
+         if (modification.failure instanceof PersistenceException)
+            throw (PersistenceException) modification.failure;
+         throw new PersistenceException(modification.failure);
+      }
+   }
+
+   private void commitAsLeader() {
+      if (windowNanos > 0) {
+         LockSupport.parkNanos(windowNanos);
+      }
+      List<PendingModification> batch;
+      lock.lock();
+      try {
+         batch = pending;
+         pending = new ArrayList<>();
+      } finally {
+         lock.unlock();
+      }
+      Throwable failure = null;
+      try {
+         committer.accept(batch);
+      } catch (Throwable t) {
+         failure = t;
+      }
+      lock.lock();
+      try {
+         for (PendingModification modification : batch) {
+            modification.failure = failure;
+            modification.done = true;
+         }
+         committing = false;
+         committed.signalAll();
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * A write or removal waiting to be committed. The outcome fields are published by the lock of the committer.
+    */
+   static final class PendingModification {
+      final Object key;
+      final MarshalledEntry entry;
+      final AccessMode accessMode;
+      final long flags;
+      private boolean done;
+      private Throwable failure;
+
+      PendingModification(Object key, MarshalledEntry entry, AccessMode accessMode, long flags) {
+         this.key = key;
+         this.entry = entry;
+         this.accessMode = accessMode;
+         this.flags = flags;
+      }
+
+      /**
+       * @return true if this modification removes the key from the stores
+       */
+      boolean isRemoval() {
+         return entry == null;
+      }
+   }
+}
@@ -2,6 +2,8 @@
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 
 import javax.transaction.Transaction;
@@ -30,6 +32,21 @@ public interface PersistenceManager extends Lifecycle {
     */
    boolean isPreloaded();
 
+   /**
+    * @return the number of entries inserted into the cache by the current or last preload
+    */
+   long getPreloadedEntries();
+
+   /**
+    * @return the number of modifications queued by the write-behind stores and not yet applied
+    */
+   int getWriteBehindQueueSize();
+
+   /**
+    * @return the time in milliseconds since the oldest modification not yet applied by a write-behind store was queued
+    */
+   long getWriteBehindLag();
+
    /**
     * Loads the data from the external store into memory during cache startup.
     */
@@ -64,6 +81,31 @@ public interface PersistenceManager extends Lifecycle {
 
    void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode);
 
+   /**
+    * Same as {@link #processOnAllStores(KeyFilter, AdvancedCacheLoader.CacheLoaderTask, boolean, boolean, AccessMode)},
+    * but only the entries whose key maps to one of the given segments are passed to the task. The stores implementing
+    * {@link org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore} only read those segments, the other stores
+    * are iterated fully and filtered.
+    */
+   void processOnAllStores(Set<Integer> segments, KeyFilter keyFilter,
+                           AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata,
+                           AccessMode mode);
+
+   /**
+    * Same as {@link #processOnAllStores(Set, KeyFilter, AdvancedCacheLoader.CacheLoaderTask, boolean, boolean, AccessMode)},
+    * but the stores implementing {@link org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore} are skipped.
+    * Their entries can be removed with {@link #removeSegmentsFromAllStores(Set, AccessMode)} without reading them.
+    */
+   void processOnNonSegmentedStores(Set<Integer> segments, KeyFilter keyFilter,
+                                    AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue,
+                                    boolean fetchMetadata, AccessMode mode);
+
+   /**
+    * Removes the entries mapped to the given segments from the stores implementing
+    * {@link org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore}. The other stores are left untouched.
+    */
+   void removeSegmentsFromAllStores(Set<Integer> segments, AccessMode mode);
+
    MarshalledEntry loadFromAllStores(Object key, boolean localInvocation);
 
    /**
@@ -182,4 +224,47 @@ void prepareAllTxStores(Transaction transaction, BatchModification batchModifica
     * @param flags Flags used during command invocation
     */
    void deleteBatchFromAllNonTxStores(Iterable<Object> keys, AccessMode accessMode, long flags);
+
+   /**
+    * @return true if the cache invocations should use the asynchronous methods of this manager, because at least one
+    * store implements {@link org.infinispan.persistence.spi.NonBlockingCacheLoader} or
+    * {@link org.infinispan.persistence.spi.NonBlockingCacheWriter}
+    */
+   default boolean isNonBlocking() {
+      return false;
+   }
+
+   /**
+    * Returns a stamp that changes after an entry with the given key was written to or removed from the stores. An
+    * entry loaded with {@link #loadFromAllStoresAsync(Object, boolean)} may be stale if the stamp changed while it
+    * was loaded, so it must not be added to the data container. Only updated when {@link #isNonBlocking()}.
+    */
+   default long getWriteStamp(Object key) {
+      return 0;
+   }
+
+   /**
+    * Asynchronous version of {@link #loadFromAllStores(Object, boolean)}. Stores that are not non-blocking are invoked
+    * from the persistence executor, so the caller never waits for the storage.
+    */
+   default CompletionStage<MarshalledEntry> loadFromAllStoresAsync(Object key, boolean localInvocation) {
+      return CompletableFuture.completedFuture(loadFromAllStores(key, localInvocation));
+   }
+
+   /**
+    * Asynchronous version of {@link #writeToAllNonTxStores(MarshalledEntry, AccessMode, long)}. Stores that are not
+    * non-blocking are invoked from the persistence executor, so the caller never waits for the storage.
+    */
+   default CompletionStage<Void> writeToAllNonTxStoresAsync(MarshalledEntry marshalledEntry, AccessMode modes, long flags) {
+      writeToAllNonTxStores(marshalledEntry, modes, flags);
+      return CompletableFuture.completedFuture(null);
+   }
+
+   /**
+    * Asynchronous version of {@link #deleteFromAllStores(Object, AccessMode)}. Stores that are not non-blocking are
+    * invoked from the persistence executor, so the caller never waits for the storage.
+    */
+   default CompletionStage<Boolean> deleteFromAllStoresAsync(Object key, AccessMode mode) {
+      return CompletableFuture.completedFuture(deleteFromAllStores(key, mode));
+   }
 }
@@ -14,15 +14,28 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -40,14 +53,19 @@
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.PersistenceConfiguration;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.container.DataContainer;
 import org.infinispan.context.Flag;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.eviction.EvictionType;
 import org.infinispan.expiration.ExpirationManager;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
+import org.infinispan.factories.threads.DefaultThreadFactory;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.interceptors.AsyncInterceptor;
 import org.infinispan.interceptors.AsyncInterceptorChain;
@@ -72,7 +90,10 @@
 import org.infinispan.persistence.spi.CacheWriter;
 import org.infinispan.persistence.spi.FlagAffectedStore;
 import org.infinispan.persistence.spi.LocalOnlyCacheLoader;
+import org.infinispan.persistence.spi.NonBlockingCacheLoader;
+import org.infinispan.persistence.spi.NonBlockingCacheWriter;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.TransactionalCacheWriter;
 import org.infinispan.persistence.support.AdvancedSingletonCacheWriter;
 import org.infinispan.persistence.support.BatchModification;
@@ -80,6 +101,7 @@
 import org.infinispan.persistence.support.DelegatingCacheWriter;
 import org.infinispan.persistence.support.SingletonCacheWriter;
 import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -90,6 +112,7 @@ public class PersistenceManagerImpl implements PersistenceManager {
 
    private static final Log log = LogFactory.getLog(PersistenceManagerImpl.class);
    private static final boolean trace = log.isTraceEnabled();
+   private static final int WRITE_STAMP_STRIPES = 1024;
 
    @Inject private Configuration configuration;
    @Inject private AdvancedCache<Object, Object> cache;
@@ -102,6 +125,9 @@ public class PersistenceManagerImpl implements PersistenceManager {
    @Inject private MarshalledEntryFactory marshalledEntryFactory;
    @Inject private CacheStoreFactoryRegistry cacheStoreFactoryRegistry;
    @Inject private ExpirationManager<Object, Object> expirationManager;
+   @Inject private KeyPartitioner keyPartitioner;
+   @Inject private DataContainer<Object, Object> dataContainer;
+   @Inject private GlobalConfiguration globalConfiguration;
 
    @GuardedBy("storesMutex")
    private final List<CacheLoader> loaders = new ArrayList<>();
@@ -119,6 +145,18 @@ public class PersistenceManagerImpl implements PersistenceManager {
    private volatile boolean enabled;
    private volatile boolean clearOnStop;
    private boolean preloaded;
+   private final AtomicLong preloadedEntries = new AtomicLong();
+   private volatile GroupCommitter groupCommitter;
+   private volatile boolean nonBlocking;
+   // Only updated when non-blocking, bumped after a key was written to or removed from the stores
+   private final AtomicLongArray writeStamps = new AtomicLongArray(WRITE_STAMP_STRIPES);
+   // Bumped after modifications whose keys are not known
+   private final AtomicLong allKeysWriteStamp = new AtomicLong();
+   /**
+    * One filter per segment of the keys that were written to the stores, null when the Bloom filter is disabled or
+    * still being built.
+    */
+   private volatile BloomFilter[] bloomFilters;
 
    @Override
    @Start()
@@ -130,6 +168,11 @@ public void start() {
          return;
       try {
          createLoadersAndWriters();
+         if (configuration.persistence().groupCommit()) {
+            groupCommitter = new GroupCommitter(MILLISECONDS.toNanos(configuration.persistence().groupCommitWindow()),
+                                                this::commitGroup);
+         }
+         updateNonBlocking();
          Transaction xaTx = null;
          if (transactionManager != null) {
             xaTx = transactionManager.suspend();
@@ -140,7 +183,7 @@ public void start() {
             Set<Lifecycle> undelegated = new HashSet<>();//black magic to make sure the store start only gets invoked once
 
             Consumer<CacheWriter> startWriter = writer -> {
-               writer.start();
+               // The actual store is started first, a write-behind store applies its journal when started
                if (writer instanceof DelegatingCacheWriter) {
                   CacheWriter actual = undelegate(writer);
                   actual.start();
@@ -148,6 +191,7 @@ public void start() {
                } else {
                   undelegated.add(writer);
                }
+               writer.start();
 
                if (configMap.get(writer).purgeOnStartup()) {
                   if (!(writer instanceof AdvancedCacheWriter))
@@ -175,11 +219,67 @@ public void start() {
             }
             storesMutex.readLock().unlock();
          }
+         if (configuration.persistence().bloomFilter()) {
+            buildBloomFilters();
+         }
       } catch (Exception e) {
          throw new CacheException("Unable to start cache loaders", e);
       }
    }
 
+   /**
+    * Adds every key of the loaders to new Bloom filters, so that they are complete before the first lookup.
+    */
+   private void buildBloomFilters() {
+      PersistenceConfiguration persistenceConfiguration = configuration.persistence();
+      int numSegments = configuration.clustering().hash().numSegments();
+      long expectedEntriesPerSegment = (persistenceConfiguration.bloomFilterExpectedEntries() + numSegments - 1) / numSegments;
+      BloomFilter[] filters = new BloomFilter[numSegments];
+      for (int i = 0; i < numSegments; i++) {
+         filters[i] = new BloomFilter(expectedEntriesPerSegment, persistenceConfiguration.bloomFilterFalsePositiveRate());
+      }
+
+      long start = timeService.time();
+      AtomicInteger keys = new AtomicInteger();
+      storesMutex.readLock().lock();
+      try {
+         for (CacheLoader l : loaders) {
+            if (!(l instanceof AdvancedCacheLoader)) {
+               throw new PersistenceException("Cannot build the Bloom filter from cache loader '" + l.getClass().getName()
+                     + "' as it doesn't implement '" + AdvancedCacheLoader.class.getName() + "'");
+            }
+            ((AdvancedCacheLoader<?, ?>) l).process(null, (me, taskContext) -> {
+               filters[keyPartitioner.getSegment(me.getKey())].add(me.getKey());
+               keys.incrementAndGet();
+            }, persistenceExecutor, false, false);
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      bloomFilters = filters;
+      log.debugf("Added %d keys to the Bloom filter in %s", keys.get(),
+            Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+   }
+
+   /**
+    * @return false if the key was never written to the stores, so loading it cannot find anything
+    */
+   private boolean mightBeStored(Object key) {
+      BloomFilter[] filters = bloomFilters;
+      return filters == null || filters[keyPartitioner.getSegment(key)].mightContain(key);
+   }
+
+   /**
+    * Must be invoked before the key is written, so that a concurrent load never skips the stores for a stored key.
+    * Removals and clears do not update the filter, the removed keys remain false positives until the next restart.
+    */
+   private void addToBloomFilter(Object key) {
+      BloomFilter[] filters = bloomFilters;
+      if (filters != null) {
+         filters[keyPartitioner.getSegment(key)].add(key);
+      }
+   }
+
    @Override
    @Stop
    public void stop() {
@@ -219,6 +319,9 @@ public void stop() {
          }
          loaders.clear();
          preloaded = false;
+         groupCommitter = null;
+         nonBlocking = false;
+         bloomFilters = null;
       } finally {
          storesMutex.writeLock().unlock();
       }
@@ -229,11 +332,62 @@ public boolean isEnabled() {
       return enabled;
    }
 
+   @Override
+   public boolean isNonBlocking() {
+      return nonBlocking;
+   }
+
+   /**
+    * The asynchronous invocation path is only taken when a store can benefit from it. Group commit coordinates the
+    * writers by blocking them, and activation must remove the entry from the stores while the data container is
+    * locked, so both keep the blocking path.
+    */
+   private void updateNonBlocking() {
+      boolean anyNonBlocking = loaders.stream().anyMatch(l -> l instanceof NonBlockingCacheLoader) ||
+            nonTxWriters.stream().anyMatch(w -> w instanceof NonBlockingCacheWriter);
+      nonBlocking = anyNonBlocking && groupCommitter == null && !configuration.persistence().passivation();
+   }
+
    @Override
    public boolean isPreloaded() {
       return preloaded;
    }
 
+   @Override
+   public long getPreloadedEntries() {
+      return preloadedEntries.get();
+   }
+
+   @Override
+   public int getWriteBehindQueueSize() {
+      int size = 0;
+      for (AsyncCacheWriter writer : getAsyncWriters())
+         size += writer.getQueueSize();
+      return size;
+   }
+
+   @Override
+   public long getWriteBehindLag() {
+      long lag = 0;
+      for (AsyncCacheWriter writer : getAsyncWriters())
+         lag = Math.max(lag, writer.getLag());
+      return lag;
+   }
+
+   private List<AsyncCacheWriter> getAsyncWriters() {
+      storesMutex.readLock().lock();
+      try {
+         List<AsyncCacheWriter> writers = new ArrayList<>();
+         for (CacheWriter w : nonTxWriters) {
+            if (w instanceof AsyncCacheWriter)
+               writers.add((AsyncCacheWriter) w);
+         }
+         return writers;
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    @Override
    @Start(priority = 56)
    public void preload() {
@@ -263,24 +417,122 @@ public void preload() {
 
       long start = timeService.time();
 
-
+      preloadedEntries.set(0);
       final long maxEntries = getMaxEntries();
-      final AtomicInteger loadedEntries = new AtomicInteger(0);
       final AdvancedCache<Object, Object> flaggedCache = getCacheForStateInsertion();
+      int preloadThreads = configuration.persistence().preloadThreads();
+      if (preloadThreads > 1) {
+         this.preloaded = preloadInParallel(preloadCl, flaggedCache, maxEntries, preloadThreads);
+      } else {
+         final AtomicInteger loadedEntries = new AtomicInteger(0);
+         ByRef.Boolean preloaded = new ByRef.Boolean(true);
+         preloadCl.process(null, (me, taskContext) -> {
+            if (loadedEntries.getAndIncrement() >= maxEntries || isMemoryFull()) {
+               taskContext.stop();
+               preloaded.set(false);
+               return;
+            }
+            preloadEntries(flaggedCache, Collections.singletonList(me));
+         }, new WithinThreadExecutor(), true, true);
+         this.preloaded = preloaded.get();
+      }
+
+      log.debugf("Preloaded %d keys in %s", preloadedEntries.get(), Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+   }
+
+   /**
+    * Iterates over the loader with the persistence executor and hands the entries over to {@code threads} inserting
+    * threads, each owning the segments with {@code segment % threads} equal to its index. The queues between them are
+    * bounded, so a slow insertion throttles the iteration instead of buffering the whole store in memory. The
+    * inserting threads are created with the persistence thread factory, but are not taken from the persistence
+    * executor, as they would leave no threads for the iteration.
+    *
+    * @return true if all the entries were inserted
+    */
+   private boolean preloadInParallel(AdvancedCacheLoader<?, ?> preloadCl, AdvancedCache<Object, Object> flaggedCache,
+                                     long maxEntries, int threads) {
+      int batchSize = configuration.persistence().preloadBatchSize();
+      ThreadFactory threadFactory = globalConfiguration.persistenceThreadPool().threadFactory();
+      if (threadFactory == null) {
+         threadFactory = new DefaultThreadFactory(null, Thread.NORM_PRIORITY, DefaultThreadFactory.DEFAULT_PATTERN,
+               globalConfiguration.transport().nodeName(), "Preload-" + cache.getName());
+      }
+      ExecutorService executor = Executors.newFixedThreadPool(threads, threadFactory);
+      List<BlockingQueue<MarshalledEntry>> queues = new ArrayList<>(threads);
+      List<Future<?>> inserters = new ArrayList<>(threads);
+      AtomicBoolean iterationDone = new AtomicBoolean();
+      AtomicBoolean failed = new AtomicBoolean();
+      AtomicLong loadedEntries = new AtomicLong();
       ByRef.Boolean preloaded = new ByRef.Boolean(true);
-      preloadCl.process(null, (me, taskContext) -> {
-         if (loadedEntries.getAndIncrement() >= maxEntries) {
-            taskContext.stop();
-            preloaded.set(false);
-            return;
+      try {
+         for (int i = 0; i < threads; i++) {
+            BlockingQueue<MarshalledEntry> queue = new ArrayBlockingQueue<>(2 * batchSize);
+            queues.add(queue);
+            inserters.add(executor.submit(() -> {
+               try {
+                  insertPreloadedEntries(flaggedCache, queue, iterationDone, batchSize);
+               } catch (Throwable t) {
+                  failed.set(true);
+                  throw t;
+               }
+               return null;
+            }));
+         }
+         try {
+            preloadCl.process(null, (me, taskContext) -> {
+               if (failed.get()) {
+                  taskContext.stop();
+                  return;
+               }
+               if (loadedEntries.getAndIncrement() >= maxEntries || isMemoryFull()) {
+                  taskContext.stop();
+                  preloaded.set(false);
+                  return;
+               }
+               BlockingQueue<MarshalledEntry> queue = queues.get(keyPartitioner.getSegment(me.getKey()) % threads);
+               while (!queue.offer(me, 100, MILLISECONDS)) {
+                  if (failed.get()) {
+                     taskContext.stop();
+                     return;
+                  }
+               }
+            }, persistenceExecutor, true, true);
+         } finally {
+            iterationDone.set(true);
+         }
+         for (Future<?> inserter : inserters) {
+            inserter.get();
          }
-         Metadata metadata = me.getMetadata() != null ? ((InternalMetadataImpl) me.getMetadata()).actual() :
-               null; //the downcast will go away with ISPN-3460
-         preloadKey(flaggedCache, me.getKey(), me.getValue(), metadata);
-      }, new WithinThreadExecutor(), true, true);
-      this.preloaded = preloaded.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException("Interrupted while preloading", e);
+      } catch (ExecutionException e) {
+         Throwable cause = e.getCause();
+         throw cause instanceof PersistenceException ? (PersistenceException) cause : new PersistenceException(cause);
+      } finally {
+         executor.shutdownNow();
+      }
+      return preloaded.get();
+   }
 
-      log.debugf("Preloaded %d keys in %s", loadedEntries.get(), Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+   private void insertPreloadedEntries(AdvancedCache<Object, Object> flaggedCache, BlockingQueue<MarshalledEntry> queue,
+                                       AtomicBoolean iterationDone, int batchSize) throws InterruptedException {
+      List<MarshalledEntry> batch = new ArrayList<>(batchSize);
+      for (;;) {
+         // Everything offered before the iteration finished is drained after reading the flag
+         boolean done = iterationDone.get();
+         queue.drainTo(batch, batchSize);
+         if (batch.isEmpty()) {
+            if (done)
+               return;
+            MarshalledEntry me = queue.poll(100, MILLISECONDS);
+            if (me != null)
+               batch.add(me);
+            continue;
+         }
+         preloadEntries(flaggedCache, batch);
+         batch.clear();
+      }
    }
 
    @Override
@@ -293,6 +545,7 @@ public void disableStore(String storeType) {
             removeCacheWriter(storeType, nonTxWriters);
             removeCacheWriter(storeType, txWriters);
             noMoreStores = loaders.isEmpty() && nonTxWriters.isEmpty() && txWriters.isEmpty();
+            updateNonBlocking();
          } finally {
             storesMutex.writeLock().unlock();
          }
@@ -442,11 +695,18 @@ public void clearAllStores(AccessMode mode) {
          txWriters.forEach(clearWriter);
       } finally {
          storesMutex.readLock().unlock();
+         stampAllWrites();
       }
    }
 
    @Override
    public boolean deleteFromAllStores(Object key, AccessMode mode) {
+      GroupCommitter groupCommitter = this.groupCommitter;
+      if (groupCommitter != null) {
+         // The batch removal cannot tell whether the key was present
+         groupCommitter.delete(key, mode);
+         return true;
+      }
       storesMutex.readLock().lock();
       try {
          boolean removed = false;
@@ -458,6 +718,7 @@ public boolean deleteFromAllStores(Object key, AccessMode mode) {
          return removed;
       } finally {
          storesMutex.readLock().unlock();
+         stampWrite(key);
       }
    }
 
@@ -493,8 +754,70 @@ public void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedC
       }
    }
 
+   @Override
+   public void processOnAllStores(Set<Integer> segments, KeyFilter keyFilter,
+                                  AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata,
+                                  AccessMode mode) {
+      processOnStores(segments, keyFilter, task, fetchValue, fetchMetadata, mode, true);
+   }
+
+   @Override
+   public void processOnNonSegmentedStores(Set<Integer> segments, KeyFilter keyFilter,
+                                           AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue,
+                                           boolean fetchMetadata, AccessMode mode) {
+      processOnStores(segments, keyFilter, task, fetchValue, fetchMetadata, mode, false);
+   }
+
+   private void processOnStores(Set<Integer> segments, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task,
+                                boolean fetchValue, boolean fetchMetadata, AccessMode mode,
+                                boolean includeSegmentedStores) {
+      KeyFilter segmentFilter = k -> segments.contains(keyPartitioner.getSegment(k)) &&
+            (keyFilter == null || keyFilter.accept(k));
+      storesMutex.readLock().lock();
+      try {
+         for (CacheLoader loader : loaders) {
+            if (!mode.canPerform(configMap.get(loader)))
+               continue;
+            // A write-behind store is wrapped, so its pending modifications are still seen through the filtered scan
+            if (loader instanceof SegmentedAdvancedLoadWriteStore) {
+               if (!includeSegmentedStores)
+                  continue;
+               //noinspection unchecked
+               ((SegmentedAdvancedLoadWriteStore) loader).process(segments, keyFilter, task, persistenceExecutor, fetchValue, fetchMetadata);
+            } else if (loader instanceof AdvancedCacheLoader) {
+               //noinspection unchecked
+               ((AdvancedCacheLoader) loader).process(segmentFilter, task, persistenceExecutor, fetchValue, fetchMetadata);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public void removeSegmentsFromAllStores(Set<Integer> segments, AccessMode mode) {
+      if (segments.isEmpty())
+         return;
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : nonTxWriters) {
+            if (w instanceof SegmentedAdvancedLoadWriteStore && mode.canPerform(configMap.get(w))) {
+               if (trace) log.tracef("Removing segments %s from store %s", segments, w);
+               ((SegmentedAdvancedLoadWriteStore) w).removeSegments(segments);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+         stampAllWrites();
+      }
+   }
+
    @Override
    public MarshalledEntry loadFromAllStores(Object key, boolean localInvocation) {
+      if (!mightBeStored(key)) {
+         if (trace) log.tracef("Skipping the stores for key %s, it is not in the Bloom filter", key);
+         return null;
+      }
       storesMutex.readLock().lock();
       try {
          for (CacheLoader l : loaders) {
@@ -511,6 +834,64 @@ public MarshalledEntry loadFromAllStores(Object key, boolean localInvocation) {
       }
    }
 
+   @Override
+   public CompletionStage<MarshalledEntry> loadFromAllStoresAsync(Object key, boolean localInvocation) {
+      if (!mightBeStored(key)) {
+         if (trace) log.tracef("Skipping the stores for key %s, it is not in the Bloom filter", key);
+         return CompletableFutures.completedNull();
+      }
+      List<CacheLoader> candidates;
+      storesMutex.readLock().lock();
+      try {
+         candidates = new ArrayList<>(loaders.size());
+         for (CacheLoader l : loaders) {
+            if (localInvocation || !isLocalOnlyLoader(l))
+               candidates.add(l);
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      return loadFromStoresAsync(candidates, 0, key);
+   }
+
+   private CompletionStage<MarshalledEntry> loadFromStoresAsync(List<CacheLoader> candidates, int index, Object key) {
+      if (index == candidates.size())
+         return CompletableFutures.completedNull();
+      CacheLoader loader = candidates.get(index);
+      CompletionStage<MarshalledEntry> stage;
+      if (loader instanceof NonBlockingCacheLoader) {
+         //noinspection unchecked
+         stage = ((NonBlockingCacheLoader) loader).loadAsync(key);
+      } else {
+         stage = CompletableFuture.supplyAsync(() -> loader.load(key), persistenceExecutor);
+      }
+      // Like the blocking load, the first store that has the entry wins
+      return stage.thenCompose(loaded -> loaded != null ? CompletableFuture.completedFuture(loaded) :
+            loadFromStoresAsync(candidates, index + 1, key));
+   }
+
+   @Override
+   public long getWriteStamp(Object key) {
+      return allKeysWriteStamp.get() + writeStamps.get(writeStampStripe(key));
+   }
+
+   private void stampWrite(Object key) {
+      if (nonBlocking) {
+         writeStamps.incrementAndGet(writeStampStripe(key));
+      }
+   }
+
+   private void stampAllWrites() {
+      if (nonBlocking) {
+         allKeysWriteStamp.incrementAndGet();
+      }
+   }
+
+   private static int writeStampStripe(Object key) {
+      int h = key.hashCode();
+      return (h ^ (h >>> 16)) & (WRITE_STAMP_STRIPES - 1);
+   }
+
    private boolean isLocalOnlyLoader(CacheLoader loader) {
       if (loader instanceof LocalOnlyCacheLoader) return true;
       if (loader instanceof DelegatingCacheLoader) {
@@ -527,6 +908,12 @@ public void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode ac
 
    @Override
    public void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode accessMode, long flags) {
+      addToBloomFilter(marshalledEntry.getKey());
+      GroupCommitter groupCommitter = this.groupCommitter;
+      if (groupCommitter != null) {
+         groupCommitter.write(marshalledEntry, accessMode, flags);
+         return;
+      }
       storesMutex.readLock().lock();
       try {
          //noinspection unchecked
@@ -534,6 +921,97 @@ public void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode ac
                .filter(writer -> !(writer instanceof FlagAffectedStore) || FlagAffectedStore.class.cast(writer).shouldWrite(flags))
                .filter(writer -> accessMode.canPerform(configMap.get(writer)))
                .forEach(writer -> writer.write(marshalledEntry));
+      } finally {
+         storesMutex.readLock().unlock();
+         stampWrite(marshalledEntry.getKey());
+      }
+   }
+
+   @Override
+   public CompletionStage<Void> writeToAllNonTxStoresAsync(MarshalledEntry marshalledEntry, AccessMode accessMode, long flags) {
+      addToBloomFilter(marshalledEntry.getKey());
+      List<CompletableFuture<Void>> stages;
+      storesMutex.readLock().lock();
+      try {
+         stages = new ArrayList<>(nonTxWriters.size());
+         for (CacheWriter writer : nonTxWriters) {
+            if (writer instanceof FlagAffectedStore && !((FlagAffectedStore) writer).shouldWrite(flags))
+               continue;
+            if (!accessMode.canPerform(configMap.get(writer)))
+               continue;
+            if (writer instanceof NonBlockingCacheWriter) {
+               //noinspection unchecked
+               stages.add(((NonBlockingCacheWriter) writer).writeAsync(marshalledEntry).toCompletableFuture());
+            } else {
+               stages.add(CompletableFuture.runAsync(() -> writer.write(marshalledEntry), persistenceExecutor));
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      return CompletableFuture.allOf(stages.toArray(new CompletableFuture[stages.size()]))
+            .whenComplete((ignored, t) -> stampWrite(marshalledEntry.getKey()));
+   }
+
+   @Override
+   public CompletionStage<Boolean> deleteFromAllStoresAsync(Object key, AccessMode mode) {
+      List<CompletableFuture<Boolean>> stages;
+      storesMutex.readLock().lock();
+      try {
+         stages = new ArrayList<>(nonTxWriters.size());
+         for (CacheWriter writer : nonTxWriters) {
+            if (!mode.canPerform(configMap.get(writer)))
+               continue;
+            if (writer instanceof NonBlockingCacheWriter) {
+               stages.add(((NonBlockingCacheWriter) writer).deleteAsync(key).toCompletableFuture());
+            } else {
+               stages.add(CompletableFuture.supplyAsync(() -> writer.delete(key), persistenceExecutor));
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      return CompletableFutures.sequence(stages)
+            .whenComplete((ignored, t) -> stampWrite(key))
+            .thenApply(removed -> removed.contains(Boolean.TRUE));
+   }
+
+   /**
+    * Applies the modifications of a group commit to the non transactional stores, with one batch write and one batch
+    * removal per store. Only the last modification of each key is kept, so the writes and removals of a store never
+    * share a key and their relative order does not matter.
+    */
+   private void commitGroup(List<GroupCommitter.PendingModification> modifications) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter writer : nonTxWriters) {
+            StoreConfiguration storeConfiguration = configMap.get(writer);
+            Map<Object, GroupCommitter.PendingModification> latest = new HashMap<>();
+            for (GroupCommitter.PendingModification modification : modifications) {
+               if (!modification.accessMode.canPerform(storeConfiguration))
+                  continue;
+               if (!modification.isRemoval() && writer instanceof FlagAffectedStore &&
+                     !((FlagAffectedStore) writer).shouldWrite(modification.flags))
+                  continue;
+               latest.put(modification.key, modification);
+            }
+            List<MarshalledEntry> entries = new ArrayList<>(latest.size());
+            List<Object> keys = new ArrayList<>();
+            for (GroupCommitter.PendingModification modification : latest.values()) {
+               if (modification.isRemoval()) {
+                  keys.add(modification.key);
+               } else {
+                  entries.add(modification.entry);
+               }
+            }
+            if (!entries.isEmpty()) {
+               //noinspection unchecked
+               writer.writeBatch(entries);
+            }
+            if (!keys.isEmpty()) {
+               writer.deleteBatch(keys);
+            }
+         }
       } finally {
          storesMutex.readLock().unlock();
       }
@@ -541,6 +1019,9 @@ public void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode ac
 
    @Override
    public void writeBatchToAllNonTxStores(Iterable<MarshalledEntry> entries, AccessMode accessMode, long flags) {
+      if (bloomFilters != null) {
+         entries.forEach(entry -> addToBloomFilter(entry.getKey()));
+      }
       storesMutex.readLock().lock();
       try {
          //noinspection unchecked
@@ -550,6 +1031,9 @@ public void writeBatchToAllNonTxStores(Iterable<MarshalledEntry> entries, Access
                .forEach(writer -> writer.writeBatch(entries));
       } finally {
          storesMutex.readLock().unlock();
+         if (nonBlocking) {
+            entries.forEach(entry -> stampWrite(entry.getKey()));
+         }
       }
    }
 
@@ -562,12 +1046,18 @@ public void deleteBatchFromAllNonTxStores(Iterable<Object> keys, AccessMode acce
                .forEach(writer -> writer.deleteBatch(keys));
       } finally {
          storesMutex.readLock().unlock();
+         if (nonBlocking) {
+            keys.forEach(this::stampWrite);
+         }
       }
    }
 
    @Override
    public void prepareAllTxStores(Transaction transaction, BatchModification batchModification,
                                   AccessMode accessMode) throws PersistenceException {
+      if (bloomFilters != null) {
+         batchModification.getMarshalledEntries().forEach(entry -> addToBloomFilter(entry.getKey()));
+      }
       storesMutex.readLock().lock();
       try {
          for (CacheWriter writer : txWriters) {
@@ -583,7 +1073,11 @@ public void prepareAllTxStores(Transaction transaction, BatchModification batchM
 
    @Override
    public void commitAllTxStores(Transaction transaction, AccessMode accessMode) {
-      performOnAllTxStores(accessMode, writer -> writer.commit(transaction));
+      try {
+         performOnAllTxStores(accessMode, writer -> writer.commit(transaction));
+      } finally {
+         stampAllWrites();
+      }
    }
 
    @Override
@@ -816,19 +1310,32 @@ private long getMaxEntries() {
       return Long.MAX_VALUE;
    }
 
-   private void preloadKey(AdvancedCache<Object, Object> cache, Object key, Object value, Metadata metadata) {
+   private boolean isMemoryFull() {
+      return configuration.memory().isEvictionEnabled() && configuration.memory().evictionType() == EvictionType.MEMORY &&
+            dataContainer.evictionSize() >= dataContainer.capacity();
+   }
+
+   /**
+    * Inserts the entries in the cache, within a single transaction for transactional caches.
+    */
+   private void preloadEntries(AdvancedCache<Object, Object> cache, Collection<MarshalledEntry> entries) {
       final Transaction transaction = suspendIfNeeded();
       boolean success = false;
       try {
          try {
             beginIfNeeded();
-            cache.put(key, value, metadata);
+            for (MarshalledEntry me : entries) {
+               Metadata metadata = me.getMetadata() != null ? ((InternalMetadataImpl) me.getMetadata()).actual() :
+                     null; //the downcast will go away with ISPN-3460
+               cache.put(me.getKey(), me.getValue(), metadata);
+            }
             success = true;
          } catch (Exception e) {
             throw new PersistenceException("Unable to preload!", e);
          } finally {
             commitIfNeeded(success);
          }
+         preloadedEntries.addAndGet(entries.size());
       } finally {
          //commitIfNeeded can throw an exception, so we need a try { } finally { }
          resumeIfNeeded(transaction);
@@ -37,6 +37,21 @@ public boolean isPreloaded() {
       return false;
    }
 
+   @Override
+   public long getPreloadedEntries() {
+      return 0;
+   }
+
+   @Override
+   public int getWriteBehindQueueSize() {
+      return 0;
+   }
+
+   @Override
+   public long getWriteBehindLag() {
+      return 0;
+   }
+
    @Override
    public void preload() {
    }
@@ -84,6 +99,22 @@ public void processOnAllStores(KeyFilter keyFilter, AdvancedCacheLoader.CacheLoa
    public void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode) {
    }
 
+   @Override
+   public void processOnAllStores(Set<Integer> segments, KeyFilter keyFilter,
+                                  AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata,
+                                  AccessMode mode) {
+   }
+
+   @Override
+   public void processOnNonSegmentedStores(Set<Integer> segments, KeyFilter keyFilter,
+                                           AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue,
+                                           boolean fetchMetadata, AccessMode mode) {
+   }
+
+   @Override
+   public void removeSegmentsFromAllStores(Set<Integer> segments, AccessMode mode) {
+   }
+
    @Override
    public MarshalledEntry loadFromAllStores(Object key, boolean localContext) {
       return null;
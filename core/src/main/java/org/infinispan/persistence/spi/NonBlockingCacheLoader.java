@@ -0,0 +1,30 @@
+package org.infinispan.persistence.spi;
+
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.marshall.core.MarshalledEntry;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * A {@link CacheLoader} that can fetch entries without blocking the invoking thread. When a cache has such a loader
+ * the {@link org.infinispan.interceptors.impl.CacheLoaderInterceptor} suspends the invocation while the entry is
+ * loaded, instead of blocking the thread that is running the command until the storage answers.
+ * <p>
+ * The blocking {@link #load(Object)} is still used outside of the invocation path, e.g. while iterating over the
+ * cache.
+ *
+ * @since 9.2
+ */
+@ThreadSafe
+public interface NonBlockingCacheLoader<K, V> extends CacheLoader<K, V> {
+
+   /**
+    * Fetches an entry from the storage. The returned stage must not be completed by the thread that invoked this method
+    * if it requires waiting for the storage.
+    *
+    * @return a stage completed with the entry, or with null if the entry does not exist. The stage is completed
+    * exceptionally with a {@link PersistenceException} in case of an error, e.g. communicating with the external storage
+    */
+   CompletionStage<MarshalledEntry<K, V>> loadAsync(Object key);
+}
@@ -0,0 +1,38 @@
+package org.infinispan.persistence.spi;
+
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.marshall.core.MarshalledEntry;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * A {@link CacheWriter} that can modify the storage without blocking the invoking thread. When a cache has such a
+ * writer the {@link org.infinispan.interceptors.impl.CacheWriterInterceptor} completes the invocation once the
+ * returned stage completes, instead of blocking the thread that is running the command until the storage answers.
+ * <p>
+ * The blocking methods are still used outside of the invocation path, e.g. by passivation or state transfer.
+ *
+ * @since 9.2
+ */
+@ThreadSafe
+public interface NonBlockingCacheWriter<K, V> extends CacheWriter<K, V> {
+
+   /**
+    * Persists the entry to the storage.
+    *
+    * @return a stage completed once the entry has been persisted, or completed exceptionally with a
+    * {@link PersistenceException} in case of an error, e.g. communicating with the external storage
+    * @see CacheWriter#write(MarshalledEntry)
+    */
+   CompletionStage<Void> writeAsync(MarshalledEntry<? extends K, ? extends V> entry);
+
+   /**
+    * Removes the entry for the provided key from the storage.
+    *
+    * @return a stage completed with true if the entry existed in the storage and it was deleted, or completed
+    * exceptionally with a {@link PersistenceException} in case of an error
+    * @see CacheWriter#delete(Object)
+    */
+   CompletionStage<Boolean> deleteAsync(Object key);
+}
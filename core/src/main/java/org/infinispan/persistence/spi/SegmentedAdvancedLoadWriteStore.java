@@ -0,0 +1,38 @@
+package org.infinispan.persistence.spi;
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.infinispan.filter.KeyFilter;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * An {@link AdvancedLoadWriteStore} that can restrict its bulk operations to some segments, as determined by the
+ * {@link org.infinispan.distribution.ch.KeyPartitioner} of the cache. State transfer uses these operations to stream
+ * and to drop the segments whose ownership changed, instead of iterating over the whole store.
+ * <p>
+ * Stores that only know the segment of their entries in some configurations may fall back to iterating over all the
+ * entries and filtering them by segment.
+ *
+ * @since 9.2
+ */
+@ThreadSafe
+public interface SegmentedAdvancedLoadWriteStore<K, V> extends AdvancedLoadWriteStore<K, V> {
+
+   /**
+    * Same as {@link #process(KeyFilter, CacheLoaderTask, Executor, boolean, boolean)}, but only the entries whose key
+    * maps to one of the given segments are passed to the task.
+    *
+    * @param segments the segments to iterate over
+    */
+   void process(Set<Integer> segments, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor,
+                boolean fetchValue, boolean fetchMetadata);
+
+   /**
+    * Removes all the entries whose key maps to one of the given segments.
+    *
+    * @param segments the segments to remove
+    */
+   void removeSegments(Set<Integer> segments);
+}
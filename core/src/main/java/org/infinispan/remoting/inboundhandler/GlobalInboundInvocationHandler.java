@@ -2,6 +2,7 @@
 
 import static org.infinispan.factories.KnownComponentNames.REMOTE_COMMAND_EXECUTOR;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
@@ -11,6 +12,7 @@
 import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.commands.remote.CacheRpcCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.GlobalComponentRegistry;
 import org.infinispan.factories.annotations.ComponentName;
@@ -22,6 +24,7 @@
 import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.responses.SuccessfulResponse;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.CommandBatch;
 import org.infinispan.topology.HeartBeatCommand;
 import org.infinispan.util.ByteString;
 import org.infinispan.util.logging.Log;
@@ -55,6 +58,7 @@ public class GlobalInboundInvocationHandler implements InboundInvocationHandler
    private ExecutorService remoteCommandsExecutor;
    @Inject private BackupReceiverRepository backupReceiverRepository;
    @Inject private GlobalComponentRegistry globalComponentRegistry;
+   @Inject private StreamingMarshaller marshaller;
 
    private static Response shuttingDownResponse() {
       return CacheNotFoundResponse.INSTANCE;
@@ -70,6 +74,8 @@ public void handleFromCluster(Address origin, ReplicableCommand command, Reply r
       try {
          if (command.getCommandId() == HeartBeatCommand.COMMAND_ID) {
             reply.reply(null);
+         } else if (command.getCommandId() == CommandBatch.COMMAND_ID) {
+            handleCommandBatch(origin, (CommandBatch) command, order);
          } else if (command instanceof CacheRpcCommand) {
             handleCacheRpcCommand(origin, (CacheRpcCommand) command, reply, order);
          } else {
@@ -96,6 +102,25 @@ public void handleFromRemoteSite(String origin, XSiteReplicateCommand command, R
       }
    }
 
+   private void handleCommandBatch(Address origin, CommandBatch batch, DeliverOrder order) {
+      if (trace) {
+         log.tracef("Unpacking %s [sender=%s]", batch, origin);
+      }
+      // The commands are asynchronous, and they are handled as if they had been received in separate messages
+      List<byte[]> commands = batch.getCommands();
+      for (int i = 0; i < commands.size(); i++) {
+         ReplicableCommand command;
+         try {
+            command = (ReplicableCommand) marshaller.objectFromByteBuffer(commands.get(i));
+         } catch (Throwable t) {
+            // Executing the following commands would break the order in which they were sent
+            log.failedToUnmarshallBatchedCommand(i, commands.size(), origin, t);
+            return;
+         }
+         handleFromCluster(origin, command, Reply.NO_OP, order);
+      }
+   }
+
    private void handleCacheRpcCommand(Address origin, CacheRpcCommand command, Reply reply, DeliverOrder mode) {
       if (trace) {
          log.tracef("Attempting to execute CacheRpcCommand: %s [sender=%s]", command, origin);
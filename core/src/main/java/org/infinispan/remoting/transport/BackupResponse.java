@@ -13,6 +13,18 @@ public interface BackupResponse {
 
    void waitForBackupToFinish() throws Exception;
 
+   /**
+    * Runs {@code action} once the backup calls are finished, after their failures are collected. Unlike {@link
+    * #waitForBackupToFinish()}, the caller thread does not wait for the backup sites, the action may run in the thread
+    * that receives the last response.
+    * <p>
+    * The default implementation waits in the caller thread.
+    */
+   default void notifyFinish(Runnable action) throws Exception {
+      waitForBackupToFinish();
+      action.run();
+   }
+
    Map<String,Throwable> getFailedBackups();
 
    /**
@@ -0,0 +1,79 @@
+package org.infinispan.remoting.transport;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.infinispan.commands.ReplicableCommand;
+
+/**
+ * Carries several asynchronous commands for the same node in a single message.
+ * <p>
+ * The commands are marshalled by the sender when they are sent, so the batch only holds their bytes. They are
+ * unmarshalled and handled one by one, in order, by
+ * {@link org.infinispan.remoting.inboundhandler.GlobalInboundInvocationHandler}.
+ *
+ * @since 9.2
+ */
+public class CommandBatch implements ReplicableCommand {
+
+   public static final byte COMMAND_ID = 81;
+
+   private List<byte[]> commands;
+
+   public CommandBatch() {
+   }
+
+   public CommandBatch(List<byte[]> commands) {
+      this.commands = commands;
+   }
+
+   /**
+    * @return the marshalled commands, in the order they were sent
+    */
+   public List<byte[]> getCommands() {
+      return commands;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return false;
+   }
+
+   @Override
+   public boolean canBlock() {
+      return false;
+   }
+
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      output.writeInt(commands.size());
+      for (byte[] command : commands) {
+         output.writeInt(command.length);
+         output.write(command);
+      }
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException {
+      int size = input.readInt();
+      commands = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+         byte[] command = new byte[input.readInt()];
+         input.readFully(command);
+         commands.add(command);
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "CommandBatch{size=" + (commands == null ? 0 : commands.size()) + '}';
+   }
+}
@@ -0,0 +1,164 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.CommandBatch;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Packs the asynchronous commands sent to the same node in a short amount of time into a single {@link CommandBatch}
+ * message.
+ * <p>
+ * The first command queued for a node schedules a flush after the configured latency, and the queue is also flushed
+ * when it becomes too large, when the delivery order of the commands changes, or before any other command is sent to
+ * the same node, so the commands are still received in the order they were sent. The commands are marshalled when
+ * they are queued, later changes to the command instances are not visible to the receiver.
+ *
+ * @since 9.2
+ */
+class CommandCoalescer {
+   private static final Log log = LogFactory.getLog(CommandCoalescer.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   static final int MAX_BATCH_COMMANDS = 64;
+   static final int MAX_BATCH_BYTES = 32 * 1024;
+
+   private final JGroupsTransport transport;
+   private final StreamingMarshaller marshaller;
+   private final ScheduledExecutorService timeoutExecutor;
+   private final long latencyMicros;
+   private final ConcurrentMap<Address, Destination> destinations = new ConcurrentHashMap<>();
+
+   CommandCoalescer(JGroupsTransport transport, StreamingMarshaller marshaller,
+                    ScheduledExecutorService timeoutExecutor, long latencyMicros) {
+      this.transport = transport;
+      this.marshaller = marshaller;
+      this.timeoutExecutor = timeoutExecutor;
+      this.latencyMicros = latencyMicros;
+   }
+
+   /**
+    * Queues a marshalled command for {@code target}, sending the pending commands first if they must be delivered
+    * with a different order.
+    */
+   void enqueue(Address target, byte[] command, DeliverOrder deliverOrder) {
+      Destination destination = destinations.computeIfAbsent(target, Destination::new);
+      boolean schedule;
+      synchronized (destination) {
+         if (destination.deliverOrder != deliverOrder) {
+            destination.send();
+            destination.deliverOrder = deliverOrder;
+         }
+         destination.commands.add(command);
+         destination.bytes += command.length;
+         if (destination.commands.size() >= MAX_BATCH_COMMANDS || destination.bytes >= MAX_BATCH_BYTES) {
+            destination.send();
+         }
+         schedule = !destination.scheduled && !destination.commands.isEmpty();
+         if (schedule) {
+            destination.scheduled = true;
+         }
+      }
+      if (schedule) {
+         timeoutExecutor.schedule(() -> flushScheduled(destination), latencyMicros, TimeUnit.MICROSECONDS);
+      }
+   }
+
+   /**
+    * Sends the commands queued for {@code target}. Must be invoked before sending any other command to the same node.
+    */
+   void flush(Address target) {
+      Destination destination = destinations.get(target);
+      if (destination != null) {
+         synchronized (destination) {
+            destination.send();
+         }
+      }
+   }
+
+   /**
+    * Sends the commands queued for all the nodes.
+    */
+   void flushAll() {
+      for (Destination destination : destinations.values()) {
+         try {
+            synchronized (destination) {
+               destination.send();
+            }
+         } catch (Throwable t) {
+            log.failedToSendBatchedCommands(destination.target, t);
+         }
+      }
+   }
+
+   /**
+    * Discards the commands queued for the nodes that are no longer members.
+    */
+   void retainAll(Collection<Address> members) {
+      destinations.keySet().retainAll(members);
+   }
+
+   private void flushScheduled(Destination destination) {
+      try {
+         synchronized (destination) {
+            destination.scheduled = false;
+            destination.send();
+         }
+      } catch (Throwable t) {
+         log.failedToSendBatchedCommands(destination.target, t);
+      }
+   }
+
+   /**
+    * The commands queued for a node. All the fields are guarded by the instance lock, which is also held while
+    * sending, so that concurrent flushes cannot reorder the messages.
+    */
+   private class Destination {
+      final Address target;
+      List<byte[]> commands = new ArrayList<>();
+      DeliverOrder deliverOrder;
+      int bytes;
+      boolean scheduled;
+
+      Destination(Address target) {
+         this.target = target;
+      }
+
+      void send() {
+         int size = commands.size();
+         if (size == 0)
+            return;
+
+         List<byte[]> batch = commands;
+         commands = new ArrayList<>();
+         bytes = 0;
+         if (size == 1) {
+            byte[] command = batch.get(0);
+            transport.sendBuffer(target, command, 0, command.length, deliverOrder);
+            return;
+         }
+         if (trace)
+            log.tracef("Sending %d batched commands to %s", size, target);
+         ByteBuffer buffer;
+         try {
+            buffer = marshaller.objectToBuffer(new CommandBatch(batch));
+         } catch (RuntimeException e) {
+            throw e;
+         } catch (Exception e) {
+            throw new RuntimeException("Failure to marshal argument(s)", e);
+         }
+         transport.sendBuffer(target, buffer.getBuf(), buffer.getOffset(), buffer.getLength(), deliverOrder);
+      }
+   }
+}
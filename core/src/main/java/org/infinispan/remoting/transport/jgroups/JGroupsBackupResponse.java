@@ -10,8 +10,8 @@
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
 import org.infinispan.remoting.CacheUnreachableException;
 import org.infinispan.remoting.responses.ExceptionResponse;
@@ -32,7 +32,7 @@ public class JGroupsBackupResponse implements BackupResponse {
 
    private static Log log = LogFactory.getLog(JGroupsBackupResponse.class);
 
-   private final Map<XSiteBackup, Future<Response>> syncBackupCalls;
+   private final Map<XSiteBackup, CompletableFuture<Response>> syncBackupCalls;
    private Map<String, Throwable> errors;
    private Set<String> communicationErrors;
    private final TimeService timeService;
@@ -41,7 +41,7 @@ public class JGroupsBackupResponse implements BackupResponse {
    // happens. Track that and adjust the timeouts accordingly.
    private long sendTimeNanos;
 
-   public JGroupsBackupResponse(Map<XSiteBackup, Future<Response>> syncBackupCalls, TimeService timeService) {
+   public JGroupsBackupResponse(Map<XSiteBackup, CompletableFuture<Response>> syncBackupCalls, TimeService timeService) {
       this.syncBackupCalls = syncBackupCalls;
       this.timeService = timeService;
       sendTimeNanos = timeService.time();
@@ -52,7 +52,7 @@ public void waitForBackupToFinish() throws Exception {
       long deductFromTimeout = timeService.timeDuration(sendTimeNanos, MILLISECONDS);
       errors = new HashMap<>(syncBackupCalls.size());
       long elapsedTime = 0;
-      for (Map.Entry<XSiteBackup, Future<Response>> entry : syncBackupCalls.entrySet()) {
+      for (Map.Entry<XSiteBackup, CompletableFuture<Response>> entry : syncBackupCalls.entrySet()) {
 
          XSiteBackup xSiteBackup = entry.getKey();
          long timeout = xSiteBackup.getTimeout();
@@ -96,6 +96,22 @@ public void waitForBackupToFinish() throws Exception {
       }
    }
 
+   @Override
+   public void notifyFinish(Runnable action) {
+      CompletableFuture<?>[] calls = syncBackupCalls.values().toArray(new CompletableFuture[syncBackupCalls.size()]);
+      //the requests time out on their own, so all of them complete
+      CompletableFuture.allOf(calls).whenComplete((ignored, throwable) -> {
+         try {
+            //the calls are done, it only collects the responses and the failures
+            waitForBackupToFinish();
+         } catch (Exception e) {
+            log.tracef(e, "Unexpected failure collecting the backup responses");
+         } finally {
+            action.run();
+         }
+      });
+   }
+
    private void addCommunicationError(String siteName) {
       if (communicationErrors == null) //only create lazily as we don't expect communication errors to be the norm
          communicationErrors = new HashSet<>(1);
@@ -21,7 +21,6 @@
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
@@ -164,6 +163,7 @@ public class JGroupsTransport implements Transport {
    private volatile Set<String>  sitesView = Collections.emptySet();
    private CompletableFuture<Void> nextViewFuture = new CompletableFuture<>();
    private RequestRepository requests;
+   private volatile CommandCoalescer coalescer;
 
    // ------------------------------------------------------------------------------------------------------------------
    // Lifecycle and setup stuff
@@ -309,7 +309,7 @@ public BackupResponse backupRemotely(Collection<XSiteBackup> backups, XSiteRepli
       if (trace)
          log.tracef("About to send to backups %s, command %s", backups, command);
       boolean rsvp = isRsvpCommand(command);
-      Map<XSiteBackup, Future<Response>> syncBackupCalls = new HashMap<>(backups.size());
+      Map<XSiteBackup, CompletableFuture<Response>> syncBackupCalls = new HashMap<>(backups.size());
       for (XSiteBackup xsb : backups) {
          Address recipient = JGroupsAddressCache.fromJGroupsAddress(new SiteMaster(xsb.getSiteName()));
          if (xsb.isSync()) {
@@ -381,6 +381,10 @@ public void start() {
       probeHandler.updateThreadPool(remoteExecutor);
       props = TypedProperties.toTypedProperties(configuration.transport().properties());
       requests = new RequestRepository();
+      long batchingLatency = configuration.transport().commandBatchingLatency();
+      if (batchingLatency > 0) {
+         coalescer = new CommandCoalescer(this, marshaller, timeoutExecutor, batchingLatency);
+      }
 
       if (log.isInfoEnabled())
          log.startingJGroupsChannel(configuration.transport().clusterName());
@@ -671,6 +675,11 @@ protected void receiveClusterView(View newView) {
          }
       });
 
+      CommandCoalescer coalescer = this.coalescer;
+      if (coalescer != null) {
+         coalescer.retainAll(members);
+      }
+
       JGroupsAddressCache.pruneAddressCache();
    }
 
@@ -682,6 +691,11 @@ private static List<Address> fromJGroupsAddressList(List<org.jgroups.Address> li
 
    @Override
    public void stop() {
+      CommandCoalescer coalescer = this.coalescer;
+      if (coalescer != null) {
+         coalescer.flushAll();
+         this.coalescer = null;
+      }
       if (channel != null) {
          channel.getProtocolStack().getTransport().unregisterProbeHandler(probeHandler);
       }
@@ -928,6 +942,15 @@ private void addRequest(AbstractRequest<?> request) {
 
    void sendCommand(Address target, ReplicableCommand command, long requestId, DeliverOrder deliverOrder,
                     boolean rsvp, boolean noRelay) {
+      CommandCoalescer coalescer = this.coalescer;
+      if (coalescer != null) {
+         if (isBatchable(requestId, deliverOrder, rsvp) && noRelay) {
+            coalescer.enqueue(target, marshallCommand(command), deliverOrder);
+            return;
+         }
+         // The commands queued before must be received first
+         coalescer.flush(target);
+      }
       Message message = new Message(toJGroupsAddress(target));
       marshallRequest(message, command, requestId);
       setMessageFlags(message, deliverOrder, rsvp, noRelay);
@@ -935,6 +958,22 @@ void sendCommand(Address target, ReplicableCommand command, long requestId, Deli
       send(message);
    }
 
+   /**
+    * Sends an already marshalled command, used by the {@link CommandCoalescer}.
+    */
+   void sendBuffer(Address target, byte[] buffer, int offset, int length, DeliverOrder deliverOrder) {
+      Message message = new Message(toJGroupsAddress(target));
+      message.setBuffer(buffer, offset, length);
+      setMessageFlags(message, deliverOrder, false, true);
+
+      send(message);
+   }
+
+   private static boolean isBatchable(long requestId, DeliverOrder deliverOrder, boolean rsvp) {
+      // Requests need their own header, and a batch cannot be totally ordered or acknowledged
+      return requestId == Request.NO_REQUEST_ID && deliverOrder != DeliverOrder.TOTAL && !rsvp;
+   }
+
    private static boolean isRsvpCommand(ReplicableCommand command) {
       return command instanceof FlagAffectedCommand &&
             ((FlagAffectedCommand) command).hasAnyFlag(FlagBitSets.GUARANTEED_DELIVERY);
@@ -944,6 +983,16 @@ private static org.jgroups.Address toJGroupsAddress(Address address) {
       return ((JGroupsAddress) address).getJGroupsAddress();
    }
 
+   private byte[] marshallCommand(ReplicableCommand command) {
+      try {
+         return marshaller.objectToByteBuffer(command);
+      } catch (RuntimeException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new RuntimeException("Failure to marshal argument(s)", e);
+      }
+   }
+
    private void marshallRequest(Message message, ReplicableCommand command, long requestId) {
       try {
          ByteBuffer bytes = marshaller.objectToBuffer(command);
@@ -1142,6 +1191,19 @@ private void siteUnreachable(String site) {
    private void sendCommand(Collection<Address> targets, ReplicableCommand command, long requestId,
                             DeliverOrder deliverOrder, boolean rsvp) {
       Objects.requireNonNull(targets);
+      CommandCoalescer coalescer = this.coalescer;
+      if (coalescer != null) {
+         if (isBatchable(requestId, deliverOrder, rsvp)) {
+            byte[] bytes = marshallCommand(command);
+            for (Address target : targets) {
+               if (!target.equals(getAddress())) {
+                  coalescer.enqueue(target, bytes, deliverOrder);
+               }
+            }
+            return;
+         }
+         targets.forEach(coalescer::flush);
+      }
       Message message = new Message();
       marshallRequest(message, command, requestId);
       setMessageFlags(message, deliverOrder, rsvp, true);
@@ -2,6 +2,7 @@
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -18,11 +19,14 @@
 import org.infinispan.commons.util.SmallIntSet;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.remoting.rpc.ResponseMode;
 import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.rpc.RpcOptions;
@@ -164,8 +168,15 @@ public int getTopologyId() {
    //todo [anistor] check thread interrupt status in loops to implement faster cancellation
    public void run() {
       try {
-         // send data container entries
-         for (InternalCacheEntry ice : dataContainer) {
+         // send data container entries, a segmented container only has to visit the requested segments
+         Iterator<InternalCacheEntry<Object, Object>> iterator;
+         if (dataContainer instanceof SegmentedDataContainer) {
+            iterator = ((SegmentedDataContainer<Object, Object>) dataContainer).iterator(new SmallIntSet(segments));
+         } else {
+            iterator = dataContainer.iterator();
+         }
+         while (iterator.hasNext()) {
+            InternalCacheEntry ice = iterator.next();
             Object key = ice.getKey();  //todo [anistor] should we check for expired entries?
             int segmentId = keyPartitioner.getSegment(key);
             if (segments.contains(segmentId) && !ice.isL1Entry()) {
@@ -192,7 +203,14 @@ public void run() {
                      }
                   }
                };
-               stProvider.process(k -> !dataContainer.containsKey(k), task, new WithinThreadExecutor(), true, true);
+               KeyFilter filter = k -> !dataContainer.containsKey(k);
+               if (stProvider instanceof SegmentedAdvancedLoadWriteStore) {
+                  // The store only reads the requested segments instead of the whole store
+                  ((SegmentedAdvancedLoadWriteStore) stProvider).process(new SmallIntSet(segments), filter, task,
+                        new WithinThreadExecutor(), true, true);
+               } else {
+                  stProvider.process(filter, task, new WithinThreadExecutor(), true, true);
+               }
             } catch (CacheException e) {
                log.failedLoadingKeysFromCacheStore(e);
             }
@@ -43,6 +43,7 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.conflict.impl.InternalConflictManager;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextFactory;
@@ -955,24 +956,34 @@ protected void removeStaleData(final Set<Integer> removedSegments) throws Interr
       // Keys that we used to own, and need to be removed from the data container AND the cache stores
       final ConcurrentHashSet<Object> keysToRemove = new ConcurrentHashSet<>();
 
-      dataContainer.executeTask(KeyFilter.ACCEPT_ALL_FILTER, (o, ice) -> {
-         Object key = ice.getKey();
-         int keySegment = getSegment(key);
-         if (removedSegments.contains(keySegment)) {
-            keysToRemove.add(key);
+      if (dataContainer instanceof SegmentedDataContainer) {
+         SegmentedDataContainer<Object, Object> segmentedContainer = (SegmentedDataContainer<Object, Object>) dataContainer;
+         SmallIntSet segments = new SmallIntSet(removedSegments);
+         if (cacheNotifier.getListeners().isEmpty()) {
+            // Nobody expects the invalidation events, so the segments are dropped at once.
+            // The entries also in a store are no longer in the container, they are invalidated with the store keys below.
+            if (trace) log.tracef("Removing segments %s from the data container", removedSegments);
+            segmentedContainer.removeSegments(segments);
+         } else {
+            // Only the entries of the removed segments have to be visited
+            segmentedContainer.iterator(segments).forEachRemaining(ice -> keysToRemove.add(ice.getKey()));
          }
-      });
+      } else {
+         dataContainer.executeTask(KeyFilter.ACCEPT_ALL_FILTER, (o, ice) -> {
+            Object key = ice.getKey();
+            int keySegment = getSegment(key);
+            if (removedSegments.contains(keySegment)) {
+               keysToRemove.add(key);
+            }
+         });
+      }
 
       // gather all keys from cache store that belong to the segments that are being removed/moved to L1
+      // the segmented stores are not read, their segments are dropped in bulk below
       if (!removedSegments.isEmpty()) {
          try {
-            KeyFilter filter = key -> {
-               if (dataContainer.containsKey(key))
-                  return false;
-               int keySegment = getSegment(key);
-               return (removedSegments.contains(keySegment));
-            };
-            persistenceManager.processOnAllStores(filter,
+            KeyFilter filter = key -> !dataContainer.containsKey(key);
+            persistenceManager.processOnNonSegmentedStores(removedSegments, filter,
                   (marshalledEntry, taskContext) -> keysToRemove.add(marshalledEntry.getKey()), false, false, PRIVATE);
          } catch (CacheException e) {
             log.failedLoadingKeysFromCacheStore(e);
@@ -991,6 +1002,13 @@ protected void removeStaleData(final Set<Integer> removedSegments) throws Interr
             log.failedToInvalidateKeys(e);
          }
       }
+
+      // The invalidation does not touch the stores, the segmented stores drop the entries of the removed segments in bulk
+      try {
+         persistenceManager.removeSegmentsFromAllStores(removedSegments, PRIVATE);
+      } catch (CacheException e) {
+         log.failedToInvalidateKeys(e);
+      }
    }
 
    /**
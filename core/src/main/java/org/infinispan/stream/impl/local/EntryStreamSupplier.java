@@ -5,12 +5,14 @@
 import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
 import org.infinispan.cache.impl.AbstractDelegatingCache;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.SmallIntSet;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.util.logging.Log;
@@ -19,6 +21,10 @@
 /**
  * Stream supplier that is to be used when the underlying stream is composed by {@link CacheEntry} instances.  This
  * supplier will do the proper filtering by key based on the CacheEntry key.
+ * <p>
+ * If a {@link SegmentedDataContainer} is provided, a stream filtered by segments is built directly from the entries
+ * of those segments instead of filtering every entry of the supplied stream. The container should only be provided
+ * when the supplied stream is composed solely of the entries in that container.
  */
 public class EntryStreamSupplier<K, V> implements AbstractLocalCacheStream.StreamSupplier<CacheEntry<K, V>, Stream<CacheEntry<K, V>>> {
    private static final Log log = LogFactory.getLog(EntryStreamSupplier.class);
@@ -27,12 +33,19 @@
    private final Cache<K, V> cache;
    private final ToIntFunction<Object> toIntFunction;
    private final Supplier<Stream<CacheEntry<K, V>>> supplier;
+   private final SegmentedDataContainer<K, V> segmentedContainer;
 
    public EntryStreamSupplier(Cache<K, V> cache, ToIntFunction<Object> toIntFunction,
          Supplier<Stream<CacheEntry<K, V>>> supplier) {
+      this(cache, toIntFunction, supplier, null);
+   }
+
+   public EntryStreamSupplier(Cache<K, V> cache, ToIntFunction<Object> toIntFunction,
+         Supplier<Stream<CacheEntry<K, V>>> supplier, SegmentedDataContainer<K, V> segmentedContainer) {
       this.cache = cache;
       this.toIntFunction = toIntFunction;
       this.supplier = supplier;
+      this.segmentedContainer = segmentedContainer;
    }
 
    @Override
@@ -41,6 +54,7 @@ public Stream<CacheEntry<K, V>> buildStream(Set<Integer> segmentsToFilter, Set<?
       // Make sure we aren't going remote to retrieve these
       AdvancedCache<K, V> advancedCache = AbstractDelegatingCache.unwrapCache(cache).getAdvancedCache()
             .withFlags(Flag.CACHE_MODE_LOCAL);
+      boolean segmentsFiltered = false;
       if (keysToFilter != null) {
          if (trace) {
             log.tracef("Applying key filtering %s", keysToFilter);
@@ -49,13 +63,21 @@ public Stream<CacheEntry<K, V>> buildStream(Set<Integer> segmentsToFilter, Set<?
                .map(advancedCache::getCacheEntry)
                .filter(Objects::nonNull);
       } else {
-         stream = supplier.get();
+         if (segmentsToFilter != null && segmentedContainer != null) {
+            if (trace) {
+               log.tracef("Only visiting entries of segments %s", segmentsToFilter);
+            }
+            stream = segmentStream(SmallIntSet.from(segmentsToFilter));
+            segmentsFiltered = true;
+         } else {
+            stream = supplier.get();
+         }
          if (cache.getCacheConfiguration().clustering().cacheMode().isScattered()) {
             // Ignore tombstones
             stream = stream.filter(e -> e.getValue() != null);
          }
       }
-      if (segmentsToFilter != null && toIntFunction != null) {
+      if (!segmentsFiltered && segmentsToFilter != null && toIntFunction != null) {
          if (trace) {
             log.tracef("Applying segment filter %s", segmentsToFilter);
          }
@@ -71,4 +93,10 @@ public Stream<CacheEntry<K, V>> buildStream(Set<Integer> segmentsToFilter, Set<?
       }
       return stream;
    }
+
+   @SuppressWarnings("unchecked")
+   private Stream<CacheEntry<K, V>> segmentStream(IntSet segments) {
+      // InternalCacheEntry is a CacheEntry, the stream is only read so the cast is safe
+      return (Stream) StreamSupport.stream(segmentedContainer.spliterator(segments), false);
+   }
 }
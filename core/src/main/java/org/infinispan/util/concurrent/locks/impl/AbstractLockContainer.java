@@ -0,0 +1,45 @@
+package org.infinispan.util.concurrent.locks.impl;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
+
+/**
+ * Base class for the {@link LockContainer} implementations, keeping track of the contended lock acquisitions.
+ *
+ * @since 9.2
+ */
+public abstract class AbstractLockContainer implements LockContainer {
+
+   private final LongAdder acquisitions = new LongAdder();
+   private final LongAdder contendedAcquisitions = new LongAdder();
+
+   /**
+    * Records a lock acquisition. It is contended if the lock owner has to wait for the lock.
+    *
+    * @return {@code promise}
+    */
+   protected final ExtendedLockPromise recordAcquisition(ExtendedLockPromise promise) {
+      acquisitions.increment();
+      if (!promise.isAvailable()) {
+         contendedAcquisitions.increment();
+      }
+      return promise;
+   }
+
+   @Override
+   public long getAcquisitions() {
+      return acquisitions.sum();
+   }
+
+   @Override
+   public long getContendedAcquisitions() {
+      return contendedAcquisitions.sum();
+   }
+
+   @Override
+   public void resetStatistics() {
+      acquisitions.reset();
+      contendedAcquisitions.reset();
+   }
+}
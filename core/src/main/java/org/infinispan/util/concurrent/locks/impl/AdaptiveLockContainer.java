@@ -0,0 +1,188 @@
+package org.infinispan.util.concurrent.locks.impl;
+
+import static org.infinispan.commons.util.InfinispanCollections.forEach;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.util.StripedHashFunction;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.locks.DeadlockChecker;
+import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
+
+/**
+ * A lock container that uses lock stripping and gives a dedicated lock to the contended keys.
+ * <p>
+ * The keys share a pool of locks, like in {@link StripedLockContainer}, and the number of contended acquisitions of
+ * each key waiting for a shared lock is tracked. A key contended {@link #PROMOTION_THRESHOLD} times is promoted: it
+ * gets its own lock, like in {@link PerKeyLockContainer}, so it no longer blocks (or waits for) the other keys
+ * mapped to the same shared lock. The dedicated lock is discarded when it is released and nobody is waiting for it.
+ * <p>
+ * A key is only promoted when its shared lock is free, otherwise a lock owner could hold the key with the shared
+ * lock while another one acquires the dedicated lock. Promotions and demotions are done while holding the monitor of
+ * the shared lock, which is also held while acquiring the locks of its keys.
+ *
+ * @since 9.2
+ */
+public class AdaptiveLockContainer extends AbstractLockContainer {
+
+   /**
+    * The number of contended acquisitions needed to give a key its own lock.
+    */
+   public static final int PROMOTION_THRESHOLD = 2;
+
+   private final InfinispanLock[] sharedLocks;
+   private final StripedHashFunction<Object> hashFunction;
+   private final ConcurrentMap<Object, InfinispanLock> dedicatedLocks;
+   private final ConcurrentMap<Object, Integer> contendedKeys;
+   private final int maxDedicatedLocks;
+   private final int maxContendedKeys;
+   private Executor executor;
+   private TimeService timeService;
+
+   public AdaptiveLockContainer(int concurrencyLevel) {
+      this.hashFunction = new StripedHashFunction<>(concurrencyLevel);
+      sharedLocks = new InfinispanLock[hashFunction.getNumSegments()];
+      dedicatedLocks = new ConcurrentHashMap<>();
+      contendedKeys = new ConcurrentHashMap<>();
+      maxDedicatedLocks = sharedLocks.length;
+      maxContendedKeys = 4 * sharedLocks.length;
+   }
+
+   @Inject
+   public void inject(@ComponentName(KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR) Executor executor, TimeService timeService) {
+      this.executor = executor;
+      this.timeService = timeService;
+      for (int i = 0; i < sharedLocks.length; i++) {
+         if (sharedLocks[i] == null) {
+            sharedLocks[i] = new InfinispanLock(executor, timeService);
+         } else {
+            sharedLocks[i].setTimeService(timeService);
+         }
+      }
+      for (InfinispanLock lock : dedicatedLocks.values()) {
+         lock.setTimeService(timeService);
+      }
+   }
+
+   @Override
+   public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit timeUnit) {
+      InfinispanLock sharedLock = getSharedLock(key);
+      InfinispanLock lock;
+      ExtendedLockPromise promise;
+      synchronized (sharedLock) {
+         lock = dedicatedLocks.get(key);
+         if (lock == null) {
+            lock = sharedLock.isFree() && isHot(key) ? promote(key) : sharedLock;
+         }
+         promise = lock.acquire(lockOwner, time, timeUnit);
+      }
+      if (lock == sharedLock && !promise.isAvailable()) {
+         recordContention(key);
+      }
+      return recordAcquisition(promise);
+   }
+
+   @Override
+   public void release(Object key, Object lockOwner) {
+      InfinispanLock sharedLock = getSharedLock(key);
+      synchronized (sharedLock) {
+         InfinispanLock lock = dedicatedLocks.get(key);
+         if (lock == null) {
+            sharedLock.release(lockOwner);
+            return;
+         }
+         lock.release(lockOwner);
+         if (lock.isFree()) {
+            //the contention is over, the key goes back to the shared lock
+            dedicatedLocks.remove(key);
+         }
+      }
+   }
+
+   @Override
+   public InfinispanLock getLock(Object key) {
+      InfinispanLock lock = dedicatedLocks.get(key);
+      return lock == null ? getSharedLock(key) : lock;
+   }
+
+   @Override
+   public int getNumLocksHeld() {
+      int count = 0;
+      for (InfinispanLock lock : sharedLocks) {
+         if (lock.isLocked()) {
+            count++;
+         }
+      }
+      for (InfinispanLock lock : dedicatedLocks.values()) {
+         if (lock.isLocked()) {
+            count++;
+         }
+      }
+      return count;
+   }
+
+   @Override
+   public boolean isLocked(Object key) {
+      return getLock(key).isLocked();
+   }
+
+   @Override
+   public int size() {
+      return sharedLocks.length + dedicatedLocks.size();
+   }
+
+   @Override
+   public void deadlockCheck(DeadlockChecker deadlockChecker) {
+      forEach(sharedLocks, lock -> lock.deadlockCheck(deadlockChecker));
+      dedicatedLocks.values().forEach(lock -> lock.deadlockCheck(deadlockChecker));
+   }
+
+   /**
+    * @return the number of keys with a dedicated lock.
+    */
+   public int getNumDedicatedLocks() {
+      return dedicatedLocks.size();
+   }
+
+   @Override
+   public String toString() {
+      return "AdaptiveLockContainer{" +
+            "locks=" + Arrays.toString(sharedLocks) +
+            ", dedicatedLocks=" + dedicatedLocks +
+            '}';
+   }
+
+   private InfinispanLock getSharedLock(Object key) {
+      return sharedLocks[hashFunction.hashToSegment(key)];
+   }
+
+   private boolean isHot(Object key) {
+      if (contendedKeys.isEmpty()) {
+         return false;
+      }
+      Integer contention = contendedKeys.get(key);
+      return contention != null && contention >= PROMOTION_THRESHOLD && dedicatedLocks.size() < maxDedicatedLocks;
+   }
+
+   private InfinispanLock promote(Object key) {
+      InfinispanLock lock = new InfinispanLock(executor, timeService);
+      dedicatedLocks.put(key, lock);
+      contendedKeys.remove(key);
+      return lock;
+   }
+
+   private void recordContention(Object key) {
+      if (contendedKeys.size() >= maxContendedKeys) {
+         //forget the old contention, the keys that are still hot will be contended again
+         contendedKeys.clear();
+      }
+      contendedKeys.merge(key, 1, Integer::sum);
+   }
+}
@@ -32,6 +32,7 @@
 import org.infinispan.jmx.annotations.DataType;
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.DeadlockDetectedException;
 import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
@@ -210,6 +211,22 @@ public int getNumberOfLocksAvailable() {
       return lockContainer.size() - lockContainer.getNumLocksHeld();
    }
 
+   @ManagedAttribute(description = "The number of lock acquisitions.", displayName = "Number of lock acquisitions")
+   public long getNumberOfLockAcquisitions() {
+      return lockContainer.getAcquisitions();
+   }
+
+   @ManagedAttribute(description = "The number of lock acquisitions that had to wait for another lock owner.",
+         displayName = "Number of contended lock acquisitions")
+   public long getNumberOfContendedLockAcquisitions() {
+      return lockContainer.getContendedAcquisitions();
+   }
+
+   @ManagedOperation(description = "Resets statistics gathered by this component", displayName = "Reset Statistics")
+   public void resetStatistics() {
+      lockContainer.resetStatistics();
+   }
+
    @Override
    public InfinispanLock getLock(Object key) {
       return lockContainer.getLock(key);
@@ -38,6 +38,10 @@
  * In addition, it has an asynchronous interface. {@link #acquire(Object, long, TimeUnit)}  will not acquire the lock
  * immediately (except if it is free) but will return a {@link ExtendedLockPromise}. This promise allow to test if the
  * lock is acquired asynchronously and cancel the lock acquisition, without any blocking.
+ * <p/>
+ * When the lock is free and nobody is waiting for it, the lock owner takes it with a compare-and-set and never enters
+ * the queue. The queue is only created the first time a lock owner has to wait. The lock owner is still registered
+ * with its own {@link ExtendedLockPromise} on this path, so acquiring a free lock is cheaper but not allocation free.
  *
  * @author Pedro Ruivo
  * @since 8.0
@@ -50,9 +54,17 @@ public class InfinispanLock {
          newUpdater(InfinispanLock.class, LockPlaceHolder.class, "current");
    private static final AtomicReferenceFieldUpdater<LockPlaceHolder, LockState> STATE_UPDATER =
          newUpdater(LockPlaceHolder.class, LockState.class, "lockState");
+   @SuppressWarnings("rawtypes")
+   private static final AtomicReferenceFieldUpdater<LockPlaceHolder, CompletableFuture> NOTIFIER_UPDATER =
+         newUpdater(LockPlaceHolder.class, CompletableFuture.class, "notifier");
+   @SuppressWarnings("rawtypes")
+   private static final AtomicReferenceFieldUpdater<InfinispanLock, Queue> QUEUE_UPDATER =
+         newUpdater(InfinispanLock.class, Queue.class, "pendingRequest");
+   //shared by the lock owners that acquired the lock before anybody waited for it
+   private static final CompletableFuture<LockState> ACQUIRED = CompletableFuture.completedFuture(LockState.ACQUIRED);
 
 
-   private final Queue<LockPlaceHolder> pendingRequest;
+   private volatile Queue<LockPlaceHolder> pendingRequest;
    private final ConcurrentMap<Object, LockPlaceHolder> lockOwners;
    private final Runnable releaseRunnable;
    private final Executor executor;
@@ -69,7 +81,6 @@ public class InfinispanLock {
    public InfinispanLock(Executor executor, TimeService timeService) {
       this.executor = executor;
       this.timeService = timeService;
-      pendingRequest = new ConcurrentLinkedQueue<>();
       lockOwners = new ConcurrentHashMap<>();
       current = null;
       releaseRunnable = null;
@@ -85,7 +96,6 @@ public InfinispanLock(Executor executor, TimeService timeService) {
    public InfinispanLock(Executor executor, TimeService timeService, Runnable releaseRunnable) {
       this.executor = executor;
       this.timeService = timeService;
-      pendingRequest = new ConcurrentLinkedQueue<>();
       lockOwners = new ConcurrentHashMap<>();
       current = null;
       this.releaseRunnable = releaseRunnable;
@@ -144,7 +154,15 @@ public ExtendedLockPromise acquire(Object lockOwner, long time, TimeUnit timeUni
          log.tracef("Created a new one: %s", lockPlaceHolder);
       }
 
-      pendingRequest.add(lockPlaceHolder);
+      if (current == null && isQueueEmpty() && cas(null, lockPlaceHolder)) {
+         //uncontended, the lock owner does not need to be queued
+         if (!lockPlaceHolder.setAcquire()) {
+            tryAcquire(lockPlaceHolder);
+         }
+         return lockPlaceHolder;
+      }
+
+      pendingRequest().add(lockPlaceHolder);
       tryAcquire(null);
       return lockPlaceHolder;
    }
@@ -206,6 +224,18 @@ public boolean isLocked() {
       return current != null;
    }
 
+   /**
+    * It checks if the lock is acquired or if any lock owner is waiting for it.
+    * <p/>
+    * A waiting lock owner becomes the current lock owner before it is removed from the queue, so checking the queue
+    * first does not miss the lock owners being granted the lock concurrently.
+    *
+    * @return {@code true} if the lock is not acquired and no lock owner is waiting.
+    */
+   boolean isFree() {
+      return isQueueEmpty() && current == null;
+   }
+
    /**
     * It forces a deadlock checking.
     */
@@ -214,7 +244,8 @@ public void deadlockCheck(DeadlockChecker deadlockChecker) {
          return; //no-op
       }
       LockPlaceHolder holder = current;
-      if (holder != null) {
+      Queue<LockPlaceHolder> pendingRequest = this.pendingRequest;
+      if (holder != null && pendingRequest != null) {
          for (LockPlaceHolder pending : pendingRequest) {
             pending.checkDeadlock(deadlockChecker, holder.owner);
          }
@@ -265,10 +296,25 @@ private boolean cas(LockPlaceHolder release, LockPlaceHolder acquire) {
       return cas;
    }
 
+   private boolean isQueueEmpty() {
+      Queue<LockPlaceHolder> pendingRequest = this.pendingRequest;
+      return pendingRequest == null || pendingRequest.isEmpty();
+   }
+
+   private Queue<LockPlaceHolder> pendingRequest() {
+      Queue<LockPlaceHolder> pendingRequest = this.pendingRequest;
+      if (pendingRequest == null) {
+         QUEUE_UPDATER.compareAndSet(this, null, new ConcurrentLinkedQueue<>());
+         pendingRequest = this.pendingRequest;
+      }
+      return pendingRequest;
+   }
+
    private void tryAcquire(LockPlaceHolder release) {
       LockPlaceHolder toRelease = release;
       do {
-         LockPlaceHolder toAcquire = pendingRequest.peek();
+         Queue<LockPlaceHolder> pendingRequest = this.pendingRequest;
+         LockPlaceHolder toAcquire = pendingRequest == null ? null : pendingRequest.peek();
          if (trace) {
             log.tracef("Try acquire. Next in queue=%s. Current=%s", toAcquire, current);
          }
@@ -314,15 +360,16 @@ private class LockPlaceHolder implements ExtendedLockPromise {
 
       private final Object owner;
       private final long timeout;
-      private final CompletableFuture<LockState> notifier;
       @SuppressWarnings("CanBeFinal")
       volatile LockState lockState;
+      //created when needed, most of the lock owners acquire the lock without waiting
+      @SuppressWarnings("CanBeFinal")
+      volatile CompletableFuture<LockState> notifier;
 
       private LockPlaceHolder(Object owner, long timeout) {
          this.owner = owner;
          this.timeout = timeout;
          lockState = LockState.WAITING;
-         notifier = new CompletableFuture<>();
       }
 
       @Override
@@ -338,7 +385,7 @@ public void lock() throws InterruptedException, TimeoutException {
             switch (currentState) {
                case WAITING:
                   checkTimeout();
-                  await(notifier, timeService.remainingTime(timeout, TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                  await(notifier(), timeService.remainingTime(timeout, TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
                   break;
                case ACQUIRED:
                   return; //acquired!
@@ -358,7 +405,7 @@ public void lock() throws InterruptedException, TimeoutException {
 
       @Override
       public void addListener(LockListener listener) {
-         notifier.thenAccept(listener::onEvent);
+         notifier().thenAccept(listener::onEvent);
       }
 
       @Override
@@ -404,6 +451,7 @@ public Object getOwner() {
 
       @Override
       public InvocationStage toInvocationStage(Supplier<TimeoutException> timeoutSupplier) {
+         CompletableFuture<LockState> notifier = notifier();
          if (notifier.isDone()) {
             return checkState(notifier.getNow(lockState), SyncInvocationStage::new,
                   SimpleAsyncInvocationStage::new, timeoutSupplier);
@@ -517,9 +565,28 @@ private void checkTimeout() {
 
       }
 
+      private CompletableFuture<LockState> notifier() {
+         CompletableFuture<LockState> notifier = this.notifier;
+         if (notifier == null) {
+            NOTIFIER_UPDATER.compareAndSet(this, null, new CompletableFuture<>());
+            notifier = this.notifier;
+         }
+         return notifier;
+      }
+
       private void notifyListeners() {
          LockState state = lockState;
          if (state != LockState.WAITING) {
+            CompletableFuture<LockState> notifier = this.notifier;
+            if (notifier == null) {
+               //nobody is waiting, no need to create a new future if the lock was acquired
+               CompletableFuture<LockState> completed =
+                     state == LockState.ACQUIRED ? ACQUIRED : CompletableFuture.completedFuture(state);
+               if (NOTIFIER_UPDATER.compareAndSet(this, null, completed)) {
+                  return;
+               }
+               notifier = this.notifier;
+            }
             notifier.complete(state);
          }
       }
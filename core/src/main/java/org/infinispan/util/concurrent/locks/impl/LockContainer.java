@@ -49,4 +49,19 @@ public interface LockContainer {
     * It forces a deadlock checks in all existing locks.
     */
    void deadlockCheck(DeadlockChecker deadlockChecker);
+
+   /**
+    * @return the number of lock acquisitions since the statistics were reset.
+    */
+   long getAcquisitions();
+
+   /**
+    * @return the number of lock acquisitions that had to wait for another lock owner since the statistics were reset.
+    */
+   long getContendedAcquisitions();
+
+   /**
+    * Resets the lock acquisition statistics.
+    */
+   void resetStatistics();
 }
@@ -19,7 +19,7 @@
  * @author Pedro Ruivo
  * @since 8.0
  */
-public class PerKeyLockContainer implements LockContainer {
+public class PerKeyLockContainer extends AbstractLockContainer {
 
    private static final int INITIAL_CAPACITY = 32;
    private final ConcurrentMap<Object, InfinispanLock> lockMap;
@@ -49,7 +49,7 @@ public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, Time
          reference.set(lock.acquire(lockOwner, time, timeUnit));
          return lock;
       });
-      return reference.get();
+      return recordAcquisition(reference.get());
    }
 
    @Override
@@ -20,7 +20,7 @@
  * @author Pedro Ruivo
  * @since 8.0
  */
-public class StripedLockContainer implements LockContainer {
+public class StripedLockContainer extends AbstractLockContainer {
 
    private final InfinispanLock[] sharedLocks;
    private final StripedHashFunction<Object> hashFunction;
@@ -43,7 +43,7 @@ public void inject(@ComponentName(KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR)
 
    @Override
    public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit timeUnit) {
-      return getLock(key).acquire(lockOwner, time, timeUnit);
+      return recordAcquisition(getLock(key).acquire(lockOwner, time, timeUnit));
    }
 
    @Override
@@ -1761,4 +1761,96 @@ CacheConfigurationException offHeapMemoryEvictionSizeNotLargeEnoughForAddresses(
 
    @Message(value = "The state file for '%s' is invalid. Startup halted to prevent further corruption of persistent state", id = 516)
    CacheConfigurationException invalidPersistentState(String globalScope);
+
+   @Message(value = "A segmented data container is not supported with storage type %s and size %d, it requires OBJECT or BINARY storage without eviction", id = 517)
+   CacheConfigurationException segmentedDataContainerNotSupported(StorageType storageType, long size);
+
+   @Message(value = "The log structured file store does not support a maximum number of entries", id = 518)
+   CacheConfigurationException logStructuredFileStoreMaxEntries();
+
+   @Message(value = "The compaction threshold %f must be greater than 0 and at most 1", id = 519)
+   CacheConfigurationException invalidCompactionThreshold(double compactionThreshold);
+
+   @Message(value = "The maximum file size %d must be greater than 0", id = 520)
+   CacheConfigurationException invalidMaxFileSize(int maxFileSize);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Corrupt record found in file store log file %s at offset %d, ignoring the rest of the file", id = 521)
+   void corruptLogRecord(String path, long offset);
+
+   @Message(value = "Group commit only applies to write-through stores and cannot be enabled together with passivation", id = 522)
+   CacheConfigurationException groupCommitWithPassivation();
+
+   @Message(value = "The group commit window %d must not be negative", id = 523)
+   CacheConfigurationException invalidGroupCommitWindow(long window);
+
+   @Message(value = "The Bloom filter cannot be enabled with the shared store %s, as it would miss the keys written by other nodes", id = 524)
+   CacheConfigurationException bloomFilterWithSharedStore(String storeType);
+
+   @Message(value = "The Bloom filter expected entries %d must be greater than 0", id = 525)
+   CacheConfigurationException invalidBloomFilterExpectedEntries(long expectedEntries);
+
+   @Message(value = "The Bloom filter false positive rate %f must be greater than 0 and lower than 1", id = 526)
+   CacheConfigurationException invalidBloomFilterFalsePositiveRate(double falsePositiveRate);
+
+   @Message(value = "The number of preload threads %d must be greater than 0", id = 527)
+   CacheConfigurationException invalidPreloadThreads(int preloadThreads);
+
+   @Message(value = "The preload batch size %d must be greater than 0", id = 528)
+   CacheConfigurationException invalidPreloadBatchSize(int preloadBatchSize);
+
+   @Message(value = "The write-behind modification queue max bytes %d must not be negative", id = 529)
+   CacheConfigurationException invalidModificationQueueMaxBytes(long maxBytes);
+
+   @Message(value = "Unable to write to the write-behind journal %s", id = 530)
+   PersistenceException writeBehindJournalError(String path, @Cause Throwable cause);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Discarding the truncated last record of the write-behind journal %s", id = 531)
+   void truncatedWriteBehindJournal(String path);
+
+   @LogMessage(level = INFO)
+   @Message(value = "Applied %d modifications left in the write-behind journal %s", id = 532)
+   void recoveredWriteBehindJournal(int modifications, String path);
+
+   @Message(value = "Tiered persistence requires passivation to be enabled", id = 533)
+   CacheConfigurationException tieredWithoutPassivation();
+
+   @Message(value = "Tiered persistence cannot be enabled with the shared store %s, as other nodes could modify the entries it keeps for this node", id = 534)
+   CacheConfigurationException tieredWithSharedStore(String storeType);
+
+   @Message(value = "The checkpoint interval %d must not be negative", id = 535)
+   CacheConfigurationException invalidCheckpointInterval(long checkpointInterval);
+
+   @Message(value = "Checksum mismatch for the record in file store log file %s at offset %d", id = 536)
+   PersistenceException corruptLogRecordRead(String path, long offset);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to write the index checkpoint of the file store %s", id = 537)
+   void logCheckpointFailed(String path, @Cause Throwable cause);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Ignoring the invalid index checkpoint %s, the index is rebuilt from all log files", id = 538)
+   void invalidLogCheckpoint(String path, @Cause Throwable cause);
+
+   @Message(value = "Invalid command batching latency %d, it must be greater than or equal to 0", id = 539)
+   CacheConfigurationException invalidCommandBatchingLatency(long latency);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Failed to send the batched commands to %s", id = 540)
+   void failedToSendBatchedCommands(Address target, @Cause Throwable cause);
+
+   @Message(value = "Invalid asynchronous backup queue for site '%s': the batch size (%d) must be greater than or equal to 0, and the queue size (%d) must not be smaller than the batch size", id = 541)
+   CacheConfigurationException invalidAsyncBackupQueue(String site, int batchSize, int queueSize);
+
+   @LogMessage(level = WARN)
+   @Message(value = "The asynchronous backup queue of cache '%s' for site '%s' is still full after %d milliseconds", id = 542)
+   void asyncBackupQueueFull(String cacheName, String site, long timeout);
+
+   @Message(value = "The asynchronous backup queue for site '%s' is not supported by transactional caches, async-batch-size must be 0", id = 543)
+   CacheConfigurationException asyncBackupQueueTransactional(String site);
+
+   @LogMessage(level = ERROR)
+   @Message(value = "Unable to unmarshall command %d of the batch of %d commands sent by %s, the remaining commands of the batch are not executed to preserve their order", id = 544)
+   void failedToUnmarshallBatchedCommand(int index, int size, Address origin, @Cause Throwable cause);
 }
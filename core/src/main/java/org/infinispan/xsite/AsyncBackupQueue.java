@@ -0,0 +1,253 @@
+package org.infinispan.xsite;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.DataWriteCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.remoting.transport.BackupResponse;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Queues the writes to an asynchronous backup site, so they are sent in batches.
+ * <p>
+ * A single batch is in flight at a time. The writes queued in the meantime are coalesced per key, only the last write
+ * of a key is kept, and they are sent as soon as the backup site acknowledges the previous batch. So the batches grow
+ * with the write rate and the latency to the backup site, without any timer. The writes are marshalled when they are
+ * queued, the commands may be reused or modified by the writer once the write completes. No thread waits for the
+ * acknowledgement, the next batch is sent by the executor when it is received.
+ * <p>
+ * The acknowledgements are used to track the replication lag, and the failures to send a batch count towards taking
+ * the site offline. When the queue is full, the writers wait for the backup site to catch up, and if it does not
+ * catch up within the backup timeout, it counts as a failure too. The queue is discarded when the site is taken
+ * offline, the state transfer is used to bring the backup site up to date.
+ *
+ * @since 9.2
+ */
+class AsyncBackupQueue {
+
+   private static final Log log = LogFactory.getLog(AsyncBackupQueue.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final String cacheName;
+   private final XSiteBackup backup;
+   private final int batchSize;
+   private final int queueSize;
+   private final OfflineStatus offlineStatus;
+   private final Transport transport;
+   private final CommandsFactory commandsFactory;
+   private final StreamingMarshaller marshaller;
+   private final Executor executor;
+   private final TimeService timeService;
+
+   //the writes of a single key are mapped by the key, the other writes by a new object
+   private final Map<Object, byte[]> pending = new LinkedHashMap<>();
+   //all the fields below are guarded by the instance lock
+   private boolean sending;
+   private long pendingSince;
+   private long inFlightSince;
+   private boolean inFlight;
+
+   AsyncBackupQueue(String cacheName, XSiteBackup backup, int batchSize, int queueSize, OfflineStatus offlineStatus,
+                    Transport transport, CommandsFactory commandsFactory, StreamingMarshaller marshaller,
+                    Executor executor, TimeService timeService) {
+      this.cacheName = cacheName;
+      this.backup = backup;
+      this.batchSize = batchSize;
+      this.queueSize = queueSize;
+      this.offlineStatus = offlineStatus;
+      this.transport = transport;
+      this.commandsFactory = commandsFactory;
+      this.marshaller = marshaller;
+      this.executor = executor;
+      this.timeService = timeService;
+   }
+
+   /**
+    * Queues a write, waiting for the backup site to catch up if the queue is full.
+    */
+   void enqueue(WriteCommand command) throws IOException, InterruptedException {
+      byte[] bytes = marshaller.objectToByteBuffer(command);
+      boolean full;
+      synchronized (this) {
+         full = !awaitSpace();
+      }
+      if (full) {
+         log.asyncBackupQueueFull(cacheName, backup.getSiteName(), backup.getTimeout());
+         // do not hold the lock, the listener taking the site offline clears the queue
+         offlineStatus.updateOnCommunicationFailure(TimeUnit.NANOSECONDS.toMillis(timeService.time()));
+         if (offlineStatus.isOffline()) {
+            return;
+         }
+      }
+      synchronized (this) {
+         add(command, bytes);
+         if (sending) {
+            return;
+         }
+         sending = true;
+      }
+      try {
+         executor.execute(this::sendBatch);
+      } catch (RejectedExecutionException e) {
+         //the cache is stopping
+         stopSending();
+         throw e;
+      }
+   }
+
+   /**
+    * @return the time, in milliseconds, since the oldest write that is not yet acknowledged by the backup site was
+    * queued.
+    */
+   synchronized long getLag() {
+      long oldest;
+      if (inFlight) {
+         oldest = inFlightSince;
+      } else if (!pending.isEmpty()) {
+         oldest = pendingSince;
+      } else {
+         return 0;
+      }
+      return timeService.timeDuration(oldest, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * @return the number of writes waiting to be sent.
+    */
+   synchronized int size() {
+      return pending.size();
+   }
+
+   /**
+    * Discards the writes waiting to be sent.
+    */
+   synchronized void clear() {
+      pending.clear();
+      notifyAll();
+   }
+
+   private boolean awaitSpace() throws InterruptedException {
+      if (pending.size() < queueSize) {
+         return true;
+      }
+      long timeout = backup.getTimeout();
+      if (timeout <= 0) {
+         //0 means wait forever
+         while (pending.size() >= queueSize) {
+            wait();
+         }
+         return true;
+      }
+      long endTime = timeService.expectedEndTime(timeout, TimeUnit.MILLISECONDS);
+      long remaining = timeout;
+      while (pending.size() >= queueSize && remaining > 0) {
+         wait(remaining);
+         remaining = timeService.remainingTime(endTime, TimeUnit.MILLISECONDS);
+      }
+      return pending.size() < queueSize;
+   }
+
+   private void add(WriteCommand command, byte[] bytes) {
+      if (pending.isEmpty()) {
+         pendingSince = timeService.time();
+      }
+      if (command instanceof ClearCommand) {
+         //the previous writes are irrelevant
+         pending.clear();
+         pending.put(new Object(), bytes);
+      } else if (command instanceof DataWriteCommand) {
+         //keeps the position of the previous write of the key, the other keys are not affected by the order
+         pending.put(((DataWriteCommand) command).getKey(), bytes);
+      } else {
+         for (Object key : command.getAffectedKeys()) {
+            pending.remove(key);
+         }
+         pending.put(new Object(), bytes);
+      }
+   }
+
+   private void sendBatch() {
+      List<byte[]> batch;
+      synchronized (this) {
+         if (pending.isEmpty()) {
+            sending = false;
+            inFlight = false;
+            return;
+         }
+         batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+         for (Iterator<byte[]> it = pending.values().iterator(); it.hasNext() && batch.size() < batchSize; ) {
+            batch.add(it.next());
+            it.remove();
+         }
+         inFlight = true;
+         //the writes left in the queue are not older than the ones sent
+         inFlightSince = pendingSince;
+         notifyAll();
+      }
+      if (trace) {
+         log.tracef("Sending %d writes of cache %s to site %s", batch.size(), cacheName, backup.getSiteName());
+      }
+      try {
+         BackupResponse response = transport.backupRemotely(Collections.singletonList(backup),
+               commandsFactory.buildBatchXSiteRpcCommand(batch));
+         //the acknowledgement is received by a transport thread, the next batch is sent by the executor
+         response.notifyFinish(() -> sendNextBatch(response));
+      } catch (Throwable t) {
+         log.warnXsiteBackupFailed(cacheName, backup.getSiteName(), t);
+         sendNextBatch(null);
+      }
+   }
+
+   private void sendNextBatch(BackupResponse response) {
+      try {
+         executor.execute(() -> {
+            if (response != null) {
+               onResponse(response);
+            }
+            sendBatch();
+         });
+      } catch (RejectedExecutionException e) {
+         //the cache is stopping
+         stopSending();
+      }
+   }
+
+   private void onResponse(BackupResponse response) {
+      if (offlineStatus.isEnabled()) {
+         if (response.getCommunicationErrors().contains(backup.getSiteName())) {
+            offlineStatus.updateOnCommunicationFailure(response.getSendTimeMillis());
+         } else if (!offlineStatus.isOffline()) {
+            offlineStatus.reset();
+         }
+      }
+      Throwable failure = response.getFailedBackups().get(backup.getSiteName());
+      if (failure != null) {
+         log.warnXsiteBackupFailed(cacheName, backup.getSiteName(), failure);
+      }
+      if (offlineStatus.isOffline()) {
+         clear();
+      }
+   }
+
+   private synchronized void stopSending() {
+      pending.clear();
+      sending = false;
+      inFlight = false;
+      notifyAll();
+   }
+}
@@ -43,6 +43,20 @@ public interface BackupSender {
 
    OfflineStatus getOfflineStatus(String siteName);
 
+   /**
+    * Returns the time, in milliseconds, since the oldest write queued for an asynchronous backup site was queued, if
+    * it is not yet acknowledged by the site. Returns -1 if the writes are not queued for the site.
+    *
+    * @see org.infinispan.configuration.cache.BackupConfigurationBuilder#asyncBatchSize(int)
+    */
+   long getAsyncReplicationLag(String siteName);
+
+   /**
+    * Returns the number of writes waiting to be sent to an asynchronous backup site, or -1 if the writes are not
+    * queued for the site.
+    */
+   int getAsyncQueueSize(String siteName);
+
    /**
     * Returns a Map having as entries the site names and as value Boolean.TRUE if the site is online and Boolean.FALSE
     * if it is offline.
@@ -7,11 +7,13 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 import javax.transaction.Transaction;
 
@@ -38,6 +40,7 @@
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.BackupConfiguration;
@@ -49,8 +52,11 @@
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.FlagBitSets;
 import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.remoting.transport.AggregateBackupResponse;
 import org.infinispan.remoting.transport.BackupResponse;
 import org.infinispan.remoting.transport.Transport;
@@ -82,9 +88,13 @@ public class BackupSenderImpl implements BackupSender {
    @Inject private CommandsFactory commandsFactory;
    @Inject private EventLogManager eventLogManager;
    @Inject private GlobalConfiguration globalConfig;
+   @Inject private StreamingMarshaller marshaller;
+   @Inject @ComponentName(KnownComponentNames.ASYNC_OPERATIONS_EXECUTOR)
+   private Executor asyncExecutor;
 
    private final Map<String, CustomFailurePolicy> siteFailurePolicy = new HashMap<>();
    private final ConcurrentMap<String, OfflineStatus> offlineStatus = CollectionFactory.makeConcurrentMap();
+   private final Map<String, AsyncBackupQueue> asyncQueues = new HashMap<>();
    private final String localSiteName;
    private String cacheName;
 
@@ -121,9 +131,20 @@ public void siteOffline() {
                                                       }
                                                    });
          offlineStatus.put(siteName, offline);
+         if (bc.isAsyncBackup() && bc.asyncBatchSize() > 0) {
+            //the configuration rejects it for transactional caches
+            XSiteBackup backup = new XSiteBackup(siteName, true, bc.replicationTimeout());
+            asyncQueues.put(siteName, new AsyncBackupQueue(cacheName, backup, bc.asyncBatchSize(), bc.asyncQueueSize(),
+                  offline, transport, commandsFactory, marshaller, asyncExecutor, timeService));
+         }
       }
    }
 
+   @Stop
+   public void stop() {
+      asyncQueues.values().forEach(AsyncBackupQueue::clear);
+   }
+
    @Override
    public BackupResponse backupPrepare(PrepareCommand command, AbstractCacheTransaction cacheTransaction) throws Exception {
       List<WriteCommand> modifications = filterModifications(command.getModifications(), cacheTransaction.getLookedUpEntries());
@@ -171,6 +192,18 @@ private void updateOfflineSites(BackupResponse backupResponse) {
    @Override
    public BackupResponse backupWrite(WriteCommand command) throws Exception {
       List<XSiteBackup> xSiteBackups = calculateBackupInfo(BackupFilter.KEEP_ALL);
+      if (!asyncQueues.isEmpty()) {
+         for (Iterator<XSiteBackup> it = xSiteBackups.iterator(); it.hasNext(); ) {
+            AsyncBackupQueue queue = asyncQueues.get(it.next().getSiteName());
+            if (queue != null) {
+               queue.enqueue(command);
+               it.remove();
+            }
+         }
+         if (xSiteBackups.isEmpty()) {
+            return EMPTY_RESPONSE;
+         }
+      }
       return backupCommand(command, xSiteBackups);
    }
 
@@ -336,6 +369,10 @@ private void siteOnline(String siteName) {
    }
 
    private void siteOffline(String siteName) {
+      AsyncBackupQueue queue = asyncQueues.get(siteName);
+      if (queue != null) {
+         queue.clear();
+      }
       getEventLogger().info(EventLogCategory.CLUSTER, MESSAGES.siteOffline(siteName));
    }
 
@@ -475,6 +512,18 @@ public OfflineStatus getOfflineStatus(String site) {
       return offlineStatus.get(site);
    }
 
+   @Override
+   public long getAsyncReplicationLag(String siteName) {
+      AsyncBackupQueue queue = asyncQueues.get(siteName);
+      return queue == null ? -1 : queue.getLag();
+   }
+
+   @Override
+   public int getAsyncQueueSize(String siteName) {
+      AsyncBackupQueue queue = asyncQueues.get(siteName);
+      return queue == null ? -1 : queue.size();
+   }
+
    @Override
    public Map<String, Boolean> status() {
       Map<String, Boolean> result = new HashMap<>(offlineStatus.size());
@@ -0,0 +1,199 @@
+package org.infinispan.xsite;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commons.io.ExposedByteArrayOutputStream;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.util.ByteString;
+import org.infinispan.util.concurrent.CompletableFutures;
+
+/**
+ * RPC command to replicate a batch of cache operations to the backup site.
+ * <p>
+ * The operations are marshalled when they are queued, and they are written, compressed when they are large enough,
+ * in a single payload. The backup site applies them one by one, in order.
+ *
+ * @since 9.2
+ */
+public class BatchXSiteRpcCommand extends XSiteReplicateCommand {
+
+   public static final byte COMMAND_ID = 31;
+   //smaller payloads are not worth compressing
+   private static final int COMPRESSION_THRESHOLD = 1024;
+
+   //the marshalled operations, on the sender side
+   private List<byte[]> commands;
+   private StreamingMarshaller marshaller;
+   private int size;
+   private int payloadLength;
+   private boolean compressed;
+   private byte[] payload;
+
+   public BatchXSiteRpcCommand(ByteString cacheName, List<byte[]> commands) {
+      super(cacheName);
+      this.commands = commands;
+   }
+
+   public BatchXSiteRpcCommand(ByteString cacheName) {
+      super(cacheName);
+   }
+
+   public BatchXSiteRpcCommand() {
+      super(null);
+   }
+
+   public void initialize(StreamingMarshaller marshaller) {
+      this.marshaller = marshaller;
+   }
+
+   @Override
+   public Object performInLocalSite(BackupReceiver receiver) throws Throwable {
+      StreamingMarshaller marshaller = SecurityActions.getCacheComponentRegistry(receiver.getCache().getAdvancedCache())
+            .getComponent(StreamingMarshaller.class);
+      for (VisitableCommand command : getCommands(marshaller)) {
+         receiver.handleRemoteCommand(command);
+      }
+      return null;
+   }
+
+   @Override
+   public CompletableFuture<Object> invokeAsync() throws Throwable {
+      //the operations are invoked in order, each one after the previous one completes
+      CompletableFuture<Object> result = CompletableFutures.completedNull();
+      for (VisitableCommand command : getCommands(marshaller)) {
+         result = result.thenCompose(ignored -> {
+            try {
+               return command.invokeAsync();
+            } catch (Throwable t) {
+               return CompletableFutures.completedExceptionFuture(t);
+            }
+         });
+      }
+      return result.thenApply(ignored -> null);
+   }
+
+   /**
+    * @return the operations in the batch, unmarshalled with {@code marshaller}.
+    */
+   public List<VisitableCommand> getCommands(StreamingMarshaller marshaller) throws IOException, ClassNotFoundException {
+      List<VisitableCommand> result;
+      if (commands != null) {
+         result = new ArrayList<>(commands.size());
+         for (byte[] command : commands) {
+            result.add((VisitableCommand) marshaller.objectFromByteBuffer(command));
+         }
+         return result;
+      }
+      byte[] bytes = compressed ? inflate(payload, payloadLength) : payload;
+      result = new ArrayList<>(size);
+      DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+      for (int i = 0; i < size; i++) {
+         byte[] command = new byte[input.readInt()];
+         input.readFully(command);
+         result.add((VisitableCommand) marshaller.objectFromByteBuffer(command));
+      }
+      return result;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return false;
+   }
+
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      ExposedByteArrayOutputStream bytes = new ExposedByteArrayOutputStream();
+      DataOutputStream data = new DataOutputStream(bytes);
+      for (byte[] command : commands) {
+         data.writeInt(command.length);
+         data.write(command);
+      }
+      data.flush();
+      int length = bytes.size();
+      boolean compress = length >= COMPRESSION_THRESHOLD;
+      output.writeInt(commands.size());
+      output.writeInt(length);
+      output.writeBoolean(compress);
+      if (compress) {
+         byte[] deflated = deflate(bytes);
+         output.writeInt(deflated.length);
+         output.write(deflated);
+      } else {
+         output.writeInt(length);
+         output.write(bytes.getRawBuffer(), 0, length);
+      }
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      size = input.readInt();
+      payloadLength = input.readInt();
+      compressed = input.readBoolean();
+      payload = new byte[input.readInt()];
+      input.readFully(payload);
+   }
+
+   @Override
+   public String toString() {
+      return "BatchXSiteRpcCommand{" +
+            "size=" + (commands == null ? size : commands.size()) +
+            ", compressed=" + compressed +
+            '}';
+   }
+
+   private static byte[] deflate(ExposedByteArrayOutputStream bytes) throws IOException {
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try {
+         ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.size() / 2);
+         try (DeflaterOutputStream stream = new DeflaterOutputStream(compressed, deflater)) {
+            bytes.writeTo(stream);
+         }
+         return compressed.toByteArray();
+      } finally {
+         deflater.end();
+      }
+   }
+
+   private static byte[] inflate(byte[] bytes, int length) throws IOException {
+      Inflater inflater = new Inflater();
+      try {
+         inflater.setInput(bytes);
+         byte[] inflated = new byte[length];
+         int offset = 0;
+         while (offset < length && !inflater.finished()) {
+            int inflatedBytes = inflater.inflate(inflated, offset, length - offset);
+            if (inflatedBytes == 0 && inflater.needsInput()) {
+               break;
+            }
+            offset += inflatedBytes;
+         }
+         if (offset != length) {
+            throw new IOException("Truncated payload: expected " + length + " bytes, got " + offset);
+         }
+         return inflated;
+      } catch (DataFormatException e) {
+         throw new IOException(e);
+      } finally {
+         inflater.end();
+      }
+   }
+}
@@ -243,6 +243,18 @@ public String getTakeOfflineAfterFailures(@Parameter(name = "site", description
       return String.valueOf(offlineStatus.getTakeOffline().afterFailures());
    }
 
+   @ManagedOperation(description = "Returns the time, in milliseconds, since the oldest write not yet acknowledged by the given asynchronous backup site was queued in this node, or -1 if the writes are not queued.", displayName = "Returns the asynchronous replication lag to the given backup site.")
+   public String getAsyncReplicationLag(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      if (backupSender.getOfflineStatus(site) == null) return incorrectSiteName(site);
+      return String.valueOf(backupSender.getAsyncReplicationLag(site));
+   }
+
+   @ManagedOperation(description = "Returns the number of writes queued in this node for the given asynchronous backup site, or -1 if the writes are not queued.", displayName = "Returns the number of writes queued for the given backup site.")
+   public String getAsyncQueueSize(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      if (backupSender.getOfflineStatus(site) == null) return incorrectSiteName(site);
+      return String.valueOf(backupSender.getAsyncQueueSize(site));
+   }
+
    @ManagedOperation(description = "Brings the given site back online on all the cluster.", displayName = "Brings the given site back online on all the cluster.")
    public String bringSiteOnline(@Parameter(name = "site", description = "The name of the backup site") String site) {
       OfflineStatus offlineStatus = backupSender.getOfflineStatus(site);
@@ -31,6 +31,7 @@
 import org.infinispan.configuration.cache.Index;
 import org.infinispan.configuration.cache.InterceptorConfiguration;
 import org.infinispan.configuration.cache.MemoryConfiguration;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
 import org.infinispan.configuration.cache.PartitionHandlingConfiguration;
 import org.infinispan.configuration.cache.SingleFileStoreConfiguration;
 import org.infinispan.configuration.cache.StorageType;
@@ -121,9 +122,20 @@ private static void configurationCheck92(EmbeddedCacheManager cm) {
       EncodingConfiguration encoding = cm.getCacheConfiguration("local").encoding();
       assertEquals(MediaType.APPLICATION_OBJECT, encoding.keyDataType().mediaType());
       assertEquals(MediaType.APPLICATION_OBJECT, encoding.valueDataType().mediaType());
+      assertTrue(cm.getCacheConfiguration("local").locking().adaptiveLockStriping());
+
+      BackupConfiguration backup = cm.getCacheConfiguration("async-backups").sites().allBackups().get(0);
+      assertEquals(100, backup.asyncBatchSize());
+      assertEquals(5000, backup.asyncQueueSize());
 
       MemoryConfiguration memory = cm.getCacheConfiguration("dist-template").memory();
       assertEquals(EvictionStrategy.REMOVE, memory.evictionStrategy());
+
+      memory = cm.getCacheConfiguration("object-memory").memory();
+      assertTrue(memory.segmented());
+
+      memory = cm.getCacheConfiguration("off-heap-memory").memory();
+      assertEquals(OffHeapAllocatorType.POOLED, memory.allocatorType());
    }
 
    private static void configurationCheck91(EmbeddedCacheManager cm) {
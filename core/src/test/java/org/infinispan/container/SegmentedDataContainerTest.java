@@ -0,0 +1,149 @@
+package org.infinispan.container;
+
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.commons.util.SmallIntSet;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.context.Flag;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.stream.impl.local.EntryStreamSupplier;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.ControlledTimeService;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the {@link SimpleDataContainerTest} tests against a {@link DefaultSegmentedDataContainer} and verifies
+ * the segment specific operations.
+ */
+@Test(groups = "unit", testName = "container.SegmentedDataContainerTest")
+public class SegmentedDataContainerTest extends SimpleDataContainerTest {
+   private static final int SEGMENTS = 4;
+
+   // Keys used by the tests are of the form k<number>, any key without a number maps to segment 0
+   private static final KeyPartitioner PARTITIONER = key -> {
+      String digits = key.toString().replaceAll("\\D", "");
+      return digits.isEmpty() ? 0 : Integer.parseInt(digits) % SEGMENTS;
+   };
+
+   private SegmentedDataContainer<String, String> sdc;
+
+   @Override
+   protected DataContainer<String, String> createContainer() {
+      DefaultSegmentedDataContainer<String, String> dc = new DefaultSegmentedDataContainer<>(16, SEGMENTS);
+      InternalEntryFactoryImpl internalEntryFactory = new InternalEntryFactoryImpl();
+      timeService = new ControlledTimeService();
+      TestingUtil.inject(internalEntryFactory, timeService);
+      ActivationManager activationManager = mock(ActivationManager.class);
+      doNothing().when(activationManager).onUpdate(Mockito.any(), Mockito.anyBoolean());
+      TestingUtil.inject(dc, internalEntryFactory, activationManager, timeService, mock(ExpirationManager.class),
+            PARTITIONER);
+      sdc = dc;
+      return dc;
+   }
+
+   private void populate(int count) {
+      for (int i = 0; i < count; ++i) {
+         sdc.put("k" + i, "v" + i, new EmbeddedMetadata.Builder().build());
+      }
+   }
+
+   public void testSegmentIteration() {
+      populate(20);
+
+      Set<String> keys = new HashSet<>();
+      for (Iterator<InternalCacheEntry<String, String>> iter = sdc.iterator(SmallIntSet.of(1, 3)); iter.hasNext(); ) {
+         String key = iter.next().getKey();
+         assertTrue(PARTITIONER.getSegment(key) % 2 == 1);
+         assertTrue(keys.add(key));
+      }
+      assertEquals(10, keys.size());
+      assertEquals(10, sdc.sizeIncludingExpired(SmallIntSet.of(1, 3)));
+      assertEquals(5, sdc.size(SmallIntSet.of(2)));
+      assertEquals(20, sdc.sizeIncludingExpired());
+   }
+
+   public void testSegmentIterationSkipsExpired() {
+      populate(8);
+      sdc.put("k9", "v9", new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.MILLISECONDS).build());
+      timeService.advance(10);
+
+      SmallIntSet segment = SmallIntSet.of(PARTITIONER.getSegment("k9"));
+      assertEquals(3, sdc.sizeIncludingExpired(segment));
+      assertEquals(2, sdc.size(segment));
+
+      int count = 0;
+      for (Iterator<InternalCacheEntry<String, String>> iter = sdc.iteratorIncludingExpired(segment); iter.hasNext(); ) {
+         iter.next();
+         count++;
+      }
+      assertEquals(3, count);
+   }
+
+   public void testRemoveSegments() {
+      populate(20);
+
+      sdc.removeSegments(SmallIntSet.of(0, 2));
+
+      assertEquals(10, sdc.sizeIncludingExpired());
+      assertEquals(0, sdc.size(SmallIntSet.of(0, 2)));
+      for (int i = 0; i < 20; ++i) {
+         String key = "k" + i;
+         if (PARTITIONER.getSegment(key) % 2 == 0) {
+            assertNull(sdc.get(key));
+            assertFalse(sdc.containsKey(key));
+         } else {
+            assertNotNull(sdc.get(key));
+         }
+      }
+   }
+
+   public void testSegmentFilteredStream() {
+      populate(20);
+
+      Cache<String, String> cache = mock(Cache.class);
+      AdvancedCache<String, String> advancedCache = mock(AdvancedCache.class);
+      when(cache.getAdvancedCache()).thenReturn(advancedCache);
+      when(advancedCache.withFlags(Flag.CACHE_MODE_LOCAL)).thenReturn(advancedCache);
+      when(cache.getCacheConfiguration()).thenReturn(new ConfigurationBuilder().build());
+
+      AtomicInteger hashedKeys = new AtomicInteger();
+      EntryStreamSupplier<String, String> supplier = new EntryStreamSupplier<>(cache, key -> {
+         hashedKeys.incrementAndGet();
+         return PARTITIONER.getSegment(key);
+      }, () -> {
+         throw new AssertionError("The full container should not be visited");
+      }, sdc);
+
+      Set<String> keys = supplier.buildStream(SmallIntSet.of(1, 3), null)
+            .map(CacheEntry::getKey)
+            .collect(Collectors.toSet());
+      assertEquals(10, keys.size());
+      for (String key : keys) {
+         assertTrue(PARTITIONER.getSegment(key) % 2 == 1);
+      }
+      // The entries were read from the segments themselves, so no key had to be mapped to its segment
+      assertEquals(0, hashedKeys.get());
+   }
+}
@@ -0,0 +1,60 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "container.offheap.FrequencySketchTest")
+public class FrequencySketchTest extends AbstractInfinispanTest {
+
+   public void testIncrement() {
+      FrequencySketch sketch = new FrequencySketch(512);
+      assertEquals(0, sketch.frequency(42));
+      sketch.increment(42);
+      assertEquals(1, sketch.frequency(42));
+      sketch.increment(42);
+      assertEquals(2, sketch.frequency(42));
+   }
+
+   public void testIncrementIsCapped() {
+      FrequencySketch sketch = new FrequencySketch(512);
+      for (int i = 0; i < 20; i++) {
+         sketch.increment(42);
+      }
+      assertEquals(15, sketch.frequency(42));
+   }
+
+   public void testCountersAreHalved() {
+      int expected = 64;
+      FrequencySketch sketch = new FrequencySketch(expected);
+      for (int i = 0; i < 8; i++) {
+         sketch.increment(-1);
+      }
+      assertEquals(8, sketch.frequency(-1));
+      // Other keys eventually cause the reset, after which the old frequency has been halved
+      for (int i = 0; i < 10 * expected; i++) {
+         sketch.increment(i);
+      }
+      assertTrue(sketch.frequency(-1) <= 4);
+   }
+
+   public void testHotKeysAreDistinguished() {
+      FrequencySketch sketch = new FrequencySketch(1024);
+      for (int i = 0; i < 1024; i++) {
+         sketch.increment(i);
+         if (i % 8 == 0) {
+            for (int j = 0; j < 5; j++) {
+               sketch.increment(i);
+            }
+         }
+      }
+      for (int i = 0; i < 1024; i += 8) {
+         assertTrue(sketch.frequency(i) > sketch.frequency(i + 1));
+      }
+   }
+}
@@ -0,0 +1,98 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.DataContainer;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the off-heap address table grows as entries are added
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "container.offheap.OffHeapAddressResizeTest")
+public class OffHeapAddressResizeTest extends SingleCacheManagerTest {
+   private static final int INITIAL_ADDRESS_COUNT = 16;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory().storageType(StorageType.OFF_HEAP).addressCount(INITIAL_ADDRESS_COUNT);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   private OffHeapDataContainer container() {
+      return (OffHeapDataContainer) TestingUtil.extractComponent(cache, DataContainer.class);
+   }
+
+   public void testAddressTableGrows() {
+      Cache<String, String> cache = cache();
+      OffHeapDataContainer container = container();
+      int initialAddressCount = container.getAddressCount();
+      int entries = initialAddressCount * 64;
+      for (int i = 0; i < entries; ++i) {
+         cache.put("key" + i, "value" + i);
+      }
+
+      assertTrue(container.getAddressCount() >= entries / OffHeapDataContainer.LOAD_FACTOR);
+      assertTrue(container.getAddressResizeCount() > 0);
+      assertTrue(container.getAverageChainLength() < 2);
+      assertTrue(container.getMaxChainLength() > 0);
+
+      assertEquals(entries, cache.size());
+      assertEquals(entries, container.entrySet().size());
+      for (int i = 0; i < entries; ++i) {
+         assertEquals("value" + i, cache.get("key" + i));
+      }
+      cache.clear();
+      assertEquals(0, cache.size());
+      assertEquals(0, container.getMaxChainLength());
+   }
+
+   public void testConcurrentWritesWhileResizing() throws Exception {
+      Cache<String, String> cache = cache();
+      OffHeapDataContainer container = container();
+      int threads = 4;
+      int entriesPerThread = 5000;
+      List<Future<?>> futures = new ArrayList<>(threads);
+      for (int t = 0; t < threads; ++t) {
+         int thread = t;
+         futures.add(fork(() -> {
+            for (int i = 0; i < entriesPerThread; ++i) {
+               String key = "key-" + thread + "-" + i;
+               cache.put(key, "value" + i);
+               assertEquals("value" + i, cache.get(key));
+            }
+         }));
+      }
+      // Iterate while the table is being resized, no entry may be returned twice
+      while (!futures.stream().allMatch(Future::isDone)) {
+         List<Object> keys = container.keySet().stream().collect(Collectors.toList());
+         assertEquals(keys.size(), new HashSet<>(keys).size());
+      }
+      for (Future<?> future : futures) {
+         future.get(10, TimeUnit.SECONDS);
+      }
+
+      assertEquals(threads * entriesPerThread, cache.size());
+      for (int t = 0; t < threads; ++t) {
+         for (int i = 0; i < entriesPerThread; ++i) {
+            assertEquals("value" + i, cache.get("key-" + t + "-" + i));
+         }
+      }
+   }
+}
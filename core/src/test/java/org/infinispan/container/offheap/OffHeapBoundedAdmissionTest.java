@@ -0,0 +1,54 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the bounded off-heap container keeps frequently used entries when many entries are only used once
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "container.offheap.OffHeapBoundedAdmissionTest")
+public class OffHeapBoundedAdmissionTest extends SingleCacheManagerTest {
+   private static final int COUNT = 100;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory().storageType(StorageType.OFF_HEAP).size(COUNT).evictionType(EvictionType.COUNT);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testFrequentEntriesSurviveScan() {
+      Cache<String, String> cache = cache();
+      for (int i = 0; i < COUNT; ++i) {
+         cache.put("hot" + i, "value" + i);
+      }
+      for (int j = 0; j < 5; ++j) {
+         for (int i = 0; i < COUNT; ++i) {
+            cache.get("hot" + i);
+         }
+      }
+      // A plain LRU would evict every hot entry here
+      for (int i = 0; i < COUNT * 10; ++i) {
+         cache.put("scan" + i, "value" + i);
+      }
+
+      assertEquals(COUNT, cache.size());
+      int hotEntries = 0;
+      for (int i = 0; i < COUNT; ++i) {
+         if (cache.containsKey("hot" + i)) {
+            hotEntries++;
+         }
+      }
+      assertTrue("Only " + hotEntries + " hot entries were retained", hotEntries > COUNT * 9 / 10);
+   }
+}
@@ -9,6 +9,7 @@
 import org.infinispan.commons.util.MemoryUnit;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.MemoryConfiguration;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
 import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.versioning.NumericVersion;
@@ -91,6 +92,35 @@ public void testAllocatedAmountEqualWithVersion() {
       assertEquals(allocator.getAllocatedAmount(), container.currentSize);
    }
 
+   /**
+    * The pooled allocator rounds the entries up to their size class, the container must count the rounded size
+    */
+   public void testAllocatedAmountEqualPooled() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory()
+            .size(MemoryUnit.MEGABYTES.toBytes(20))
+            .evictionType(EvictionType.MEMORY)
+            .storageType(StorageType.OFF_HEAP)
+            .allocatorType(OffHeapAllocatorType.POOLED);
+      EmbeddedCacheManager manager = TestCacheManagerFactory.createCacheManager(builder);
+      AdvancedCache<Object, Object> cache = manager.getCache().getAdvancedCache();
+
+      OffHeapMemoryAllocator allocator = cache.getComponentRegistry().getComponent(
+            OffHeapMemoryAllocator.class);
+      BoundedOffHeapDataContainer container = (BoundedOffHeapDataContainer) getContainer(cache);
+      assertEquals(allocator.getAllocatedAmount(), container.currentSize);
+
+      for (int i = 0; i < 100; ++i) {
+         cache.put(i, new byte[i * 10]);
+      }
+
+      assertEquals(allocator.getAllocatedAmount(), container.currentSize);
+
+      cache.clear();
+
+      assertEquals(allocator.getAllocatedAmount(), container.currentSize);
+   }
+
    @Test(expectedExceptions = CacheConfigurationException.class)
    public void testAddressCountTooLargeAfterRounding() {
       int addressCount = 3;
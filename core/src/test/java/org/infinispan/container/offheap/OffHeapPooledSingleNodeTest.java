@@ -0,0 +1,25 @@
+package org.infinispan.container.offheap;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
+import org.infinispan.configuration.cache.StorageType;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the {@link OffHeapSingleNodeTest} tests using the pooled off-heap allocator
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "container.offheap.OffHeapPooledSingleNodeTest")
+public class OffHeapPooledSingleNodeTest extends OffHeapSingleNodeTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder dcc = getDefaultClusteredCacheConfig(CacheMode.LOCAL, false);
+      dcc.memory().storageType(StorageType.OFF_HEAP).allocatorType(OffHeapAllocatorType.POOLED);
+      // Only start up the 1 cache
+      addClusterEnabledCacheManager(dcc);
+
+      configureTimeService();
+   }
+}
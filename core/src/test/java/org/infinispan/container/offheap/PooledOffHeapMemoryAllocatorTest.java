@@ -0,0 +1,124 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "container.offheap.PooledOffHeapMemoryAllocatorTest")
+public class PooledOffHeapMemoryAllocatorTest extends AbstractInfinispanTest {
+   private static final OffHeapMemory MEMORY = OffHeapMemory.INSTANCE;
+
+   public void testBlockSizes() {
+      int[] sizes = PooledOffHeapMemoryAllocator.computeBlockSizes(PooledOffHeapMemoryAllocator.DEFAULT_MAX_BLOCK_SIZE);
+      assertEquals(32, sizes[0]);
+      assertEquals(PooledOffHeapMemoryAllocator.DEFAULT_MAX_BLOCK_SIZE, sizes[sizes.length - 1]);
+      for (int i = 1; i < sizes.length; ++i) {
+         assertTrue(sizes[i] > sizes[i - 1]);
+         assertEquals(0, sizes[i] % 16);
+         // No block wastes more than 25% of its size
+         assertTrue(sizes[i] - sizes[i - 1] <= Math.max(16, sizes[i - 1] / 4));
+      }
+   }
+
+   public void testFreedBlocksAreReused() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      long address = allocator.allocate(100);
+      MEMORY.putLong(address, 92, 42);
+      assertEquals(42, MEMORY.getLong(address, 92));
+      assertEquals(1, allocator.getSlabCount());
+      assertTrue(allocator.getAllocatedAmount() >= 100);
+      assertEquals(100, allocator.getRequestedAmount());
+
+      allocator.deallocate(address);
+      assertEquals(0, allocator.getAllocatedAmount());
+      assertEquals(0, allocator.getRequestedAmount());
+
+      assertEquals(address, allocator.allocate(90));
+      assertEquals(1, allocator.getSlabCount());
+      allocator.deallocate(address, 90);
+      allocator.release();
+      assertEquals(0, allocator.getSlabCount());
+   }
+
+   public void testManyAllocations() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator(1 << 16, 1 << 12);
+      Set<Long> addresses = new HashSet<>();
+      for (int i = 0; i < 10_000; ++i) {
+         long address = allocator.allocate(1 + i % 4000);
+         MEMORY.putByte(address, 0, (byte) i);
+         assertTrue(addresses.add(address));
+      }
+      assertTrue(allocator.getSlabCount() > 1);
+      assertTrue(allocator.getOccupancy() > 0 && allocator.getOccupancy() <= 1);
+      assertTrue(allocator.getFragmentation() >= 0 && allocator.getFragmentation() < 0.25);
+      long slabs = allocator.getSlabCount();
+
+      addresses.forEach(allocator::deallocate);
+      assertEquals(0, allocator.getAllocatedAmount());
+
+      // Allocating the same again should reuse the freed blocks
+      addresses.clear();
+      for (int i = 0; i < 10_000; ++i) {
+         addresses.add(allocator.allocate(1 + i % 4000));
+      }
+      assertEquals(slabs, allocator.getSlabCount());
+      addresses.forEach(allocator::deallocate);
+      allocator.release();
+      assertEquals(0, allocator.getReservedAmount());
+   }
+
+   public void testBlocksFreedByOtherThreadsReused() throws Exception {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator(1 << 16, 1 << 12);
+      Set<Long> addresses = new HashSet<>();
+      for (int i = 0; i < 1_000; ++i) {
+         addresses.add(allocator.allocate(100));
+      }
+      long slabs = allocator.getSlabCount();
+
+      // The blocks stay in the shared pool after the thread that freed them is gone
+      Thread thread = new Thread(() -> addresses.forEach(allocator::deallocate));
+      thread.start();
+      thread.join();
+      assertEquals(0, allocator.getAllocatedAmount());
+
+      addresses.clear();
+      for (int i = 0; i < 1_000; ++i) {
+         addresses.add(allocator.allocate(100));
+      }
+      assertEquals(slabs, allocator.getSlabCount());
+      addresses.forEach(allocator::deallocate);
+      allocator.release();
+   }
+
+   public void testEstimateSize() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      long address = allocator.allocate(100);
+      // The estimate is the block handed out, header and rounding included
+      assertEquals(allocator.getAllocatedAmount(), allocator.estimateSize(100));
+      assertTrue(allocator.estimateSize(100) >= 100 + PooledOffHeapMemoryAllocator.HEADER_SIZE);
+      allocator.deallocate(address);
+      allocator.release();
+   }
+
+   public void testDirectAllocation() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      long size = PooledOffHeapMemoryAllocator.DEFAULT_MAX_BLOCK_SIZE * 2;
+      long address = allocator.allocate(size);
+      MEMORY.putLong(address, size - 8, 7);
+      assertEquals(0, allocator.getSlabCount());
+      assertEquals(size, allocator.getRequestedAmount());
+      assertTrue(allocator.getReservedAmount() >= size);
+
+      allocator.deallocate(address, size);
+      assertEquals(0, allocator.getAllocatedAmount());
+      assertEquals(0, allocator.getReservedAmount());
+   }
+}
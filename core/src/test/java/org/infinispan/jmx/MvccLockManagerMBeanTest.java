@@ -84,6 +84,14 @@ public void testNumberOfLocksAvailable() throws Exception {
       assertAttributeValue("NumberOfLocksHeld", 0);
    }
 
+   public void testLockAcquisitionStatistics() throws Exception {
+      threadMBeanServer.invoke(lockManagerObjName, "resetStatistics", new Object[0], new String[0]);
+      assertAttributeValue("NumberOfLockAcquisitions", 0);
+      cache.put("key", "value");
+      assertAttributeValue("NumberOfLockAcquisitions", 1);
+      assertAttributeValue("NumberOfContendedLockAcquisitions", 0);
+   }
+
    private void assertAttributeValue(String attrName, int expectedVal) throws Exception {
       int cl = getAttrValue(attrName);
       assert cl == expectedVal : "expected " + expectedVal + ", but received " + cl;
@@ -9,6 +9,7 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -224,6 +225,48 @@ public void testCancel() throws InterruptedException {
       assertFalse(lock.isLocked());
    }
 
+   public void testUncontendedAcquisition() throws InterruptedException {
+      final String lockOwner1 = "LO1";
+      final String lockOwner2 = "LO2";
+
+      final InfinispanLock lock = new InfinispanLock(commonPool(), AbstractCacheTest.TIME_SERVICE);
+      final ExtendedLockPromise lockPromise1 = lock.acquire(lockOwner1, 0, TimeUnit.MILLISECONDS);
+      assertTrue(lockPromise1.isAvailable());
+      assertEquals(lockOwner1, lock.getLockOwner());
+      assertTrue(lock.containsLockOwner(lockOwner1));
+      //the same lock owner gets the same promise
+      assertTrue(lockPromise1 == lock.acquire(lockOwner1, 0, TimeUnit.MILLISECONDS));
+
+      final List<LockState> events = new ArrayList<>();
+      lockPromise1.addListener(events::add);
+      assertEquals(Collections.singletonList(LockState.ACQUIRED), events);
+      assertTrue(lockPromise1.toInvocationStage().isDone());
+
+      //a waiting lock owner is queued and notified when the lock is released
+      final ExtendedLockPromise lockPromise2 = lock.acquire(lockOwner2, 1, TimeUnit.DAYS);
+      assertFalse(lockPromise2.isAvailable());
+      events.clear();
+      lockPromise2.addListener(events::add);
+      assertTrue(events.isEmpty());
+
+      lock.release(lockOwner1);
+      assertFalse(lock.containsLockOwner(lockOwner1));
+      assertTrue(lockPromise2.isAvailable());
+      assertEquals(Collections.singletonList(LockState.ACQUIRED), events);
+      assertEquals(lockOwner2, lock.getLockOwner());
+
+      lock.release(lockOwner2);
+      assertFalse(lock.isLocked());
+
+      //the lock is free again
+      final ExtendedLockPromise lockPromise3 = lock.acquire(lockOwner1, 0, TimeUnit.MILLISECONDS);
+      assertTrue(lockPromise3.isAvailable());
+      lockPromise3.lock();
+      assertEquals(lockOwner1, lock.getLockOwner());
+      lock.release(lockOwner1);
+      assertFalse(lock.isLocked());
+   }
+
    public void testSingleCounter() throws ExecutionException, InterruptedException {
       final NotThreadSafeCounter counter = new NotThreadSafeCounter();
       final InfinispanLock counterLock = new InfinispanLock(commonPool(), AbstractCacheTest.TIME_SERVICE);
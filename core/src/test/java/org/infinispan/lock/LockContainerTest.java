@@ -17,6 +17,8 @@
 import org.infinispan.test.AbstractInfinispanTest;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.LockPromise;
+import org.infinispan.util.concurrent.locks.impl.AdaptiveLockContainer;
+import org.infinispan.util.concurrent.locks.impl.InfinispanLock;
 import org.infinispan.util.concurrent.locks.impl.LockContainer;
 import org.infinispan.util.concurrent.locks.impl.PerKeyLockContainer;
 import org.infinispan.util.concurrent.locks.impl.StripedLockContainer;
@@ -56,6 +58,107 @@ public void testSingleCounterWithStriped() throws ExecutionException, Interrupte
       doSingleCounterTest(lockContainer, 16);
    }
 
+   public void testContentionStatisticsPerEntry() throws InterruptedException {
+      PerKeyLockContainer lockContainer = new PerKeyLockContainer();
+      lockContainer.inject(commonPool(), AbstractCacheTest.TIME_SERVICE);
+      doContentionStatisticsTest(lockContainer);
+   }
+
+   public void testContentionStatisticsWithStriped() throws InterruptedException {
+      StripedLockContainer lockContainer = new StripedLockContainer(16);
+      lockContainer.inject(commonPool(), AbstractCacheTest.TIME_SERVICE);
+      doContentionStatisticsTest(lockContainer);
+   }
+
+   public void testSingleLockWithAdaptive() throws InterruptedException {
+      AdaptiveLockContainer lockContainer = new AdaptiveLockContainer(16);
+      lockContainer.inject(commonPool(), AbstractCacheTest.TIME_SERVICE);
+      doSingleLockTest(lockContainer, 16);
+   }
+
+   public void testSingleCounterWithAdaptive() throws ExecutionException, InterruptedException {
+      AdaptiveLockContainer lockContainer = new AdaptiveLockContainer(16);
+      lockContainer.inject(commonPool(), AbstractCacheTest.TIME_SERVICE);
+      doSingleCounterTest(lockContainer, 16);
+   }
+
+   public void testContentionStatisticsWithAdaptive() throws InterruptedException {
+      AdaptiveLockContainer lockContainer = new AdaptiveLockContainer(16);
+      lockContainer.inject(commonPool(), AbstractCacheTest.TIME_SERVICE);
+      doContentionStatisticsTest(lockContainer);
+   }
+
+   public void testPromotionWithAdaptive() throws InterruptedException {
+      //a single shared lock
+      AdaptiveLockContainer lockContainer = new AdaptiveLockContainer(1);
+      lockContainer.inject(commonPool(), AbstractCacheTest.TIME_SERVICE);
+      final String lockOwner1 = "LO1";
+      final String lockOwner2 = "LO2";
+      final InfinispanLock sharedLock = lockContainer.getLock("hot");
+
+      for (int i = 0; i < AdaptiveLockContainer.PROMOTION_THRESHOLD; ++i) {
+         acquireLock(lockContainer.acquire("hot", lockOwner1, 0, TimeUnit.MILLISECONDS), false);
+         LockPromise waiting = lockContainer.acquire("hot", lockOwner2, 1, TimeUnit.DAYS);
+         AssertJUnit.assertFalse(waiting.isAvailable());
+         lockContainer.release("hot", lockOwner1);
+         acquireLock(waiting, false);
+         lockContainer.release("hot", lockOwner2);
+         AssertJUnit.assertSame(sharedLock, lockContainer.getLock("hot"));
+      }
+
+      //the key is promoted when it is acquired again
+      acquireLock(lockContainer.acquire("hot", lockOwner1, 0, TimeUnit.MILLISECONDS), false);
+      AssertJUnit.assertEquals(1, lockContainer.getNumDedicatedLocks());
+      AssertJUnit.assertNotSame(sharedLock, lockContainer.getLock("hot"));
+      AssertJUnit.assertFalse(sharedLock.isLocked());
+      AssertJUnit.assertEquals(2, lockContainer.size());
+
+      //the other keys are no longer blocked by the hot key
+      LockPromise other = lockContainer.acquire("other", lockOwner2, 0, TimeUnit.MILLISECONDS);
+      AssertJUnit.assertTrue(other.isAvailable());
+      AssertJUnit.assertSame(sharedLock, lockContainer.getLock("other"));
+      AssertJUnit.assertEquals(2, lockContainer.getNumLocksHeld());
+
+      //while the hot key is contended, it keeps its lock
+      LockPromise waiting = lockContainer.acquire("hot", lockOwner2, 1, TimeUnit.DAYS);
+      AssertJUnit.assertFalse(waiting.isAvailable());
+      lockContainer.release("hot", lockOwner1);
+      acquireLock(waiting, false);
+      AssertJUnit.assertEquals(1, lockContainer.getNumDedicatedLocks());
+
+      //and goes back to the shared lock when it is free
+      lockContainer.release("hot", lockOwner2);
+      AssertJUnit.assertEquals(0, lockContainer.getNumDedicatedLocks());
+      AssertJUnit.assertSame(sharedLock, lockContainer.getLock("hot"));
+      AssertJUnit.assertTrue(lockContainer.isLocked("hot"));
+      lockContainer.release("other", lockOwner2);
+      AssertJUnit.assertFalse(lockContainer.isLocked("hot"));
+      AssertJUnit.assertEquals(0, lockContainer.getNumLocksHeld());
+   }
+
+   private void doContentionStatisticsTest(LockContainer container) throws InterruptedException {
+      final String lockOwner1 = "LO1";
+      final String lockOwner2 = "LO2";
+
+      acquireLock(container.acquire("key", lockOwner1, 0, TimeUnit.MILLISECONDS), false);
+      AssertJUnit.assertEquals(1, container.getAcquisitions());
+      AssertJUnit.assertEquals(0, container.getContendedAcquisitions());
+
+      LockPromise waiting = container.acquire("key", lockOwner2, 1, TimeUnit.DAYS);
+      AssertJUnit.assertFalse(waiting.isAvailable());
+      AssertJUnit.assertEquals(2, container.getAcquisitions());
+      AssertJUnit.assertEquals(1, container.getContendedAcquisitions());
+
+      container.release("key", lockOwner1);
+      acquireLock(waiting, false);
+      container.release("key", lockOwner2);
+      AssertJUnit.assertFalse(container.isLocked("key"));
+
+      container.resetStatistics();
+      AssertJUnit.assertEquals(0, container.getAcquisitions());
+      AssertJUnit.assertEquals(0, container.getContendedAcquisitions());
+   }
+
    private void doSingleCounterTest(LockContainer lockContainer, int poolSize) throws InterruptedException, ExecutionException {
       final NotThreadSafeCounter counter = new NotThreadSafeCounter();
       final String key = "key";
@@ -80,6 +80,7 @@
 import org.infinispan.marshall.core.ExternalPojo;
 import org.infinispan.marshall.core.JBossMarshallingTest.CustomReadObjectMethod;
 import org.infinispan.marshall.core.JBossMarshallingTest.ObjectThatContainsACustomReadObjectMethod;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.remoting.MIMECacheEntry;
 import org.infinispan.remoting.responses.ExceptionResponse;
@@ -362,6 +363,27 @@ public void testLongPutKeyValueCommand() throws Exception {
       marshallAndAssertEquality(c);
    }
 
+   public void testBufferSizePredictionsRecorded() throws Exception {
+      List<String> list = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+         list.add("element-" + i);
+      }
+      int predicted = marshaller.getBufferSizePredictor(list).nextSize(list);
+      byte[] bytes = marshaller.objectToByteBuffer(list);
+      // The size is recorded, so the next buffer for the type is large enough
+      assertTrue(bytes.length > predicted);
+      assertTrue(marshaller.getBufferSizePredictor(list).nextSize(list) > predicted);
+   }
+
+   public void testNestedMarshalling() throws Exception {
+      // The externalizer marshalls the key and the value while the entry itself is being marshalled
+      MarshalledEntryImpl<String, String> entry = new MarshalledEntryImpl<>("k", "v", null, marshaller);
+      MarshalledEntryImpl<String, String> read =
+            (MarshalledEntryImpl<String, String>) marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(entry));
+      assertEquals("k", read.getKey());
+      assertEquals("v", read.getValue());
+   }
+
    public void testExceptionResponse() throws Exception {
       ExceptionResponse er = new ExceptionResponse(new TimeoutException());
       byte[] bytes = marshaller.objectToByteBuffer(er);
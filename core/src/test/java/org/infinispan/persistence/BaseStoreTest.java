@@ -16,6 +16,7 @@
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -28,6 +29,7 @@
 import org.infinispan.container.InternalEntryFactoryImpl;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.filter.CollectionKeyFilter;
 import org.infinispan.marshall.TestObjectStreamMarshaller;
 import org.infinispan.marshall.core.ExternalPojo;
@@ -38,8 +40,10 @@
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.test.AbstractInfinispanTest;
 import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
 import org.infinispan.util.ControlledTimeService;
 import org.infinispan.util.PersistenceMockUtil;
@@ -546,6 +550,64 @@ public void testWriteAndDeleteBatch() throws Exception {
       assertNull(cl.load("20"));
    }
 
+   public void testProcessSegments() throws Exception {
+      SegmentedAdvancedLoadWriteStore<Object, Object> store = segmentedStore();
+      if (store == null) {
+         return;
+      }
+      KeyPartitioner keyPartitioner = keyPartitioner();
+      Set<Integer> segments = new HashSet<>(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7));
+      Set<Object> expected = new HashSet<>();
+      for (int i = 0; i < 200; i++) {
+         String key = "k" + i;
+         cl.write(marshalledEntry(internalCacheEntry(key, "v" + i, -1)));
+         if (segments.contains(keyPartitioner.getSegment(key))) {
+            expected.add(key);
+         }
+      }
+
+      Set<Object> processed = ConcurrentHashMap.newKeySet();
+      store.process(segments, null, (entry, context) -> processed.add(entry.getKey()), new WithinThreadExecutor(),
+            true, true);
+      assertEquals(expected, processed);
+   }
+
+   public void testRemoveSegments() throws Exception {
+      SegmentedAdvancedLoadWriteStore<Object, Object> store = segmentedStore();
+      if (store == null) {
+         return;
+      }
+      KeyPartitioner keyPartitioner = keyPartitioner();
+      Set<Integer> segments = new HashSet<>(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7));
+      for (int i = 0; i < 200; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+
+      store.removeSegments(segments);
+      for (int i = 0; i < 200; i++) {
+         String key = "k" + i;
+         assertEquals(key, !segments.contains(keyPartitioner.getSegment(key)), cl.contains(key));
+      }
+   }
+
+   /**
+    * @return the store if it can restrict its bulk operations to some segments, or null if the segment tests do not
+    * apply to it
+    */
+   @SuppressWarnings("unchecked")
+   private SegmentedAdvancedLoadWriteStore<Object, Object> segmentedStore() {
+      return cl instanceof SegmentedAdvancedLoadWriteStore ? (SegmentedAdvancedLoadWriteStore<Object, Object>) cl : null;
+   }
+
+   /**
+    * @return the key partitioner the store uses to find the segment of a key, assuming it was created with the default
+    * test cache configuration
+    */
+   protected KeyPartitioner keyPartitioner() {
+      return PersistenceUtil.getKeyPartitioner(createContext(
+            TestCacheManagerFactory.getDefaultCacheConfiguration(false).build()));
+   }
+
    protected final InitializationContext createContext(Configuration configuration) {
       return PersistenceMockUtil.createContext(getClass().getSimpleName(), configuration, getMarshaller(), timeService);
    }
@@ -0,0 +1,114 @@
+package org.infinispan.persistence;
+
+import static org.infinispan.test.TestingUtil.extractComponent;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.parsing.ParserRegistry;
+import org.infinispan.container.DataContainer;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.test.Exceptions;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the stores are not searched for keys that were never written to them
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "persistence.BloomFilterTest")
+public class BloomFilterTest extends SingleCacheManagerTest {
+   private static final int KEYS = 100;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = getDefaultStandaloneCacheConfig(false);
+      builder.persistence()
+            .bloomFilter(true)
+            .bloomFilterExpectedEntries(10_000)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .storeName(getClass().getName());
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   private DummyInMemoryStore store() {
+      return extractComponent(cache, PersistenceManager.class).getStores(DummyInMemoryStore.class).iterator().next();
+   }
+
+   public void testMissingKeysSkipTheStore() {
+      Cache<String, String> cache = cache();
+      for (int i = 0; i < KEYS; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+      extractComponent(cache, DataContainer.class).clear();
+      DummyInMemoryStore store = store();
+      store.clearStats();
+
+      for (int i = 0; i < KEYS; i++) {
+         assertEquals("v" + i, cache.get("k" + i));
+      }
+      assertEquals(KEYS, store.stats().get("load").intValue());
+
+      store.clearStats();
+      for (int i = 0; i < KEYS; i++) {
+         assertNull(cache.get("missing" + i));
+      }
+      // Only the false positives reach the store
+      assertTrue(store.stats().get("load") < KEYS / 10);
+   }
+
+   public void testFilterIsRebuiltOnStart() {
+      Cache<String, String> cache = cache();
+      cache.put("persistent", "value");
+      cache.stop();
+      cache.start();
+
+      DummyInMemoryStore store = store();
+      assertTrue(store.contains("persistent"));
+      store.clearStats();
+      assertEquals("value", cache.get("persistent"));
+      assertEquals(1, store.stats().get("load").intValue());
+   }
+
+   public void testBloomFilterWithSharedStore() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .bloomFilter(true)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .shared(true);
+      Exceptions.expectException(CacheConfigurationException.class, builder::build);
+   }
+
+   public void testInvalidFalsePositiveRate() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .bloomFilter(true)
+            .bloomFilterFalsePositiveRate(1)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      Exceptions.expectException(CacheConfigurationException.class, builder::build);
+   }
+
+   public void testParsing() {
+      String config = TestingUtil.INFINISPAN_START_TAG_NO_SCHEMA +
+            "<cache-container default-cache=\"default\">" +
+            "   <local-cache name=\"default\">\n" +
+            "      <persistence bloom-filter=\"true\" bloom-filter-expected-entries=\"5000\" bloom-filter-false-positive-rate=\"0.05\"/>\n" +
+            "   </local-cache>\n" +
+            "</cache-container>" +
+            TestingUtil.INFINISPAN_END_TAG;
+      Configuration configuration = new ParserRegistry().parse(config).getDefaultConfigurationBuilder().build();
+      assertTrue(configuration.persistence().bloomFilter());
+      assertEquals(5000, configuration.persistence().bloomFilterExpectedEntries());
+      assertEquals(0.05, configuration.persistence().bloomFilterFalsePositiveRate(), 0);
+   }
+}
@@ -34,6 +34,7 @@
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.AdvancedCacheWriter;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
@@ -336,6 +337,24 @@ public void testPreloadingWithEviction() throws Exception {
       doPreloadingTestWithEviction(preloadingCfg.build(), "preloadingCache_4");
    }
 
+   public void testParallelPreloading() throws Exception {
+      ConfigurationBuilder preloadingCfg = new ConfigurationBuilder();
+      preloadingCfg.read(cfg.build());
+      preloadingCfg.persistence().preloadThreads(3).preloadBatchSize(2).clearStores()
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class).preload(true).storeName(this.getClass().getName() + "preloadingCache_5");
+      doPreloadingTest(preloadingCfg.build(), "preloadingCache_5");
+      assertEquals(4, TestingUtil.extractComponent(cm.getCache("preloadingCache_5"), PersistenceManager.class).getPreloadedEntries());
+   }
+
+   public void testParallelPreloadingWithEviction() throws Exception {
+      ConfigurationBuilder preloadingCfg = new ConfigurationBuilder();
+      preloadingCfg.read(cfg.build());
+      preloadingCfg.persistence().preloadThreads(3).clearStores()
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class).preload(true).storeName(this.getClass().getName() + "preloadingCache_6");
+      preloadingCfg.memory().size(3);
+      doPreloadingTestWithEviction(preloadingCfg.build(), "preloadingCache_6");
+   }
+
    @Test(groups = "unstable")
    public void testPurgeOnStartup() throws PersistenceException {
       ConfigurationBuilder purgingCfg = new ConfigurationBuilder();
@@ -0,0 +1,112 @@
+package org.infinispan.persistence;
+
+import static org.infinispan.test.TestingUtil.extractComponent;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.parsing.ParserRegistry;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.test.Exceptions;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that concurrent write-through modifications are committed to the store in batches
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "persistence.GroupCommitTest")
+public class GroupCommitTest extends SingleCacheManagerTest {
+   private static final int THREADS = 8;
+   private static final int KEYS_PER_THREAD = 50;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = getDefaultStandaloneCacheConfig(false);
+      builder.persistence()
+            .groupCommit(true)
+            .groupCommitWindow(5, TimeUnit.MILLISECONDS)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .storeName(getClass().getName());
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   private DummyInMemoryStore store() {
+      return extractComponent(cache, PersistenceManager.class).getStores(DummyInMemoryStore.class).iterator().next();
+   }
+
+   public void testConcurrentWritesAreBatched() throws Exception {
+      Cache<String, String> cache = cache();
+      DummyInMemoryStore store = store();
+      store.clearStats();
+      List<Future<?>> futures = new ArrayList<>(THREADS);
+      for (int t = 0; t < THREADS; t++) {
+         int thread = t;
+         futures.add(fork(() -> {
+            for (int i = 0; i < KEYS_PER_THREAD; i++) {
+               String key = "k-" + thread + "-" + i;
+               cache.put(key, "v" + i);
+               // The store must already contain the entry when the put returns
+               assertTrue(store.contains(key));
+            }
+            for (int i = 0; i < KEYS_PER_THREAD; i += 2) {
+               String key = "k-" + thread + "-" + i;
+               cache.remove(key);
+               assertFalse(store.contains(key));
+            }
+         }));
+      }
+      for (Future<?> future : futures) {
+         future.get(30, TimeUnit.SECONDS);
+      }
+
+      int writes = THREADS * KEYS_PER_THREAD;
+      assertEquals(writes, store.stats().get("write").intValue());
+      assertEquals(writes / 2, store.stats().get("delete").intValue());
+      assertTrue(store.stats().get("writeBatch") < writes);
+      assertTrue(store.stats().get("deleteBatch") < writes / 2);
+      assertEquals(writes / 2, store.size());
+      for (int t = 0; t < THREADS; t++) {
+         for (int i = 0; i < KEYS_PER_THREAD; i++) {
+            assertEquals(i % 2 == 1, store.contains("k-" + t + "-" + i));
+         }
+      }
+   }
+
+   public void testGroupCommitWithPassivation() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .passivation(true)
+            .groupCommit(true)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      Exceptions.expectException(CacheConfigurationException.class, builder::build);
+   }
+
+   public void testParsing() {
+      String config = TestingUtil.INFINISPAN_START_TAG_NO_SCHEMA +
+            "<cache-container default-cache=\"default\">" +
+            "   <local-cache name=\"default\">\n" +
+            "      <persistence group-commit=\"true\" group-commit-window=\"3\"/>\n" +
+            "   </local-cache>\n" +
+            "</cache-container>" +
+            TestingUtil.INFINISPAN_END_TAG;
+      Configuration configuration = new ParserRegistry().parse(config).getDefaultConfigurationBuilder().build();
+      assertTrue(configuration.persistence().groupCommit());
+      assertEquals(3, configuration.persistence().groupCommitWindow());
+   }
+}
@@ -0,0 +1,236 @@
+package org.infinispan.persistence;
+
+import static org.infinispan.test.TestingUtil.extractComponent;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.CustomStoreConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.context.Flag;
+import org.infinispan.interceptors.impl.CacheLoaderInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.NonBlockingCacheLoader;
+import org.infinispan.persistence.spi.NonBlockingCacheWriter;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the cache does not block the invoking thread while waiting for a non-blocking store, and that blocking
+ * stores of the same cache are still written.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "persistence.NonBlockingStoreTest")
+@CleanupAfterMethod
+public class NonBlockingStoreTest extends SingleCacheManagerTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = getDefaultStandaloneCacheConfig(false);
+      builder.jmxStatistics().enable();
+      builder.persistence()
+            .addStore(CustomStoreConfigurationBuilder.class)
+               .customStoreClass(ControlledStore.class)
+            .persistence()
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .storeName(getClass().getName());
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   private ControlledStore controlledStore() {
+      return extractComponent(cache, PersistenceManager.class).getStores(ControlledStore.class).iterator().next();
+   }
+
+   private DummyInMemoryStore dummyStore() {
+      return extractComponent(cache, PersistenceManager.class).getStores(DummyInMemoryStore.class).iterator().next();
+   }
+
+   public void testWriteDoesNotBlockInvoker() throws Exception {
+      Cache<String, String> cache = cache();
+      ControlledStore store = controlledStore();
+      assertTrue(extractComponent(cache, PersistenceManager.class).isNonBlocking());
+
+      store.block();
+      CompletableFuture<String> put = cache.putAsync("k", "v");
+      // The invocation is suspended until the store completes the write
+      assertFalse(put.isDone());
+      store.unblock();
+      assertNull(put.get(10, TimeUnit.SECONDS));
+
+      assertEquals(1, store.writes.get());
+      assertEquals("v", store.entries.get("k").getValue());
+      // The blocking store is adapted by writing it from the persistence executor
+      assertTrue(dummyStore().contains("k"));
+
+      store.block();
+      CompletableFuture<String> remove = cache.removeAsync("k");
+      assertFalse(remove.isDone());
+      store.unblock();
+      assertEquals("v", remove.get(10, TimeUnit.SECONDS));
+      assertFalse(store.entries.containsKey("k"));
+      assertFalse(dummyStore().contains("k"));
+   }
+
+   public void testLoadDoesNotBlockInvoker() throws Exception {
+      Cache<String, String> cache = cache();
+      ControlledStore store = controlledStore();
+      cache.put("k1", "v1");
+      cache.put("k2", "v2");
+      extractComponent(cache, DataContainer.class).clear();
+
+      store.block();
+      CompletableFuture<String> get = cache.getAsync("k1");
+      assertFalse(get.isDone());
+      store.unblock();
+      assertEquals("v1", get.get(10, TimeUnit.SECONDS));
+      assertTrue(store.loads.get() > 0);
+
+      // Like a blocking load, the loaded entry is added to the data container
+      assertEquals("v1", extractComponent(cache, DataContainer.class).peek("k1").getValue());
+      assertEquals("v2", cache.replace("k2", "v3"));
+      assertEquals("v3", cache.get("k2"));
+      assertEquals("v3", store.entries.get("k2").getValue());
+      assertNull(cache.get("missing"));
+   }
+
+   public void testLoadConcurrentWithRemoval() throws Exception {
+      Cache<String, String> cache = cache();
+      ControlledStore store = controlledStore();
+      cache.put("k1", "v1");
+      extractComponent(cache, DataContainer.class).clear();
+
+      CountDownLatch loadLatch = store.block();
+      CompletableFuture<String> get = cache.getAsync("k1");
+      // The store already read the entry, the removal must not be undone when the load completes
+      store.block().countDown();
+      cache.getAdvancedCache().withFlags(Flag.SKIP_CACHE_LOAD).remove("k1");
+      loadLatch.countDown();
+      assertEquals("v1", get.get(10, TimeUnit.SECONDS));
+
+      assertNull(extractComponent(cache, DataContainer.class).peek("k1"));
+      assertNull(cache.get("k1"));
+   }
+
+   public void testLoadStatistics() {
+      Cache<String, String> cache = cache();
+      CacheLoaderInterceptor interceptor = TestingUtil.findInterceptor(cache, CacheLoaderInterceptor.class);
+      cache.put("k", "v");
+      // The entry is in memory, so the store is not queried
+      assertEquals("v", cache.get("k"));
+      assertEquals(1, interceptor.getMemoryHits());
+
+      extractComponent(cache, DataContainer.class).clear();
+      assertEquals("v", cache.get("k"));
+      assertEquals(1, interceptor.getCacheLoaderLoads());
+      assertEquals(1, interceptor.getMemoryHits());
+   }
+
+   public static class ControlledStore implements NonBlockingCacheLoader<Object, Object>, NonBlockingCacheWriter<Object, Object> {
+      final ConcurrentMap<Object, MarshalledEntry<?, ?>> entries = new ConcurrentHashMap<>();
+      final AtomicInteger loads = new AtomicInteger();
+      final AtomicInteger writes = new AtomicInteger();
+      private volatile CountDownLatch latch = new CountDownLatch(0);
+      private ExecutorService executor;
+
+      CountDownLatch block() {
+         CountDownLatch latch = new CountDownLatch(1);
+         this.latch = latch;
+         return latch;
+      }
+
+      void unblock() {
+         latch.countDown();
+      }
+
+      private <T> CompletionStage<T> whenUnblocked(Supplier<T> action) {
+         CountDownLatch latch = this.latch;
+         return CompletableFuture.supplyAsync(() -> {
+            try {
+               latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+            return action.get();
+         }, executor);
+      }
+
+      @Override
+      public void init(InitializationContext ctx) {
+      }
+
+      @Override
+      public void start() {
+         executor = Executors.newCachedThreadPool();
+      }
+
+      @Override
+      public void stop() {
+         executor.shutdownNow();
+      }
+
+      @Override
+      public MarshalledEntry<Object, Object> load(Object key) {
+         loads.incrementAndGet();
+         return (MarshalledEntry<Object, Object>) entries.get(key);
+      }
+
+      @Override
+      public boolean contains(Object key) {
+         return entries.containsKey(key);
+      }
+
+      @Override
+      public void write(MarshalledEntry<?, ?> entry) {
+         writes.incrementAndGet();
+         entries.put(entry.getKey(), entry);
+      }
+
+      @Override
+      public boolean delete(Object key) {
+         return entries.remove(key) != null;
+      }
+
+      @Override
+      public CompletionStage<MarshalledEntry<Object, Object>> loadAsync(Object key) {
+         // Only the response is delayed
+         MarshalledEntry<Object, Object> loaded = load(key);
+         return whenUnblocked(() -> loaded);
+      }
+
+      @Override
+      public CompletionStage<Void> writeAsync(MarshalledEntry<?, ?> entry) {
+         return whenUnblocked(() -> {
+            write(entry);
+            return null;
+         });
+      }
+
+      @Override
+      public CompletionStage<Boolean> deleteAsync(Object key) {
+         return whenUnblocked(() -> delete(key));
+      }
+   }
+}
@@ -0,0 +1,218 @@
+package org.infinispan.persistence;
+
+import static org.infinispan.test.TestingUtil.extractComponent;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.configuration.parsing.ParserRegistry;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.interceptors.impl.CacheLoaderInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.GlobalMarshaller;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.test.Exceptions;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the activated entries stay in the stores, and are only written again when they were modified in memory
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "persistence.TieredPersistenceTest")
+public class TieredPersistenceTest extends SingleCacheManagerTest {
+
+   private StorageType storage;
+
+   @Factory
+   public Object[] factory() {
+      return new Object[]{
+            new TieredPersistenceTest().withStorage(StorageType.OBJECT),
+            new TieredPersistenceTest().withStorage(StorageType.OFF_HEAP)
+      };
+   }
+
+   @Override
+   protected String parameters() {
+      return "[" + storage + "]";
+   }
+
+   public TieredPersistenceTest withStorage(StorageType storage) {
+      this.storage = storage;
+      return this;
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = getDefaultStandaloneCacheConfig(false);
+      builder.jmxStatistics().enable();
+      builder.memory().storageType(storage);
+      builder.persistence()
+            .passivation(true)
+            .tiered(true)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .storeName(getClass().getName());
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void resetStatistics() {
+      cache.clear();
+      extractComponent(cache, PassivationManager.class).resetStatistics();
+      TestingUtil.findInterceptor(cache, CacheLoaderInterceptor.class).resetStatistics();
+   }
+
+   private DummyInMemoryStore store() {
+      return extractComponent(cache, PersistenceManager.class).getStores(DummyInMemoryStore.class).iterator().next();
+   }
+
+   private Object storeKey(String key) throws Exception {
+      if (storage == StorageType.OFF_HEAP) {
+         GlobalMarshaller gm = TestingUtil.extractGlobalMarshaller(cacheManager);
+         return new WrappedByteArray(gm.objectToByteBuffer(key));
+      }
+      return key;
+   }
+
+   private Object storeValue(String key) throws Exception {
+      Object value = store().load(storeKey(key)).getValue();
+      if (storage == StorageType.OFF_HEAP) {
+         GlobalMarshaller gm = TestingUtil.extractGlobalMarshaller(cacheManager);
+         return gm.objectFromByteBuffer(((WrappedBytes) value).getBytes());
+      }
+      return value;
+   }
+
+   public void testUnmodifiedEntryIsNotWrittenAgain() throws Exception {
+      Cache<String, String> cache = cache();
+      DummyInMemoryStore store = store();
+      PassivationManager passivationManager = extractComponent(cache, PassivationManager.class);
+      cache.put("k", "v");
+      cache.evict("k");
+      assertTrue(store.contains(storeKey("k")));
+      assertEquals(1, passivationManager.getPassivations());
+
+      store.clearStats();
+      assertEquals("v", cache.get("k"));
+      // The activated entry stays in the store
+      assertTrue(store.contains(storeKey("k")));
+      assertEquals(0, store.stats().get("delete").intValue());
+
+      cache.evict("k");
+      assertEquals(0, store.stats().get("write").intValue());
+      assertEquals(1, passivationManager.getPassivations());
+      assertEquals(1, passivationManager.getSkippedPassivations());
+      assertEquals("v", cache.get("k"));
+   }
+
+   public void testModifiedEntryIsWritten() throws Exception {
+      Cache<String, String> cache = cache();
+      DummyInMemoryStore store = store();
+      cache.put("k", "v1");
+      cache.evict("k");
+      assertEquals("v1", cache.get("k"));
+
+      cache.put("k", "v2");
+      store.clearStats();
+      cache.evict("k");
+      assertEquals(1, store.stats().get("write").intValue());
+      assertEquals("v2", storeValue("k"));
+      assertEquals("v2", cache.get("k"));
+   }
+
+   public void testEntryWithNewMetadataIsWritten() throws Exception {
+      Cache<String, String> cache = cache();
+      DummyInMemoryStore store = store();
+      cache.put("k", "v");
+      cache.evict("k");
+      assertEquals("v", cache.get("k"));
+
+      // Same value, but the entry is updated in place with the new lifespan
+      cache.put("k", "v", 1, TimeUnit.HOURS);
+      store.clearStats();
+      cache.evict("k");
+      assertEquals(1, store.stats().get("write").intValue());
+      assertEquals(TimeUnit.HOURS.toMillis(1), store.load(storeKey("k")).getMetadata().lifespan());
+   }
+
+   public void testRemoveDeletesActivatedEntry() throws Exception {
+      Cache<String, String> cache = cache();
+      DummyInMemoryStore store = store();
+      cache.put("k", "v");
+      cache.evict("k");
+      assertEquals("v", cache.get("k"));
+      assertTrue(store.contains(storeKey("k")));
+
+      cache.remove("k");
+      assertFalse(store.contains(storeKey("k")));
+      cache.put("k", "v2");
+      cache.evict("k");
+      assertEquals("v2", cache.get("k"));
+   }
+
+   public void testTierStatistics() {
+      Cache<String, String> cache = cache();
+      CacheLoaderInterceptor interceptor = TestingUtil.findInterceptor(cache, CacheLoaderInterceptor.class);
+      ActivationManager activationManager = extractComponent(cache, ActivationManager.class);
+      long activations = activationManager.getActivationCount();
+      cache.put("k", "v");
+      assertEquals("v", cache.get("k"));
+      assertEquals(1, interceptor.getMemoryHits());
+
+      cache.evict("k");
+      assertEquals("v", cache.get("k"));
+      assertEquals(1, interceptor.getCacheLoaderLoads());
+      assertEquals(activations + 1, activationManager.getActivationCount());
+
+      long misses = interceptor.getCacheLoaderMisses();
+      cache.get("missing");
+      assertEquals(misses + 1, interceptor.getCacheLoaderMisses());
+   }
+
+   public void testTieredRequiresPassivation() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .tiered(true)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      Exceptions.expectException(CacheConfigurationException.class, builder::build);
+   }
+
+   public void testTieredWithSharedStore() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .passivation(true)
+            .tiered(true)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .shared(true);
+      Exceptions.expectException(CacheConfigurationException.class, builder::build);
+   }
+
+   public void testParsing() {
+      String config = TestingUtil.INFINISPAN_START_TAG_NO_SCHEMA +
+            "<cache-container default-cache=\"default\">" +
+            "   <local-cache name=\"default\">\n" +
+            "      <persistence passivation=\"true\" tiered=\"true\"/>\n" +
+            "   </local-cache>\n" +
+            "</cache-container>" +
+            TestingUtil.INFINISPAN_END_TAG;
+      Configuration configuration = new ParserRegistry().parse(config).getDefaultConfigurationBuilder().build();
+      assertTrue(configuration.persistence().tiered());
+   }
+}
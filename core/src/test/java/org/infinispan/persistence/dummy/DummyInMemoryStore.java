@@ -133,6 +133,18 @@ public boolean delete(Object key) {
       return false;
    }
 
+   @Override
+   public void writeBatch(Iterable entries) {
+      record("writeBatch");
+      entries.forEach(entry -> write((MarshalledEntry) entry));
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      record("deleteBatch");
+      keys.forEach(this::delete);
+   }
+
    @Override
    public void purge(Executor executor, ExpirationPurgeListener listener) {
       long currentTimeMillis = timeService.wallClockTime();
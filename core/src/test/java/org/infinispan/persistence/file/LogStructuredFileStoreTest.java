@@ -0,0 +1,293 @@
+package org.infinispan.persistence.file;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.test.Exceptions;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+/**
+ * Low level tests of the log structured mode of the single-file cache store.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "persistence.file.LogStructuredFileStoreTest")
+public class LogStructuredFileStoreTest extends SingleFileStoreTest {
+   private static final int MAX_FILE_SIZE = 4096;
+
+   @Factory
+   @Override
+   public Object[] factory() {
+      return new Object[]{
+            new LogStructuredFileStoreTest().withStorageType(StorageType.OFF_HEAP),
+            new LogStructuredFileStoreTest().withStorageType(StorageType.BINARY),
+            new LogStructuredFileStoreTest().withStorageType(StorageType.OBJECT),
+      };
+   }
+
+   @BeforeClass(alwaysRun = true)
+   @Override
+   protected void setUpTempDir() {
+      // The store creates new files while running, so instances must not clear each other's directory
+      tmpDirectory = TestingUtil.tmpDirectory(getClass().getSimpleName() + "-" + storage);
+   }
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      clearTempDir();
+      return newStore();
+   }
+
+   /**
+    * Creates a store using the same directory as the current one
+    */
+   private SingleFileStore<Object, Object> newStore() {
+      SingleFileStore<Object, Object> store = new SingleFileStore();
+      ConfigurationBuilder configurationBuilder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      configurationBuilder
+            .persistence()
+               .addStore(SingleFileStoreConfigurationBuilder.class)
+                  .location(this.tmpDirectory)
+                  .logStructured(true)
+                  .maxFileSize(MAX_FILE_SIZE)
+                  .compactionThreshold(0.5)
+            .memory()
+               .storageType(storage);
+      store.init(createContext(configurationBuilder.build()));
+      return store;
+   }
+
+   private LogStructuredFileStore<Object, Object> logStore() {
+      return ((SingleFileStore<Object, Object>) cl).getLogStore();
+   }
+
+   private File directory() {
+      return new File(tmpDirectory, "mock-cache-" + getClass().getSimpleName());
+   }
+
+   private File newestLogFile() {
+      File[] files = directory().listFiles((dir, name) -> name.endsWith(".log"));
+      return Arrays.stream(files)
+            .max(Comparator.comparingInt(f -> Integer.parseInt(f.getName().substring(0, f.getName().indexOf('.')))))
+            .get();
+   }
+
+   private static void flipLastByte(File file) throws IOException {
+      try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+         long position = raf.length() - 1;
+         raf.seek(position);
+         int b = raf.read();
+         raf.seek(position);
+         raf.write(~b);
+      }
+   }
+
+   public void testOverwritesAreCompacted() {
+      int keys = 10;
+      for (int round = 0; round < 100; round++) {
+         for (int i = 0; i < keys; i++) {
+            cl.write(marshalledEntry("k" + i, "v" + round, null));
+         }
+      }
+      // Only the latest records are live, so compaction must reclaim most of the files
+      eventually(() -> logStore().getFileCount() <= 3);
+      assertEquals(keys, cl.size());
+      for (int i = 0; i < keys; i++) {
+         assertEquals("v99", unwrap(cl.load("k" + i).getValue()));
+      }
+   }
+
+   public void testRemovalsSurviveRestartAfterCompaction() {
+      for (int i = 0; i < 200; i++) {
+         cl.write(marshalledEntry("k" + i, "v" + i, null));
+      }
+      for (int i = 0; i < 200; i += 2) {
+         assertTrue(cl.delete("k" + i));
+      }
+      for (int round = 0; round < 50; round++) {
+         cl.write(marshalledEntry("k1", "v" + round, null));
+      }
+      cl.stop();
+      cl.start();
+
+      assertEquals(100, cl.size());
+      for (int i = 0; i < 200; i++) {
+         if (i % 2 == 0) {
+            assertFalse(cl.contains("k" + i));
+            assertNull(cl.load("k" + i));
+         } else if (i == 1) {
+            assertEquals("v49", unwrap(cl.load("k1").getValue()));
+         } else {
+            assertEquals("v" + i, unwrap(cl.load("k" + i).getValue()));
+         }
+      }
+   }
+
+   public void testRemovalsAreNotCopiedForever() {
+      // Fill the oldest file with live records, so that it is never compacted
+      for (int i = 0; i < 50; i++) {
+         cl.write(marshalledEntry("live" + i, "v" + i, null));
+      }
+      for (int i = 0; i < 1000; i++) {
+         cl.write(marshalledEntry("k" + i, "v" + i, null));
+         assertTrue(cl.delete("k" + i));
+      }
+      // The removals are dropped once the files of the removed records are compacted
+      eventually(() -> logStore().getFileCount() <= 4);
+      cl.stop();
+      cl.start();
+
+      assertEquals(50, cl.size());
+      for (int i = 0; i < 1000; i++) {
+         assertNull(cl.load("k" + i));
+      }
+   }
+
+   public void testConcurrentWrites() throws Exception {
+      int threads = 4;
+      int keysPerThread = 500;
+      List<Future<?>> futures = new ArrayList<>(threads);
+      for (int t = 0; t < threads; t++) {
+         int thread = t;
+         futures.add(fork(() -> {
+            for (int round = 0; round < 3; round++) {
+               for (int i = 0; i < keysPerThread; i++) {
+                  String key = "k-" + thread + "-" + i;
+                  cl.write(marshalledEntry(key, "v" + round, null));
+                  assertEquals("v" + round, unwrap(cl.load(key).getValue()));
+               }
+            }
+         }));
+      }
+      for (Future<?> future : futures) {
+         future.get(30, TimeUnit.SECONDS);
+      }
+      cl.stop();
+      cl.start();
+
+      assertEquals(threads * keysPerThread, cl.size());
+      for (int t = 0; t < threads; t++) {
+         for (int i = 0; i < keysPerThread; i++) {
+            assertEquals("v2", unwrap(cl.load("k-" + t + "-" + i).getValue()));
+         }
+      }
+   }
+
+   public void testCorruptRecordIsNotServed() throws Exception {
+      cl.write(marshalledEntry("k1", "v1", null));
+      flipLastByte(newestLogFile());
+
+      Exceptions.expectException(PersistenceException.class, () -> cl.load("k1"));
+   }
+
+   public void testRecoveryOnlyReplaysRecordsAfterCheckpoint() throws Exception {
+      for (int i = 0; i < 100; i++) {
+         cl.write(marshalledEntry("k" + i, "v" + i, null));
+      }
+      logStore().forceCheckpoint();
+      for (int i = 0; i < 10; i++) {
+         assertTrue(cl.delete("k" + i));
+      }
+      for (int i = 100; i < 150; i++) {
+         cl.write(marshalledEntry("k" + i, "v" + i, null));
+      }
+      // A torn write of the last record
+      flipLastByte(newestLogFile());
+
+      // Recover without stopping the store, as if it had crashed
+      SingleFileStore<Object, Object> recovered = newStore();
+      recovered.start();
+      try {
+         // The 10 removals and 49 intact writes
+         assertEquals(59, recovered.getLogStore().getReplayedRecords());
+         assertEquals(139, recovered.size());
+         for (int i = 0; i < 150; i++) {
+            if (i < 10 || i == 149) {
+               assertNull(recovered.load("k" + i));
+            } else {
+               assertEquals("v" + i, unwrap(recovered.load("k" + i).getValue()));
+            }
+         }
+      } finally {
+         recovered.stop();
+      }
+   }
+
+   public void testPeriodicCheckpointSkippedWithFewChanges() throws Exception {
+      for (int i = 0; i < 100; i++) {
+         cl.write(marshalledEntry("k" + i, "v" + i, null));
+      }
+      logStore().forceCheckpoint();
+      File checkpoint = new File(directory(), "index.checkpoint");
+      byte[] written = Files.readAllBytes(checkpoint.toPath());
+
+      // Replaying 5 records is cheaper than rewriting the index of 100 entries
+      for (int i = 0; i < 5; i++) {
+         cl.write(marshalledEntry("k" + i, "v" + i + "-2", null));
+      }
+      logStore().runPeriodicCheckpoint();
+      assertTrue(Arrays.equals(written, Files.readAllBytes(checkpoint.toPath())));
+
+      for (int i = 5; i < 50; i++) {
+         cl.write(marshalledEntry("k" + i, "v" + i + "-2", null));
+      }
+      logStore().runPeriodicCheckpoint();
+      assertFalse(Arrays.equals(written, Files.readAllBytes(checkpoint.toPath())));
+
+      SingleFileStore<Object, Object> recovered = newStore();
+      recovered.start();
+      try {
+         assertEquals(0, recovered.getLogStore().getReplayedRecords());
+         for (int i = 0; i < 100; i++) {
+            assertEquals(i < 50 ? "v" + i + "-2" : "v" + i, unwrap(recovered.load("k" + i).getValue()));
+         }
+      } finally {
+         recovered.stop();
+      }
+   }
+
+   public void testRecoveryWithCorruptCheckpoint() throws Exception {
+      for (int i = 0; i < 100; i++) {
+         cl.write(marshalledEntry("k" + i, "v" + i, null));
+      }
+      for (int i = 0; i < 100; i += 2) {
+         assertTrue(cl.delete("k" + i));
+      }
+      cl.stop();
+      flipLastByte(new File(directory(), "index.checkpoint"));
+      cl.start();
+
+      // The index is rebuilt from all files
+      assertTrue(logStore().getReplayedRecords() > 0);
+      assertEquals(50, cl.size());
+      for (int i = 0; i < 100; i++) {
+         if (i % 2 == 0) {
+            assertNull(cl.load("k" + i));
+         } else {
+            assertEquals("v" + i, unwrap(cl.load("k" + i).getValue()));
+         }
+      }
+   }
+}
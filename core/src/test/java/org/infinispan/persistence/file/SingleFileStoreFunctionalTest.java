@@ -4,6 +4,7 @@
 import static org.infinispan.test.TestingUtil.INFINISPAN_START_TAG_NO_SCHEMA;
 import static org.infinispan.test.TestingUtil.withCacheManager;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -103,4 +104,32 @@ public void call() {
       Util.recursiveFileRemove("other-location");
    }
 
+   public void testParsingLogStructuredElement() throws Exception {
+      String config = INFINISPAN_START_TAG_NO_SCHEMA +
+            "<cache-container default-cache=\"default\">" +
+            "   <local-cache name=\"default\">\n" +
+            "      <persistence passivation=\"false\"> \n" +
+            "         <file-store path=\"log-location\" log-structured=\"true\" max-file-size=\"1024\" compaction-threshold=\"0.25\" checkpoint-interval=\"1000\"/> \n" +
+            "      </persistence>\n" +
+            "   </local-cache>\n" +
+            "</cache-container>" +
+            INFINISPAN_END_TAG;
+      InputStream is = new ByteArrayInputStream(config.getBytes());
+      withCacheManager(new CacheManagerCallable(TestCacheManagerFactory.fromStream(is)) {
+         @Override
+         public void call() {
+            Cache<Object, Object> cache = cm.getCache();
+            cache.put(1, "v1");
+            assertEquals("v1", cache.get(1));
+            SingleFileStore store = (SingleFileStore) TestingUtil.getFirstLoader(cache);
+            assertTrue(store.getConfiguration().logStructured());
+            assertEquals(1024, store.getConfiguration().maxFileSize());
+            assertEquals(0.25, store.getConfiguration().compactionThreshold(), 0d);
+            assertEquals(1000, store.getConfiguration().checkpointInterval());
+            assertEquals(1, store.size());
+         }
+      });
+      Util.recursiveFileRemove("log-location");
+   }
+
 }
@@ -7,6 +7,7 @@
 import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
 import static org.testng.AssertJUnit.fail;
 
 import java.lang.reflect.Method;
@@ -17,6 +18,7 @@
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.infinispan.Cache;
@@ -24,6 +26,7 @@
 import org.infinispan.commons.configuration.BuiltBy;
 import org.infinispan.commons.configuration.ConfigurationFor;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.AsyncStoreConfiguration;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
@@ -548,6 +551,145 @@ public void run() {
       assertEquals(3, underlying.threads.size());
    }
 
+   public void testModificationQueueMaxBytes(final Method m) throws Exception {
+      LockableStore underlying = new LockableStore();
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      LockableStoreConfigurationBuilder lcscsBuilder = (LockableStoreConfigurationBuilder) builder
+            .persistence()
+            .addStore(new LockableStoreConfigurationBuilder(builder.persistence()));
+      lcscsBuilder.async()
+            .modificationQueueSize(1000)
+            .modificationQueueMaxBytes(500);
+
+      writer = new AdvancedAsyncCacheWriter(underlying);
+      InitializationContext ctx =
+            PersistenceMockUtil.createContext(getClass().getSimpleName(), builder.build(), marshaller);
+      writer.init(ctx);
+      writer.start();
+      underlying.init(ctx);
+      underlying.start();
+      try {
+         final CountDownLatch done = new CountDownLatch(1);
+
+         underlying.lock.lock();
+         try {
+            fork(() -> {
+               for (int i = 0; i < 100; i++)
+                  writer.write(new MarshalledEntryImpl(k(m, i), v(m, i), null, marshaller()));
+               done.countDown();
+            });
+
+            assertFalse("Background thread should have blocked after adding 500 bytes", done.await(1, TimeUnit.SECONDS));
+            assertTrue(writer.getQueueBytes() >= 500);
+            assertTrue(writer.getQueueSize() < 100);
+            assertTrue(writer.getLag() > 0);
+         } finally {
+            underlying.lock.unlock();
+         }
+         assertTrue(done.await(10, TimeUnit.SECONDS));
+      } finally {
+         writer.stop();
+      }
+      eventuallyEquals(0, writer::getQueueSize);
+      eventuallyEquals(0L, writer::getLag);
+   }
+
+   public void testJournalReplay(final Method m) throws Exception {
+      String location = TestingUtil.tmpDirectory(getClass());
+      Util.recursiveFileRemove(location);
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      LockableStoreConfigurationBuilder lcscsBuilder = (LockableStoreConfigurationBuilder) builder
+            .persistence()
+            .addStore(new LockableStoreConfigurationBuilder(builder.persistence()));
+      lcscsBuilder.storeName(m.getName());
+      lcscsBuilder.async().journalLocation(location);
+      Configuration configuration = builder.build();
+
+      LockableStore underlying = new LockableStore();
+      writer = new AdvancedAsyncCacheWriter(underlying);
+      InitializationContext ctx = PersistenceMockUtil.createContext(getClass().getSimpleName(), configuration, marshaller);
+      underlying.init(ctx);
+      underlying.start();
+      writer.init(ctx);
+      writer.start();
+      AdvancedAsyncCacheWriter recovered = null;
+      underlying.lock.lock();
+      try {
+         for (int i = 0; i < 10; i++)
+            writer.write(new MarshalledEntryImpl(k(m, i), v(m, i), null, marshaller()));
+         writer.delete(k(m, 0));
+
+         // The underlying store is blocked, a new writer using the same journal behaves as after a crash
+         LockableStore recoveredUnderlying = new LockableStore();
+         recovered = new AdvancedAsyncCacheWriter(recoveredUnderlying);
+         recoveredUnderlying.init(ctx);
+         recoveredUnderlying.start();
+         recovered.init(ctx);
+         recovered.start();
+
+         assertFalse(recoveredUnderlying.contains(k(m, 0)));
+         for (int i = 1; i < 10; i++) {
+            assertEquals(v(m, i), recoveredUnderlying.load(k(m, i)).getValue());
+         }
+      } finally {
+         underlying.lock.unlock();
+         if (recovered != null)
+            recovered.stop();
+      }
+   }
+
+   public void testJournalKeptAfterFailure(final Method m) throws Exception {
+      String location = TestingUtil.tmpDirectory(getClass());
+      Util.recursiveFileRemove(location);
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      LockableStoreConfigurationBuilder lcscsBuilder = (LockableStoreConfigurationBuilder) builder
+            .persistence()
+            .addStore(new LockableStoreConfigurationBuilder(builder.persistence()));
+      lcscsBuilder.storeName(m.getName());
+      lcscsBuilder.async().journalLocation(location);
+      Configuration configuration = builder.build();
+
+      FailingStore underlying = new FailingStore();
+      writer = new AdvancedAsyncCacheWriter(underlying);
+      InitializationContext ctx = PersistenceMockUtil.createContext(getClass().getSimpleName(), configuration, marshaller);
+      underlying.init(ctx);
+      underlying.start();
+      writer.init(ctx);
+      writer.start();
+      writer.write(new MarshalledEntryImpl(k(m, 1), v(m, 1), null, marshaller()));
+      // The modification is not applied and the store gives up after 3 attempts
+      eventuallyEquals(3, () -> underlying.attempts.get());
+      writer.stop();
+
+      // The journal location depends on the store class
+      FailingStore recoveredUnderlying = new FailingStore();
+      recoveredUnderlying.failing = false;
+      AdvancedAsyncCacheWriter recovered = new AdvancedAsyncCacheWriter(recoveredUnderlying);
+      recoveredUnderlying.init(ctx);
+      recoveredUnderlying.start();
+      recovered.init(ctx);
+      try {
+         recovered.start();
+         assertEquals(v(m, 1), recoveredUnderlying.load(k(m, 1)).getValue());
+      } finally {
+         recovered.stop();
+      }
+   }
+
+   public static class FailingStore extends LockableStore {
+      private final AtomicInteger attempts = new AtomicInteger();
+      private volatile boolean failing = true;
+
+      @Override
+      public void write(MarshalledEntry entry) {
+         if (failing) {
+            attempts.incrementAndGet();
+            throw new PersistenceException("Induced failure");
+         }
+         super.write(entry);
+      }
+   }
+
    private static abstract class OneEntryCacheManagerCallable extends CacheManagerCallable {
       protected final Cache<String, String> cache;
       protected final LockableStore store;
@@ -0,0 +1,123 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import static org.infinispan.test.TestingUtil.extractGlobalComponent;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.configuration.parsing.ParserRegistry;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.inboundhandler.InboundInvocationHandler;
+import org.infinispan.remoting.inboundhandler.Reply;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.CommandBatch;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.xsite.XSiteReplicateCommand;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the asynchronous commands are packed in {@link CommandBatch} messages, and still applied in order.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "remoting.transport.jgroups.CommandBatchingTest")
+public class CommandBatchingTest extends MultipleCacheManagersTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_ASYNC, false);
+      for (int i = 0; i < 2; i++) {
+         GlobalConfigurationBuilder globalBuilder = GlobalConfigurationBuilder.defaultClusteredBuilder();
+         globalBuilder.transport().commandBatchingLatency(10, TimeUnit.MILLISECONDS);
+         addClusterEnabledCacheManager(globalBuilder, builder);
+      }
+      waitForClusterToForm();
+   }
+
+   public void testBurstOfAsyncWrites() {
+      CountingInboundInvocationHandler handler = countBatches(manager(1));
+      Cache<Object, Integer> cache0 = cache(0);
+      Cache<Object, Integer> cache1 = cache(1);
+      // Writes forwarded to a remote primary owner are synchronous, only the backups are batched
+      MagicKey counter = new MagicKey("counter", cache0);
+      int count = 200;
+      MagicKey[] keys = new MagicKey[count];
+      for (int i = 0; i < count; i++) {
+         keys[i] = new MagicKey("k" + i, cache0);
+         cache0.put(counter, i);
+         cache0.put(keys[i], i);
+      }
+
+      Cache<Object, Integer> localCache1 = cache1.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL);
+      eventuallyEquals(count - 1, () -> localCache1.get(counter));
+      for (int i = 0; i < count; i++) {
+         MagicKey key = keys[i];
+         eventuallyEquals(i, () -> localCache1.get(key));
+      }
+      assertTrue(handler.batches.get() > 0);
+   }
+
+   public void testSyncCommandAfterAsyncCommands() {
+      Cache<String, Integer> cache0 = cache(0);
+      Cache<String, Integer> cache1 = cache(1);
+      for (int i = 0; i < 10; i++) {
+         cache0.put("k" + i, i);
+      }
+      // The synchronous request sends the pending commands first
+      assertEquals(Integer.valueOf(9), cache0.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).put("k9", 10));
+      assertEquals(Integer.valueOf(10), cache1.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).get("k9"));
+   }
+
+   public void testParsing() {
+      String config = TestingUtil.INFINISPAN_START_TAG_NO_SCHEMA +
+            "<cache-container>" +
+            "   <transport command-batching-latency=\"500\"/>\n" +
+            "</cache-container>" +
+            TestingUtil.INFINISPAN_END_TAG;
+      GlobalConfiguration configuration = new ParserRegistry().parse(config).getGlobalConfigurationBuilder().build();
+      assertEquals(500, configuration.transport().commandBatchingLatency());
+   }
+
+   private CountingInboundInvocationHandler countBatches(EmbeddedCacheManager manager) {
+      JGroupsTransport transport = (JGroupsTransport) extractGlobalComponent(manager, Transport.class);
+      CountingInboundInvocationHandler handler =
+            new CountingInboundInvocationHandler(extractGlobalComponent(manager, InboundInvocationHandler.class));
+      TestingUtil.replaceField(handler, "invocationHandler", transport, JGroupsTransport.class);
+      return handler;
+   }
+
+   private static class CountingInboundInvocationHandler implements InboundInvocationHandler {
+      final AtomicInteger batches = new AtomicInteger();
+      private final InboundInvocationHandler delegate;
+
+      CountingInboundInvocationHandler(InboundInvocationHandler delegate) {
+         this.delegate = delegate;
+      }
+
+      @Override
+      public void handleFromCluster(Address origin, ReplicableCommand command, Reply reply, DeliverOrder order) {
+         if (command instanceof CommandBatch) {
+            batches.incrementAndGet();
+         }
+         delegate.handleFromCluster(origin, command, reply, order);
+      }
+
+      @Override
+      public void handleFromRemoteSite(String origin, XSiteReplicateCommand command, Reply reply, DeliverOrder order) {
+         delegate.handleFromRemoteSite(origin, command, reply, order);
+      }
+   }
+}
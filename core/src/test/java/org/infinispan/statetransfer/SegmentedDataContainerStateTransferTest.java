@@ -0,0 +1,69 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the segmented data container drops the segments a node no longer owns after a rebalance.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "statetransfer.SegmentedDataContainerStateTransferTest")
+@CleanupAfterMethod
+public class SegmentedDataContainerStateTransferTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_KEYS = 100;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      createClusteredCaches(2, createConfigurationBuilder());
+   }
+
+   private ConfigurationBuilder createConfigurationBuilder() {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1).numSegments(20);
+      builder.memory().segmented(true);
+      return builder;
+   }
+
+   public void testLostSegmentsRemoved() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+
+      addClusterEnabledCacheManager(createConfigurationBuilder());
+      waitForClusterToForm();
+
+      // Every key has a single owner, the copies left on the previous owners are removed after the rebalance
+      eventuallyEquals(NUM_KEYS, () -> caches().stream().mapToInt(c -> dataContainer(c).size()).sum());
+      for (Cache<Object, Object> cache : caches()) {
+         DataContainer<Object, Object> dataContainer = dataContainer(cache);
+         assertTrue(dataContainer instanceof SegmentedDataContainer);
+         DistributionManager dm = cache.getAdvancedCache().getDistributionManager();
+         for (InternalCacheEntry<Object, Object> entry : dataContainer) {
+            assertTrue(entry.getKey() + " is not owned by " + address(cache),
+                  dm.getCacheTopology().isReadOwner(entry.getKey()));
+         }
+      }
+
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals("v" + i, cache(2).get("k" + i));
+      }
+   }
+
+   private static DataContainer<Object, Object> dataContainer(Cache<Object, Object> cache) {
+      return TestingUtil.extractComponent(cache, DataContainer.class);
+   }
+}
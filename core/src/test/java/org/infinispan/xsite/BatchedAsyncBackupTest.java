@@ -0,0 +1,104 @@
+package org.infinispan.xsite;
+
+import static org.infinispan.test.TestingUtil.extractComponent;
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.BackupConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the asynchronous backups sent in batches.
+ *
+ * @since 9.2
+ */
+@Test(groups = "xsite", testName = "xsite.BatchedAsyncBackupTest")
+public class BatchedAsyncBackupTest extends NonTxAsyncBackupTest {
+
+   private static final int BATCH_SIZE = 10;
+
+   @Override
+   protected void adaptLONConfiguration(BackupConfigurationBuilder builder) {
+      builder.asyncBatchSize(BATCH_SIZE).asyncQueueSize(100);
+   }
+
+   public void testManyWrites() {
+      blockingInterceptor.isActive = false;
+      try {
+         doManyWrites();
+      } finally {
+         blockingInterceptor.isActive = true;
+      }
+   }
+
+   private void doManyWrites() {
+      Map<String, String> values = new HashMap<>();
+      for (int i = 0; i < 100; i++) {
+         values.put("k" + i, "v" + i);
+      }
+      for (Map.Entry<String, String> entry : values.entrySet()) {
+         cache(LON, 0).put(entry.getKey(), entry.getValue());
+      }
+      for (int i = 0; i < 10; i++) {
+         cache(LON, 1).put("k0", "v0_" + i);
+      }
+      values.put("k0", "v0_9");
+      cache(LON, 0).remove("k1");
+      values.remove("k1");
+      cache(LON, 1).putAll(values);
+
+      for (Map.Entry<String, String> entry : values.entrySet()) {
+         eventuallyEquals(entry.getValue(), () -> backup(LON).get(entry.getKey()));
+      }
+      eventuallyEquals(null, () -> backup(LON).get("k1"));
+      assertQueuesDrained();
+   }
+
+   public void testCoalescedWrites() throws Exception {
+      cache(LON, 0).put("k", "v");
+      //the first write is in flight, the next ones are queued
+      blockingInterceptor.invocationReceivedLatch.await(20000, TimeUnit.MILLISECONDS);
+      for (int i = 0; i < 10; i++) {
+         cache(LON, 0).put("k", "v" + i);
+      }
+      int queued = 0;
+      for (Cache<?, ?> cache : caches(LON)) {
+         queued += Integer.parseInt(admin(cache).getAsyncQueueSize(NYC));
+      }
+      assertEquals(1, queued);
+      eventually(() -> maxLag() > 0);
+
+      blockingInterceptor.waitingLatch.countDown();
+      eventuallyEquals("v9", () -> backup(LON).get("k"));
+      assertQueuesDrained();
+   }
+
+   public void testUnknownSite() {
+      XSiteAdminOperations admin = admin(cache(LON, 0));
+      assertEquals("Incorrect site name: SFO", admin.getAsyncQueueSize("SFO"));
+      assertEquals("Incorrect site name: SFO", admin.getAsyncReplicationLag("SFO"));
+   }
+
+   private void assertQueuesDrained() {
+      for (Cache<?, ?> cache : caches(LON)) {
+         eventuallyEquals("0", () -> admin(cache).getAsyncQueueSize(NYC));
+         eventuallyEquals("0", () -> admin(cache).getAsyncReplicationLag(NYC));
+      }
+   }
+
+   private long maxLag() {
+      long lag = 0;
+      for (Cache<?, ?> cache : caches(LON)) {
+         lag = Math.max(lag, Long.parseLong(admin(cache).getAsyncReplicationLag(NYC)));
+      }
+      return lag;
+   }
+
+   private static XSiteAdminOperations admin(Cache<?, ?> cache) {
+      return extractComponent(cache, XSiteAdminOperations.class);
+   }
+}
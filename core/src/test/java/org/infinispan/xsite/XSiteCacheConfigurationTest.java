@@ -8,6 +8,7 @@
 import org.infinispan.configuration.cache.BackupFailurePolicy;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.transaction.TransactionMode;
 import org.testng.annotations.Test;
 
 /**
@@ -100,6 +101,18 @@ public void testTwoPhaseCommitAsyncBackup() {
       cb.build();
    }
 
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testAsyncBatchSizeTransactional() {
+      ConfigurationBuilder cb = new ConfigurationBuilder();
+      cb.transaction().transactionMode(TransactionMode.TRANSACTIONAL);
+      cb.
+            sites().addBackup()
+               .site("LON")
+               .strategy(BackupConfiguration.BackupStrategy.ASYNC)
+               .asyncBatchSize(10);
+      cb.build();
+   }
+
    public void testMultipleCachesWithNoCacheName() {
       ConfigurationBuilder cb = new ConfigurationBuilder();
       cb.
@@ -61,12 +61,16 @@ protected void writeJDBCStoreTable(XMLExtendedStreamWriter writer, Element eleme
       attributes.write(writer, TableManipulationConfiguration.TABLE_NAME_PREFIX, Attribute.PREFIX);
       attributes.write(writer, TableManipulationConfiguration.BATCH_SIZE, Attribute.BATCH_SIZE);
       attributes.write(writer, TableManipulationConfiguration.FETCH_SIZE, Attribute.FETCH_SIZE);
+      attributes.write(writer, TableManipulationConfiguration.SCAN_PARALLELISM, Attribute.SCAN_PARALLELISM);
       attributes.write(writer, TableManipulationConfiguration.CREATE_ON_START, Attribute.CREATE_ON_START);
       attributes.write(writer, TableManipulationConfiguration.DROP_ON_EXIT, Attribute.DROP_ON_EXIT);
 
       writeJDBCStoreColumn(writer, Element.ID_COLUMN, attributes, TableManipulationConfiguration.ID_COLUMN_NAME, TableManipulationConfiguration.ID_COLUMN_TYPE);
       writeJDBCStoreColumn(writer, Element.DATA_COLUMN, attributes, TableManipulationConfiguration.DATA_COLUMN_NAME, TableManipulationConfiguration.DATA_COLUMN_TYPE);
       writeJDBCStoreColumn(writer, Element.TIMESTAMP_COLUMN, attributes, TableManipulationConfiguration.TIMESTAMP_COLUMN_NAME, TableManipulationConfiguration.TIMESTAMP_COLUMN_TYPE);
+      if (attributes.attribute(TableManipulationConfiguration.SEGMENT_COLUMN_NAME).isModified()) {
+         writeJDBCStoreColumn(writer, Element.SEGMENT_COLUMN, attributes, TableManipulationConfiguration.SEGMENT_COLUMN_NAME, TableManipulationConfiguration.SEGMENT_COLUMN_TYPE);
+      }
 
       writer.writeEndElement();
    }
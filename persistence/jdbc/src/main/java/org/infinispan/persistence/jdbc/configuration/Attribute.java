@@ -29,6 +29,7 @@ public enum Attribute {
    PASSWORD("password"),
    PREFIX("prefix"),
    PROPERTIES_FILE("properties-file"),
+   SCAN_PARALLELISM("scan-parallelism"),
    TYPE("type"),
    USERNAME("username")
    ;
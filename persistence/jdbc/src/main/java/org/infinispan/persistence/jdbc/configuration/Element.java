@@ -25,6 +25,7 @@ public enum Element {
 
    DATA_COLUMN("data-column"),
    ID_COLUMN("id-column"),
+   SEGMENT_COLUMN("segment-column"),
    TIMESTAMP_COLUMN("timestamp-column"), ;
 
    private final String name;
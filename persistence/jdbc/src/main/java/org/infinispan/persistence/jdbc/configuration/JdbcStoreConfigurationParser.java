@@ -228,6 +228,10 @@ private void parseTable(XMLExtendedStreamReader reader, TableManipulationConfigu
                builder.tableNamePrefix(value);
                break;
             }
+            case SCAN_PARALLELISM: {
+               builder.scanParallelism(Integer.parseInt(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -259,6 +263,12 @@ private void parseTableElements(XMLExtendedStreamReader reader, TableManipulatio
                builder.timestampColumnType(column.type);
                break;
             }
+            case SEGMENT_COLUMN: {
+               Column column = parseTableElementAttributes(reader);
+               builder.segmentColumnName(column.name);
+               builder.segmentColumnType(column.type);
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedElement(reader);
             }
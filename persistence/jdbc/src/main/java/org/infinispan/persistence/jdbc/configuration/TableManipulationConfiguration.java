@@ -15,15 +15,19 @@ public class TableManipulationConfiguration {
    public static final AttributeDefinition<String> DATA_COLUMN_TYPE = AttributeDefinition.builder("dataColumnType", null, String.class).immutable().build();
    public static final AttributeDefinition<String> TIMESTAMP_COLUMN_NAME = AttributeDefinition.builder("timestampColumnName", null, String.class).immutable().build();
    public static final AttributeDefinition<String> TIMESTAMP_COLUMN_TYPE = AttributeDefinition.builder("timestampColumnType", null, String.class).immutable().build();
+   public static final AttributeDefinition<String> SEGMENT_COLUMN_NAME = AttributeDefinition.builder("segmentColumnName", null, String.class).immutable().build();
+   public static final AttributeDefinition<String> SEGMENT_COLUMN_TYPE = AttributeDefinition.builder("segmentColumnType", null, String.class).immutable().build();
    // TODO remove in 10.0
    public static final AttributeDefinition<Integer> BATCH_SIZE = AttributeDefinition.builder("batchSize", AbstractStoreConfiguration.MAX_BATCH_SIZE.getDefaultValue()).immutable().build();
    public static final AttributeDefinition<Integer> FETCH_SIZE = AttributeDefinition.builder("fetchSize", TableManager.DEFAULT_FETCH_SIZE).immutable().build();
+   public static final AttributeDefinition<Integer> SCAN_PARALLELISM = AttributeDefinition.builder("scanParallelism", 1).immutable().build();
    public static final AttributeDefinition<Boolean> CREATE_ON_START = AttributeDefinition.builder("createOnStart", true).immutable().build();
    public static final AttributeDefinition<Boolean> DROP_ON_EXIT = AttributeDefinition.builder("dropOnExit", false).immutable().build();
 
    static AttributeSet attributeSet() {
       return new AttributeSet(TableManipulationConfiguration.class, ID_COLUMN_NAME, ID_COLUMN_TYPE, TABLE_NAME_PREFIX, CACHE_NAME, DATA_COLUMN_NAME, DATA_COLUMN_TYPE,
-                              TIMESTAMP_COLUMN_NAME, TIMESTAMP_COLUMN_TYPE, BATCH_SIZE, FETCH_SIZE, CREATE_ON_START, DROP_ON_EXIT);
+                              TIMESTAMP_COLUMN_NAME, TIMESTAMP_COLUMN_TYPE, SEGMENT_COLUMN_NAME, SEGMENT_COLUMN_TYPE, BATCH_SIZE, FETCH_SIZE,
+                              SCAN_PARALLELISM, CREATE_ON_START, DROP_ON_EXIT);
    }
 
    private final Attribute<String> idColumnName;
@@ -34,8 +38,11 @@ static AttributeSet attributeSet() {
    private final Attribute<String> dataColumnType;
    private final Attribute<String> timestampColumnName;
    private final Attribute<String> timestampColumnType;
+   private final Attribute<String> segmentColumnName;
+   private final Attribute<String> segmentColumnType;
    private final Attribute<Integer> batchSize;
    private final Attribute<Integer> fetchSize;
+   private final Attribute<Integer> scanParallelism;
    private final Attribute<Boolean> createOnStart;
    private final Attribute<Boolean> dropOnExit;
    private final AttributeSet attributes;
@@ -50,8 +57,11 @@ static AttributeSet attributeSet() {
       dataColumnType = attributes.attribute(DATA_COLUMN_TYPE);
       timestampColumnName = attributes.attribute(TIMESTAMP_COLUMN_NAME);
       timestampColumnType = attributes.attribute(TIMESTAMP_COLUMN_TYPE);
+      segmentColumnName = attributes.attribute(SEGMENT_COLUMN_NAME);
+      segmentColumnType = attributes.attribute(SEGMENT_COLUMN_TYPE);
       batchSize = attributes.attribute(BATCH_SIZE);
       fetchSize = attributes.attribute(FETCH_SIZE);
+      scanParallelism = attributes.attribute(SCAN_PARALLELISM);
       createOnStart = attributes.attribute(CREATE_ON_START);
       dropOnExit = attributes.attribute(DROP_ON_EXIT);
    }
@@ -96,10 +106,28 @@ public String timestampColumnType() {
       return timestampColumnType.get();
    }
 
+   /**
+    * @return the name of the column storing the segment of each key, or {@code null} if the table has no segment column
+    */
+   public String segmentColumnName() {
+      return segmentColumnName.get();
+   }
+
+   public String segmentColumnType() {
+      return segmentColumnType.get();
+   }
+
    public int fetchSize() {
       return fetchSize.get();
    }
 
+   /**
+    * @return the number of segment ranges that full table scans are split into, each one queried on its own connection
+    */
+   public int scanParallelism() {
+      return scanParallelism.get();
+   }
+
    /**
     * @deprecated please use {@link org.infinispan.configuration.cache.AbstractStoreConfiguration#maxBatchSize()} instead.
     * @return the size of batches to process.  Guaranteed to be a power of two.
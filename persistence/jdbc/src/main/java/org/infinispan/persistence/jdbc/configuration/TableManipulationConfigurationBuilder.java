@@ -8,6 +8,9 @@
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.FETCH_SIZE;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.ID_COLUMN_NAME;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.ID_COLUMN_TYPE;
+import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.SCAN_PARALLELISM;
+import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.SEGMENT_COLUMN_NAME;
+import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.SEGMENT_COLUMN_TYPE;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.TABLE_NAME_PREFIX;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.TIMESTAMP_COLUMN_NAME;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.TIMESTAMP_COLUMN_TYPE;
@@ -55,6 +58,17 @@ public S fetchSize(int fetchSize) {
       return self();
    }
 
+   /**
+    * The number of segment ranges that full table scans, such as preloading, iteration and purging, are split into.
+    * Each range is queried concurrently on its own connection, so this should not exceed the size of the connection
+    * pool. Values greater than 1 require a {@link #segmentColumnName(String) segment column}. Defaults to 1, a single
+    * query.
+    */
+   public S scanParallelism(int scanParallelism) {
+      attributes.attribute(SCAN_PARALLELISM).set(scanParallelism);
+      return self();
+   }
+
    /**
     * Sets the prefix for the name of the table where the data will be stored. "_<cache name>" will
     * be appended to this prefix in order to enforce unique table names for each cache.
@@ -132,9 +146,40 @@ public S timestampColumnType(String timestampColumnType) {
       return self();
    }
 
+   /**
+    * The name of the database column used to store the segment of each key. This column is optional, when it is not
+    * set the segments are not stored.
+    */
+   public S segmentColumnName(String segmentColumnName) {
+      attributes.attribute(SEGMENT_COLUMN_NAME).set(segmentColumnName);
+      return self();
+   }
+
+   /**
+    * The type of the database column used to store the segment of each key
+    */
+   public S segmentColumnType(String segmentColumnType) {
+      attributes.attribute(SEGMENT_COLUMN_TYPE).set(segmentColumnType);
+      return self();
+   }
+
    @Override
    public void validate() {
       validateIfSet(ID_COLUMN_NAME, ID_COLUMN_TYPE, DATA_COLUMN_NAME, DATA_COLUMN_TYPE, TIMESTAMP_COLUMN_NAME, TIMESTAMP_COLUMN_TYPE, TABLE_NAME_PREFIX);
+      validateSegmentColumn();
+   }
+
+   void validateSegmentColumn() {
+      if (attributes.attribute(SEGMENT_COLUMN_NAME).get() != null) {
+         validateIfSet(SEGMENT_COLUMN_TYPE);
+      }
+      int scanParallelism = attributes.attribute(SCAN_PARALLELISM).get();
+      if (scanParallelism < 1) {
+         throw log.invalidScanParallelism(scanParallelism);
+      }
+      if (scanParallelism > 1 && attributes.attribute(SEGMENT_COLUMN_NAME).get() == null) {
+         throw log.scanParallelismRequiresSegmentColumn();
+      }
    }
 
    private void validateIfSet(AttributeDefinition<?>... definitions) {
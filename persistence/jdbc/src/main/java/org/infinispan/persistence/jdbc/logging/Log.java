@@ -1,15 +1,18 @@
 package org.infinispan.persistence.jdbc.logging;
 
 import static org.jboss.logging.Logger.Level.ERROR;
+import static org.jboss.logging.Logger.Level.INFO;
 import static org.jboss.logging.Logger.Level.WARN;
 
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Set;
 
 import javax.naming.NamingException;
 
 import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.persistence.jdbc.table.management.TableName;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.annotations.Cause;
@@ -171,4 +174,23 @@ public interface Log extends BasicLogger {
 
    @Message(value = "Error whilst removing keys in batch from the database. Keys: %s", id = 8038)
    PersistenceException sqlFailureDeletingBatch(Iterable<Object> keys, @Cause Exception e);
+
+   @Message(value = "Invalid scan parallelism %d, it must be at least 1", id = 8039)
+   CacheConfigurationException invalidScanParallelism(int scanParallelism);
+
+   @Message(value = "A segment column must be configured in order to split table scans", id = 8040)
+   CacheConfigurationException scanParallelismRequiresSegmentColumn();
+
+   @Message(value = "Error whilst removing segments %s from the database", id = 8041)
+   PersistenceException sqlFailureDeletingSegments(Set<Integer> segments, @Cause Exception e);
+
+   @Message(value = "Table %2$s has no segment column %1$s, add the column or drop the table before enabling it", id = 8042)
+   PersistenceException segmentColumnMissing(String columnName, TableName tableName);
+
+   @LogMessage(level = INFO)
+   @Message(value = "The segments stored in table %s do not match the %d segments of the cache, recomputing them", id = 8043)
+   void recomputingSegments(TableName tableName, int numSegments);
+
+   @Message(value = "Error whilst recomputing the segments stored in the database", id = 8044)
+   PersistenceException sqlFailureRecomputingSegments(@Cause Exception e);
 }
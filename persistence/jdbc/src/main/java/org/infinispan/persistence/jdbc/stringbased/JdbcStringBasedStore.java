@@ -9,7 +9,11 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 
@@ -21,10 +25,12 @@
 import org.infinispan.commons.persistence.Store;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
+import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.TaskContextImpl;
 import org.infinispan.persistence.jdbc.JdbcUtil;
 import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfiguration;
@@ -36,13 +42,14 @@
 import org.infinispan.persistence.keymappers.Key2StringMapper;
 import org.infinispan.persistence.keymappers.TwoWayKey2StringMapper;
 import org.infinispan.persistence.keymappers.UnsupportedKeyTypeException;
-import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.TransactionalCacheWriter;
 import org.infinispan.persistence.support.BatchModification;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.LogFactory;
 
 /**
@@ -74,6 +81,12 @@
  * <b>Rehashing</b>. When a node leaves/joins, Infinispan moves around persistent state as part of rehashing process.
  * For this it needs access to the underlaying key objects, so if distribution is used, the mapper needs to be an
  * {@link org.infinispan.persistence.keymappers.TwoWayKey2StringMapper} otherwise the cache won't start (same constraint as with preloading).
+ * <p/>
+ * <b>Parallel scans</b>. If the table has a segment column, the segment of each key is stored along with it and the
+ * full table scans used by preloading, iteration and purging can be split into
+ * {@link org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration#scanParallelism() ranges of segments}
+ * which are queried concurrently, each one on its own connection. The segment column is indexed, so that state transfer
+ * only reads and removes the rows of the segments that changed owner.
  *
  * @author Mircea.Markus@jboss.com
  * @see org.infinispan.persistence.keymappers.Key2StringMapper
@@ -81,10 +94,13 @@
  */
 @Store(shared = true)
 @ConfiguredBy(JdbcStringBasedStoreConfiguration.class)
-public class JdbcStringBasedStore<K,V> implements AdvancedLoadWriteStore<K,V>, TransactionalCacheWriter<K,V> {
+public class JdbcStringBasedStore<K,V> implements SegmentedAdvancedLoadWriteStore<K,V>, TransactionalCacheWriter<K,V> {
 
    private static final Log log = LogFactory.getLog(JdbcStringBasedStore.class, Log.class);
    private static final boolean trace = log.isTraceEnabled();
+   // Keeps the IN lists of the segment statements below the limits of the databases, e.g. 1000 for Oracle
+   private static final int MAX_SEGMENTS_PER_STATEMENT = 256;
+   private static final int SEGMENT_SAMPLE_SIZE = 100;
 
    private final Map<Transaction, Connection> transactionConnectionMap = new ConcurrentHashMap<>();
    private JdbcStringBasedStoreConfiguration configuration;
@@ -98,6 +114,8 @@
    private TableManager tableManager;
    private TimeService timeService;
    private boolean isDistributedCache;
+   private KeyPartitioner keyPartitioner;
+   private int numSegments;
 
    @Override
    public void init(InitializationContext ctx) {
@@ -108,16 +126,12 @@ public void init(InitializationContext ctx) {
       this.marshaller = ctx.getMarshaller();
       this.timeService = ctx.getTimeService();
       this.isDistributedCache = ctx.getCache().getCacheConfiguration() != null && ctx.getCache().getCacheConfiguration().clustering().cacheMode().isDistributed();
+      this.keyPartitioner = PersistenceUtil.getKeyPartitioner(ctx);
+      this.numSegments = PersistenceUtil.getHashConfiguration(ctx).numSegments();
    }
 
    @Override
    public void start() {
-      if (configuration.manageConnectionFactory()) {
-         ConnectionFactory factory = ConnectionFactory.getConnectionFactory(configuration.connectionFactory().connectionFactoryClass());
-         factory.start(configuration.connectionFactory(), factory.getClass().getClassLoader());
-         initializeConnectionFactory(factory);
-      }
-
       try {
          Object mapper = Util.loadClassStrict(configuration.key2StringMapper(),
                                               globalConfiguration.classLoader()).newInstance();
@@ -136,6 +150,15 @@ public void start() {
       if (isDistributedCache) {
          enforceTwoWayMapper("distribution/rehashing");
       }
+      if (configuration.table().segmentColumnName() != null) {
+         enforceTwoWayMapper("segment column");
+      }
+
+      if (configuration.manageConnectionFactory()) {
+         ConnectionFactory factory = ConnectionFactory.getConnectionFactory(configuration.connectionFactory().connectionFactoryClass());
+         factory.start(configuration.connectionFactory(), factory.getClass().getClassLoader());
+         initializeConnectionFactory(factory);
+      }
    }
 
    @Override
@@ -173,6 +196,83 @@ void initializeConnectionFactory(ConnectionFactory connectionFactory) throws Per
       tableManager = getTableManager();
       tableManager.setCacheName(cacheName);
       tableManager.start();
+      if (tableManager.isSegmentColumnEnabled()) {
+         verifySegments();
+      }
+   }
+
+   /**
+    * The stored segments become stale when the number of segments or the key partitioner of the cache change. The
+    * highest stored segment and a sample of the rows are checked, and all the segments are recomputed if any of them
+    * does not match.
+    */
+   private void verifySegments() {
+      Connection conn = null;
+      PreparedStatement ps = null;
+      ResultSet rs = null;
+      try {
+         conn = connectionFactory.getConnection();
+         ps = conn.prepareStatement(tableManager.getSelectMaxSegmentSql());
+         rs = ps.executeQuery();
+         boolean stale = rs.next() && rs.getInt(1) >= numSegments;
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(ps);
+
+         if (!stale) {
+            ps = conn.prepareStatement(tableManager.getSelectIdAndSegmentSql());
+            ps.setMaxRows(SEGMENT_SAMPLE_SIZE);
+            rs = ps.executeQuery();
+            while (!stale && rs.next()) {
+               stale = rs.getInt(2) != segmentOf(rs.getString(1));
+            }
+            JdbcUtil.safeClose(rs);
+            JdbcUtil.safeClose(ps);
+         }
+
+         if (stale) {
+            log.recomputingSegments(tableManager.getTableName(), numSegments);
+            recomputeSegments(conn);
+         }
+      } catch (SQLException e) {
+         throw log.sqlFailureRecomputingSegments(e);
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(conn);
+      }
+   }
+
+   private void recomputeSegments(Connection conn) throws SQLException {
+      // Some drivers stream the rows and do not allow other statements on the same connection until they are read
+      Connection updateConn = connectionFactory.getConnection();
+      try (Statement select = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+           PreparedStatement update = updateConn.prepareStatement(tableManager.getUpdateSegmentSql())) {
+         select.setFetchSize(tableManager.getFetchSize());
+         try (ResultSet rs = select.executeQuery(tableManager.getSelectIdAndSegmentSql())) {
+            int batchSize = 0;
+            while (rs.next()) {
+               String keyStr = rs.getString(1);
+               int segment = segmentOf(keyStr);
+               if (rs.getInt(2) == segment)
+                  continue;
+               update.setInt(1, segment);
+               update.setString(2, keyStr);
+               update.addBatch();
+               if (++batchSize == configuration.maxBatchSize()) {
+                  batchSize = 0;
+                  update.executeBatch();
+               }
+            }
+            if (batchSize != 0)
+               update.executeBatch();
+         }
+      } finally {
+         connectionFactory.releaseConnection(updateConn);
+      }
+   }
+
+   private int segmentOf(String keyStr) {
+      return keyPartitioner.getSegment(((TwoWayKey2StringMapper) key2StringMapper).getKeyMapping(keyStr));
    }
 
    public ConnectionFactory getConnectionFactory() {
@@ -402,14 +502,43 @@ public boolean delete(Object key) {
 
    @Override
    public void purge(Executor executor, PurgeListener purgeListener) {
+      int ranges = scanRanges();
+      if (ranges == 1) {
+         purge(purgeListener, -1, -1);
+         return;
+      }
+      ExecutorAllCompletionService ecs = new ExecutorAllCompletionService(executor);
+      for (int i = 0; i < ranges; i++) {
+         int fromSegment = rangeStart(i, ranges);
+         int toSegment = rangeStart(i + 1, ranges);
+         ecs.submit(() -> {
+            purge(purgeListener, fromSegment, toSegment);
+            return null;
+         });
+      }
+      ecs.waitUntilAllCompleted();
+      if (ecs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", ecs.getFirstException());
+      }
+   }
+
+   /**
+    * Deletes the expired rows, restricted to the segments between {@code fromSegment} (inclusive) and
+    * {@code toSegment} (exclusive) unless {@code fromSegment} is negative.
+    */
+   private void purge(PurgeListener purgeListener, int fromSegment, int toSegment) {
       Connection conn = null;
       PreparedStatement ps = null;
       ResultSet rs = null;
       try {
-         String sql = tableManager.getSelectOnlyExpiredRowsSql();
+         String sql = fromSegment < 0 ? tableManager.getSelectOnlyExpiredRowsSql() : tableManager.getSelectOnlyExpiredRowsInSegmentRangeSql();
          conn = connectionFactory.getConnection();
          ps = conn.prepareStatement(sql);
          ps.setLong(1, timeService.wallClockTime());
+         if (fromSegment >= 0) {
+            ps.setInt(2, fromSegment);
+            ps.setInt(3, toSegment);
+         }
          rs = ps.executeQuery();
 
          try (PreparedStatement batchDelete = conn.prepareStatement(tableManager.getDeleteRowSql())) {
@@ -455,6 +584,11 @@ public boolean contains(Object key) {
 
    @Override
    public void process(final KeyFilter filter, final CacheLoaderTask task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
+      int ranges = scanRanges();
+      if (ranges > 1) {
+         processInParallel(filter, task, executor, fetchValue, fetchMetadata, ranges);
+         return;
+      }
       Connection conn = null;
       PreparedStatement ps = null;
       ResultSet rs = null;
@@ -508,6 +642,177 @@ public void process(final KeyFilter filter, final CacheLoaderTask task, Executor
       }
    }
 
+   /**
+    * Queries each range of segments on its own connection, the entries of a range are processed by the thread reading
+    * it rather than being handed over to the executor one by one.
+    */
+   private void processInParallel(KeyFilter filter, CacheLoaderTask task, Executor executor, boolean fetchValue,
+                                  boolean fetchMetadata, int ranges) {
+      TaskContext taskContext = new TaskContextImpl();
+      ExecutorAllCompletionService ecs = new ExecutorAllCompletionService(executor);
+      for (int i = 0; i < ranges; i++) {
+         int fromSegment = rangeStart(i, ranges);
+         int toSegment = rangeStart(i + 1, ranges);
+         ecs.submit(() -> {
+            processRange(filter, task, taskContext, fetchValue, fetchMetadata, fromSegment, toSegment);
+            return null;
+         });
+      }
+      ecs.waitUntilAllCompleted();
+      if (ecs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", ecs.getFirstException());
+      }
+   }
+
+   private void processRange(KeyFilter filter, CacheLoaderTask task, TaskContext taskContext, boolean fetchValue,
+                             boolean fetchMetadata, int fromSegment, int toSegment) throws InterruptedException {
+      processSegments(filter, task, taskContext, fetchValue, fetchMetadata,
+            tableManager.getLoadNonExpiredRowsInSegmentRangeSql(), fromSegment, toSegment);
+   }
+
+   /**
+    * Processes the rows returned by a query restricted to some segments, the segment parameters are bound after the
+    * timestamp.
+    */
+   private void processSegments(KeyFilter filter, CacheLoaderTask task, TaskContext taskContext, boolean fetchValue,
+                                boolean fetchMetadata, String sql, int... segmentParams) throws InterruptedException {
+      Connection conn = null;
+      PreparedStatement ps = null;
+      ResultSet rs = null;
+      try {
+         if (trace) {
+            log.tracef("Running sql %s for segments %s", sql, Arrays.toString(segmentParams));
+         }
+         conn = connectionFactory.getConnection();
+         ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+         ps.setLong(1, timeService.wallClockTime());
+         for (int i = 0; i < segmentParams.length; i++) {
+            ps.setInt(i + 2, segmentParams[i]);
+         }
+         ps.setFetchSize(tableManager.getFetchSize());
+         rs = ps.executeQuery();
+
+         while (rs.next() && !taskContext.isStopped()) {
+            String keyStr = rs.getString(2);
+            Object key = ((TwoWayKey2StringMapper) key2StringMapper).getKeyMapping(keyStr);
+            if (filter != null && !filter.accept(key))
+               continue;
+
+            MarshalledEntry entry;
+            if (fetchValue || fetchMetadata) {
+               KeyValuePair<ByteBuffer, ByteBuffer> kvp = unmarshall(rs.getBinaryStream(1));
+               entry = marshalledEntryFactory.newMarshalledEntry(
+                     key, fetchValue ? kvp.getKey() : null, fetchMetadata ? kvp.getValue() : null);
+            } else {
+               entry = marshalledEntryFactory.newMarshalledEntry(key, (Object) null, null);
+            }
+            task.processEntry(entry, taskContext);
+         }
+      } catch (SQLException e) {
+         log.sqlFailureFetchingAllStoredEntries(e);
+         throw new PersistenceException("SQL error while fetching all StoredEntries", e);
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(conn);
+      }
+   }
+
+   @Override
+   public void process(Set<Integer> segments, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor,
+                       boolean fetchValue, boolean fetchMetadata) {
+      if (!tableManager.isSegmentColumnEnabled()) {
+         KeyFilter<K> segmentFilter = k -> segments.contains(keyPartitioner.getSegment(k)) &&
+               (filter == null || filter.accept(k));
+         process(segmentFilter, task, executor, fetchValue, fetchMetadata);
+         return;
+      }
+      if (segments.isEmpty())
+         return;
+
+      List<int[]> chunks = segmentChunks(segments, Math.min(scanRanges(), segments.size()));
+      TaskContext taskContext = new TaskContextImpl();
+      ExecutorAllCompletionService ecs = new ExecutorAllCompletionService(executor);
+      for (int[] chunk : chunks) {
+         ecs.submit(() -> {
+            processSegments(filter, task, taskContext, fetchValue, fetchMetadata,
+                  tableManager.getLoadNonExpiredRowsInSegmentsSql(chunk.length), chunk);
+            return null;
+         });
+      }
+      ecs.waitUntilAllCompleted();
+      if (ecs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", ecs.getFirstException());
+      }
+   }
+
+   @Override
+   public void removeSegments(Set<Integer> segments) {
+      if (segments.isEmpty())
+         return;
+      if (!tableManager.isSegmentColumnEnabled()) {
+         // The rows have to be read in order to find the segment of their keys
+         List<Object> keys = new ArrayList<>();
+         process(segments, null, (entry, taskContext) -> keys.add(entry.getKey()), new WithinThreadExecutor(), false, false);
+         deleteBatch(keys);
+         return;
+      }
+
+      Connection connection = null;
+      try {
+         connection = connectionFactory.getConnection();
+         int removed = 0;
+         for (int[] chunk : segmentChunks(segments, 1)) {
+            String sql = tableManager.getDeleteRowsInSegmentsSql(chunk.length);
+            if (trace) {
+               log.tracef("Running sql %s for segments %s", sql, Arrays.toString(chunk));
+            }
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+               for (int i = 0; i < chunk.length; i++) {
+                  ps.setInt(i + 1, chunk[i]);
+               }
+               removed += ps.executeUpdate();
+            }
+         }
+         if (trace) {
+            log.tracef("Successfully removed %d rows of segments %s", removed, segments);
+         }
+      } catch (SQLException e) {
+         throw log.sqlFailureDeletingSegments(segments, e);
+      } finally {
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
+   /**
+    * Splits the segments into at least {@code minChunks} chunks, none of them bigger than
+    * {@link #MAX_SEGMENTS_PER_STATEMENT}.
+    */
+   private static List<int[]> segmentChunks(Set<Integer> segments, int minChunks) {
+      int[] sorted = segments.stream().mapToInt(Integer::intValue).sorted().toArray();
+      int chunks = Math.max(minChunks, (sorted.length + MAX_SEGMENTS_PER_STATEMENT - 1) / MAX_SEGMENTS_PER_STATEMENT);
+      List<int[]> result = new ArrayList<>(chunks);
+      for (int i = 0; i < chunks; i++) {
+         int from = (int) ((long) i * sorted.length / chunks);
+         int to = (int) ((long) (i + 1) * sorted.length / chunks);
+         result.add(Arrays.copyOfRange(sorted, from, to));
+      }
+      return result;
+   }
+
+   /**
+    * @return the number of segment ranges that full table scans are split into
+    */
+   private int scanRanges() {
+      if (!tableManager.isSegmentColumnEnabled())
+         return 1;
+      return Math.min(configuration.table().scanParallelism(), numSegments);
+   }
+
+   private int rangeStart(int range, int ranges) {
+      return (int) ((long) range * numSegments / ranges);
+   }
+
    @Override
    public void prepareWithModifications(Transaction transaction, BatchModification batchModification) throws PersistenceException {
       try {
@@ -615,7 +920,8 @@ public int size() {
    private void prepareUpdateStatement(MarshalledEntry entry, String key, PreparedStatement ps) throws InterruptedException, SQLException {
       ByteBuffer byteBuffer = marshall(new KeyValuePair(entry.getValueBytes(), entry.getMetadataBytes()));
       long expiryTime = getExpiryTime(entry.getMetadata());
-      tableManager.prepareUpdateStatement(ps, key, expiryTime, byteBuffer);
+      int segment = tableManager.isSegmentColumnEnabled() ? keyPartitioner.getSegment(entry.getKey()) : -1;
+      tableManager.prepareUpdateStatement(ps, key, segment, expiryTime, byteBuffer);
    }
 
    private String key2Str(Object key) throws PersistenceException {
@@ -25,6 +25,7 @@ public abstract class AbstractTableManager implements TableManager {
    protected final ConnectionFactory connectionFactory;
    protected final TableManipulationConfiguration config;
    protected final String timestampIndexExt = "timestamp_index";
+   protected final String segmentIndexExt = "segment_index";
 
    protected String identifierQuoteString = "\"";
    protected String cacheName;
@@ -44,6 +45,8 @@ public abstract class AbstractTableManager implements TableManager {
    protected String deleteAllRows;
    protected String selectExpiredRowsSql;
    protected String deleteExpiredRowsSql;
+   protected String loadNonExpiredRowsInSegmentRangeSql;
+   protected String selectExpiredRowsInSegmentRangeSql;
 
    AbstractTableManager(ConnectionFactory connectionFactory, TableManipulationConfiguration config, DbMetaData metaData, Log log) {
       this.connectionFactory = connectionFactory;
@@ -54,14 +57,21 @@ public abstract class AbstractTableManager implements TableManager {
 
    @Override
    public void start() throws PersistenceException {
-      if (config.createOnStart()) {
+      if (config.createOnStart() || isSegmentColumnEnabled()) {
          Connection conn = null;
          try {
             conn = connectionFactory.getConnection();
-            if (!tableExists(conn)) {
-               createTable(conn);
+            boolean exists = tableExists(conn);
+            if (exists && isSegmentColumnEnabled() && !columnExists(conn, config.segmentColumnName())) {
+               throw log.segmentColumnMissing(config.segmentColumnName(), getTableName());
+            }
+            if (config.createOnStart()) {
+               if (!exists) {
+                  createTable(conn);
+               }
+               createTimestampIndex(conn);
+               createSegmentIndex(conn);
             }
-            createTimestampIndex(conn);
          } finally {
             connectionFactory.releaseConnection(conn);
          }
@@ -114,9 +124,10 @@ public void createTable(Connection conn) throws PersistenceException {
       if (cacheName == null || cacheName.trim().length() == 0)
          throw new PersistenceException("cacheName needed in order to create table");
 
-      String ddl = String.format("CREATE TABLE %1$s (%2$s %3$s NOT NULL, %4$s %5$s NOT NULL, %6$s %7$s NOT NULL, PRIMARY KEY (%2$s))",
+      String ddl = String.format("CREATE TABLE %1$s (%2$s %3$s NOT NULL, %4$s %5$s NOT NULL, %6$s %7$s NOT NULL, %8$sPRIMARY KEY (%2$s))",
                                  getTableName(), config.idColumnName(), config.idColumnType(), config.dataColumnName(),
-                                 config.dataColumnType(), config.timestampColumnName(), config.timestampColumnType());
+                                 config.dataColumnType(), config.timestampColumnName(), config.timestampColumnType(),
+                                 segmentColumn("%s " + config.segmentColumnType() + " NOT NULL, "));
 
       if (log.isTraceEnabled()) {
          log.tracef("Creating table with following DDL: '%s'.", ddl);
@@ -137,7 +148,41 @@ protected void createTimestampIndex(Connection conn) throws PersistenceException
       }
    }
 
+   protected void createSegmentIndex(Connection conn) throws PersistenceException {
+      if (metaData.isIndexingDisabled() || !isSegmentColumnEnabled()) return;
+
+      if (!indexExists(conn, getSegmentIndexName(false))) {
+         String ddl = String.format("CREATE INDEX %s ON %s (%s)", getSegmentIndexName(true), getTableName(), config.segmentColumnName());
+         if (log.isTraceEnabled()) {
+            log.tracef("Adding segment index with following DDL: '%s'.", ddl);
+         }
+         executeUpdateSql(conn, ddl);
+      }
+   }
+
+   protected boolean columnExists(Connection conn, String columnName) throws PersistenceException {
+      ResultSet rs = null;
+      try {
+         TableName table = getTableName();
+         rs = conn.getMetaData().getColumns(null, table.getSchema(), table.getName(), null);
+         while (rs.next()) {
+            if (columnName.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+               return true;
+            }
+         }
+         return false;
+      } catch (SQLException e) {
+         throw new PersistenceException(e);
+      } finally {
+         JdbcUtil.safeClose(rs);
+      }
+   }
+
    protected boolean timestampIndexExists(Connection conn) throws PersistenceException {
+      return indexExists(conn, getIndexName(false));
+   }
+
+   protected boolean indexExists(Connection conn, String expectedIndexName) throws PersistenceException {
       ResultSet rs = null;
       try {
          TableName table = getTableName();
@@ -146,7 +191,7 @@ protected boolean timestampIndexExists(Connection conn) throws PersistenceExcept
 
          while (rs.next()) {
             String indexName = rs.getString("INDEX_NAME");
-            if (indexName != null && indexName.equalsIgnoreCase(getIndexName(false))) {
+            if (indexName != null && indexName.equalsIgnoreCase(expectedIndexName)) {
                return true;
             }
          }
@@ -221,9 +266,17 @@ public TableName getTableName() {
    }
 
    public String getIndexName(boolean withIdentifier) {
+      return getIndexName(timestampIndexExt, withIdentifier);
+   }
+
+   public String getSegmentIndexName(boolean withIdentifier) {
+      return getIndexName(segmentIndexExt, withIdentifier);
+   }
+
+   private String getIndexName(String indexExt, boolean withIdentifier) {
       TableName table = getTableName();
       String tableName = table.toString().replace(identifierQuoteString, "");
-      String indexName = tableName + "_" + timestampIndexExt;
+      String indexName = tableName + "_" + indexExt;
       if (withIdentifier) {
          return identifierQuoteString + indexName + identifierQuoteString;
       }
@@ -233,8 +286,9 @@ public String getIndexName(boolean withIdentifier) {
    @Override
    public String getInsertRowSql() {
       if (insertRowSql == null) {
-         insertRowSql = String.format("INSERT INTO %s (%s,%s,%s) VALUES (?,?,?)", getTableName(),
-                                      config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+         insertRowSql = String.format("INSERT INTO %s (%s,%s,%s%s) VALUES (?,?,%s?)", getTableName(),
+                                      config.dataColumnName(), config.timestampColumnName(), segmentColumn("%s,"),
+                                      config.idColumnName(), segmentColumn("?,"));
       }
       return insertRowSql;
    }
@@ -242,8 +296,9 @@ public String getInsertRowSql() {
    @Override
    public String getUpdateRowSql() {
       if (updateRowSql == null) {
-         updateRowSql = String.format("UPDATE %s SET %s = ? , %s = ? WHERE %s = ?", getTableName(),
-                                      config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+         updateRowSql = String.format("UPDATE %s SET %s = ? , %s = ? %sWHERE %s = ?", getTableName(),
+                                      config.dataColumnName(), config.timestampColumnName(), segmentColumn(", %s = ? "),
+                                      config.idColumnName());
       }
       return updateRowSql;
    }
@@ -344,15 +399,80 @@ public String getSelectOnlyExpiredRowsSql() {
       return deleteExpiredRowsSql;
    }
 
+   @Override
+   public boolean isSegmentColumnEnabled() {
+      return config.segmentColumnName() != null;
+   }
+
+   @Override
+   public String getLoadNonExpiredRowsInSegmentRangeSql() {
+      if (loadNonExpiredRowsInSegmentRangeSql == null) {
+         loadNonExpiredRowsInSegmentRangeSql = String.format("SELECT %1$s, %2$s, %3$s FROM %4$s WHERE (%3$s > ? OR %3$s < 0) AND %5$s >= ? AND %5$s < ?",
+                                                             config.dataColumnName(), config.idColumnName(),
+                                                             config.timestampColumnName(), getTableName(),
+                                                             config.segmentColumnName());
+      }
+      return loadNonExpiredRowsInSegmentRangeSql;
+   }
+
+   @Override
+   public String getSelectOnlyExpiredRowsInSegmentRangeSql() {
+      if (selectExpiredRowsInSegmentRangeSql == null) {
+         selectExpiredRowsInSegmentRangeSql = String.format("%1$s WHERE %2$s < ? AND %2$s > 0 AND %3$s >= ? AND %3$s < ?",
+                                                            getLoadAllRowsSql(), config.timestampColumnName(),
+                                                            config.segmentColumnName());
+      }
+      return selectExpiredRowsInSegmentRangeSql;
+   }
+
+   @Override
+   public String getSelectMaxSegmentSql() {
+      return String.format("SELECT MAX(%s) FROM %s", config.segmentColumnName(), getTableName());
+   }
+
+   @Override
+   public String getSelectIdAndSegmentSql() {
+      return String.format("SELECT %s, %s FROM %s", config.idColumnName(), config.segmentColumnName(), getTableName());
+   }
+
+   @Override
+   public String getUpdateSegmentSql() {
+      return String.format("UPDATE %s SET %s = ? WHERE %s = ?", getTableName(), config.segmentColumnName(),
+                           config.idColumnName());
+   }
+
+   @Override
+   public String getLoadNonExpiredRowsInSegmentsSql(int numberOfSegments) {
+      return String.format("SELECT %1$s, %2$s, %3$s FROM %4$s WHERE (%3$s > ? OR %3$s < 0) AND %5$s IN (%6$s)",
+                           config.dataColumnName(), config.idColumnName(), config.timestampColumnName(),
+                           getTableName(), config.segmentColumnName(), parameterList(numberOfSegments));
+   }
+
+   @Override
+   public String getDeleteRowsInSegmentsSql(int numberOfSegments) {
+      return String.format("DELETE FROM %s WHERE %s IN (%s)", getTableName(), config.segmentColumnName(),
+                           parameterList(numberOfSegments));
+   }
+
+   private static String parameterList(int numberOfParams) {
+      StringBuilder sb = new StringBuilder("?");
+      for (int i = 1; i < numberOfParams; i++) {
+         sb.append(",?");
+      }
+      return sb.toString();
+   }
+
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
          upsertRowSql = String.format("MERGE INTO %1$s " +
-                              "USING (VALUES (?, ?, ?)) AS tmp (%2$s, %3$s, %4$s) " +
+                              "USING (VALUES (?, ?, %5$s?)) AS tmp (%2$s, %3$s, %6$s%4$s) " +
                               "ON (%2$s = tmp.%2$s) " +
-                              "WHEN MATCHED THEN UPDATE SET %3$s = tmp.%3$s, %4$s = tmp.%4$s " +
-                              "WHEN NOT MATCHED THEN INSERT (%2$s, %3$s, %4$s) VALUES (tmp.%2$s, tmp.%3$s, tmp.%4$s)",
-                              getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+                              "WHEN MATCHED THEN UPDATE SET %3$s = tmp.%3$s, %7$s%4$s = tmp.%4$s " +
+                              "WHEN NOT MATCHED THEN INSERT (%2$s, %3$s, %6$s%4$s) VALUES (tmp.%2$s, tmp.%3$s, %8$stmp.%4$s)",
+                              getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName(),
+                              segmentColumn("?, "), segmentColumn("%s, "), segmentColumn("%1$s = tmp.%1$s, "),
+                              segmentColumn("tmp.%s, "));
 
       }
       return upsertRowSql;
@@ -370,8 +490,26 @@ public String encodeString(String string) {
 
    @Override
    public void prepareUpdateStatement(PreparedStatement ps, String key, long timestamp, ByteBuffer byteBuffer) throws SQLException {
+      prepareUpdateStatement(ps, key, -1, timestamp, byteBuffer);
+   }
+
+   @Override
+   public void prepareUpdateStatement(PreparedStatement ps, String key, int segment, long timestamp, ByteBuffer byteBuffer) throws SQLException {
       ps.setBinaryStream(1, new ByteArrayInputStream(byteBuffer.getBuf(), byteBuffer.getOffset(), byteBuffer.getLength()), byteBuffer.getLength());
       ps.setLong(2, timestamp);
-      ps.setString(3, key);
+      if (isSegmentColumnEnabled()) {
+         ps.setInt(3, segment);
+         ps.setString(4, key);
+      } else {
+         ps.setString(3, key);
+      }
+   }
+
+   /**
+    * @param fragment a SQL fragment in which {@code %s} is replaced with the name of the segment column
+    * @return the formatted fragment, or an empty string if the table has no segment column
+    */
+   protected String segmentColumn(String fragment) {
+      return isSegmentColumnEnabled() ? String.format(fragment, config.segmentColumnName()) : "";
    }
 }
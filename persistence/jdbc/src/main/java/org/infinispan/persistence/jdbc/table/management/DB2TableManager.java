@@ -25,20 +25,23 @@ class DB2TableManager extends AbstractTableManager {
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
          upsertRowSql = String.format("MERGE INTO %1$s AS t " +
-                     "USING (SELECT * FROM TABLE (VALUES (?,?,?))) AS tmp(%4$s, %3$s, %2$s) " +
+                     "USING (SELECT * FROM TABLE (VALUES (?,?,?%5$s))) AS tmp(%4$s, %3$s, %2$s%6$s) " +
                      "ON t.%4$s = tmp.%4$s " +
-                     "WHEN MATCHED THEN UPDATE SET (t.%2$s, t.%3$s) = (tmp.%2$s, tmp.%3$s) " +
-                     "WHEN NOT MATCHED THEN INSERT (t.%4$s, t.%3$s, t.%2$s) VALUES (tmp.%4$s, tmp.%3$s, tmp.%2$s)",
-               getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+                     "WHEN MATCHED THEN UPDATE SET (t.%2$s, t.%3$s%7$s) = (tmp.%2$s, tmp.%3$s%8$s) " +
+                     "WHEN NOT MATCHED THEN INSERT (t.%4$s, t.%3$s, t.%2$s%7$s) VALUES (tmp.%4$s, tmp.%3$s, tmp.%2$s%8$s)",
+               getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName(),
+               segmentColumn(",?"), segmentColumn(", %s"), segmentColumn(", t.%s"), segmentColumn(", tmp.%s"));
       }
       return upsertRowSql;
    }
 
    @Override
-   public void prepareUpdateStatement(PreparedStatement ps, String key, long timestamp, ByteBuffer byteBuffer) throws SQLException {
+   public void prepareUpdateStatement(PreparedStatement ps, String key, int segment, long timestamp, ByteBuffer byteBuffer) throws SQLException {
       ps.setString(1, key);
       ps.setLong(2, timestamp);
       ps.setBinaryStream(3, new ByteArrayInputStream(byteBuffer.getBuf(), byteBuffer.getOffset(), byteBuffer.getLength()), byteBuffer.getLength());
+      if (isSegmentColumnEnabled())
+         ps.setInt(4, segment);
    }
 
    @Override
@@ -22,8 +22,9 @@ class H2TableManager extends AbstractTableManager {
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
-         upsertRowSql = String.format("MERGE INTO %1$s (%2$s, %3$s, %4$s) KEY(%4$s) VALUES(?, ?, ?)", getTableName(),
-                                      config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+         upsertRowSql = String.format("MERGE INTO %1$s (%2$s, %3$s, %5$s%4$s) KEY(%4$s) VALUES(?, ?, %6$s?)", getTableName(),
+                                      config.dataColumnName(), config.timestampColumnName(), config.idColumnName(),
+                                      segmentColumn("%s, "), segmentColumn("?, "));
       }
       return upsertRowSql;
    }
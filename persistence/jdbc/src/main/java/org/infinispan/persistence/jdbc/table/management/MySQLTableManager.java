@@ -25,8 +25,9 @@ public int getFetchSize() {
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
          // Assumes that config.idColumnName is the primary key
-         upsertRowSql = String.format("%1$s ON DUPLICATE KEY UPDATE %2$s = VALUES(%2$s), %3$s = VALUES(%3$s)", getInsertRowSql(),
-                                      config.dataColumnName(), config.timestampColumnName());
+         upsertRowSql = String.format("%1$s ON DUPLICATE KEY UPDATE %2$s = VALUES(%2$s), %3$s = VALUES(%3$s)%4$s", getInsertRowSql(),
+                                      config.dataColumnName(), config.timestampColumnName(),
+                                      segmentColumn(", %1$s = VALUES(%1$s)"));
       }
       return upsertRowSql;
    }
@@ -25,6 +25,7 @@ class OracleTableManager extends AbstractTableManager {
 
    private static final int MAX_INDEX_IDENTIFIER_SIZE = 30;
    private static final String INDEX_PREFIX = "IDX";
+   private static final String SEGMENT_INDEX_PREFIX = "IDX_SEG";
 
    OracleTableManager(ConnectionFactory connectionFactory, TableManipulationConfiguration config, DbMetaData metaData) {
       super(connectionFactory, config, metaData, LOG);
@@ -49,12 +50,11 @@ public boolean tableExists(Connection connection, TableName tableName) throws Pe
    }
 
    @Override
-   protected boolean timestampIndexExists(Connection conn) throws PersistenceException {
+   protected boolean indexExists(Connection conn, String indexName) throws PersistenceException {
       ResultSet rs = null;
       try {
          DatabaseMetaData meta = conn.getMetaData();
          rs = meta.getIndexInfo(null, null, getTableName().toString(), false, false);
-         String indexName = getIndexName(false);
          while (rs.next()) {
             if (indexName.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
                return true;
@@ -70,13 +70,22 @@ protected boolean timestampIndexExists(Connection conn) throws PersistenceExcept
 
    @Override
    public String getIndexName(boolean withIdentifier) {
-      int maxNameSize = MAX_INDEX_IDENTIFIER_SIZE - INDEX_PREFIX.length() - 1;
+      return getIndexName(INDEX_PREFIX, withIdentifier);
+   }
+
+   @Override
+   public String getSegmentIndexName(boolean withIdentifier) {
+      return getIndexName(SEGMENT_INDEX_PREFIX, withIdentifier);
+   }
+
+   private String getIndexName(String prefix, boolean withIdentifier) {
+      int maxNameSize = MAX_INDEX_IDENTIFIER_SIZE - prefix.length() - 1;
       if (withIdentifier) {
          maxNameSize -= 2;
       }
       String tableName = getTableName().toString().replace(identifierQuoteString, "");
       String truncatedName = tableName.length() > maxNameSize ? tableName.substring(0, maxNameSize) : tableName;
-      String indexName = INDEX_PREFIX + "_" + truncatedName;
+      String indexName = prefix + "_" + truncatedName;
       if (withIdentifier) {
          return identifierQuoteString + indexName + identifierQuoteString;
       }
@@ -86,8 +95,9 @@ public String getIndexName(boolean withIdentifier) {
    @Override
    public String getInsertRowSql() {
       if (insertRowSql == null) {
-         insertRowSql = String.format("INSERT INTO %s (%s,%s,%s) VALUES (?,?,?)", getTableName(),
-               config.idColumnName(), config.timestampColumnName(), config.dataColumnName());
+         insertRowSql = String.format("INSERT INTO %s (%s,%s,%s%s) VALUES (?,?,?%s)", getTableName(),
+               config.idColumnName(), config.timestampColumnName(), config.dataColumnName(), segmentColumn(",%s"),
+               segmentColumn(",?"));
       }
       return insertRowSql;
    }
@@ -96,19 +106,22 @@ public String getInsertRowSql() {
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
          upsertRowSql = String.format("MERGE INTO %1$s t " +
-                     "USING (SELECT ? %2$s, ? %3$s, ? %4$s from dual) tmp ON (t.%2$s = tmp.%2$s) " +
-                     "WHEN MATCHED THEN UPDATE SET t.%3$s = tmp.%3$s, t.%4$s = tmp.%4$s " +
-                     "WHEN NOT MATCHED THEN INSERT (%2$s, %3$s, %4$s) VALUES (tmp.%2$s, tmp.%3$s, tmp.%4$s)",
-               this.getTableName(), config.idColumnName(), config.timestampColumnName(), config.dataColumnName());
+                     "USING (SELECT ? %2$s, ? %3$s, ? %4$s%5$s from dual) tmp ON (t.%2$s = tmp.%2$s) " +
+                     "WHEN MATCHED THEN UPDATE SET t.%3$s = tmp.%3$s, t.%4$s = tmp.%4$s%6$s " +
+                     "WHEN NOT MATCHED THEN INSERT (%2$s, %3$s, %4$s%7$s) VALUES (tmp.%2$s, tmp.%3$s, tmp.%4$s%8$s)",
+               this.getTableName(), config.idColumnName(), config.timestampColumnName(), config.dataColumnName(),
+               segmentColumn(", ? %s"), segmentColumn(", t.%1$s = tmp.%1$s"), segmentColumn(", %s"), segmentColumn(", tmp.%s"));
       }
       return upsertRowSql;
    }
 
    @Override
-   public void prepareUpdateStatement(PreparedStatement ps, String key, long timestamp, ByteBuffer byteBuffer) throws SQLException {
+   public void prepareUpdateStatement(PreparedStatement ps, String key, int segment, long timestamp, ByteBuffer byteBuffer) throws SQLException {
       ps.setString(1, key);
       ps.setLong(2, timestamp);
       // We must use BLOB here to avoid ORA-01461 caused by implicit casts on dual
       ps.setBlob(3, new ByteArrayInputStream(byteBuffer.getBuf(), byteBuffer.getOffset(), byteBuffer.getLength()), byteBuffer.getLength());
+      if (isSegmentColumnEnabled())
+         ps.setInt(4, segment);
    }
 }
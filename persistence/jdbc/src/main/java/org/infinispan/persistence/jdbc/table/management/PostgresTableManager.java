@@ -28,9 +28,9 @@ protected void dropTimestampIndex(Connection conn) throws PersistenceException {
    @Override
    public String getUpdateRowSql() {
       if (updateRowSql == null) {
-         updateRowSql = String.format("UPDATE %s SET %s = ? , %s = ? WHERE %s = cast(? as %s)",
+         updateRowSql = String.format("UPDATE %s SET %s = ? , %s = ? %sWHERE %s = cast(? as %s)",
                                       getTableName(), config.dataColumnName(), config.timestampColumnName(),
-                                      config.idColumnName(), config.idColumnType());
+                                      segmentColumn(", %s = ? "), config.idColumnName(), config.idColumnType());
       }
       return updateRowSql;
    }
@@ -80,9 +80,9 @@ public boolean isUpsertSupported() {
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
-         upsertRowSql = String.format("%1$s ON CONFLICT (%2$s) DO UPDATE SET %3$s = EXCLUDED.%3$s, %4$s = EXCLUDED.%4$s",
+         upsertRowSql = String.format("%1$s ON CONFLICT (%2$s) DO UPDATE SET %3$s = EXCLUDED.%3$s, %4$s = EXCLUDED.%4$s%5$s",
                                       getInsertRowSql(), config.idColumnName(), config.dataColumnName(),
-                                      config.timestampColumnName());
+                                      config.timestampColumnName(), segmentColumn(", %1$s = EXCLUDED.%1$s"));
       }
       return upsertRowSql;
    }
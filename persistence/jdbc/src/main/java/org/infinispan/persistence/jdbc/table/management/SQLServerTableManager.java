@@ -23,11 +23,12 @@ public String getUpsertRowSql() {
          // As SQL Server does not handle a merge atomically, we must acquire the table lock here otherwise it's possible
          // for deadlocks to occur.
          upsertRowSql = String.format("MERGE %1$s WITH (TABLOCK) " +
-                     "USING (VALUES (?, ?, ?)) AS tmp (%2$s, %3$s, %4$s) " +
+                     "USING (VALUES (?, ?, %5$s?)) AS tmp (%2$s, %3$s, %6$s%4$s) " +
                      "ON (%1$s.%4$s = tmp.%4$s) " +
-                     "WHEN MATCHED THEN UPDATE SET %2$s = tmp.%2$s, %3$s = tmp.%3$s " +
-                     "WHEN NOT MATCHED THEN INSERT (%2$s, %3$s, %4$s) VALUES (tmp.%2$s, tmp.%3$s, tmp.%4$s);",
-               getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+                     "WHEN MATCHED THEN UPDATE SET %2$s = tmp.%2$s, %3$s = tmp.%3$s%7$s " +
+                     "WHEN NOT MATCHED THEN INSERT (%2$s, %3$s, %6$s%4$s) VALUES (tmp.%2$s, tmp.%3$s, %8$stmp.%4$s);",
+               getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName(),
+               segmentColumn("?, "), segmentColumn("%s, "), segmentColumn(", %1$s = tmp.%1$s"), segmentColumn("tmp.%s, "));
       }
       return upsertRowSql;
    }
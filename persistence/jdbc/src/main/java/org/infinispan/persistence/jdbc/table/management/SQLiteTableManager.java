@@ -26,9 +26,9 @@ public boolean isUpsertSupported() {
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
-         upsertRowSql = String.format("INSERT OR REPLACE INTO %s (%s, %s, %s) VALUES (?, ?, ?)",
+         upsertRowSql = String.format("INSERT OR REPLACE INTO %s (%s, %s, %s%s) VALUES (?, ?, %s?)",
                                       getTableName(), config.dataColumnName(), config.timestampColumnName(),
-                                      config.idColumnName());
+                                      segmentColumn("%s, "), config.idColumnName(), segmentColumn("?, "));
       }
       return upsertRowSql;
    }
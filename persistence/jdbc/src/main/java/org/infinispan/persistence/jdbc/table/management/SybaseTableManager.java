@@ -23,9 +23,9 @@ protected String getDropTimestampSql() {
    @Override
    public String getUpdateRowSql() {
       if (updateRowSql == null) {
-         updateRowSql = String.format("UPDATE %s SET %s = ? , %s = ? WHERE %s = convert(%s,?)",
+         updateRowSql = String.format("UPDATE %s SET %s = ? , %s = ? %sWHERE %s = convert(%s,?)",
                                       getTableName(), config.dataColumnName(), config.timestampColumnName(),
-                                      config.idColumnName(), config.idColumnType());
+                                      segmentColumn(", %s = ? "), config.idColumnName(), config.idColumnType());
       }
       return updateRowSql;
    }
@@ -68,11 +68,12 @@ public String getDeleteRowSql() {
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
          upsertRowSql = String.format("MERGE INTO %1$s AS t " +
-                     "USING (SELECT ? %2$s, ? %3$s, ? %4$s) AS tmp " +
+                     "USING (SELECT ? %2$s, ? %3$s, %5$s? %4$s) AS tmp " +
                      "ON (t.%4$s = tmp.%4$s) " +
-                     "WHEN MATCHED THEN UPDATE SET t.%2$s = tmp.%2$s, t.%3$s = tmp.%3$s " +
-                     "WHEN NOT MATCHED THEN INSERT VALUES (tmp.%4$s, tmp.%2$s, tmp.%3$s)",
-               this.getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+                     "WHEN MATCHED THEN UPDATE SET t.%2$s = tmp.%2$s, t.%3$s = tmp.%3$s%6$s " +
+                     "WHEN NOT MATCHED THEN INSERT VALUES (tmp.%4$s, tmp.%2$s, tmp.%3$s%7$s)",
+               this.getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName(),
+               segmentColumn("? %s, "), segmentColumn(", t.%1$s = tmp.%1$s"), segmentColumn(", tmp.%s"));
       }
       return upsertRowSql;
    }
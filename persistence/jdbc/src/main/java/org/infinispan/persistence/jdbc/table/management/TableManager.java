@@ -69,9 +69,61 @@ public interface TableManager {
 
    String getSelectOnlyExpiredRowsSql();
 
+   /**
+    * @return whether the table stores the segment of each key, in which case scans can be restricted to segment ranges
+    */
+   boolean isSegmentColumnEnabled();
+
+   /**
+    * Same as {@link #getLoadNonExpiredAllRowsSql()}, restricted to the segments between the second parameter (inclusive)
+    * and the third parameter (exclusive).
+    */
+   String getLoadNonExpiredRowsInSegmentRangeSql();
+
+   /**
+    * Same as {@link #getSelectOnlyExpiredRowsSql()}, restricted to the segments between the second parameter (inclusive)
+    * and the third parameter (exclusive).
+    */
+   String getSelectOnlyExpiredRowsInSegmentRangeSql();
+
+   /**
+    * @return the statement selecting the highest segment stored in the table
+    */
+   String getSelectMaxSegmentSql();
+
+   /**
+    * @return the statement selecting the key and the segment of every row
+    */
+   String getSelectIdAndSegmentSql();
+
+   /**
+    * @return the statement setting the segment, first parameter, of the row with the key bound to the second parameter
+    */
+   String getUpdateSegmentSql();
+
+   /**
+    * Same as {@link #getLoadNonExpiredAllRowsSql()}, restricted to the segments bound to the parameters following the
+    * timestamp.
+    *
+    * @param numberOfSegments the number of segment parameters
+    */
+   String getLoadNonExpiredRowsInSegmentsSql(int numberOfSegments);
+
+   /**
+    * @param numberOfSegments the number of segment parameters
+    * @return the statement deleting all the rows of the segments bound to its parameters
+    */
+   String getDeleteRowsInSegmentsSql(int numberOfSegments);
+
    boolean isStringEncodingRequired();
 
    String encodeString(String stringToEncode);
 
    void prepareUpdateStatement(PreparedStatement ps, String key, long timestamp, ByteBuffer byteBuffer) throws SQLException;
+
+   /**
+    * Binds the parameters of the insert, update and upsert statements, the segment is only bound if the
+    * {@link #isSegmentColumnEnabled() segment column is enabled}.
+    */
+   void prepareUpdateStatement(PreparedStatement ps, String key, int segment, long timestamp, ByteBuffer byteBuffer) throws SQLException;
 }
@@ -34,10 +34,11 @@ public void testStringKeyedJdbcStore() throws Exception {
             "       <string-keyed-jdbc-store xmlns=\"urn:infinispan:config:store:jdbc:"+ InfinispanStartTag.LATEST.majorMinor()+"\" key-to-string-mapper=\"DummyKey2StringMapper\" shared=\"true\" " +
             "                                preload=\"true\" read-only=\"true\" fetch-state=\"true\" purge=\"true\" singleton=\"false\" dialect=\"H2\">\n" +
             "         <connection-pool connection-url=\"jdbc:h2:mem:infinispan;DB_CLOSE_DELAY=-1\" username=\"dbuser\" password=\"dbpass\" driver=\"org.h2.Driver\"/>\n" +
-            "         <string-keyed-table prefix=\"entry\" fetch-size=\"34\" batch-size=\"128\" >\n" +
+            "         <string-keyed-table prefix=\"entry\" fetch-size=\"34\" batch-size=\"128\" scan-parallelism=\"4\">\n" +
             "           <id-column name=\"id\" type=\"VARCHAR\" />\n" +
             "           <data-column name=\"datum\" type=\"BINARY\" />\n" +
             "           <timestamp-column name=\"version\" type=\"BIGINT\" />\n" +
+            "           <segment-column name=\"segment\" type=\"INT\" />\n" +
             "         </string-keyed-table>\n" +
             "         <write-behind />\n" +
             "       </string-keyed-jdbc-store>\n" +
@@ -54,6 +55,9 @@ public void testStringKeyedJdbcStore() throws Exception {
       assertEquals(34, store.table().fetchSize());
       assertEquals("BINARY", store.table().dataColumnType());
       assertEquals("version", store.table().timestampColumnName());
+      assertEquals("segment", store.table().segmentColumnName());
+      assertEquals("INT", store.table().segmentColumnType());
+      assertEquals(4, store.table().scanParallelism());
       assertTrue(store.async().enabled());
       assertEquals("DummyKey2StringMapper", store.key2StringMapper());
       assertTrue(store.shared());
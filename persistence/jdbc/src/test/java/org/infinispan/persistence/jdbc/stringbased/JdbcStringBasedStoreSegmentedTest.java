@@ -0,0 +1,139 @@
+package org.infinispan.persistence.jdbc.stringbased;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.test.Exceptions;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.test.fwk.UnitTestDatabaseManager;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the store tests with a segment column, so that full table scans are split into concurrent segment ranges.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "persistence.jdbc.stringbased.JdbcStringBasedStoreSegmentedTest")
+public class JdbcStringBasedStoreSegmentedTest extends JdbcStringBasedStoreTest {
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder = builder
+            .persistence()
+               .addStore(JdbcStringBasedStoreConfigurationBuilder.class);
+      UnitTestDatabaseManager.configureUniqueConnectionFactory(storeBuilder);
+      UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table());
+      storeBuilder.table()
+            .segmentColumnName("SEGMENT_COLUMN")
+            .segmentColumnType("INT")
+            .scanParallelism(4);
+      JdbcStringBasedStore stringBasedCacheStore = new JdbcStringBasedStore();
+      stringBasedCacheStore.init(createContext(builder.build()));
+      return stringBasedCacheStore;
+   }
+
+   private JdbcStringBasedStore createStore(String connectionUrl, boolean segmented) {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder = builder
+            .persistence()
+               .addStore(JdbcStringBasedStoreConfigurationBuilder.class);
+      storeBuilder.simpleConnection()
+            .driverClass(org.h2.Driver.class)
+            .connectionUrl(connectionUrl)
+            .username("sa");
+      UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table());
+      if (segmented) {
+         storeBuilder.table()
+               .segmentColumnName("SEGMENT_COLUMN")
+               .segmentColumnType("INT");
+      }
+      JdbcStringBasedStore stringBasedCacheStore = new JdbcStringBasedStore();
+      stringBasedCacheStore.init(createContext(builder.build()));
+      return stringBasedCacheStore;
+   }
+
+   public void testProcessCoversAllRanges() throws Exception {
+      int keys = 100;
+      for (int i = 0; i < keys; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      Set<Object> processed = ConcurrentHashMap.newKeySet();
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+         cl.process(null, (entry, context) -> processed.add(entry.getKey()), executor, true, true);
+      } finally {
+         executor.shutdownNow();
+      }
+      assertEquals(keys, processed.size());
+      for (int i = 0; i < keys; i++) {
+         assertTrue(processed.contains("k" + i));
+      }
+   }
+
+   public void testScanParallelismRequiresSegmentColumn() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder = builder
+            .persistence()
+               .addStore(JdbcStringBasedStoreConfigurationBuilder.class);
+      UnitTestDatabaseManager.configureUniqueConnectionFactory(storeBuilder);
+      UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table());
+      storeBuilder.table().scanParallelism(2);
+      Exceptions.expectException(CacheConfigurationException.class, builder::build);
+   }
+
+   public void testStaleSegmentsAreRecomputed() throws Exception {
+      KeyPartitioner keyPartitioner = keyPartitioner();
+      for (int i = 0; i < 200; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      // As if the entries had been written with a different number of segments
+      JdbcStringBasedStore store = (JdbcStringBasedStore) cl;
+      Connection connection = store.getConnectionFactory().getConnection();
+      try (Statement statement = connection.createStatement()) {
+         statement.executeUpdate("UPDATE " + store.getTableManager().getTableName() + " SET SEGMENT_COLUMN = 1000");
+      } finally {
+         store.getConnectionFactory().releaseConnection(connection);
+      }
+      cl.stop();
+      cl.start();
+
+      Set<Integer> segments = new HashSet<>(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7));
+      Set<Object> expected = new HashSet<>();
+      for (int i = 0; i < 200; i++) {
+         if (segments.contains(keyPartitioner.getSegment("k" + i))) {
+            expected.add("k" + i);
+         }
+      }
+      Set<Object> processed = ConcurrentHashMap.newKeySet();
+      store.process(segments, null, (entry, context) -> processed.add(entry.getKey()), new WithinThreadExecutor(),
+            true, true);
+      assertEquals(expected, processed);
+   }
+
+   public void testExistingTableWithoutSegmentColumn() {
+      String connectionUrl = "jdbc:h2:mem:" + getClass().getSimpleName() + "_noSegmentColumn;DB_CLOSE_DELAY=-1";
+      JdbcStringBasedStore store = createStore(connectionUrl, false);
+      store.start();
+      store.stop();
+
+      JdbcStringBasedStore segmentedStore = createStore(connectionUrl, true);
+      Exceptions.expectException(PersistenceException.class, segmentedStore::start);
+   }
+}
@@ -1,9 +1,24 @@
 package org.infinispan.persistence.remote;
 
+import static org.infinispan.persistence.remote.upgrade.HotRodMigratorHelper.supportsIteration;
+
+import java.net.SocketAddress;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.MetadataValue;
@@ -18,11 +33,13 @@
 import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller;
 import org.infinispan.commons.persistence.Store;
+import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.versioning.NumericVersion;
 import org.infinispan.context.impl.FlagBitSets;
+import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.EmbeddedMetadata;
@@ -54,6 +71,11 @@
  * Purging elements is not possible, as HotRod does not support the fetching of all remote keys (this would be a
  * very costly operation as well). Purging takes place at the remote end (infinispan cluster).
  * <p/>
+ * Batches are written and deleted by sending their operations without waiting for each response, with at most as many
+ * operations in flight as the connection pool allows. When the protocol supports iteration, {@link #process(KeyFilter,
+ * CacheLoaderTask, Executor, boolean, boolean)} retrieves the entries with one iteration per server, each one over the
+ * segments it owns, instead of loading the entries one by one.
+ * <p/>
  *
  * @author Mircea.Markus@jboss.com
  * @see org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration
@@ -76,7 +98,10 @@
    private InternalEntryFactory iceFactory;
    private static final String LIFESPAN = "lifespan";
    private static final String MAXIDLE = "maxidle";
+   // Used when the connection pool does not limit the number of connections
+   private static final int DEFAULT_MAX_IN_FLIGHT_OPERATIONS = 128;
    protected InitializationContext ctx;
+   private Semaphore inFlightOperations;
 
    @Override
    public void init(InitializationContext ctx) {
@@ -106,6 +131,20 @@ public void start() throws PersistenceException {
       if (configuration.rawValues() && iceFactory == null) {
          iceFactory = ctx.getCache().getAdvancedCache().getComponentRegistry().getComponent(InternalEntryFactory.class);
       }
+      inFlightOperations = new Semaphore(maxInFlightOperations());
+   }
+
+   /**
+    * Batch operations are not sent faster than the connection pool can send them.
+    */
+   private int maxInFlightOperations() {
+      ConnectionPoolConfiguration pool = configuration.connectionPool();
+      if (pool.maxTotal() > 0) {
+         return pool.maxTotal();
+      } else if (pool.maxActive() > 0) {
+         return pool.maxActive() * Math.max(1, configuration.servers().size());
+      }
+      return DEFAULT_MAX_IN_FLIGHT_OPERATIONS;
    }
 
    @Override
@@ -124,18 +163,7 @@ public MarshalledEntry load(Object key) throws PersistenceException {
          }
          MetadataValue<?> value = remoteCache.getWithMetadata(unwrappedKey);
          if (value != null) {
-            Metadata metadata = new EmbeddedMetadata.Builder()
-                  .version(new NumericVersion(value.getVersion()))
-                  .lifespan(value.getLifespan(), TimeUnit.SECONDS)
-                  .maxIdle(value.getMaxIdle(), TimeUnit.SECONDS).build();
-            long created = value.getCreated();
-            long lastUsed = value.getLastUsed();
-            Object realValue = value.getValue();
-            if (realValue instanceof byte[]) {
-               realValue = new WrappedByteArray((byte[]) realValue);
-            }
-            return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, realValue,
-                                    new InternalMetadataImpl(metadata, created, lastUsed));
+            return toMarshalledEntry(key, value);
          } else {
             return null;
          }
@@ -155,8 +183,120 @@ public boolean contains(Object key) throws PersistenceException {
       return remoteCache.containsKey(key);
    }
 
+   private MarshalledEntry toMarshalledEntry(Object key, MetadataValue<?> value) {
+      Metadata metadata = new EmbeddedMetadata.Builder()
+            .version(new NumericVersion(value.getVersion()))
+            .lifespan(value.getLifespan(), TimeUnit.SECONDS)
+            .maxIdle(value.getMaxIdle(), TimeUnit.SECONDS).build();
+      long created = value.getCreated();
+      long lastUsed = value.getLastUsed();
+      Object realValue = value.getValue();
+      if (realValue instanceof byte[]) {
+         realValue = new WrappedByteArray((byte[]) realValue);
+      }
+      return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, realValue,
+                              new InternalMetadataImpl(metadata, created, lastUsed));
+   }
+
+   /**
+    * Hot Rod iteration always transfers the values. With {@code rawValues}, the metadata is only retrieved when
+    * {@code fetchMetadata} is set. Otherwise the remote values are the marshalled entries themselves, so they include
+    * the metadata as well.
+    */
    @Override
    public void process(KeyFilter filter, CacheLoaderTask task, Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      if (!supportsIteration(configuration.protocolVersion())) {
+         processKeys(filter, task, fetchValue || fetchMetadata);
+         return;
+      }
+      TaskContextImpl taskContext = new TaskContextImpl();
+      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      for (Set<Integer> segments : segmentsByServer()) {
+         eacs.submit(() -> {
+            processSegments(segments, filter, task, taskContext, fetchMetadata);
+            return null;
+         });
+      }
+      eacs.waitUntilAllCompleted();
+      if (eacs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", eacs.getFirstException());
+      }
+   }
+
+   /**
+    * Splits the segments of the remote cache between the servers owning them, so that each server iterates over a
+    * similar number of segments. Returns a single {@code null} group, i.e. all the segments, if the remote cache is
+    * not distributed over several servers.
+    */
+   private Collection<Set<Integer>> segmentsByServer() {
+      Map<SocketAddress, Set<Integer>> segmentsPerServer = remoteCache.getCacheTopologyInfo().getSegmentsPerServer();
+      if (segmentsPerServer.size() <= 1) {
+         return Collections.singleton(null);
+      }
+      Set<Integer> allSegments = new TreeSet<>();
+      segmentsPerServer.values().forEach(allSegments::addAll);
+      Map<SocketAddress, Set<Integer>> groups = new HashMap<>();
+      for (Integer segment : allSegments) {
+         SocketAddress owner = null;
+         int ownerSegments = Integer.MAX_VALUE;
+         for (Map.Entry<SocketAddress, Set<Integer>> server : segmentsPerServer.entrySet()) {
+            if (server.getValue().contains(segment)) {
+               int serverSegments = groups.getOrDefault(server.getKey(), Collections.emptySet()).size();
+               if (serverSegments < ownerSegments) {
+                  owner = server.getKey();
+                  ownerSegments = serverSegments;
+               }
+            }
+         }
+         groups.computeIfAbsent(owner, k -> new HashSet<>()).add(segment);
+      }
+      return groups.isEmpty() ? Collections.singleton(null) : groups.values();
+   }
+
+   private void processSegments(Set<Integer> segments, KeyFilter filter, CacheLoaderTask task,
+                                TaskContextImpl taskContext, boolean fetchMetadata) throws InterruptedException {
+      if (configuration.rawValues() && fetchMetadata) {
+         try (CloseableIterator<Map.Entry<Object, MetadataValue<Object>>> iterator =
+                    remoteCache.retrieveEntriesWithMetadata(segments, configuration.maxBatchSize())) {
+            while (iterator.hasNext() && !taskContext.isStopped()) {
+               Map.Entry<Object, MetadataValue<Object>> entry = iterator.next();
+               Object key = wrapKey(entry.getKey());
+               if (filter == null || filter.accept(key)) {
+                  task.processEntry(toMarshalledEntry(key, entry.getValue()), taskContext);
+               }
+            }
+         }
+      } else {
+         try (CloseableIterator<Map.Entry<Object, Object>> iterator =
+                    remoteCache.retrieveEntries(null, segments, configuration.maxBatchSize())) {
+            while (iterator.hasNext() && !taskContext.isStopped()) {
+               Map.Entry<Object, Object> entry = iterator.next();
+               Object key = wrapKey(entry.getKey());
+               if (filter == null || filter.accept(key)) {
+                  task.processEntry(fromRemoteValue(key, entry.getValue()), taskContext);
+               }
+            }
+         }
+      }
+   }
+
+   private MarshalledEntry fromRemoteValue(Object key, Object value) {
+      if (configuration.rawValues()) {
+         Object realValue = value instanceof byte[] ? new WrappedByteArray((byte[]) value) : value;
+         return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, realValue, null);
+      }
+      return (MarshalledEntry) value;
+   }
+
+   private static Object wrapKey(Object key) {
+      return key instanceof byte[] ? new WrappedByteArray((byte[]) key) : key;
+   }
+
+   /**
+    * Loads the entries one by one, for servers which do not support iteration. When neither the values nor the metadata
+    * are needed only the keys are retrieved.
+    */
+   private void processKeys(KeyFilter filter, CacheLoaderTask task, boolean load) {
       TaskContextImpl taskContext = new TaskContextImpl();
       for (Object key : remoteCache.keySet()) {
          if (key instanceof byte[]) {
@@ -166,7 +306,8 @@ public void process(KeyFilter filter, CacheLoaderTask task, Executor executor, b
             break;
          if (filter == null || filter.accept(key)) {
             try {
-               MarshalledEntry marshalledEntry = load(key);
+               MarshalledEntry marshalledEntry = load ? load(key) :
+                     ctx.getMarshalledEntryFactory().newMarshalledEntry(key, (Object) null, null);
                if (marshalledEntry != null) {
                   task.processEntry(marshalledEntry, taskContext);
                }
@@ -220,17 +361,69 @@ private Object getValue(MarshalledEntry entry) {
 
    @Override
    public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> marshalledEntries) {
-      Map<Object, Object> batch = new HashMap<>();
+      // putAll applies the same expiration to all the entries, so the entries are grouped by lifespan and max idle
+      Map<Map.Entry<Long, Long>, Map<Object, Object>> batches = new HashMap<>();
+      List<CompletableFuture<?>> futures = new ArrayList<>();
       for (MarshalledEntry entry : marshalledEntries) {
+         InternalMetadata metadata = entry.getMetadata();
+         long lifespan = toSeconds(metadata != null ? metadata.lifespan() : -1, entry.getKey(), LIFESPAN);
+         long maxIdle = toSeconds(metadata != null ? metadata.maxIdle() : -1, entry.getKey(), MAXIDLE);
+         Map.Entry<Long, Long> expiration = new AbstractMap.SimpleImmutableEntry<>(lifespan, maxIdle);
+         Map<Object, Object> batch = batches.computeIfAbsent(expiration, k -> new HashMap<>());
          batch.put(getKey(entry), getValue(entry));
          if (batch.size() == configuration.maxBatchSize()) {
-            remoteCache.putAll(batch);
-            batch.clear();
+            send(futures, () -> remoteCache.putAllAsync(batch, lifespan, TimeUnit.SECONDS, maxIdle, TimeUnit.SECONDS));
+            batches.remove(expiration);
          }
       }
+      for (Map.Entry<Map.Entry<Long, Long>, Map<Object, Object>> batch : batches.entrySet()) {
+         Map.Entry<Long, Long> expiration = batch.getKey();
+         send(futures, () -> remoteCache.putAllAsync(batch.getValue(), expiration.getKey(), TimeUnit.SECONDS,
+               expiration.getValue(), TimeUnit.SECONDS));
+      }
+      await(futures);
+   }
+
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      List<CompletableFuture<?>> futures = new ArrayList<>();
+      for (Object key : keys) {
+         Object remoteKey = key instanceof WrappedByteArray ? ((WrappedByteArray) key).getBytes() : key;
+         send(futures, () -> remoteCache.removeAsync(remoteKey));
+      }
+      await(futures);
+   }
+
+   /**
+    * Sends an operation of a batch, after waiting for a previous operation to complete if too many are in flight.
+    */
+   private void send(List<CompletableFuture<?>> futures, Supplier<CompletableFuture<?>> operation) {
+      try {
+         inFlightOperations.acquire();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException(e);
+      }
+      CompletableFuture<?> future;
+      try {
+         future = operation.get();
+      } catch (Throwable t) {
+         inFlightOperations.release();
+         throw t;
+      }
+      future.whenComplete((r, t) -> inFlightOperations.release());
+      futures.add(future);
+   }
 
-      if (!batch.isEmpty())
-         remoteCache.putAll(batch);
+   /**
+    * Waits for the responses of operations which were all sent to the servers before.
+    */
+   private void await(List<CompletableFuture<?>> futures) {
+      try {
+         CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+      } catch (CompletionException e) {
+         throw new PersistenceException(e.getCause());
+      }
    }
 
    @Override
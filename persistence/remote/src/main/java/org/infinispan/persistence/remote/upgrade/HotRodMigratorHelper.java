@@ -21,7 +21,7 @@ public class HotRodMigratorHelper {
 
    private static final Log log = LogFactory.getLog(HotRodMigratorHelper.class, Log.class);
 
-   static boolean supportsIteration(String protocolVersion) {
+   public static boolean supportsIteration(String protocolVersion) {
       return protocolVersion == null || VersionUtils.isVersionGreaterOrEquals(protocolVersion, ITERATOR_MINIMUM_VERSION);
    }
 
@@ -1,9 +1,13 @@
 package org.infinispan.persistence.remote;
 
 import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.assertNull;
 import static org.testng.AssertJUnit.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
@@ -11,6 +15,7 @@
 import org.infinispan.eviction.EvictionType;
 import org.infinispan.factories.GlobalComponentRegistry;
 import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.BaseStoreTest;
 import org.infinispan.persistence.remote.configuration.RemoteStoreConfigurationBuilder;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
@@ -61,6 +66,8 @@ protected AdvancedLoadWriteStore createStore() throws Exception {
                .addServer()
                   .host(hrServer.getHost())
                   .port(hrServer.getPort());
+      // Batches have more operations than the pool has connections, so they have to wait for some responses
+      storeConfigurationBuilder.connectionPool().maxActive(4);
 
       RemoteStore remoteStore = new RemoteStore();
       remoteStore.init(createContext(builder.build()));
@@ -95,4 +102,21 @@ public void testReplaceExpiredEntry() throws Exception {
       cl.write(marshalledEntry(internalCacheEntry("k1", "v2", 100l)));
       assertTrue(cl.load("k1").getValue().equals("v2") || TestingUtil.moreThanDurationElapsed(start, 100));
    }
+
+   public void testWriteBatchKeepsExpiration() throws Exception {
+      List<MarshalledEntry<?, ?>> entries = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+         entries.add(marshalledEntry(internalCacheEntry("immortal" + i, "v" + i, -1)));
+         entries.add(marshalledEntry(internalCacheEntry("mortal" + i, "v" + i, 2000)));
+      }
+      cl.writeBatch(entries);
+      assertNotNull(cl.load("immortal0"));
+      assertNotNull(cl.load("mortal0"));
+
+      timeService.advance(2001);
+      for (int i = 0; i < 10; i++) {
+         assertNotNull(cl.load("immortal" + i));
+         assertNull(cl.load("mortal" + i));
+      }
+   }
 }
@@ -0,0 +1,105 @@
+package org.infinispan.persistence.rest;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.CompletableFuture;
+
+import org.infinispan.persistence.rest.configuration.RestStoreConfiguration;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+
+/**
+ * Sends each request on its own HTTP/1.1 connection, which is closed once the response has been received.
+ *
+ * @since 9.2
+ */
+class Http11Transport implements RestTransport {
+   private final Bootstrap bootstrap;
+   private final RestStoreConfiguration configuration;
+
+   Http11Transport(Bootstrap bootstrap, RestStoreConfiguration configuration) {
+      this.bootstrap = bootstrap;
+      this.configuration = configuration;
+   }
+
+   @Override
+   public void start() {
+      bootstrap.handler(new ChannelInitializer<SocketChannel>() {
+         @Override
+         protected void initChannel(SocketChannel ch) {
+            ch.pipeline().addLast(new HttpClientCodec(), new HttpObjectAggregator(configuration.maxContentLength()));
+         }
+      });
+   }
+
+   @Override
+   public void stop() {
+      // The connections are closed after each request
+   }
+
+   @Override
+   public CompletableFuture<FullHttpResponse> execute(FullHttpRequest request) {
+      CompletableFuture<FullHttpResponse> future = new CompletableFuture<>();
+      bootstrap.connect(configuration.host(), configuration.port()).addListener((ChannelFutureListener) connect -> {
+         if (!connect.isSuccess()) {
+            request.release();
+            future.completeExceptionally(connect.cause());
+            return;
+         }
+         Channel ch = connect.channel();
+         ch.pipeline().addLast(new ResponseHandler(future));
+         ch.writeAndFlush(request).addListener((ChannelFutureListener) write -> {
+            if (!write.isSuccess()) {
+               future.completeExceptionally(write.cause());
+               write.channel().close();
+            }
+         });
+      });
+      return future;
+   }
+
+   @Override
+   public boolean isMultiplexed() {
+      return false;
+   }
+
+   private static class ResponseHandler extends SimpleChannelInboundHandler<FullHttpResponse> {
+      private final CompletableFuture<FullHttpResponse> future;
+
+      ResponseHandler(CompletableFuture<FullHttpResponse> future) {
+         // Passing the message type avoids resolving the type parameter with the class loader of the event loop
+         super(FullHttpResponse.class);
+         this.future = future;
+      }
+
+      @Override
+      protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse msg) {
+         if (!future.complete(msg.retain())) {
+            // The caller gave up waiting
+            msg.release();
+         }
+         ctx.close();
+      }
+
+      @Override
+      public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+         future.completeExceptionally(new ClosedChannelException());
+         super.channelInactive(ctx);
+      }
+
+      @Override
+      public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+         future.completeExceptionally(cause);
+         ctx.close();
+      }
+   }
+}
@@ -0,0 +1,314 @@
+package org.infinispan.persistence.rest;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.infinispan.persistence.rest.configuration.RestStoreConfiguration;
+import org.infinispan.persistence.rest.logging.Log;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.util.logging.LogFactory;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpClientUpgradeHandler;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpScheme;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http2.DefaultHttp2Connection;
+import io.netty.handler.codec.http2.Http2ClientUpgradeCodec;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.HttpConversionUtil;
+import io.netty.handler.codec.http2.HttpToHttp2ConnectionHandler;
+import io.netty.handler.codec.http2.HttpToHttp2ConnectionHandlerBuilder;
+import io.netty.handler.codec.http2.InboundHttp2ToHttpAdapterBuilder;
+
+/**
+ * Multiplexes the requests over a fixed number of HTTP/2 connections, each request being sent on its own stream.
+ * <p>
+ * The connections are opened in clear text and upgraded with the HTTP/1.1 {@code Upgrade} header, and they are opened
+ * again when the server closes them. The number of connections is
+ * {@link org.infinispan.persistence.rest.configuration.ConnectionPoolConfiguration#maxConnectionsPerHost()}. Each
+ * connection sends at most as many concurrent requests as the server allows with {@code SETTINGS_MAX_CONCURRENT_STREAMS},
+ * the following requests wait for a stream to be closed.
+ *
+ * @since 9.2
+ */
+class Http2Transport implements RestTransport {
+   private static final Log log = LogFactory.getLog(Http2Transport.class, Log.class);
+   private static final String STREAM_ID = HttpConversionUtil.ExtensionHeaderNames.STREAM_ID.text().toString();
+   private static final String SCHEME = HttpConversionUtil.ExtensionHeaderNames.SCHEME.text().toString();
+
+   private final Bootstrap bootstrap;
+   private final RestStoreConfiguration configuration;
+   private final String authority;
+   private final AtomicInteger next = new AtomicInteger();
+   private AtomicReferenceArray<StreamHandler> connections;
+   private Object[] connectLocks;
+
+   Http2Transport(Bootstrap bootstrap, RestStoreConfiguration configuration) {
+      this.bootstrap = bootstrap;
+      this.configuration = configuration;
+      this.authority = configuration.host() + ":" + configuration.port();
+   }
+
+   @Override
+   public void start() {
+      bootstrap.handler(new ChannelInitializer<SocketChannel>() {
+         @Override
+         protected void initChannel(SocketChannel ch) {
+            DefaultHttp2Connection connection = new DefaultHttp2Connection(false);
+            HttpToHttp2ConnectionHandler connectionHandler = new HttpToHttp2ConnectionHandlerBuilder()
+                  .frameListener(new InboundHttp2ToHttpAdapterBuilder(connection)
+                        .maxContentLength(configuration.maxContentLength())
+                        .propagateSettings(false)
+                        .build())
+                  .connection(connection)
+                  .build();
+            HttpClientCodec sourceCodec = new HttpClientCodec();
+            ch.pipeline().addLast(sourceCodec,
+                  new HttpClientUpgradeHandler(sourceCodec, new Http2ClientUpgradeCodec(connectionHandler),
+                        configuration.maxContentLength()),
+                  new StreamHandler(connection));
+         }
+      });
+      int maxConnections = configuration.connectionPool().maxConnectionsPerHost();
+      connections = new AtomicReferenceArray<>(maxConnections);
+      connectLocks = new Object[maxConnections];
+      for (int i = 0; i < maxConnections; i++) {
+         connectLocks[i] = new Object();
+      }
+   }
+
+   @Override
+   public void stop() {
+      for (int i = 0; i < connections.length(); i++) {
+         StreamHandler connection = connections.getAndSet(i, null);
+         if (connection != null) {
+            connection.channel.close();
+         }
+      }
+   }
+
+   @Override
+   public CompletableFuture<FullHttpResponse> execute(FullHttpRequest request) {
+      request.headers().set(HttpHeaderNames.HOST, authority);
+      request.headers().set(SCHEME, HttpScheme.HTTP.name());
+      CompletableFuture<FullHttpResponse> future = new CompletableFuture<>();
+      StreamHandler connection;
+      try {
+         connection = connection(Math.floorMod(next.getAndIncrement(), connections.length()));
+      } catch (PersistenceException e) {
+         request.release();
+         future.completeExceptionally(e);
+         return future;
+      }
+      connection.channel.eventLoop().execute(() -> connection.send(request, future));
+      return future;
+   }
+
+   @Override
+   public boolean isMultiplexed() {
+      return true;
+   }
+
+   private StreamHandler connection(int index) {
+      StreamHandler connection = connections.get(index);
+      if (isUsable(connection))
+         return connection;
+      // Only the requests for this connection wait while it is opened
+      synchronized (connectLocks[index]) {
+         connection = connections.get(index);
+         if (!isUsable(connection)) {
+            connection = connect();
+            connections.set(index, connection);
+         }
+         return connection;
+      }
+   }
+
+   private static boolean isUsable(StreamHandler connection) {
+      return connection != null && connection.channel.isActive() && !connection.exhausted;
+   }
+
+   private StreamHandler connect() {
+      ChannelFuture connect = bootstrap.connect(configuration.host(), configuration.port()).awaitUninterruptibly();
+      if (!connect.isSuccess())
+         throw log.http2UpgradeFailed(configuration.host(), configuration.port(), connect.cause());
+
+      Channel channel = connect.channel();
+      StreamHandler connection = channel.pipeline().get(StreamHandler.class);
+      if (connection == null)
+         throw log.http2UpgradeFailed(configuration.host(), configuration.port(), new ClosedChannelException());
+      // The response to the upgrade request is received on the first stream, and discarded
+      FullHttpRequest upgrade = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.HEAD, configuration.path());
+      upgrade.headers().set(HttpHeaderNames.HOST, authority);
+      channel.writeAndFlush(upgrade);
+      try {
+         int timeout = configuration.connectionPool().connectionTimeout();
+         // A connection timeout of 0 or less means no timeout, so wait for the upgrade for as long as it takes
+         if (timeout > 0) {
+            connection.upgrade.get(timeout, TimeUnit.MILLISECONDS);
+         } else {
+            connection.upgrade.get();
+         }
+         return connection;
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         channel.close();
+         throw log.http2UpgradeFailed(configuration.host(), configuration.port(), e);
+      } catch (ExecutionException e) {
+         channel.close();
+         throw log.http2UpgradeFailed(configuration.host(), configuration.port(), e.getCause());
+      } catch (TimeoutException e) {
+         channel.close();
+         throw log.http2UpgradeFailed(configuration.host(), configuration.port(), e);
+      }
+   }
+
+   /**
+    * Assigns the stream identifiers and matches the responses with the pending requests of a connection. The requests
+    * exceeding the maximum number of concurrent streams of the server are queued until a response is received. Apart
+    * from {@link #isUsable(StreamHandler)}, it is only accessed from the event loop of the channel.
+    */
+   private static class StreamHandler extends SimpleChannelInboundHandler<FullHttpResponse> {
+      final CompletableFuture<Void> upgrade = new CompletableFuture<>();
+      volatile Channel channel;
+      volatile boolean exhausted;
+      private final Http2Connection connection;
+      private final Map<Integer, CompletableFuture<FullHttpResponse>> streams = new HashMap<>();
+      private final Queue<QueuedRequest> queued = new ArrayDeque<>();
+      // Stream 1 is used by the upgrade request
+      private int nextStreamId = 3;
+
+      StreamHandler(Http2Connection connection) {
+         // Passing the message type avoids resolving the type parameter with the class loader of the event loop
+         super(FullHttpResponse.class);
+         this.connection = connection;
+      }
+
+      @Override
+      public void handlerAdded(ChannelHandlerContext ctx) {
+         channel = ctx.channel();
+      }
+
+      void send(FullHttpRequest request, CompletableFuture<FullHttpResponse> future) {
+         if (exhausted || !channel.isActive()) {
+            request.release();
+            future.completeExceptionally(new ClosedChannelException());
+            return;
+         }
+         // The limit is updated when the SETTINGS frame of the server is received
+         if (streams.size() >= connection.local().maxActiveStreams()) {
+            queued.add(new QueuedRequest(request, future));
+            return;
+         }
+         write(request, future);
+      }
+
+      private void write(FullHttpRequest request, CompletableFuture<FullHttpResponse> future) {
+         int streamId = nextStreamId;
+         nextStreamId += 2;
+         // Stream identifiers cannot be reused, a new connection will be opened for the following requests
+         exhausted = nextStreamId < 0;
+         request.headers().setInt(STREAM_ID, streamId);
+         streams.put(streamId, future);
+         channel.writeAndFlush(request).addListener((ChannelFutureListener) write -> {
+            if (!write.isSuccess()) {
+               CompletableFuture<FullHttpResponse> pending = streams.remove(streamId);
+               if (pending != null) {
+                  pending.completeExceptionally(write.cause());
+                  writeQueued();
+               }
+            }
+         });
+      }
+
+      private void writeQueued() {
+         while (!queued.isEmpty() && streams.size() < connection.local().maxActiveStreams()) {
+            QueuedRequest next = queued.poll();
+            if (exhausted) {
+               next.request.release();
+               next.future.completeExceptionally(new ClosedChannelException());
+            } else {
+               write(next.request, next.future);
+            }
+         }
+      }
+
+      @Override
+      protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse msg) {
+         Integer streamId = msg.headers().getInt(STREAM_ID);
+         CompletableFuture<FullHttpResponse> future = streamId == null ? null : streams.remove(streamId);
+         if (future != null && !future.complete(msg.retain())) {
+            // The caller gave up waiting
+            msg.release();
+         }
+         writeQueued();
+         if (exhausted && streams.isEmpty() && queued.isEmpty()) {
+            ctx.close();
+         }
+      }
+
+      @Override
+      public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+         if (evt == HttpClientUpgradeHandler.UpgradeEvent.UPGRADE_SUCCESSFUL) {
+            upgrade.complete(null);
+         } else if (evt == HttpClientUpgradeHandler.UpgradeEvent.UPGRADE_REJECTED) {
+            upgrade.completeExceptionally(log.http2UpgradeRejected());
+         }
+         super.userEventTriggered(ctx, evt);
+      }
+
+      @Override
+      public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+         failPending(new ClosedChannelException());
+         super.channelInactive(ctx);
+      }
+
+      @Override
+      public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+         failPending(cause);
+         ctx.close();
+      }
+
+      private void failPending(Throwable cause) {
+         upgrade.completeExceptionally(cause);
+         streams.values().forEach(future -> future.completeExceptionally(cause));
+         streams.clear();
+         for (QueuedRequest next; (next = queued.poll()) != null; ) {
+            next.request.release();
+            next.future.completeExceptionally(cause);
+         }
+      }
+   }
+
+   private static class QueuedRequest {
+      final FullHttpRequest request;
+      final CompletableFuture<FullHttpResponse> future;
+
+      QueuedRequest(FullHttpRequest request, CompletableFuture<FullHttpResponse> future) {
+         this.request = request;
+         this.future = future;
+      }
+   }
+}
@@ -3,12 +3,15 @@
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.codec.EncoderException;
 import org.apache.commons.codec.net.URLCodec;
@@ -37,31 +40,27 @@
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.Unpooled;
-import io.netty.channel.Channel;
-import io.netty.channel.ChannelHandlerContext;
-import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
-import io.netty.handler.codec.http.DefaultHttpHeaders;
-import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
-import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
-import io.netty.handler.codec.http.HttpObjectAggregator;
-import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
 import net.jcip.annotations.ThreadSafe;
 
 /**
  * RestStore.
+ * <p>
+ * The requests are sent by a {@link RestTransport}: by default each request opens its own HTTP/1.1 connection, while
+ * with {@link RestStoreConfiguration#http2()} they are multiplexed over a few long-lived HTTP/2 connections, and
+ * {@link #process(KeyFilter, CacheLoaderTask, Executor, boolean, boolean)} keeps many GETs in flight for each batch of
+ * keys instead of loading them one by one.
  *
  * @author Tristan Tarrant
  * @since 6.0
@@ -72,9 +71,10 @@
 public class RestStore implements AdvancedLoadWriteStore {
    private static final String MAX_IDLE_TIME_SECONDS = "maxIdleTimeSeconds";
    private static final String TIME_TO_LIVE_SECONDS = "timeToLiveSeconds";
+   private static final int MAX_PIPELINED_REQUESTS = 100;
    private static final Log log = LogFactory.getLog(RestStore.class, Log.class);
    private volatile RestStoreConfiguration configuration;
-   private Bootstrap bootstrap;
+   private RestTransport transport;
    private InternalEntryFactory iceFactory;
    private MarshallingTwoWayKey2StringMapper key2StringMapper;
    private String path;
@@ -84,9 +84,6 @@ public class RestStore implements AdvancedLoadWriteStore {
 
    private EventLoopGroup workerGroup;
 
-   private int maxContentLength;
-
-
    @Override
    public void init(InitializationContext initializationContext) {
       configuration = initializationContext.getConfiguration();
@@ -102,19 +99,13 @@ public void start() {
       ConnectionPoolConfiguration pool = configuration.connectionPool();
       workerGroup = new NioEventLoopGroup();
       Bootstrap b = new Bootstrap().group(workerGroup).channel(NioSocketChannel.class);
-      b.handler(new ChannelInitializer<SocketChannel>() {
-         @Override
-         protected void initChannel(SocketChannel ch) {
-            ch.pipeline().addLast(new HttpClientCodec());
-         }
-      });
       b.option(ChannelOption.SO_KEEPALIVE, true); // TODO make this part of configuration options
       b.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, pool.connectionTimeout());
       b.option(ChannelOption.SO_SNDBUF, pool.bufferSize());// TODO make sure this is appropriate
       b.option(ChannelOption.SO_RCVBUF, pool.bufferSize());
       b.option(ChannelOption.TCP_NODELAY, pool.tcpNoDelay());
-      bootstrap = b;
-      maxContentLength = configuration.maxContentLength();
+      transport = configuration.http2() ? new Http2Transport(b, configuration) : new Http11Transport(b, configuration);
+      transport.start();
 
       this.key2StringMapper = Util.getInstance(configuration.key2StringMapper(), ctx.getCache().getAdvancedCache().getClassLoader());
       this.key2StringMapper.setMarshaller(ctx.getMarshaller());
@@ -126,16 +117,11 @@ protected void initChannel(SocketChannel ch) {
       } catch (EncoderException e) {
       }
       this.metadataHelper = Util.getInstance(configuration.metadataHelper(), ctx.getCache().getAdvancedCache().getClassLoader());
-      /*
-       * HACK ALERT. Initialize some internal Netty structures early while we are within the scope of the correct classloader to
-       * avoid triggering ISPN-7602
-       * This needs to be fixed properly within the context of ISPN-7601
-       */
-      new HttpResponseHandler();
    }
 
    @Override
    public void stop() {
+      transport.stop();
       workerGroup.shutdownGracefully();
    }
 
@@ -197,115 +183,91 @@ public void write(MarshalledEntry entry) {
             put.headers().add(MAX_IDLE_TIME_SECONDS, Long.toString(timeoutToSeconds(metadata.maxIdle())));
          }
 
-         Channel ch = bootstrap.connect(configuration.host(), configuration.port()).awaitUninterruptibly().channel().pipeline().addLast(new HttpResponseHandler()).channel();
-         ch.writeAndFlush(put).sync().channel().closeFuture().sync();
-
+         execute(put).release();
+      } catch (PersistenceException e) {
+         throw e;
       } catch (Exception e) {
          throw new PersistenceException(e);
       }
    }
 
-   private static class HttpResponseHandler extends SimpleChannelInboundHandler<HttpResponse> {
-
-      private FullHttpResponse response;
-
-      private boolean retainResponse;
-
-      public HttpResponseHandler() {
-         this(false);
-      }
-
-      public HttpResponseHandler(boolean retainResponse) {
-         this.retainResponse = retainResponse;
-      }
-
-      protected void channelRead0(ChannelHandlerContext ctx, HttpResponse msg) throws Exception {
-         if (retainResponse) {
-            this.response = ((FullHttpResponse) msg).retain();
-         }
-         ctx.close();
-      }
-
-      @Override
-      public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
-         throw new PersistenceException(cause);
-      }
-
-      public FullHttpResponse getResponse() {
-         return response;
-      }
-
-   }
-
    @Override
    public void clear() {
-      DefaultHttpRequest delete = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.DELETE, path);
-      try {
-         Channel ch = bootstrap.connect(configuration.host(), configuration.port()).awaitUninterruptibly().channel().pipeline().addLast(new HttpResponseHandler()).channel();
-         ch.writeAndFlush(delete).sync().channel().closeFuture().sync();
-      } catch (Exception e) {
-         throw new PersistenceException(e);
-      }
+      execute(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.DELETE, path)).release();
    }
 
    @Override
    public boolean delete(Object key) {
-      DefaultHttpRequest delete = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.DELETE, keyToUri(key));
+      FullHttpResponse response = execute(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.DELETE, keyToUri(key)));
       try {
-         HttpResponseHandler handler = new HttpResponseHandler(true);
-         Channel ch = bootstrap.connect(configuration.host(), configuration.port()).awaitUninterruptibly().channel().pipeline().addLast(new HttpObjectAggregator(maxContentLength), handler).channel();
-         ch.writeAndFlush(delete).sync().channel().closeFuture().sync();
-         try {
-            return isSuccessful(handler.getResponse().status().code());
-         } finally {
-            handler.getResponse().release();
-         }
-
-      } catch (Exception e) {
-         throw new PersistenceException(e);
+         return isSuccessful(response.status().code());
+      } finally {
+         response.release();
       }
    }
 
    @Override
    public MarshalledEntry load(Object key) {
+      return toMarshalledEntry(key, await(fetch(key)));
+   }
 
-      try {
-         DefaultHttpHeaders headers = new DefaultHttpHeaders();
-         DefaultHttpRequest get = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, keyToUri(key), headers);
+   private CompletableFuture<FullHttpResponse> fetch(Object key) {
+      return transport.execute(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, keyToUri(key)));
+   }
 
-         HttpResponseHandler handler = new HttpResponseHandler(true);
-         Channel ch = bootstrap.connect(configuration.host(), configuration.port()).awaitUninterruptibly().channel().pipeline().addLast(new HttpObjectAggregator(maxContentLength), handler).channel();
-         ch.writeAndFlush(get).sync().channel().closeFuture().sync();
-         FullHttpResponse response = handler.getResponse();
-         try {
-            if (HttpResponseStatus.OK.equals(response.status())) {
-               String contentType = response.headers().get(HttpHeaderNames.CONTENT_TYPE);
-               long ttl = timeHeaderToSeconds(response.headers().get(TIME_TO_LIVE_SECONDS));
-               long maxidle = timeHeaderToSeconds(response.headers().get(MAX_IDLE_TIME_SECONDS));
-               Metadata metadata = metadataHelper.buildMetadata(contentType, ttl, TimeUnit.SECONDS, maxidle, TimeUnit.SECONDS);
-               InternalMetadata internalMetadata;
-               if (metadata.maxIdle() > -1 || metadata.lifespan() > -1) {
-                  long now = ctx.getTimeService().wallClockTime();
-                  internalMetadata = new InternalMetadataImpl(metadata, now, now);
-               } else {
-                  internalMetadata = new InternalMetadataImpl(metadata, -1, -1);
-               }
-               ByteBuf content = response.content();
-               byte[] bytes = new byte[content.readableBytes()];
-               content.readBytes(bytes);
-               return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, unmarshall(contentType, bytes), internalMetadata);
-            } else if (HttpResponseStatus.NOT_FOUND.equals(response.status())) {
-               return null;
+   /**
+    * Builds the entry from the response to a GET, and releases the response.
+    */
+   private MarshalledEntry toMarshalledEntry(Object key, FullHttpResponse response) {
+      try {
+         if (HttpResponseStatus.OK.equals(response.status())) {
+            String contentType = response.headers().get(HttpHeaderNames.CONTENT_TYPE);
+            long ttl = timeHeaderToSeconds(response.headers().get(TIME_TO_LIVE_SECONDS));
+            long maxidle = timeHeaderToSeconds(response.headers().get(MAX_IDLE_TIME_SECONDS));
+            Metadata metadata = metadataHelper.buildMetadata(contentType, ttl, TimeUnit.SECONDS, maxidle, TimeUnit.SECONDS);
+            InternalMetadata internalMetadata;
+            if (metadata.maxIdle() > -1 || metadata.lifespan() > -1) {
+               long now = ctx.getTimeService().wallClockTime();
+               internalMetadata = new InternalMetadataImpl(metadata, now, now);
             } else {
-               throw log.httpError(response.status().toString());
+               internalMetadata = new InternalMetadataImpl(metadata, -1, -1);
             }
-         } finally {
-            response.release();
+            ByteBuf content = response.content();
+            byte[] bytes = new byte[content.readableBytes()];
+            content.readBytes(bytes);
+            return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, unmarshall(contentType, bytes), internalMetadata);
+         } else if (HttpResponseStatus.NOT_FOUND.equals(response.status())) {
+            return null;
+         } else {
+            throw log.httpError(response.status().toString());
          }
       } catch (IOException e) {
          throw log.httpError(e);
+      } catch (PersistenceException e) {
+         throw e;
       } catch (Exception e) {
          throw new PersistenceException(e);
+      } finally {
+         response.release();
+      }
+   }
+
+   private FullHttpResponse execute(FullHttpRequest request) {
+      return await(transport.execute(request));
+   }
+
+   private FullHttpResponse await(CompletableFuture<FullHttpResponse> future) {
+      try {
+         int timeout = configuration.connectionPool().socketTimeout();
+         // A socket timeout of 0 or less means no timeout, so wait for the response for as long as it takes
+         return timeout > 0 ? future.get(timeout, TimeUnit.MILLISECONDS) : future.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException(e);
+      } catch (ExecutionException e) {
+         throw log.httpError(e.getCause());
+      } catch (TimeoutException e) {
+         throw log.httpError(e);
       }
    }
 
@@ -325,28 +287,25 @@ private long timeHeaderToSeconds(String header) {
 
    @Override
    public void process(KeyFilter keyFilter, final CacheLoaderTask cacheLoaderTask, Executor executor, boolean loadValue, boolean loadMetadata) {
-      DefaultHttpRequest get = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, path + "?global");
+      DefaultFullHttpRequest get = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, path + "?global");
       get.headers().add(HttpHeaderNames.ACCEPT, "text/plain");
       get.headers().add(HttpHeaderNames.ACCEPT_CHARSET, "UTF-8");
       try {
-         HttpResponseHandler handler = new HttpResponseHandler(true);
-         Channel ch = bootstrap.connect(configuration.host(), configuration.port()).awaitUninterruptibly().channel().pipeline().addLast(
-               new HttpObjectAggregator(maxContentLength), handler).channel();
-         ch.writeAndFlush(get).sync().channel().closeFuture().sync();
+         FullHttpResponse response = execute(get);
          int batchSize = 1000;
          ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
          final TaskContext taskContext = new TaskContextImpl();
          try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteBufInputStream(((FullHttpResponse) handler.getResponse()).content()), "UTF-8"));
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteBufInputStream(response.content()), "UTF-8"));
             try {
-               Set<Object> entries = new HashSet<Object>(batchSize);
+               List<Object> entries = new ArrayList<>(batchSize);
                for (String stringKey = reader.readLine(); stringKey != null; stringKey = reader.readLine()) {
                   Object key = key2StringMapper.getKeyMapping(stringKey);
                   if (keyFilter == null || keyFilter.accept(key))
                      entries.add(key);
                   if (entries.size() == batchSize) {
-                     final Set<Object> batch = entries;
-                     entries = new HashSet<Object>(batchSize);
+                     final List<Object> batch = entries;
+                     entries = new ArrayList<>(batchSize);
                      submitProcessTask(cacheLoaderTask, eacs, taskContext, batch, loadValue, loadMetadata);
                   }
                }
@@ -361,26 +320,40 @@ public void process(KeyFilter keyFilter, final CacheLoaderTask cacheLoaderTask,
                throw new PersistenceException("Execution exception!", eacs.getFirstException());
             }
          } finally {
-            handler.getResponse().release();
+            response.release();
          }
       } catch (Exception e) {
          throw log.errorLoadingRemoteEntries(e);
       }
    }
 
+   /**
+    * Loads the entries of a batch of keys. With a multiplexed transport up to {@link #MAX_PIPELINED_REQUESTS} GETs are
+    * in flight at the same time, otherwise the keys are loaded one by one.
+    */
    private void submitProcessTask(final CacheLoaderTask cacheLoaderTask, CompletionService ecs,
-                                  final TaskContext taskContext, final Set<Object> batch, final boolean loadEntry,
+                                  final TaskContext taskContext, final List<Object> batch, final boolean loadEntry,
                                   final boolean loadMetadata) {
       ecs.submit(new Callable<Void>() {
          @Override
          public Void call() throws Exception {
+            int window = transport.isMultiplexed() ? MAX_PIPELINED_REQUESTS : 1;
+            List<CompletableFuture<FullHttpResponse>> responses = new ArrayList<>(batch.size());
+            int processed = 0;
             try {
                for (Object key : batch) {
                   if (taskContext.isStopped())
                      break;
                   MarshalledEntry entry = null;
                   if (loadEntry || loadMetadata) {
-                     entry = load(key);
+                     while (responses.size() < batch.size() && responses.size() - processed < window) {
+                        responses.add(fetch(batch.get(responses.size())));
+                     }
+                     entry = toMarshalledEntry(key, await(responses.get(processed++)));
+                     if (entry == null) {
+                        // Removed after the keys were listed
+                        continue;
+                     }
                   }
                   if (!loadEntry || !loadMetadata) {
                      entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(key,
@@ -392,6 +365,10 @@ public Void call() throws Exception {
             } catch (Exception e) {
                log.errorExecutingParallelStoreTask(e);
                throw e;
+            } finally {
+               for (int i = processed; i < responses.size(); i++) {
+                  responses.get(i).thenAccept(FullHttpResponse::release);
+               }
             }
             return null;
          }
@@ -405,19 +382,15 @@ public void purge(Executor executor, PurgeListener purgeListener) {
 
    @Override
    public int size() {
-      Channel ch = null;
-      DefaultHttpRequest get = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, path + "?global");
+      DefaultFullHttpRequest get = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, path + "?global");
       get.headers().add(HttpHeaders.Names.ACCEPT, "text/plain");
 
       try {
-         HttpResponseHandler handler = new HttpResponseHandler(true);
-         ch = bootstrap.connect(configuration.host(), configuration.port()).awaitUninterruptibly().channel().pipeline().addLast(
-               new HttpObjectAggregator(maxContentLength), handler).channel();
-         ch.writeAndFlush(get).sync().channel().closeFuture().sync();
+         FullHttpResponse response = execute(get);
          try {
             BufferedReader reader = null;
             try {
-               reader = new BufferedReader(new InputStreamReader(new ByteBufInputStream(((FullHttpResponse) handler.getResponse()).content())));
+               reader = new BufferedReader(new InputStreamReader(new ByteBufInputStream(response.content())));
                int count = 0;
                while (reader.readLine() != null)
                   count++;
@@ -426,7 +399,7 @@ public int size() {
                reader.close();
             }
          } finally {
-            handler.getResponse().release();
+            response.release();
          }
       } catch (Exception e) {
          throw log.errorLoadingRemoteEntries(e);
@@ -0,0 +1,30 @@
+package org.infinispan.persistence.rest;
+
+import java.util.concurrent.CompletableFuture;
+
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+
+/**
+ * Sends the requests of a {@link RestStore} to the remote server without blocking the caller.
+ *
+ * @since 9.2
+ */
+interface RestTransport {
+
+   void start();
+
+   void stop();
+
+   /**
+    * Sends a request to the server. The transport takes ownership of the request.
+    *
+    * @return a future completed with the aggregated response, which must be released by the caller
+    */
+   CompletableFuture<FullHttpResponse> execute(FullHttpRequest request);
+
+   /**
+    * @return whether many requests can be in flight at the same time without opening a connection for each of them
+    */
+   boolean isMultiplexed();
+}
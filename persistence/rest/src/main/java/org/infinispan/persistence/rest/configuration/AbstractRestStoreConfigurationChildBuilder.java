@@ -75,4 +75,9 @@ public RestStoreConfigurationBuilder rawValues(boolean rawValues) {
    public RestStoreConfigurationBuilder maxContentLength(int maxContentLength) {
       return builder.maxContentLength(maxContentLength);
    }
+
+   @Override
+   public RestStoreConfigurationBuilder http2(boolean http2) {
+      return builder.http2(http2);
+   }
 }
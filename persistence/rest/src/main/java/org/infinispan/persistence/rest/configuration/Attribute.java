@@ -17,6 +17,7 @@ public enum Attribute {
    BUFFER_SIZE("buffer-size"),
    CONNECTION_TIMEOUT("connection-timeout"),
    HOST("host"),
+   HTTP2("http2"),
    KEY_TO_STRING_MAPPER("key-to-string-mapper"),
    MAX_CONNECTIONS_PER_HOST("max-connections-per-host"),
    MAX_TOTAL_CONNECTIONS("max-total-connections"),
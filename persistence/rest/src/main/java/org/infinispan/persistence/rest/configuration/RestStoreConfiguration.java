@@ -31,9 +31,10 @@ public class RestStoreConfiguration extends AbstractStoreConfiguration {
    public static final AttributeDefinition<Boolean> APPEND_CACHE_NAME_TO_PATH = AttributeDefinition.builder("appendCacheNameToPath", false).immutable().build();
    public static final AttributeDefinition<Boolean> RAW_VALUES = AttributeDefinition.builder("rawValues", false).immutable().build();
    public static final AttributeDefinition<Integer> MAX_CONTENT_LENGTH = AttributeDefinition.builder("maxContentLength", 10 * 1024 * 1024).immutable().build();
+   public static final AttributeDefinition<Boolean> HTTP2 = AttributeDefinition.builder("http2", false).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(RestStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), KEY2STRING_MAPPER, METADATA_HELPER, HOST, PORT, PATH, APPEND_CACHE_NAME_TO_PATH, RAW_VALUES, MAX_CONTENT_LENGTH);
+      return new AttributeSet(RestStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), KEY2STRING_MAPPER, METADATA_HELPER, HOST, PORT, PATH, APPEND_CACHE_NAME_TO_PATH, RAW_VALUES, MAX_CONTENT_LENGTH, HTTP2);
    }
 
    private final Attribute<String> key2StringMapper;
@@ -44,6 +45,7 @@ public static AttributeSet attributeDefinitionSet() {
    private final Attribute<Boolean> appendCacheNameToPath;
    private final Attribute<Boolean> rawValues;
    private final Attribute<Integer> maxContentLength;
+   private final Attribute<Boolean> http2;
    private final ConnectionPoolConfiguration connectionPool;
 
    public RestStoreConfiguration(AttributeSet attributes,
@@ -57,6 +59,7 @@ public RestStoreConfiguration(AttributeSet attributes,
       appendCacheNameToPath = attributes.attribute(APPEND_CACHE_NAME_TO_PATH);
       rawValues = attributes.attribute(RAW_VALUES);
       maxContentLength = attributes.attribute(MAX_CONTENT_LENGTH);
+      http2 = attributes.attribute(HTTP2);
       this.connectionPool = connectionPool;
    }
 
@@ -96,6 +99,10 @@ public int maxContentLength() {
       return maxContentLength.get();
    }
 
+   public boolean http2() {
+      return http2.get();
+   }
+
    @Override
    public String toString() {
       return "RestStoreConfiguration [connectionPool=" + connectionPool + ", attributes=" + attributes + "]";
@@ -2,6 +2,7 @@
 
 import static org.infinispan.persistence.rest.configuration.RestStoreConfiguration.APPEND_CACHE_NAME_TO_PATH;
 import static org.infinispan.persistence.rest.configuration.RestStoreConfiguration.HOST;
+import static org.infinispan.persistence.rest.configuration.RestStoreConfiguration.HTTP2;
 import static org.infinispan.persistence.rest.configuration.RestStoreConfiguration.KEY2STRING_MAPPER;
 import static org.infinispan.persistence.rest.configuration.RestStoreConfiguration.MAX_CONTENT_LENGTH;
 import static org.infinispan.persistence.rest.configuration.RestStoreConfiguration.METADATA_HELPER;
@@ -101,6 +102,12 @@ public RestStoreConfigurationBuilder maxContentLength(int maxContentLength) {
       return this;
    }
 
+   @Override
+   public RestStoreConfigurationBuilder http2(boolean http2) {
+      attributes.attribute(HTTP2).set(http2);
+      return this;
+   }
+
    @Override
    public RestStoreConfiguration create() {
       return new RestStoreConfiguration(attributes.protect(), async.create(),
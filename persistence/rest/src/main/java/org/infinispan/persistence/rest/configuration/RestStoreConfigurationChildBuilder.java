@@ -72,4 +72,11 @@
     * Sets the maximum content length. Defaults to 10M.
     */
    RestStoreConfigurationBuilder maxContentLength(int maxContentLength);
+
+   /**
+    * Whether to upgrade the connections to HTTP/2 and multiplex the requests over them, instead of opening a
+    * connection for each request. The {@link ConnectionPoolConfigurationBuilder#maxConnectionsPerHost(int)} connections
+    * are kept open for the lifetime of the store. Defaults to false.
+    */
+   RestStoreConfigurationBuilder http2(boolean http2);
 }
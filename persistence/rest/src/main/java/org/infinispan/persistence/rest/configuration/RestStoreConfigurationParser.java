@@ -172,6 +172,10 @@ private void parseRestStoreAttributes(XMLExtendedStreamReader reader, RestStoreC
                builder.maxContentLength(Integer.parseInt(value));
                break;
             }
+            case HTTP2: {
+               builder.http2(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                Parser.parseStoreAttribute(reader, i, builder);
                break;
@@ -56,4 +56,10 @@ public interface Log extends BasicLogger {
 
    @Message(value = "Error loading entries from remote server", id = 22005)
    PersistenceException errorLoadingRemoteEntries(@Cause Exception e);
+
+   @Message(value = "Could not upgrade the connection to %s:%d to HTTP/2", id = 22006)
+   PersistenceException http2UpgradeFailed(String host, int port, @Cause Throwable cause);
+
+   @Message(value = "The server rejected the upgrade to HTTP/2", id = 22007)
+   PersistenceException http2UpgradeRejected();
 }
@@ -0,0 +1,18 @@
+package org.infinispan.persistence.rest;
+
+import org.infinispan.persistence.rest.configuration.RestStoreConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the store tests with the requests multiplexed over HTTP/2 connections.
+ *
+ * @since 9.2
+ */
+@Test(testName = "persistence.rest.RestStoreHttp2Test", groups = "functional")
+public class RestStoreHttp2Test extends RestStoreTest {
+
+   @Override
+   protected void configureStore(RestStoreConfigurationBuilder builder) {
+      builder.http2(true).connectionPool().maxConnectionsPerHost(2);
+   }
+}
@@ -59,12 +59,16 @@ protected AdvancedLoadWriteStore createStore() throws Exception {
             .addStore(RestStoreConfigurationBuilder.class);
       storeConfigurationBuilder.host(restServer.getHost()).port(restServer.getPort()).path("/rest/" + REMOTE_CACHE);
       storeConfigurationBuilder.connectionPool().maxTotalConnections(10).maxConnectionsPerHost(10);
+      configureStore(storeConfigurationBuilder);
       storeConfigurationBuilder.validate();
       RestStore restStore = new RestStore();
       restStore.init(createContext(builder.build()));
       return restStore;
    }
 
+   protected void configureStore(RestStoreConfigurationBuilder builder) {
+   }
+
    @Override
    @AfterMethod(alwaysRun = true)
    public void tearDown() {
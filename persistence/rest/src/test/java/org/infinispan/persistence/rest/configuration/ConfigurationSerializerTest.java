@@ -12,7 +12,8 @@ public class ConfigurationSerializerTest extends AbstractConfigurationSerializer
    @DataProvider(name = "configurationFiles")
    public Object[][] configurationFiles() {
       return new Object[][] {
-            {"rest-cl-config.xml"}
+            {"rest-cl-config.xml"},
+            {"rest-cl-http2-config.xml"}
       };
    }
 
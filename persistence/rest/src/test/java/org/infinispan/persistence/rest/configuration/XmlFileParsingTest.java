@@ -17,6 +17,7 @@
 @Test(groups = "unit", testName = "persistence.rest.configuration.XmlFileParsingTest")
 public class XmlFileParsingTest extends AbstractInfinispanTest {
    public static final String CACHE_LOADER_CONFIG = "rest-cl-config.xml";
+   public static final String HTTP2_CACHE_LOADER_CONFIG = "rest-cl-http2-config.xml";
    private EmbeddedCacheManager cacheManager;
 
    @AfterMethod
@@ -34,6 +35,7 @@ public void testRemoteCacheStore() throws Exception {
       assertEquals("/rest/___defaultcache/", store.path());
       assertEquals(18212, store.port());
       assertEquals(15000000, store.maxContentLength());
+      assertFalse(store.http2());
       ConnectionPoolConfiguration connectionPool = store.connectionPool();
       assertEquals(10000, connectionPool.connectionTimeout());
       assertEquals(10, connectionPool.maxConnectionsPerHost());
@@ -43,4 +45,14 @@ public void testRemoteCacheStore() throws Exception {
       assertTrue(connectionPool.tcpNoDelay());
       assertFalse(store.async().enabled());
    }
+
+   public void testHttp2RemoteCacheStore() throws Exception {
+      cacheManager = TestCacheManagerFactory.fromXml(HTTP2_CACHE_LOADER_CONFIG);
+      List<StoreConfiguration> cacheLoaders = cacheManager.getDefaultCacheConfiguration().persistence().stores();
+      assertEquals(1, cacheLoaders.size());
+      RestStoreConfiguration store = (RestStoreConfiguration) cacheLoaders.get(0);
+      assertTrue(store.http2());
+      assertEquals("localhost", store.host());
+      assertEquals(18212, store.port());
+   }
 }
@@ -2,19 +2,25 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.persistence.Store;
 import org.infinispan.commons.util.Util;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
@@ -23,11 +29,15 @@
 import org.infinispan.persistence.TaskContextImpl;
 import org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration;
 import org.infinispan.persistence.rocksdb.logging.Log;
-import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.util.logging.LogFactory;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.CompressionType;
+import org.rocksdb.DBOptions;
 import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
@@ -36,15 +46,28 @@
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
+/**
+ * A store based on RocksDB. When {@link RocksDBStoreConfiguration#segmented() segmented}, each segment of the cache is
+ * kept in its own column family, so that the segments can be iterated over and dropped one by one.
+ */
 @Store
 @ConfiguredBy(RocksDBStoreConfiguration.class)
-public class RocksDBStore<K,V> implements AdvancedLoadWriteStore<K,V> {
+public class RocksDBStore<K,V> implements SegmentedAdvancedLoadWriteStore<K,V> {
     private static final Log log = LogFactory.getLog(RocksDBStore.class, Log.class);
 
     private RocksDBStoreConfiguration configuration;
     private BlockingQueue<ExpiryEntry> expiryEntryQueue;
     private RocksDB db;
     private RocksDB expiredDb;
+    // The column family of each segment, null unless the store is segmented
+    private ColumnFamilyHandle[] segmentHandles;
+    private ColumnFamilyHandle defaultHandle;
+    // The options must outlive the database and the iterators using them
+    private DBOptions segmentedDbOptions;
+    private ColumnFamilyOptions segmentOptions;
+    private ReadOptions readOptions;
+    private KeyPartitioner keyPartitioner;
+    private int numSegments;
     private InitializationContext ctx;
     private Semaphore semaphore;
     private WriteOptions dataWriteOptions;
@@ -55,6 +78,8 @@ public void init(InitializationContext ctx) {
         this.configuration = ctx.getConfiguration();
         this.ctx = ctx;
         this.semaphore = new Semaphore(Integer.MAX_VALUE, true);
+        this.keyPartitioner = PersistenceUtil.getKeyPartitioner(ctx);
+        this.numSegments = PersistenceUtil.getHashConfiguration(ctx).numSegments();
     }
 
     @Override
@@ -62,8 +87,16 @@ public void start() {
         expiryEntryQueue = new LinkedBlockingQueue<>(configuration.expiryQueueSize());
 
         try {
-            db = openDatabase(getQualifiedLocation(), dataDbOptions());
-            expiredDb = openDatabase(getQualifiedExpiredLocation(), expiredDbOptions());
+            verifySegments(getQualifiedLocation());
+        } catch (RocksDBException e) {
+            throw new CacheConfigurationException("Unable to open database", e);
+        }
+        try {
+            readOptions = new ReadOptions().setFillCache(false);
+            db = openDataDatabase(getQualifiedLocation());
+            if (!configuration.expiryScan()) {
+                expiredDb = openDatabase(getQualifiedExpiredLocation(), expiredDbOptions());
+            }
             stopped = false;
         } catch (Exception e) {
             throw new CacheConfigurationException("Unable to open database", e);
@@ -95,6 +128,37 @@ private Options dataDbOptions() {
         return options;
     }
 
+    private ColumnFamilyOptions segmentOptions() {
+        return new ColumnFamilyOptions()
+              .setCompressionType(CompressionType.getCompressionType(configuration.compressionType().toString()));
+    }
+
+    /**
+     * Checks that an existing database was created with the configured segmentation. Opening it with a different
+     * number of segments would look the keys up in the wrong column families.
+     */
+    private void verifySegments(String location) throws RocksDBException {
+        if (!new File(location, "CURRENT").exists())
+            return;
+        int segments;
+        try (Options options = new Options()) {
+            // The default column family is always present
+            segments = RocksDB.listColumnFamilies(options, location).size() - 1;
+        }
+        if (!configuration.segmented()) {
+            if (segments > 0)
+                throw log.segmentedDatabase(location, segments);
+        } else if (segments == 0) {
+            throw log.nonSegmentedDatabase(location);
+        } else if (segments != numSegments) {
+            throw log.segmentCountMismatch(location, segments, numSegments);
+        }
+    }
+
+    private static ColumnFamilyDescriptor segmentDescriptor(int segment, ColumnFamilyOptions options) {
+        return new ColumnFamilyDescriptor(Integer.toString(segment).getBytes(StandardCharsets.UTF_8), options);
+    }
+
     private Options expiredDbOptions() {
         return new Options().setCreateIfMissing(true);
     }
@@ -114,6 +178,43 @@ protected void destroyDatabase(String location) throws IOException {
         Util.recursiveFileRemove(new File(location));
     }
 
+    private RocksDB openDataDatabase(String location) throws IOException, RocksDBException {
+        if (!configuration.segmented())
+            return openDatabase(location, dataDbOptions());
+
+        new File(location).mkdirs();
+        segmentOptions = segmentOptions();
+        List<ColumnFamilyDescriptor> descriptors = new ArrayList<>(numSegments + 1);
+        // The default column family must always be opened, even though it is not used
+        descriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY));
+        for (int i = 0; i < numSegments; i++) {
+            descriptors.add(segmentDescriptor(i, segmentOptions));
+        }
+        segmentedDbOptions = new DBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true);
+        List<ColumnFamilyHandle> handles = new ArrayList<>(numSegments + 1);
+        RocksDB rocksDB = RocksDB.open(segmentedDbOptions, location, descriptors, handles);
+        defaultHandle = handles.get(0);
+        segmentHandles = handles.subList(1, handles.size()).toArray(new ColumnFamilyHandle[numSegments]);
+        return rocksDB;
+    }
+
+    private void closeDataDatabase() {
+        if (segmentHandles != null) {
+            for (ColumnFamilyHandle handle : segmentHandles) {
+                handle.close();
+            }
+            segmentHandles = null;
+            defaultHandle.close();
+        }
+        db.close();
+        if (segmentedDbOptions != null) {
+            segmentedDbOptions.close();
+            segmentedDbOptions = null;
+            segmentOptions.close();
+            segmentOptions = null;
+        }
+    }
+
     protected RocksDB reinitDatabase(String location, Options options) throws IOException, RocksDBException {
         destroyDatabase(location);
         return openDatabase(location, options);
@@ -129,10 +230,13 @@ protected void reinitAllDatabases() throws IOException, RocksDBException {
             if (stopped) {
                 throw new PersistenceException("RocksDB is stopped");
             }
-            db.close();
-            expiredDb.close();
-            db = reinitDatabase(getQualifiedLocation(), dataDbOptions());
-            expiredDb = reinitDatabase(getQualifiedExpiredLocation(), expiredDbOptions());
+            closeDataDatabase();
+            destroyDatabase(getQualifiedLocation());
+            db = openDataDatabase(getQualifiedLocation());
+            if (expiredDb != null) {
+                expiredDb.close();
+                expiredDb = reinitDatabase(getQualifiedExpiredLocation(), expiredDbOptions());
+            }
         } finally {
             semaphore.release(Integer.MAX_VALUE);
         }
@@ -146,8 +250,15 @@ public void stop() {
             throw new PersistenceException("Cannot acquire semaphore", e);
         }
         try {
-            db.close();
-            expiredDb.close();
+            closeDataDatabase();
+            if (expiredDb != null) {
+                expiredDb.close();
+                expiredDb = null;
+            }
+            if (readOptions != null) {
+                readOptions.close();
+                readOptions = null;
+            }
         } finally {
             stopped = true;
             semaphore.release(Integer.MAX_VALUE);
@@ -156,6 +267,10 @@ public void stop() {
 
     @Override
     public void clear() {
+        if (configuration.segmented()) {
+            dropSegments(null);
+            return;
+        }
         long count = 0;
         boolean destroyDatabase = false;
         try {
@@ -198,11 +313,11 @@ public void clear() {
         }
     }
 
-    private static Optional<RocksIterator> wrapIterator(RocksDB db) {
+    private Optional<RocksIterator> wrapIterator(RocksDB db) {
         // Some Cache Store tests use clear and in case of the Rocks DB implementation
         // this clears out internal references and results in throwing exceptions
         // when getting an iterator. Unfortunately there is no nice way to check that...
-        return Optional.of(db.newIterator(new ReadOptions().setFillCache(false)));
+        return Optional.of(db.newIterator(readOptions));
     }
 
     @Override
@@ -219,9 +334,29 @@ public boolean contains(Object key) {
         }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Executor executor, boolean loadValues, boolean loadMetadata) {
+        processSegments(null, keyFilter, cacheLoaderTask, executor, loadValues, loadMetadata);
+    }
+
+    @Override
+    public void process(Set<Integer> segments, KeyFilter<? super K> keyFilter, CacheLoaderTask<K, V> cacheLoaderTask,
+                        Executor executor, boolean loadValues, boolean loadMetadata) {
+        if (configuration.segmented()) {
+            processSegments(segments, keyFilter, cacheLoaderTask, executor, loadValues, loadMetadata);
+        } else {
+            KeyFilter<K> segmentFilter = k -> segments.contains(keyPartitioner.getSegment(k)) &&
+                  (keyFilter == null || keyFilter.accept(k));
+            processSegments(null, segmentFilter, cacheLoaderTask, executor, loadValues, loadMetadata);
+        }
+    }
+
+    /**
+     * Iterates over the column families of the given segments, or over the whole database if {@code segments} is null.
+     */
+    @SuppressWarnings("unchecked")
+    private void processSegments(Set<Integer> segments, KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask,
+                                 Executor executor, boolean loadValues, boolean loadMetadata) {
         int batchSize = 100;
         ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
         final TaskContext taskContext = new TaskContextImpl();
@@ -236,35 +371,163 @@ public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Execut
             if (stopped) {
                 throw new PersistenceException("RocksDB is stopped");
             }
-            Optional<RocksIterator> optionalIterator = wrapIterator(this.db);
-            if (optionalIterator.isPresent()) {
-                try (RocksIterator it = optionalIterator.get()) {
-                    for (it.seekToFirst(); it.isValid(); it.next()) {
-                        Entry entry = new Entry(it.key(), it.value());
-                        entries.add(entry);
-                        if (entries.size() == batchSize) {
-                            final List<Entry> batch = entries;
-                            entries = new ArrayList<>(batchSize);
-                            submitProcessTask(cacheLoaderTask, keyFilter, eacs, taskContext, batch, loadValues, loadMetadata);
-                        }
+            try {
+                List<ColumnFamilyHandle> handles = handles(segments);
+                if (handles.size() > 1) {
+                    // Each column family is read by its own task, which processes the entries it reads
+                    for (ColumnFamilyHandle handle : handles) {
+                        eacs.submit(() -> {
+                            processColumnFamily(handle, cacheLoaderTask, keyFilter, taskContext, loadValues, loadMetadata);
+                            return null;
+                        });
                     }
-                    if (!entries.isEmpty()) {
-                        submitProcessTask(cacheLoaderTask, keyFilter, eacs, taskContext, entries, loadValues, loadMetadata);
+                    handles = Collections.emptyList();
+                }
+                // The keys are ordered by their marshalled bytes, which give no range to split a single column family
+                // into, so it is read by this thread and only the processing of the entries is parallel
+                for (ColumnFamilyHandle handle : handles) {
+                    try (RocksIterator it = newIterator(handle)) {
+                        for (it.seekToFirst(); it.isValid() && !taskContext.isStopped(); it.next()) {
+                            Entry entry = new Entry(it.key(), it.value());
+                            entries.add(entry);
+                            if (entries.size() == batchSize) {
+                                final List<Entry> batch = entries;
+                                entries = new ArrayList<>(batchSize);
+                                submitProcessTask(cacheLoaderTask, keyFilter, eacs, taskContext, batch, loadValues, loadMetadata);
+                            }
+                        }
                     }
+                }
+                if (!entries.isEmpty()) {
+                    submitProcessTask(cacheLoaderTask, keyFilter, eacs, taskContext, entries, loadValues, loadMetadata);
+                }
+
+                eacs.waitUntilAllCompleted();
+                if (eacs.isExceptionThrown()) {
+                    throw new PersistenceException("Execution exception!", eacs.getFirstException());
+                }
+            } catch (Exception e) {
+                throw new PersistenceException(e);
+            }
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * @return the column families of the given segments, or a single {@code null} element standing for the whole
+     * database if the store is not segmented
+     */
+    private List<ColumnFamilyHandle> handles(Set<Integer> segments) {
+        if (segmentHandles == null)
+            return Collections.singletonList(null);
+
+        List<ColumnFamilyHandle> handles = new ArrayList<>();
+        for (int i = 0; i < segmentHandles.length; i++) {
+            if (segments == null || segments.contains(i)) {
+                handles.add(segmentHandles[i]);
+            }
+        }
+        return handles;
+    }
+
+    private RocksIterator newIterator(ColumnFamilyHandle handle) {
+        return handle == null ? db.newIterator(readOptions) : db.newIterator(handle, readOptions);
+    }
 
-                    eacs.waitUntilAllCompleted();
-                    if (eacs.isExceptionThrown()) {
-                        throw new PersistenceException("Execution exception!", eacs.getFirstException());
+    @Override
+    public void removeSegments(Set<Integer> segments) {
+        if (segments.isEmpty())
+            return;
+        if (configuration.segmented()) {
+            dropSegments(segments);
+            return;
+        }
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            throw new PersistenceException("Cannot acquire semaphore: CacheStore is likely stopped.", e);
+        }
+        try {
+            if (stopped) {
+                throw new PersistenceException("RocksDB is stopped");
+            }
+            // The keys have to be unmarshalled to find their segment
+            try (WriteBatch batch = new WriteBatch()) {
+                try (RocksIterator it = newIterator(null)) {
+                    for (it.seekToFirst(); it.isValid(); it.next()) {
+                        if (segments.contains(keyPartitioner.getSegment(unmarshall(it.key())))) {
+                            batch.remove(it.key());
+                        }
                     }
-                } catch (Exception e) {
-                    throw new PersistenceException(e);
                 }
+                db.write(dataWriteOptions(), batch);
             }
+        } catch (PersistenceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new PersistenceException(e);
         } finally {
             semaphore.release();
         }
     }
 
+    /**
+     * Drops and recreates the column families of the given segments, or of all the segments and the expiry database
+     * if {@code segments} is null. No other operation may use the column families meanwhile.
+     */
+    private void dropSegments(Set<Integer> segments) {
+        try {
+            semaphore.acquire(Integer.MAX_VALUE);
+        } catch (InterruptedException e) {
+            throw new PersistenceException("Cannot acquire semaphore", e);
+        }
+        try {
+            if (stopped) {
+                throw new PersistenceException("RocksDB is stopped");
+            }
+            for (int i = 0; i < segmentHandles.length; i++) {
+                if (segments == null || segments.contains(i)) {
+                    db.dropColumnFamily(segmentHandles[i]);
+                    segmentHandles[i].close();
+                    segmentHandles[i] = db.createColumnFamily(segmentDescriptor(i, segmentOptions));
+                }
+            }
+            if (segments == null && expiredDb != null) {
+                expiredDb.close();
+                expiredDb = reinitDatabase(getQualifiedExpiredLocation(), expiredDbOptions());
+            }
+        } catch (IOException | RocksDBException e) {
+            throw new PersistenceException(e);
+        } finally {
+            semaphore.release(Integer.MAX_VALUE);
+        }
+    }
+
+    private ColumnFamilyHandle handle(Object key) {
+        return segmentHandles[keyPartitioner.getSegment(key)];
+    }
+
+    private byte[] get(Object key, byte[] keyBytes) throws RocksDBException {
+        return segmentHandles == null ? db.get(keyBytes) : db.get(handle(key), keyBytes);
+    }
+
+    private void put(Object key, byte[] keyBytes, byte[] value) throws RocksDBException {
+        if (segmentHandles == null) {
+            db.put(keyBytes, value);
+        } else {
+            db.put(handle(key), keyBytes, value);
+        }
+    }
+
+    private void delete(Object key, byte[] keyBytes) throws RocksDBException {
+        if (segmentHandles == null) {
+            db.delete(keyBytes);
+        } else {
+            db.delete(handle(key), keyBytes);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private void submitProcessTask(final CacheLoaderTask cacheLoaderTask, final KeyFilter filter, CompletionService ecs,
                                    final TaskContext taskContext, final List<Entry> batch,
@@ -276,18 +539,7 @@ private void submitProcessTask(final CacheLoaderTask cacheLoaderTask, final KeyF
                     if (taskContext.isStopped()) {
                         break;
                     }
-                    Object key = unmarshall(pair.key);
-                    if (filter == null || filter.accept(key)) {
-                        MarshalledEntry entry = loadValues || loadMetadata ? (MarshalledEntry) unmarshall(pair.value) : null;
-                        boolean isExpired = entry != null && entry.getMetadata() != null && entry.getMetadata().isExpired(now);
-                        if (!isExpired) {
-                            if (!loadValues || !loadMetadata) {
-                                entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(
-                                      key, loadValues ? entry.getValue() : null, loadMetadata ? entry.getMetadata() : null);
-                            }
-                            cacheLoaderTask.processEntry(entry, taskContext);
-                        }
-                    }
+                    processEntry(pair.key, pair.value, now, cacheLoaderTask, filter, taskContext, loadValues, loadMetadata);
                 }
                 return null;
             } catch (Exception e) {
@@ -297,6 +549,37 @@ private void submitProcessTask(final CacheLoaderTask cacheLoaderTask, final KeyF
         });
     }
 
+    private void processColumnFamily(ColumnFamilyHandle handle, CacheLoaderTask cacheLoaderTask, KeyFilter filter,
+                                     TaskContext taskContext, boolean loadValues, boolean loadMetadata) throws Exception {
+        try (RocksIterator it = newIterator(handle)) {
+            long now = ctx.getTimeService().wallClockTime();
+            for (it.seekToFirst(); it.isValid() && !taskContext.isStopped(); it.next()) {
+                processEntry(it.key(), it.value(), now, cacheLoaderTask, filter, taskContext, loadValues, loadMetadata);
+            }
+        } catch (Exception e) {
+            log.errorExecutingParallelStoreTask(e);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void processEntry(byte[] keyBytes, byte[] valueBytes, long now, CacheLoaderTask cacheLoaderTask,
+                              KeyFilter filter, TaskContext taskContext, boolean loadValues, boolean loadMetadata)
+          throws IOException, ClassNotFoundException, InterruptedException {
+        Object key = unmarshall(keyBytes);
+        if (filter == null || filter.accept(key)) {
+            MarshalledEntry entry = loadValues || loadMetadata ? (MarshalledEntry) unmarshall(valueBytes) : null;
+            boolean isExpired = entry != null && entry.getMetadata() != null && entry.getMetadata().isExpired(now);
+            if (!isExpired) {
+                if (!loadValues || !loadMetadata) {
+                    entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(
+                          key, loadValues ? entry.getValue() : null, loadMetadata ? entry.getMetadata() : null);
+                }
+                cacheLoaderTask.processEntry(entry, taskContext);
+            }
+        }
+    }
+
     @Override
     public boolean delete(Object key) {
         try {
@@ -306,10 +589,10 @@ public boolean delete(Object key) {
                 if (stopped) {
                     throw new PersistenceException("RocksDB is stopped");
                 }
-                if (db.get(keyBytes) == null) {
+                if (get(key, keyBytes) == null) {
                     return false;
                 }
-                db.delete(keyBytes);
+                delete(key, keyBytes);
             } finally {
                 semaphore.release();
             }
@@ -329,12 +612,12 @@ public void write(MarshalledEntry me) {
                 if (stopped) {
                     throw new PersistenceException("RocksDB is stopped");
                 }
-                db.put(marshelledKey, marshalledEntry);
+                put(me.getKey(), marshelledKey, marshalledEntry);
             } finally {
                 semaphore.release();
             }
             InternalMetadata meta = me.getMetadata();
-            if (meta != null && meta.expiryTime() > -1) {
+            if (meta != null && meta.expiryTime() > -1 && !configuration.expiryScan()) {
                 addNewExpiry(me);
             }
         } catch (Exception e) {
@@ -351,7 +634,7 @@ public MarshalledEntry load(Object key) {
                 if (stopped) {
                     throw new PersistenceException("RocksDB is stopped");
                 }
-                marshalledEntry = db.get(marshall(key));
+                marshalledEntry = get(key, marshall(key));
             } finally {
                 semaphore.release();
             }
@@ -371,40 +654,55 @@ public MarshalledEntry load(Object key) {
     @Override
     public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> marshalledEntries) {
         try {
-            int batchSize = 0;
-            WriteBatch batch = new WriteBatch();
+            List<MarshalledEntry> batch = new ArrayList<>();
             for (MarshalledEntry entry : marshalledEntries) {
-                batch.put(marshall(entry.getKey()), marshall(entry));
-                batchSize++;
+                batch.add(entry);
 
-                if (batchSize == configuration.maxBatchSize()) {
-                    batchSize = 0;
+                if (batch.size() == configuration.maxBatchSize()) {
                     writeBatch(batch);
-                    batch = new WriteBatch();
+                    batch = new ArrayList<>();
                 }
             }
 
-            if (batchSize != 0)
+            if (!batch.isEmpty())
                 writeBatch(batch);
 
             // Add metadata only after batch has been written
-            for (MarshalledEntry entry : marshalledEntries) {
-                InternalMetadata meta = entry.getMetadata();
-                if (meta != null && meta.expiryTime() > -1)
-                    addNewExpiry(entry);
+            if (!configuration.expiryScan()) {
+                for (MarshalledEntry entry : marshalledEntries) {
+                    InternalMetadata meta = entry.getMetadata();
+                    if (meta != null && meta.expiryTime() > -1)
+                        addNewExpiry(entry);
+                }
             }
         } catch (Exception e) {
             throw new PersistenceException(e);
         }
     }
 
-    private void writeBatch(WriteBatch batch) throws InterruptedException, RocksDBException {
+    private void writeBatch(List<MarshalledEntry> entries) throws IOException, InterruptedException, RocksDBException {
+        List<byte[]> keys = new ArrayList<>(entries.size());
+        List<byte[]> values = new ArrayList<>(entries.size());
+        for (MarshalledEntry entry : entries) {
+            keys.add(marshall(entry.getKey()));
+            values.add(marshall(entry));
+        }
         semaphore.acquire();
         try {
             if (stopped)
                 throw new PersistenceException("RocksDB is stopped");
 
-            db.write(dataWriteOptions(), batch);
+            // The column families are only looked up while holding the semaphore, dropping a segment replaces them
+            try (WriteBatch batch = new WriteBatch()) {
+                for (int i = 0; i < entries.size(); i++) {
+                    if (segmentHandles == null) {
+                        batch.put(keys.get(i), values.get(i));
+                    } else {
+                        batch.put(handle(entries.get(i).getKey()), keys.get(i), values.get(i));
+                    }
+                }
+                db.write(dataWriteOptions(), batch);
+            }
         } finally {
             semaphore.release();
         }
@@ -413,6 +711,10 @@ private void writeBatch(WriteBatch batch) throws InterruptedException, RocksDBEx
     @SuppressWarnings("unchecked")
     @Override
     public void purge(Executor executor, PurgeListener purgeListener) {
+        if (configuration.expiryScan()) {
+            purgeByScan(executor, purgeListener);
+            return;
+        }
         try {
             semaphore.acquire();
         } catch (InterruptedException e) {
@@ -476,14 +778,14 @@ public void purge(Executor executor, PurgeListener purgeListener) {
                     for (Object key : keys) {
                         byte[] keyBytes = marshall(key);
 
-                        byte[] b = db.get(keyBytes);
+                        byte[] b = get(key, keyBytes);
                         if (b == null)
                             continue;
                         MarshalledEntry me = (MarshalledEntry) ctx.getMarshaller().objectFromByteBuffer(b);
                         // TODO race condition: the entry could be updated between the get and delete!
                         if (me.getMetadata() != null && me.getMetadata().isExpired(now)) {
                             // somewhat inefficient to FIND then REMOVE...
-                            db.delete(keyBytes);
+                            delete(key, keyBytes);
                             purgeListener.entryPurged(key);
                             count++;
                         }
@@ -504,6 +806,145 @@ public void purge(Executor executor, PurgeListener purgeListener) {
         }
     }
 
+    /**
+     * Removes the expired entries found by reading all the data, each column family being read by its own task. The
+     * data is read while the other operations run, so each expired entry is read again and only deleted if it is still
+     * expired while no other operation may update it.
+     */
+    private void purgeByScan(Executor executor, PurgeListener purgeListener) {
+        long now = ctx.getTimeService().wallClockTime();
+        AtomicInteger purged = new AtomicInteger();
+        ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+        // Dropping segments replaces their column families but never changes how many there are
+        int columnFamilies = segmentHandles == null ? 1 : segmentHandles.length;
+        for (int i = 0; i < columnFamilies; i++) {
+            int segment = segmentHandles == null ? -1 : i;
+            eacs.submit(() -> {
+                purged.addAndGet(purgeColumnFamily(segment, now, purgeListener));
+                return null;
+            });
+        }
+        eacs.waitUntilAllCompleted();
+        if (eacs.isExceptionThrown()) {
+            throw new PersistenceException("Execution exception!", eacs.getFirstException());
+        }
+        if (purged.get() != 0)
+            log.debugf("purged %d entries", purged.get());
+    }
+
+    /**
+     * Deletes the expired entries of a column family every {@link RocksDBStoreConfiguration#maxBatchSize()} entries
+     * found, so that only one batch of keys is kept in memory. The deletion needs all the permits, so the column
+     * family is read again from the last key found once the batch has been deleted.
+     *
+     * @return the number of deleted entries
+     */
+    private int purgeColumnFamily(int segment, long now, PurgeListener purgeListener)
+          throws IOException, ClassNotFoundException {
+        int purged = 0;
+        byte[] lastKey = null;
+        do {
+            List<ExpiredEntry> batch = new ArrayList<>();
+            lastKey = findExpired(segment, lastKey, now, batch);
+            if (!batch.isEmpty()) {
+                purged += deleteExpired(batch, now, purgeListener);
+            }
+        } while (lastKey != null);
+        return purged;
+    }
+
+    /**
+     * Adds the expired entries of a column family following {@code after} to {@code expired}, until the batch is full.
+     *
+     * @return the last key added if the batch is full, or null if the column family has been read to the end
+     */
+    private byte[] findExpired(int segment, byte[] after, long now, List<ExpiredEntry> expired)
+          throws IOException, ClassNotFoundException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            throw new PersistenceException("Cannot acquire semaphore: CacheStore is likely stopped.", e);
+        }
+        try {
+            if (stopped) {
+                throw new PersistenceException("RocksDB is stopped");
+            }
+            ColumnFamilyHandle handle = segment < 0 ? null : segmentHandles[segment];
+            try (RocksIterator it = newIterator(handle)) {
+                if (after == null) {
+                    it.seekToFirst();
+                } else {
+                    // The key is still present unless it was deleted, in which case seek already moved past it
+                    it.seek(after);
+                    if (it.isValid() && Arrays.equals(it.key(), after)) {
+                        it.next();
+                    }
+                }
+                for (; it.isValid(); it.next()) {
+                    MarshalledEntry me = (MarshalledEntry) unmarshall(it.value());
+                    if (me.getMetadata() != null && me.getMetadata().isExpired(now)) {
+                        byte[] key = it.key();
+                        expired.add(new ExpiredEntry(segment, key));
+                        if (expired.size() == configuration.maxBatchSize()) {
+                            return key;
+                        }
+                    }
+                }
+            }
+            return null;
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Deletes the entries that are still expired, holding all the permits so that they cannot be updated meanwhile.
+     *
+     * @return the number of deleted entries
+     */
+    private int deleteExpired(List<ExpiredEntry> entries, long now, PurgeListener purgeListener) {
+        List<Object> purged = new ArrayList<>(entries.size());
+        try {
+            semaphore.acquire(Integer.MAX_VALUE);
+        } catch (InterruptedException e) {
+            throw new PersistenceException("Cannot acquire semaphore: CacheStore is likely stopped.", e);
+        }
+        try {
+            if (stopped) {
+                throw new PersistenceException("RocksDB is stopped");
+            }
+            // The column families are only looked up while holding the semaphore, dropping a segment replaces them
+            try (WriteBatch batch = new WriteBatch()) {
+                for (ExpiredEntry entry : entries) {
+                    ColumnFamilyHandle handle = entry.segment < 0 ? null : segmentHandles[entry.segment];
+                    byte[] value = handle == null ? db.get(entry.key) : db.get(handle, entry.key);
+                    MarshalledEntry me = (MarshalledEntry) unmarshall(value);
+                    if (me != null && me.getMetadata() != null && me.getMetadata().isExpired(now)) {
+                        if (handle == null) {
+                            batch.remove(entry.key);
+                        } else {
+                            batch.remove(handle, entry.key);
+                        }
+                        purged.add(me.getKey());
+                    }
+                }
+                if (!purged.isEmpty()) {
+                    db.write(dataWriteOptions(), batch);
+                }
+            }
+        } catch (PersistenceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new PersistenceException(e);
+        } finally {
+            semaphore.release(Integer.MAX_VALUE);
+        }
+        for (Object key : purged) {
+            purgeListener.entryPurged(key);
+        }
+        return purged.size();
+    }
+
     private byte[] marshall(Object entry) throws IOException, InterruptedException {
         return ctx.getMarshaller().objectToByteBuffer(entry);
     }
@@ -569,6 +1010,17 @@ public boolean equals(Object obj) {
 
     }
 
+    private static final class ExpiredEntry {
+        // -1 if the store is not segmented
+        final int segment;
+        final byte[] key;
+
+        ExpiredEntry(int segment, byte[] key) {
+            this.segment = segment;
+            this.key = key;
+        }
+    }
+
     private static final class Entry {
         final byte[] key;
         final byte[] value;
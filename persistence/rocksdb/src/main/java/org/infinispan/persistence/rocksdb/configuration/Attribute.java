@@ -22,7 +22,9 @@ public enum Attribute {
    LOCATION("location"),
    PATH("path"),
    RELATIVE_TO("relative-to"),
+   SCAN("scan"),
    QUEUE_SIZE("queue-size"),
+   SEGMENTED("segmented"),
    TYPE("type"),
    ;
 
@@ -26,11 +26,13 @@ public class RocksDBStoreConfiguration extends AbstractStoreConfiguration {
    final static AttributeDefinition<Integer> BLOCK_SIZE = AttributeDefinition.builder("blockSize", 0).immutable().build();
    final static AttributeDefinition<Long> CACHE_SIZE = AttributeDefinition.builder("cacheSize", 0l).immutable().build();
    final static AttributeDefinition<Integer> EXPIRY_QUEUE_SIZE = AttributeDefinition.builder("expiryQueueSize", 10000).immutable().autoPersist(false).build();
+   final static AttributeDefinition<Boolean> EXPIRY_SCAN = AttributeDefinition.builder("expiryScan", false).immutable().autoPersist(false).build();
    final static AttributeDefinition<Integer> CLEAR_THRESHOLD = AttributeDefinition.builder("clearThreshold", 10000).immutable().build();
+   final static AttributeDefinition<Boolean> SEGMENTED = AttributeDefinition.builder("segmented", false).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(RocksDBStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, EXPIRED_LOCATION, COMPRESSION_TYPE,
-            BLOCK_SIZE, CACHE_SIZE, EXPIRY_QUEUE_SIZE, CLEAR_THRESHOLD);
+            BLOCK_SIZE, CACHE_SIZE, EXPIRY_QUEUE_SIZE, EXPIRY_SCAN, CLEAR_THRESHOLD, SEGMENTED);
    }
 
    private final Attribute<String> location;
@@ -39,7 +41,9 @@ public static AttributeSet attributeDefinitionSet() {
    private final Attribute<Integer> blockSize;
    private final Attribute<Long> cacheSize;
    private final Attribute<Integer> expiryQueueSize;
+   private final Attribute<Boolean> expiryScan;
    private final Attribute<Integer> clearThreshold;
+   private final Attribute<Boolean> segmented;
 
    public RocksDBStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async, SingletonStoreConfiguration singletonStore) {
       super(attributes, async, singletonStore);
@@ -49,7 +53,9 @@ public RocksDBStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguratio
       blockSize = attributes.attribute(BLOCK_SIZE);
       cacheSize = attributes.attribute(CACHE_SIZE);
       expiryQueueSize = attributes.attribute(EXPIRY_QUEUE_SIZE);
+      expiryScan = attributes.attribute(EXPIRY_SCAN);
       clearThreshold = attributes.attribute(CLEAR_THRESHOLD);
+      segmented = attributes.attribute(SEGMENTED);
    }
 
    public String location() {
@@ -76,7 +82,22 @@ public int expiryQueueSize() {
       return expiryQueueSize.get();
    }
 
+   /**
+    * @return whether the expired entries are found by scanning the data when purging, rather than by tracking their
+    * expiration times in the {@link #expiredLocation() expired database}
+    */
+   public boolean expiryScan() {
+      return expiryScan.get();
+   }
+
    public int clearThreshold() {
       return clearThreshold.get();
    }
+
+   /**
+    * @return whether each segment is stored in its own column family, so that it can be iterated and dropped on its own
+    */
+   public boolean segmented() {
+      return segmented.get();
+   }
 }
@@ -10,7 +10,9 @@
 import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.CLEAR_THRESHOLD;
 import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.EXPIRED_LOCATION;
 import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.EXPIRY_QUEUE_SIZE;
+import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.EXPIRY_SCAN;
 import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.COMPRESSION_TYPE;
+import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.SEGMENTED;
 
 /**
  *
@@ -48,6 +50,15 @@ public RocksDBStoreConfigurationBuilder expiryQueueSize(int expiryQueueSize) {
       return self();
    }
 
+   /**
+    * Finds the expired entries by scanning the data when purging. The expiration times are then not written to a
+    * separate database on each write, and the expired location and queue size are ignored.
+    */
+   public RocksDBStoreConfigurationBuilder expiryScan(boolean expiryScan) {
+      attributes.attribute(EXPIRY_SCAN).set(expiryScan);
+      return self();
+   }
+
    public RocksDBStoreConfigurationBuilder clearThreshold(int clearThreshold) {
       attributes.attribute(CLEAR_THRESHOLD).set(clearThreshold);
       return self();
@@ -58,6 +69,17 @@ public RocksDBStoreConfigurationBuilder compressionType(CompressionType compress
       return self();
    }
 
+   /**
+    * Stores each segment in its own column family. Rebalancing then reads only the segments being transferred and
+    * drops the segments the node no longer owns at once, instead of walking through all the keys. Iteration and
+    * scanning expiration read each column family in parallel, a store that is not segmented is read by a single
+    * iterator. The number of segments of the cache must not change while the store is in use.
+    */
+   public RocksDBStoreConfigurationBuilder segmented(boolean segmented) {
+      attributes.attribute(SEGMENTED).set(segmented);
+      return self();
+   }
+
    @Override
    public void validate() {
       // how do you validate required attributes?
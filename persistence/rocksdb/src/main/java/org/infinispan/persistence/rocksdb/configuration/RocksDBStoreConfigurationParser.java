@@ -79,6 +79,10 @@ private void parseRocksDBCacheStore(XMLExtendedStreamReader reader, RocksDBStore
                builder.cacheSize(Long.valueOf(value));
                break;
             }
+            case SEGMENTED: {
+               builder.segmented(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                Parser.parseStoreAttribute(reader, i, builder);
             }
@@ -117,6 +121,10 @@ private void parseExpiry(XMLExtendedStreamReader reader, RocksDBStoreConfigurati
                builder.expiryQueueSize(Integer.valueOf(value));
                break;
             }
+            case SCAN: {
+               builder.expiryScan(Boolean.parseBoolean(value));
+               break;
+            }
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -26,10 +26,12 @@ public void serialize(XMLExtendedStreamWriter writer, RocksDBStoreConfiguration
          attributes.write(writer, RocksDBStoreConfiguration.COMPRESSION_TYPE, Attribute.TYPE);
          writer.writeEndElement();
       }
-      if (attributes.attribute(RocksDBStoreConfiguration.EXPIRED_LOCATION).isModified() || attributes.attribute(RocksDBStoreConfiguration.EXPIRY_QUEUE_SIZE).isModified()) {
+      if (attributes.attribute(RocksDBStoreConfiguration.EXPIRED_LOCATION).isModified() || attributes.attribute(RocksDBStoreConfiguration.EXPIRY_QUEUE_SIZE).isModified()
+            || attributes.attribute(RocksDBStoreConfiguration.EXPIRY_SCAN).isModified()) {
          writer.writeStartElement(Element.EXPIRATION);
          attributes.write(writer, RocksDBStoreConfiguration.EXPIRED_LOCATION, Attribute.PATH);
          attributes.write(writer, RocksDBStoreConfiguration.EXPIRY_QUEUE_SIZE, Attribute.QUEUE_SIZE);
+         attributes.write(writer, RocksDBStoreConfiguration.EXPIRY_SCAN, Attribute.SCAN);
          writer.writeEndElement();
       }
       writeCommonStoreElements(writer, configuration);
@@ -3,6 +3,7 @@
 import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.INFO;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.LogMessage;
@@ -22,4 +23,13 @@ public interface Log extends BasicLogger {
    @LogMessage(level = INFO)
    @Message(value = "Ignoring XML attribute %s, please remove from configuration file", id = 293)
    void ignoreXmlAttribute(Object attribute);
+
+   @Message(value = "The RocksDB database at %s has %d segments, it must be removed or the store must be segmented", id = 23001)
+   CacheConfigurationException segmentedDatabase(String location, int segments);
+
+   @Message(value = "The RocksDB database at %s is not segmented, it must be removed before segmenting the store", id = 23002)
+   CacheConfigurationException nonSegmentedDatabase(String location);
+
+   @Message(value = "The RocksDB database at %s has %d segments but the cache is configured with %d segments", id = 23003)
+   CacheConfigurationException segmentCountMismatch(String location, int storedSegments, int numSegments);
 }
@@ -0,0 +1,19 @@
+package org.infinispan.persistence.rocksdb;
+
+import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the store tests with the expired entries found by scanning the segmented data when purging.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "persistence.rocksdb.RocksDBExpiryScanStoreTest")
+public class RocksDBExpiryScanStoreTest extends RocksDBStoreTest {
+
+   @Override
+   protected RocksDBStoreConfigurationBuilder createCacheStoreConfig(PersistenceConfigurationBuilder lcb) {
+      return super.createCacheStoreConfig(lcb).segmented(true).expiryScan(true);
+   }
+}
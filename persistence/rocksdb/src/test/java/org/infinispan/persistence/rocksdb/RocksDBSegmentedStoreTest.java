@@ -0,0 +1,44 @@
+package org.infinispan.persistence.rocksdb;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfigurationBuilder;
+import org.infinispan.test.Exceptions;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the store tests with each segment stored in its own column family.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "persistence.rocksdb.RocksDBSegmentedStoreTest")
+public class RocksDBSegmentedStoreTest extends RocksDBStoreTest {
+
+   @Override
+   protected RocksDBStoreConfigurationBuilder createCacheStoreConfig(PersistenceConfigurationBuilder lcb) {
+      return super.createCacheStoreConfig(lcb).segmented(true);
+   }
+
+   public void testExistingDatabaseWithOtherSegments() {
+      cl.write(marshalledEntry(internalCacheEntry("k", "v", -1)));
+      cl.stop();
+      try {
+         ConfigurationBuilder cb = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+         cb.clustering().hash().numSegments(7);
+         createCacheStoreConfig(cb.persistence());
+         RocksDBStore otherSegments = new RocksDBStore();
+         otherSegments.init(createContext(cb.build()));
+         Exceptions.expectException(CacheConfigurationException.class, otherSegments::start);
+
+         cb = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+         super.createCacheStoreConfig(cb.persistence());
+         RocksDBStore notSegmented = new RocksDBStore();
+         notSegmented.init(createContext(cb.build()));
+         Exceptions.expectException(CacheConfigurationException.class, notSegmented::start);
+      } finally {
+         cl.start();
+      }
+   }
+}
@@ -58,11 +58,15 @@ public EntryRecord loadMetadataAndValue(FileProvider.Handle handle, int offset)
    }
 
    public static EntryHeader readEntryHeader(FileProvider.Handle handle, long offset) throws IOException {
-      ByteBuffer header = ByteBuffer.allocate(EntryHeader.HEADER_SIZE);
-      if (read(handle, header, offset, EntryHeader.HEADER_SIZE) < 0) {
-         return null;
+      // memory mapped files are parsed in place
+      ByteBuffer header = handle.slice(offset, EntryHeader.HEADER_SIZE);
+      if (header == null) {
+         header = ByteBuffer.allocate(EntryHeader.HEADER_SIZE);
+         if (read(handle, header, offset, EntryHeader.HEADER_SIZE) < 0) {
+            return null;
+         }
+         header.flip();
       }
-      header.flip();
       try {
          return new EntryHeader(header);
       } catch (IllegalStateException e) {
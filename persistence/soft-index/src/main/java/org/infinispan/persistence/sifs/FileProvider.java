@@ -7,6 +7,7 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -27,6 +28,8 @@
 /**
  * Provides resource management for files - only limited amount of files may be opened in one moment, and opened file
  * should not be deleted. Also allows to generate file indexes.
+ * <p>
+ * When memory mapping is enabled, files that are not written to anymore are read through a read-only mapping.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
@@ -36,6 +39,7 @@ class FileProvider {
 
    private final File dataDir;
    private final int openFileLimit;
+   private final boolean memoryMapped;
    private final ArrayBlockingQueue<Record> recordQueue;
    private final ConcurrentMap<Integer, Record> openFiles = new ConcurrentHashMap<Integer, Record>();
    private final AtomicInteger currentOpenFiles = new AtomicInteger(0);
@@ -45,8 +49,9 @@ class FileProvider {
 
    private int nextFileId = 0;
 
-   public FileProvider(String dataDir, int openFileLimit) {
+   public FileProvider(String dataDir, int openFileLimit, boolean memoryMapped) {
       this.openFileLimit = openFileLimit;
+      this.memoryMapped = memoryMapped;
       this.recordQueue = new ArrayBlockingQueue<Record>(openFileLimit);
       this.dataDir = new File(dataDir);
       this.dataDir.mkdirs();
@@ -80,6 +85,10 @@ public Handle getFile(int fileId) throws IOException {
                      return null;
                   }
                   Record newRecord = new Record(fileChannel, fileId);
+                  // log files are still being appended to, these are mapped once closed
+                  if (memoryMapped && !logFiles.contains(fileId)) {
+                     newRecord.map();
+                  }
                   Record other = openFiles.putIfAbsent(fileId, newRecord);
                   if (other != null) {
                      fileChannel.close();
@@ -286,6 +295,17 @@ public void close() throws IOException {
          lock.writeLock().lock();
          try {
             logFiles.remove(fileId);
+            if (memoryMapped) {
+               // the file could have been opened for reading while it was written
+               Record record = openFiles.get(fileId);
+               if (record != null) {
+                  synchronized (record) {
+                     if (record.isOpen()) {
+                        record.map();
+                     }
+                  }
+               }
+            }
          } finally {
             lock.writeLock().unlock();
          }
@@ -303,7 +323,36 @@ private Handle(Record record) {
 
       public int read(ByteBuffer buffer, long offset) throws IOException {
          if (!usable) throw new IllegalStateException();
-         return record.getFileChannel().read(buffer, offset);
+         ByteBuffer mapped = record.mapped;
+         if (mapped == null) {
+            return record.getFileChannel().read(buffer, offset);
+         }
+         if (offset >= mapped.limit()) {
+            return -1;
+         }
+         // the shared mapping must not be repositioned, read through a view
+         ByteBuffer view = mapped.duplicate();
+         view.position((int) offset);
+         view.limit((int) Math.min(mapped.limit(), offset + buffer.remaining()));
+         int read = view.remaining();
+         buffer.put(view);
+         return read;
+      }
+
+      /**
+       * Returns a read-only view of the given region of the file without copying it, or null if the file is not
+       * mapped or does not contain the whole region.
+       */
+      public ByteBuffer slice(long offset, int length) {
+         if (!usable) throw new IllegalStateException();
+         ByteBuffer mapped = record.mapped;
+         if (mapped == null || offset + length > mapped.limit()) {
+            return null;
+         }
+         ByteBuffer view = mapped.duplicate();
+         view.position((int) offset);
+         view.limit((int) offset + length);
+         return view.slice();
       }
 
       @Override
@@ -326,6 +375,8 @@ public int getFileId() {
    private class Record {
       private final int fileId;
       private FileChannel fileChannel;
+      // the mapping is unmapped when garbage collected, it remains valid after closing the channel
+      private volatile MappedByteBuffer mapped;
       private int handleCount;
       private boolean deleteOnClose = false;
 
@@ -349,6 +400,7 @@ void decreaseHandleCount() throws IOException {
             // but physically close and delete the file
             fileChannel.close();
             fileChannel = null;
+            mapped = null;
             openFiles.remove(fileId, this);
             delete();
          }
@@ -358,6 +410,18 @@ boolean isOpen() {
          return fileChannel != null;
       }
 
+      void map() {
+         try {
+            long size = fileChannel.size();
+            if (size <= Integer.MAX_VALUE) {
+               mapped = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+         } catch (IOException e) {
+            // the file is still read through the channel
+            log.debugf(e, "Cannot map file %d", fileId);
+         }
+      }
+
       boolean isUsed() {
          return handleCount > 0;
       }
@@ -369,6 +433,7 @@ public int getFileId() {
       public void close() throws IOException {
          fileChannel.close();
          fileChannel = null;
+         mapped = null;
          if (deleteOnClose) {
             delete();
          }
@@ -384,6 +449,7 @@ public void deleteOnClose() throws IOException {
             if (fileChannel != null) {
                fileChannel.close();
                fileChannel = null;
+               mapped = null;
             }
             openFiles.remove(fileId, this);
             delete();
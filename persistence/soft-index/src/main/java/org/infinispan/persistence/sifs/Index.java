@@ -4,6 +4,7 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
@@ -41,11 +42,13 @@ class Index {
    private final ReadWriteLock lock = new ReentrantReadWriteLock();
    private final Segment[] segments;
    private final TimeService timeService;
+   private final boolean memoryMapped;
 
    public Index(FileProvider fileProvider, String indexDir, int segments, int minNodeSize, int maxNodeSize,
                 IndexQueue indexQueue, TemporaryTable temporaryTable, Compactor compactor,
-                TimeService timeService) throws IOException {
+                TimeService timeService, boolean memoryMapped) throws IOException {
       this.fileProvider = fileProvider;
+      this.memoryMapped = memoryMapped;
       this.compactor = compactor;
       this.timeService = timeService;
       this.indexDir = indexDir;
@@ -156,6 +159,8 @@ class Segment extends Thread {
       private FileChannel indexFile;
       private long indexFileSize;
       private AtomicLong size = new AtomicLong();
+      // covers the index file up to the end of the last node read through it, remapped when the file grows
+      private volatile MappedByteBuffer indexMapping;
 
       private volatile IndexNode root;
 
@@ -401,6 +406,8 @@ CountDownLatch pauseAndClear() throws InterruptedException, IOException {
          indexQueue.put(clear);
          CountDownLatch pause = (CountDownLatch) clear.getResult();
          root = IndexNode.emptyWithLeaves(this);
+         // the mapping must not be read beyond the end of the truncated file
+         indexMapping = null;
          indexFile.truncate(0);
          indexFileSize = INDEX_FILE_HEADER_SIZE;
          freeBlocks.clear();
@@ -418,6 +425,43 @@ public FileChannel getIndexFile() {
          return indexFile;
       }
 
+      /**
+       * Returns a read-only view of the given region of the index file without copying it, or null if memory mapping
+       * is disabled or the region cannot be mapped.
+       */
+      ByteBuffer getMappedIndexSpace(long offset, int length) throws IOException {
+         long end = offset + length;
+         if (!memoryMapped || end > Integer.MAX_VALUE) {
+            return null;
+         }
+         MappedByteBuffer mapping = indexMapping;
+         if (mapping == null || end > mapping.limit()) {
+            mapping = remapIndexFile(end);
+            if (mapping == null) {
+               return null;
+            }
+         }
+         ByteBuffer view = mapping.duplicate();
+         view.position((int) offset);
+         view.limit((int) end);
+         return view.slice();
+      }
+
+      private synchronized MappedByteBuffer remapIndexFile(long requiredSize) throws IOException {
+         MappedByteBuffer mapping = indexMapping;
+         if (mapping != null && requiredSize <= mapping.limit()) {
+            return mapping;
+         }
+         long fileSize = indexFile.size();
+         if (fileSize < requiredSize || fileSize > Integer.MAX_VALUE) {
+            return null;
+         }
+         // the previous mapping is unmapped when garbage collected
+         mapping = indexFile.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+         indexMapping = mapping;
+         return mapping;
+      }
+
       public FileProvider getFileProvider() {
          return fileProvider;
       }
@@ -462,7 +506,8 @@ void freeIndexSpace(long offset, short length) {
          if (length <= 0) throw new IllegalArgumentException("Offset=" + offset + ", length=" + length);
          // TODO: fragmentation!
          // TODO: memory bounds!
-         if (offset + length < indexFileSize) {
+         // a mapped index file is never shrunk, reading a mapping beyond the end of the file is fatal to the JVM
+         if (offset + length < indexFileSize || memoryMapped) {
             freeBlocks.computeIfAbsent(length, k -> new ArrayList<>()).add(new IndexSpace(offset, length));
          } else {
             indexFileSize -= length;
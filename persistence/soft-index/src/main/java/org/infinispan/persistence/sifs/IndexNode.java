@@ -59,7 +59,10 @@ public enum RecordChange {
       this.offset = offset;
       this.occupiedSpace = occupiedSpace;
 
-      ByteBuffer buffer = loadBuffer(segment.getIndexFile(), offset, occupiedSpace);
+      ByteBuffer buffer = segment.getMappedIndexSpace(offset, occupiedSpace);
+      if (buffer == null) {
+         buffer = loadBuffer(segment.getIndexFile(), offset, occupiedSpace);
+      }
 
       prefix = new byte[buffer.getShort()];
       buffer.get(prefix);
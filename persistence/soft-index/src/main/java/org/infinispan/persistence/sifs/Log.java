@@ -84,4 +84,7 @@ public interface Log extends BasicLogger {
 
    @Message(value = "Index looks corrupt.", id = 29020)
    PersistenceException indexLooksCorrupt(@Cause Exception e);
+
+   @Message(value = "The number of log appenders (%d) must be positive.", id = 29021)
+   CacheConfigurationException invalidLogAppenders(int value);
 }
@@ -1,6 +1,7 @@
 package org.infinispan.persistence.sifs;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.util.logging.LogFactory;
@@ -9,6 +10,9 @@
  * This component has the only thread that polls the queue with requests to write some entry into the cache store.
  * It writes the records to append-only log files, inserts the entry position into TemporaryTable and queues the position
  * to be persisted in Index.
+ * <p>
+ * There may be several appenders, each one writing to its own log file. All requests for the same key must be sent
+ * to the same appender, so that records of a key are written in order. The sequence ids are shared by all appenders.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
@@ -22,15 +26,15 @@ public class LogAppender extends Thread {
    private final int maxFileSize;
    private final Compactor compactor;
    private final FileProvider fileProvider;
+   private final AtomicLong seqId;
    private LogRequest pausedRequest;
-   private long seqId = 0;
 
-   LogAppender(SyncProcessingQueue<LogRequest> inboundQueue,
+   LogAppender(int id, SyncProcessingQueue<LogRequest> inboundQueue,
                BlockingQueue<IndexRequest> indexQueue,
                TemporaryTable temporaryTable,
                Compactor compactor,
-               FileProvider fileProvider, boolean syncWrites, int maxFileSize) {
-      super("BCS-LogAppender");
+               FileProvider fileProvider, boolean syncWrites, int maxFileSize, AtomicLong seqId) {
+      super("BCS-LogAppender-" + id);
       this.setDaemon(true);
       this.queue = inboundQueue;
       this.indexQueue = indexQueue;
@@ -39,11 +43,8 @@ public class LogAppender extends Thread {
       this.fileProvider = fileProvider;
       this.syncWrites = syncWrites;
       this.maxFileSize = maxFileSize;
-      start();
-   }
-
-   public void setSeqId(long seqId) {
       this.seqId = seqId;
+      start();
    }
 
    public void pause() throws InterruptedException {
@@ -59,8 +60,11 @@ public void clearAndPause() throws InterruptedException {
    }
 
    public void resumeAfterPause() {
-      pausedRequest.resume();
-      pausedRequest = null;
+      // with multiple appenders, pausing a later one may have been interrupted
+      if (pausedRequest != null) {
+         pausedRequest.resume();
+         pausedRequest = null;
+      }
    }
 
    @Override
@@ -127,8 +131,8 @@ private byte[] raw(ByteBuffer buffer) {
       }
    }
 
-   private final long nextSeqId() {
-      return seqId++;
+   private long nextSeqId() {
+      return seqId.getAndIncrement();
    }
 
    public void stopOperations() throws InterruptedException {
@@ -66,6 +66,9 @@
  * As IndexUpdater may easily become a bottleneck under heavy load, the IndexUpdater thread,
  * UpdateQueue and tree of IndexNodes may be multiplied several times - the Index is divided
  * into Segments. Each segment owns keys according to the hashCode() of the key.
+ * Likewise the LogAppender thread and its queue may be multiplied (see logAppenders
+ * configuration), each appender writing its own log file. An appender owns keys according
+ * to the hashCode() of the key, too, so that records of one key are always appended in order.
  *
  * Amount of entries in IndexNode is limited by the size it occupies on disk. This size is
  * limited by configurable nodeSize (4096 bytes by default?), only in case that the node
@@ -108,9 +111,10 @@ public class SoftIndexFileStore implements AdvancedLoadWriteStore {
    private boolean started = false;
    private TemporaryTable temporaryTable;
    private IndexQueue indexQueue;
-   private SyncProcessingQueue<LogRequest> storeQueue;
+   private SyncProcessingQueue<LogRequest>[] storeQueues;
    private FileProvider fileProvider;
-   private LogAppender logAppender;
+   private LogAppender[] logAppenders;
+   private AtomicLong seqId;
    private Index index;
    private Compactor compactor;
    private StreamingMarshaller marshaller;
@@ -136,15 +140,24 @@ public void start() {
       }
       started = true;
       temporaryTable = new TemporaryTable(configuration.indexQueueLength() * configuration.indexSegments());
-      storeQueue = new SyncProcessingQueue<>();
+      int appenders = configuration.logAppenders();
+      storeQueues = new SyncProcessingQueue[appenders];
+      for (int i = 0; i < appenders; ++i) {
+         storeQueues[i] = new SyncProcessingQueue<>();
+      }
       indexQueue = new IndexQueue(configuration.indexSegments(), configuration.indexQueueLength());
-      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit());
+      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit(), configuration.memoryMapped());
       compactor = new Compactor(fileProvider, temporaryTable, indexQueue, marshaller, timeService, configuration.maxFileSize(), configuration.compactionThreshold());
-      logAppender = new LogAppender(storeQueue, indexQueue, temporaryTable, compactor, fileProvider, configuration.syncWrites(), configuration.maxFileSize());
+      seqId = new AtomicLong();
+      logAppenders = new LogAppender[appenders];
+      for (int i = 0; i < appenders; ++i) {
+         logAppenders[i] = new LogAppender(i, storeQueues[i], indexQueue, temporaryTable, compactor, fileProvider,
+               configuration.syncWrites(), configuration.maxFileSize(), seqId);
+      }
       try {
          index = new Index(fileProvider, configuration.indexLocation(), configuration.indexSegments(),
                configuration.minNodeSize(), configuration.maxNodeSize(),
-               indexQueue, temporaryTable, compactor, timeService);
+               indexQueue, temporaryTable, compactor, timeService, configuration.memoryMapped());
       } catch (IOException e) {
          throw log.cannotOpenIndex(configuration.indexLocation(), e);
       }
@@ -180,7 +193,7 @@ public void start() {
             return true;
          }, file -> compactor.completeFile(file));
       }
-      logAppender.setSeqId(maxSeqId.get() + 1);
+      seqId.set(maxSeqId.get() + 1);
    }
 
    protected boolean isSeqIdOld(long seqId, Object key, byte[] serializedKey) throws IOException {
@@ -229,8 +242,10 @@ protected boolean isIndexLoaded() {
    @Override
    public void stop() {
       try {
-         logAppender.stopOperations();
-         logAppender = null;
+         for (LogAppender logAppender : logAppenders) {
+            logAppender.stopOperations();
+         }
+         logAppenders = null;
          compactor.stopOperations();
          compactor = null;
          index.stopOperations();
@@ -239,7 +254,7 @@ public void stop() {
          fileProvider = null;
          temporaryTable = null;
          indexQueue = null;
-         storeQueue = null;
+         storeQueues = null;
       } catch (InterruptedException e) {
          Thread.currentThread().interrupt();
          throw log.interruptedWhileStopping(e);
@@ -251,7 +266,9 @@ public void stop() {
    @Override
    public synchronized void clear() throws PersistenceException {
       try {
-         logAppender.clearAndPause();
+         for (LogAppender logAppender : logAppenders) {
+            logAppender.clearAndPause();
+         }
          compactor.clearAndPause();
       } catch (InterruptedException e) {
          Thread.currentThread().interrupt();
@@ -269,20 +286,26 @@ public synchronized void clear() throws PersistenceException {
       }
       temporaryTable.clear();
       compactor.resumeAfterPause();
-      logAppender.resumeAfterPause();
+      for (LogAppender logAppender : logAppenders) {
+         logAppender.resumeAfterPause();
+      }
    }
 
    @Override
    public synchronized int size() {
       try {
-         logAppender.pause();
+         for (LogAppender logAppender : logAppenders) {
+            logAppender.pause();
+         }
          long size = index.size();
          return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
       } catch (InterruptedException e) {
          Thread.currentThread().interrupt();
          throw log.sizeCalculationInterrupted(e);
       } finally {
-         logAppender.resumeAfterPause();
+         for (LogAppender logAppender : logAppenders) {
+            logAppender.resumeAfterPause();
+         }
       }
    }
 
@@ -299,7 +322,7 @@ public void write(MarshalledEntry entry) {
          throw log.keyIsTooLong(entry.getKey(), keyLength, configuration.maxNodeSize(), maxKeyLength);
       }
       try {
-         storeQueue.pushAndWait(LogRequest.storeRequest(entry));
+         storeQueue(entry.getKey()).pushAndWait(LogRequest.storeRequest(entry));
       } catch (Exception e) {
          throw new PersistenceException(e);
       }
@@ -309,13 +332,18 @@ public void write(MarshalledEntry entry) {
    public boolean delete(Object key) {
       try {
          LogRequest request = LogRequest.deleteRequest(key, toBuffer(marshaller.objectToByteBuffer(key)));
-         storeQueue.pushAndWait(request);
+         storeQueue(key).pushAndWait(request);
          return (Boolean) request.getIndexRequest().getResult();
       } catch (Exception e) {
          throw new PersistenceException(e);
       }
    }
 
+   private SyncProcessingQueue<LogRequest> storeQueue(Object key) {
+      // all records of a key must be written by the same appender
+      return storeQueues[(key.hashCode() & Integer.MAX_VALUE) % storeQueues.length];
+   }
+
    @Override
    public boolean contains(Object key) {
       try {
@@ -5,8 +5,10 @@
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.INDEX_LOCATION;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.INDEX_QUEUE_LENGTH;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.INDEX_SEGMENTS;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.LOG_APPENDERS;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MAX_FILE_SIZE;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MAX_NODE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MEMORY_MAPPED;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MIN_NODE_SIZE;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.OPEN_FILES_LIMIT;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.SYNC_WRITES;
@@ -66,6 +68,15 @@ public SoftIndexFileStoreConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   /**
+    * Sets the number of threads appending entries to the data files, each writing its own file. Entries are assigned
+    * to the appenders according to the hash code of their key.
+    */
+   public SoftIndexFileStoreConfigurationBuilder logAppenders(int logAppenders) {
+      attributes.attribute(LOG_APPENDERS).set(logAppenders);
+      return this;
+   }
+
    public SoftIndexFileStoreConfigurationBuilder openFilesLimit(int openFilesLimit) {
       attributes.attribute(OPEN_FILES_LIMIT).set(openFilesLimit);
       return this;
@@ -76,6 +87,17 @@ public SoftIndexFileStoreConfigurationBuilder compactionThreshold(double compact
       return this;
    }
 
+   /**
+    * If true, data files that are no longer appended to and the index files are read through memory mappings
+    * instead of reading from the file channels, avoiding a system call and a buffer allocation for each read.
+    * Each mapping uses virtual address space up to the size of the file, which is only released once the mapping
+    * is garbage collected.
+    */
+   public SoftIndexFileStoreConfigurationBuilder memoryMapped(boolean memoryMapped) {
+      attributes.attribute(MEMORY_MAPPED).set(memoryMapped);
+      return this;
+   }
+
    @Override
    public SoftIndexFileStoreConfiguration create() {
       return new SoftIndexFileStoreConfiguration(attributes.protect(),
@@ -103,6 +125,10 @@ protected void validate(boolean skipClassChecks) {
       } else if (minNodeSize < 0 || minNodeSize > maxNodeSize) {
          throw log.minNodeSizeMustBeLessOrEqualToMax(minNodeSize, maxNodeSize);
       }
+      int logAppenders = attributes.attribute(LOG_APPENDERS).get();
+      if (logAppenders <= 0) {
+         throw log.invalidLogAppenders(logAppenders);
+      }
       double compactionThreshold = attributes.attribute(COMPACTION_THRESHOLD).get();
       if (compactionThreshold <= 0 || compactionThreshold > 1) {
          throw log.invalidCompactionThreshold(compactionThreshold);
@@ -76,6 +76,9 @@ private void parseSoftIndexFileStore(XMLExtendedStreamReader reader, SoftIndexFi
             case COMPACTION_THRESHOLD:
                builder.compactionThreshold(Double.parseDouble(value));
                break;
+            case MEMORY_MAPPED:
+               builder.memoryMapped(Boolean.parseBoolean(value));
+               break;
             default:
                Parser.parseStoreAttribute(reader, i, builder);
                break;
@@ -114,6 +117,9 @@ private void parseData(XMLExtendedStreamReader reader, SoftIndexFileStoreConfigu
             case SYNC_WRITES:
                builder.syncWrites(Boolean.parseBoolean(value));
                break;
+            case LOG_APPENDERS:
+               builder.logAppenders(Integer.parseInt(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
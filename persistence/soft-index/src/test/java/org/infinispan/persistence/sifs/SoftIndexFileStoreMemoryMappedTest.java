@@ -0,0 +1,42 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import org.testng.annotations.Test;
+
+/**
+ * Runs the soft-index file store tests reading data and index files through memory mappings.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "persistence.SoftIndexFileStoreMemoryMappedTest")
+public class SoftIndexFileStoreMemoryMappedTest extends SoftIndexFileStoreTest {
+
+   public SoftIndexFileStoreMemoryMappedTest() {
+      memoryMapped = true;
+   }
+
+   public void testLoadAfterRestart() {
+      int numEntries = 1000;
+      for (int i = 0; i < numEntries; ++i) {
+         store.write(marshalledEntry(internalCacheEntry("key" + i, "value" + i, -1)));
+      }
+      keepIndex = true;
+      try {
+         store.stop();
+         store.start();
+      } finally {
+         keepIndex = false;
+      }
+      // all data files are sealed now, so every load goes through a mapping
+      for (int i = 0; i < numEntries; ++i) {
+         assertEquals("value" + i, store.load("key" + i).getValue());
+      }
+      for (int i = 0; i < numEntries; i += 2) {
+         store.write(marshalledEntry(internalCacheEntry("key" + i, "other" + i, -1)));
+      }
+      for (int i = 0; i < numEntries; ++i) {
+         assertEquals((i % 2 == 0 ? "other" : "value") + i, store.load("key" + i).getValue());
+      }
+   }
+}
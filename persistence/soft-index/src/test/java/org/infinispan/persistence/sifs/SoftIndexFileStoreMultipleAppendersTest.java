@@ -0,0 +1,68 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+/**
+ * Runs the soft-index file store tests with several log appenders writing concurrently.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "persistence.SoftIndexFileStoreMultipleAppendersTest")
+public class SoftIndexFileStoreMultipleAppendersTest extends SoftIndexFileStoreTest {
+
+   public SoftIndexFileStoreMultipleAppendersTest() {
+      logAppenders = 4;
+   }
+
+   public void testConcurrentWrites() throws Exception {
+      int threads = 4;
+      int keysPerThread = 500;
+      List<Future<?>> futures = new ArrayList<>(threads);
+      for (int t = 0; t < threads; ++t) {
+         int thread = t;
+         futures.add(fork(() -> {
+            for (int round = 0; round < 3; ++round) {
+               for (int i = 0; i < keysPerThread; ++i) {
+                  String key = "key-" + thread + "-" + i;
+                  store.write(marshalledEntry(internalCacheEntry(key, "value" + round, -1)));
+                  assertEquals("value" + round, store.load(key).getValue());
+               }
+            }
+            for (int i = 0; i < keysPerThread; i += 2) {
+               store.delete("key-" + thread + "-" + i);
+            }
+         }));
+      }
+      for (Future<?> future : futures) {
+         future.get(1, TimeUnit.MINUTES);
+      }
+
+      assertEquals(threads * keysPerThread / 2, store.size());
+      keepIndex = true;
+      try {
+         store.stop();
+         store.start();
+      } finally {
+         keepIndex = false;
+      }
+      assertEquals(threads * keysPerThread / 2, store.size());
+      for (int t = 0; t < threads; ++t) {
+         for (int i = 0; i < keysPerThread; ++i) {
+            String key = "key-" + t + "-" + i;
+            if (i % 2 == 0) {
+               assertNull(store.load(key));
+            } else {
+               assertEquals("value2", store.load(key).getValue());
+            }
+         }
+      }
+   }
+}
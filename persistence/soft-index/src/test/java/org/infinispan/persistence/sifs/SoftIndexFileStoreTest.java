@@ -37,6 +37,8 @@ public class SoftIndexFileStoreTest extends BaseStoreTest {
    String tmpDirectory;
    boolean startIndex = true;
    boolean keepIndex = false;
+   boolean memoryMapped = false;
+   int logAppenders = 1;
 
    @BeforeClass
    protected void setUpTempDir() {
@@ -87,7 +89,9 @@ public void stop() {
       builder.persistence()
                .addStore(SoftIndexFileStoreConfigurationBuilder.class)
                   .indexLocation(tmpDirectory).dataLocation(tmpDirectory + "/data")
-                  .maxFileSize(1000);
+                  .maxFileSize(1000)
+                  .memoryMapped(memoryMapped)
+                  .logAppenders(logAppenders);
 
       store.init(createContext(builder.build()));
       return store;
@@ -0,0 +1,44 @@
+package org.infinispan.persistence.sifs.configuration;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.List;
+
+import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "persistence.sifs.configuration.XmlFileParsingTest")
+public class XmlFileParsingTest extends AbstractInfinispanTest {
+   public static final String CACHE_LOADER_CONFIG = "sifs-config.xml";
+   private EmbeddedCacheManager cacheManager;
+
+   @AfterMethod
+   public void cleanup() {
+      TestingUtil.killCacheManagers(cacheManager);
+   }
+
+   public void testSoftIndexFileStore() throws Exception {
+      cacheManager = TestCacheManagerFactory.fromXml(CACHE_LOADER_CONFIG);
+      List<StoreConfiguration> cacheLoaders = cacheManager.getDefaultCacheConfiguration().persistence().stores();
+      assertEquals(1, cacheLoaders.size());
+      SoftIndexFileStoreConfiguration store = (SoftIndexFileStoreConfiguration) cacheLoaders.get(0);
+      assertEquals(0.5, store.compactionThreshold(), 0.0);
+      assertEquals(1000, store.openFilesLimit());
+      assertTrue(store.memoryMapped());
+      assertEquals("/tmp/sifs/testCache/index", store.indexLocation());
+      assertEquals(3, store.indexSegments());
+      assertEquals(4096, store.maxNodeSize());
+      assertEquals(4096, store.minNodeSize());
+      assertEquals(1000, store.indexQueueLength());
+      assertEquals("/tmp/sifs/testCache/data", store.dataLocation());
+      assertEquals(1678, store.maxFileSize());
+      assertTrue(store.syncWrites());
+      assertEquals(4, store.logAppenders());
+   }
+}